@@ -18,6 +18,8 @@ package twitter4j;
 import twitter4j.api.*;
 import twitter4j.auth.OAuthSupport;
 
+import java.util.concurrent.Executor;
+
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.2.0
@@ -54,4 +56,25 @@ public interface AsyncTwitter extends java.io.Serializable,
      * @param listener TwitterListener
      */
     void addListener(TwitterListener listener);
+
+    /**
+     * Runs the given call on the dispatcher and returns its future.<br>
+     * Unlike the listener based methods, the result is delivered only to the returned future, which allows dependent calls to be chained with {@link TwitterFuture#then(TwitterContinuation)}.
+     *
+     * @param call the call
+     * @return future of the call
+     * @since Twitter4J 2.2.1
+     */
+    <V> TwitterFuture<V> submit(TwitterCall<V> call);
+
+    /**
+     * Runs the given call on the given executor and returns its future.<br>
+     * Calls chained to the returned future run on the dispatcher unless an executor is specified.
+     *
+     * @param call     the call
+     * @param executor executor running the call
+     * @return future of the call
+     * @since Twitter4J 2.2.1
+     */
+    <V> TwitterFuture<V> submit(TwitterCall<V> call, Executor executor);
 }
@@ -22,12 +22,15 @@ import twitter4j.auth.RequestToken;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.async.Dispatcher;
 import twitter4j.internal.async.DispatcherFactory;
+import twitter4j.internal.http.HttpResponseEvent;
+import twitter4j.internal.http.HttpResponseListener;
 
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static twitter4j.TwitterMethod.*;
 
@@ -67,6 +70,26 @@ class AsyncTwitterImpl extends TwitterBaseImpl
         this.listeners.add(listener);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public <V> TwitterFuture<V> submit(TwitterCall<V> call) {
+        return submit(call, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <V> TwitterFuture<V> submit(TwitterCall<V> call, Executor executor) {
+        TwitterFutureImpl<V> future = new TwitterFutureImpl<V>(twitter, new Executor() {
+            public void execute(Runnable task) {
+                getDispatcher().invokeLater(task);
+            }
+        });
+        future.execute(call, executor);
+        return future;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -231,9 +254,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void getHomeTimeline() {
-        getDispatcher().invokeLater(new AsyncTask(HOME_TIMELINE, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                ResponseList<Status> statuses = twitter.getHomeTimeline();
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<Status>>(HOME_TIMELINE, listeners) {
+            TwitterImpl.Call<ResponseList<Status>> call() {
+                return ((TwitterImpl) twitter).getHomeTimelineCall();
+            }
+
+            void completed(ResponseList<Status> statuses, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotHomeTimeline(statuses);
@@ -248,9 +274,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void getHomeTimeline(final Paging paging) {
-        getDispatcher().invokeLater(new AsyncTask(HOME_TIMELINE, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                ResponseList<Status> statuses = twitter.getHomeTimeline(paging);
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<Status>>(HOME_TIMELINE, listeners) {
+            TwitterImpl.Call<ResponseList<Status>> call() {
+                return ((TwitterImpl) twitter).getHomeTimelineCall(paging);
+            }
+
+            void completed(ResponseList<Status> statuses, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotHomeTimeline(statuses);
@@ -299,11 +328,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void getUserTimeline(final String screenName, final Paging paging) {
-        getDispatcher().invokeLater(new AsyncTask(USER_TIMELINE, listeners) {
-            public void invoke(List<TwitterListener> listeners)
-                    throws TwitterException {
-                ResponseList<Status> statuses = twitter.getUserTimeline(screenName,
-                        paging);
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<Status>>(USER_TIMELINE, listeners) {
+            TwitterImpl.Call<ResponseList<Status>> call() {
+                return ((TwitterImpl) twitter).getUserTimelineCall(screenName, paging);
+            }
+
+            void completed(ResponseList<Status> statuses, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotUserTimeline(statuses);
@@ -318,10 +348,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void getUserTimeline(final long userId, final Paging paging) {
-        getDispatcher().invokeLater(new AsyncTask(USER_TIMELINE, listeners) {
-            public void invoke(List<TwitterListener> listeners)
-                    throws TwitterException {
-                ResponseList<Status> statuses = twitter.getUserTimeline(userId, paging);
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<Status>>(USER_TIMELINE, listeners) {
+            TwitterImpl.Call<ResponseList<Status>> call() {
+                return ((TwitterImpl) twitter).getUserTimelineCall(userId, paging);
+            }
+
+            void completed(ResponseList<Status> statuses, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotUserTimeline(statuses);
@@ -336,10 +368,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void getUserTimeline(final Paging paging) {
-        getDispatcher().invokeLater(new AsyncTask(USER_TIMELINE, listeners) {
-            public void invoke(List<TwitterListener> listeners)
-                    throws TwitterException {
-                ResponseList<Status> statuses = twitter.getUserTimeline(paging);
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<Status>>(USER_TIMELINE, listeners) {
+            TwitterImpl.Call<ResponseList<Status>> call() {
+                return ((TwitterImpl) twitter).getUserTimelineCall(paging);
+            }
+
+            void completed(ResponseList<Status> statuses, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotUserTimeline(statuses);
@@ -368,9 +402,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void getUserTimeline() {
-        getDispatcher().invokeLater(new AsyncTask(USER_TIMELINE, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                ResponseList<Status> statuses = twitter.getUserTimeline();
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<Status>>(USER_TIMELINE, listeners) {
+            TwitterImpl.Call<ResponseList<Status>> call() {
+                return ((TwitterImpl) twitter).getUserTimelineCall(new Paging());
+            }
+
+            void completed(ResponseList<Status> statuses, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotUserTimeline(statuses);
@@ -589,9 +626,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void showStatus(final long id) {
-        getDispatcher().invokeLater(new AsyncTask(SHOW_STATUS, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                Status status = twitter.showStatus(id);
+        getDispatcher().invokeLater(new AsyncCallTask<Status>(SHOW_STATUS, listeners) {
+            TwitterImpl.Call<Status> call() {
+                return ((TwitterImpl) twitter).showStatusCall(id);
+            }
+
+            void completed(Status status, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotShowStatus(status);
@@ -606,9 +646,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void updateStatus(final String statusText) {
-        getDispatcher().invokeLater(new AsyncTask(UPDATE_STATUS, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                Status status = twitter.updateStatus(statusText);
+        getDispatcher().invokeLater(new AsyncCallTask<Status>(UPDATE_STATUS, listeners) {
+            TwitterImpl.Call<Status> call() {
+                return ((TwitterImpl) twitter).updateStatusCall(statusText);
+            }
+
+            void completed(Status status, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.updatedStatus(status);
@@ -623,9 +666,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void updateStatus(final StatusUpdate latestStatus) {
-        getDispatcher().invokeLater(new AsyncTask(UPDATE_STATUS, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                Status status = twitter.updateStatus(latestStatus);
+        getDispatcher().invokeLater(new AsyncCallTask<Status>(UPDATE_STATUS, listeners) {
+            TwitterImpl.Call<Status> call() {
+                return ((TwitterImpl) twitter).updateStatusCall(latestStatus);
+            }
+
+            void completed(Status status, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.updatedStatus(status);
@@ -727,9 +773,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void showUser(final String screenName) {
-        getDispatcher().invokeLater(new AsyncTask(SHOW_USER, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                User user = twitter.showUser(screenName);
+        getDispatcher().invokeLater(new AsyncCallTask<User>(SHOW_USER, listeners) {
+            TwitterImpl.Call<User> call() {
+                return ((TwitterImpl) twitter).showUserCall(screenName);
+            }
+
+            void completed(User user, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotUserDetail(user);
@@ -744,9 +793,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void showUser(final long userId) {
-        getDispatcher().invokeLater(new AsyncTask(SHOW_USER, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                User user = twitter.showUser(userId);
+        getDispatcher().invokeLater(new AsyncCallTask<User>(SHOW_USER, listeners) {
+            TwitterImpl.Call<User> call() {
+                return ((TwitterImpl) twitter).showUserCall(userId);
+            }
+
+            void completed(User user, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.gotUserDetail(user);
@@ -761,9 +813,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void lookupUsers(final String[] screenNames) {
-        getDispatcher().invokeLater(new AsyncTask(LOOKUP_USERS, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                ResponseList<User> users = twitter.lookupUsers(screenNames);
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<User>>(LOOKUP_USERS, listeners) {
+            TwitterImpl.Call<ResponseList<User>> call() {
+                return ((TwitterImpl) twitter).lookupUsersCall(screenNames);
+            }
+
+            void completed(ResponseList<User> users, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.lookedupUsers(users);
@@ -778,9 +833,12 @@ class AsyncTwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public void lookupUsers(final long[] ids) {
-        getDispatcher().invokeLater(new AsyncTask(LOOKUP_USERS, listeners) {
-            public void invoke(List<TwitterListener> listeners) throws TwitterException {
-                ResponseList<User> users = twitter.lookupUsers(ids);
+        getDispatcher().invokeLater(new AsyncCallTask<ResponseList<User>>(LOOKUP_USERS, listeners) {
+            TwitterImpl.Call<ResponseList<User>> call() {
+                return ((TwitterImpl) twitter).lookupUsersCall(ids);
+            }
+
+            void completed(ResponseList<User> users, List<TwitterListener> listeners) {
                 for (TwitterListener listener : listeners) {
                     try {
                         listener.lookedupUsers(users);
@@ -2748,18 +2806,66 @@ class AsyncTwitterImpl extends TwitterBaseImpl
             try {
                 invoke(listeners);
             } catch (TwitterException te) {
-                if (null != listeners) {
-                    for (TwitterListener listener : listeners) {
-                        try {
-                            listener.onException(te, method);
-                        } catch (Exception ignore) {
-                        }
+                onException(te);
+            }
+        }
+
+        void onException(TwitterException te) {
+            if (null != listeners) {
+                for (TwitterListener listener : listeners) {
+                    try {
+                        listener.onException(te, method);
+                    } catch (Exception ignore) {
                     }
                 }
             }
         }
     }
 
+    /**
+     * A task made of a single API call, which doesn't hold a dispatcher thread while its request is in flight when
+     * http.nio is enabled. The response is handed back to the dispatcher, where it is parsed and the listeners are
+     * notified.
+     *
+     * @param <T> type of the result
+     */
+    abstract class AsyncCallTask<T> extends AsyncTask implements HttpResponseListener {
+        private TwitterImpl.Call<T> call;
+
+        AsyncCallTask(TwitterMethod method, List<TwitterListener> listeners) {
+            super(method, listeners);
+        }
+
+        abstract TwitterImpl.Call<T> call();
+
+        abstract void completed(T result, List<TwitterListener> listeners);
+
+        final void invoke(List<TwitterListener> listeners) throws TwitterException {
+            call = call();
+            T result = call.getCached();
+            if (null != result) {
+                completed(result, listeners);
+                return;
+            }
+            call.send(new Executor() {
+                public void execute(Runnable task) {
+                    getDispatcher().invokeLater(task);
+                }
+            }, this);
+        }
+
+        public void httpResponseReceived(HttpResponseEvent event) {
+            try {
+                if (null != event.getTwitterException()) {
+                    throw event.getTwitterException();
+                }
+                completed(call.parse(event.getResponse()), listeners);
+            } catch (TwitterException te) {
+                onException(te);
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * A call depending on the result of a previous call, chained by {@link TwitterFuture#then(TwitterContinuation)}.
+ *
+ * @param <T> type of the previous result
+ * @param <V> type of the result
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public interface TwitterContinuation<T, V> {
+    /**
+     * @param twitter  the Twitter instance backing the AsyncTwitter instance
+     * @param previous result of the previous call
+     * @return the result
+     * @throws TwitterException when the call fails
+     */
+    V call(Twitter twitter, T previous) throws TwitterException;
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * Result of a call submitted to {@link AsyncTwitter#submit(TwitterCall)}.<br>
+ * Dependent calls can be chained with {@link #then(TwitterContinuation)} so that they run once this one completes,
+ * without blocking a thread waiting on {@link #get()}.
+ *
+ * @param <V> type of the result
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public interface TwitterFuture<V> extends Future<V> {
+    /**
+     * Adds a listener notified once the call completes.<br>
+     * The listener is invoked on the thread completing the call, or immediately on the calling thread if the call has already completed.
+     *
+     * @param listener listener
+     */
+    void addListener(TwitterFutureListener<? super V> listener);
+
+    /**
+     * Chains a call run on the dispatcher with the result of this call.<br>
+     * If this call fails or is cancelled, the returned future fails with the same exception.
+     *
+     * @param continuation the dependent call
+     * @return future of the dependent call
+     */
+    <R> TwitterFuture<R> then(TwitterContinuation<? super V, R> continuation);
+
+    /**
+     * Chains a call run on the given executor with the result of this call.
+     *
+     * @param continuation the dependent call
+     * @param executor     executor running the dependent call
+     * @return future of the dependent call
+     */
+    <R> TwitterFuture<R> then(TwitterContinuation<? super V, R> continuation, Executor executor);
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class TwitterFutureImpl<V> implements TwitterFuture<V> {
+    private final Twitter twitter;
+    private final Executor defaultExecutor;
+    private List<TwitterFutureListener<? super V>> listeners = new ArrayList<TwitterFutureListener<? super V>>();
+    private boolean done = false;
+    private boolean cancelled = false;
+    private V result;
+    private TwitterException exception;
+    private Thread runner;
+
+    /*package*/
+    TwitterFutureImpl(Twitter twitter, Executor defaultExecutor) {
+        this.twitter = twitter;
+        this.defaultExecutor = defaultExecutor;
+    }
+
+    /**
+     * Schedules the call on the given executor, or on the default executor if null.
+     */
+    /*package*/ void execute(final TwitterCall<V> call, Executor executor) {
+        Runnable task = new Runnable() {
+            public void run() {
+                synchronized (TwitterFutureImpl.this) {
+                    if (done) {
+                        // cancelled before it got scheduled
+                        return;
+                    }
+                    runner = Thread.currentThread();
+                }
+                try {
+                    complete(call.call(twitter), null);
+                } catch (TwitterException te) {
+                    complete(null, te);
+                } catch (RuntimeException re) {
+                    complete(null, new TwitterException(re.getMessage(), re));
+                } finally {
+                    synchronized (TwitterFutureImpl.this) {
+                        runner = null;
+                        if (cancelled) {
+                            // don't leak the interrupt to the next task of a pooled thread
+                            Thread.interrupted();
+                        }
+                    }
+                }
+            }
+        };
+        try {
+            (null != executor ? executor : defaultExecutor).execute(task);
+        } catch (RejectedExecutionException ree) {
+            complete(null, new TwitterException(ree.getMessage(), ree));
+        }
+    }
+
+    private void complete(V result, TwitterException exception) {
+        List<TwitterFutureListener<? super V>> toNotify;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            this.result = result;
+            this.exception = exception;
+            done = true;
+            toNotify = listeners;
+            listeners = null;
+            notifyAll();
+        }
+        for (TwitterFutureListener<? super V> listener : toNotify) {
+            notify(listener);
+        }
+    }
+
+    private void notify(TwitterFutureListener<? super V> listener) {
+        try {
+            if (null == exception) {
+                listener.onComplete(result);
+            } else {
+                listener.onException(exception);
+            }
+        } catch (Exception ignore) {
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addListener(TwitterFutureListener<? super V> listener) {
+        synchronized (this) {
+            if (!done) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        notify(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <R> TwitterFuture<R> then(TwitterContinuation<? super V, R> continuation) {
+        return then(continuation, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <R> TwitterFuture<R> then(final TwitterContinuation<? super V, R> continuation, final Executor executor) {
+        final TwitterFutureImpl<R> next = new TwitterFutureImpl<R>(twitter, defaultExecutor);
+        addListener(new TwitterFutureListener<V>() {
+            public void onComplete(final V previous) {
+                next.execute(new TwitterCall<R>() {
+                    public R call(Twitter twitter) throws TwitterException {
+                        return continuation.call(twitter, previous);
+                    }
+                }, executor);
+            }
+
+            public void onException(TwitterException te) {
+                next.complete(null, te);
+            }
+        });
+        return next;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            if (mayInterruptIfRunning && null != runner) {
+                runner.interrupt();
+            }
+        }
+        complete(null, new TwitterException("cancelled", new CancellationException()));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized V get() throws InterruptedException, ExecutionException {
+        while (!done) {
+            wait();
+        }
+        return getResult();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException
+            , TimeoutException {
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        while (!done) {
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0) {
+                throw new TimeoutException();
+            }
+            wait(wait);
+        }
+        return getResult();
+    }
+
+    private V getResult() throws ExecutionException {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        if (null != exception) {
+            throw new ExecutionException(exception);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TwitterFutureImpl{" +
+                "done=" + done +
+                ", cancelled=" + cancelled +
+                ", result=" + result +
+                ", exception=" + exception +
+                '}';
+    }
+}
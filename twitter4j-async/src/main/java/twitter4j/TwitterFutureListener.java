@@ -0,0 +1,36 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * Receives the outcome of a {@link TwitterFuture}.
+ *
+ * @param <V> type of the result
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public interface TwitterFutureListener<V> {
+    /**
+     * @param result result of the call
+     */
+    void onComplete(V result);
+
+    /**
+     * @param te the exception thrown by the call, or wrapping the cause of the failure
+     */
+    void onException(TwitterException te);
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class TwitterFutureTest extends TestCase {
+    public TwitterFutureTest(String name) {
+        super(name);
+    }
+
+    private AsyncTwitter async;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        async = new AsyncTwitterFactory().getInstance();
+    }
+
+    public void testSubmit() throws Exception {
+        TwitterFuture<String> future = async.submit(new TwitterCall<String>() {
+            public String call(Twitter twitter) throws TwitterException {
+                assertNotNull(twitter);
+                return "done";
+            }
+        });
+        assertEquals("done", future.get(5, TimeUnit.SECONDS));
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+    }
+
+    public void testThen() throws Exception {
+        TwitterFuture<Integer> future = async.submit(new TwitterCall<Integer>() {
+            public Integer call(Twitter twitter) throws TwitterException {
+                return 1;
+            }
+        }).then(new TwitterContinuation<Integer, Integer>() {
+            public Integer call(Twitter twitter, Integer previous) throws TwitterException {
+                return previous + 1;
+            }
+        }).then(new TwitterContinuation<Integer, Integer>() {
+            public Integer call(Twitter twitter, Integer previous) throws TwitterException {
+                return previous * 10;
+            }
+        });
+        assertEquals(20, (int) future.get(5, TimeUnit.SECONDS));
+    }
+
+    public void testExceptionPropagates() throws Exception {
+        final AtomicInteger invoked = new AtomicInteger();
+        TwitterFuture<String> future = async.submit(new TwitterCall<String>() {
+            public String call(Twitter twitter) throws TwitterException {
+                throw new TwitterException("failed");
+            }
+        }).then(new TwitterContinuation<String, String>() {
+            public String call(Twitter twitter, String previous) throws TwitterException {
+                invoked.incrementAndGet();
+                return previous;
+            }
+        });
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expecting ExecutionException");
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause() instanceof TwitterException);
+            assertEquals("failed", ee.getCause().getMessage());
+        }
+        assertEquals(0, invoked.get());
+
+        final AtomicReference<TwitterException> received = new AtomicReference<TwitterException>();
+        future.addListener(new TwitterFutureListener<String>() {
+            public void onComplete(String result) {
+            }
+
+            public void onException(TwitterException te) {
+                received.set(te);
+            }
+        });
+        // already completed. notified on this thread
+        assertEquals("failed", received.get().getMessage());
+    }
+
+    public void testRuntimeExceptionIsWrapped() throws Exception {
+        TwitterFuture<String> future = async.submit(new TwitterCall<String>() {
+            public String call(Twitter twitter) throws TwitterException {
+                throw new IllegalStateException("unexpected");
+            }
+        });
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("expecting ExecutionException");
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause().getCause() instanceof IllegalStateException);
+        }
+    }
+
+    public void testCallerExecutor() throws Exception {
+        final AtomicInteger executed = new AtomicInteger();
+        Executor executor = new Executor() {
+            public void execute(Runnable command) {
+                executed.incrementAndGet();
+                command.run();
+            }
+        };
+        TwitterFuture<Thread> future = async.submit(new TwitterCall<Thread>() {
+            public Thread call(Twitter twitter) throws TwitterException {
+                return Thread.currentThread();
+            }
+        }, executor);
+        // the direct executor ran it on this thread
+        assertTrue(future.isDone());
+        assertSame(Thread.currentThread(), future.get());
+
+        TwitterFuture<Thread> next = future.then(new TwitterContinuation<Thread, Thread>() {
+            public Thread call(Twitter twitter, Thread previous) throws TwitterException {
+                return Thread.currentThread();
+            }
+        });
+        // chained calls go back to the dispatcher unless told otherwise
+        assertNotSame(Thread.currentThread(), next.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executed.get());
+    }
+
+    public void testCancel() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        TwitterFuture<String> future = async.submit(new TwitterCall<String>() {
+            public String call(Twitter twitter) throws TwitterException {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException ie) {
+                    interrupted.countDown();
+                }
+                return "not cancelled";
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(future.cancel(true));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+        assertFalse(future.cancel(true));
+        try {
+            future.get();
+            fail("expecting CancellationException");
+        } catch (CancellationException expected) {
+        }
+    }
+}
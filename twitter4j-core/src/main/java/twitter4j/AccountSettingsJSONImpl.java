@@ -63,7 +63,7 @@ class AccountSettingsJSONImpl extends TwitterResponseImpl implements AccountSett
         this(res, res.asJSONObject());
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, res.asJSONObject());
+            DataObjectFactoryUtil.registerJSONObject(this, res.asJSONObject(), conf);
         }
     }
 
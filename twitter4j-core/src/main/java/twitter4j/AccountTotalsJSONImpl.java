@@ -47,7 +47,7 @@ class AccountTotalsJSONImpl extends TwitterResponseImpl implements AccountTotals
         this(res, res.asJSONObject());
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, res.asJSONObject());
+            DataObjectFactoryUtil.registerJSONObject(this, res.asJSONObject(), conf);
         }
     }
 
@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
+import twitter4j.internal.json.RawJSONHolder;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
@@ -28,11 +29,12 @@ import twitter4j.internal.util.ParseUtil;
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.1.1
  */
-final class CategoryJSONImpl implements Category, java.io.Serializable {
+final class CategoryJSONImpl implements Category, java.io.Serializable, RawJSONHolder {
 
     private String name;
     private String slug;
     private int size;
+    private transient byte[] rawJSON = null;
     private static final long serialVersionUID = -6703617743623288566L;
 
     CategoryJSONImpl(JSONObject json) throws JSONException {
@@ -61,11 +63,11 @@ final class CategoryJSONImpl implements Category, java.io.Serializable {
                 Category category = new CategoryJSONImpl(json);
                 categories.add(category);
                 if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(category, json);
+                    DataObjectFactoryUtil.registerJSONObject(category, json, conf);
                 }
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(categories, array);
+                DataObjectFactoryUtil.registerJSONObject(categories, array, conf);
             }
             return categories;
         } catch (JSONException jsone) {
@@ -89,6 +91,20 @@ final class CategoryJSONImpl implements Category, java.io.Serializable {
         return size;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] getRawJSONBytes() {
+        return rawJSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setRawJSONBytes(byte[] rawJSON) {
+        this.rawJSON = rawJSON;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
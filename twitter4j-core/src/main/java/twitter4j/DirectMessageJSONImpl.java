@@ -51,7 +51,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
         init(json);
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+            DataObjectFactoryUtil.registerJSONObject(this, json, conf);
         }
     }
 
@@ -156,11 +156,11 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
                 DirectMessage directMessage = new DirectMessageJSONImpl(json);
                 directMessages.add(directMessage);
                 if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(directMessage, json);
+                    DataObjectFactoryUtil.registerJSONObject(directMessage, json, conf);
                 }
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(directMessages, list);
+                DataObjectFactoryUtil.registerJSONObject(directMessages, list, conf);
             }
             return directMessages;
         } catch (JSONException jsone) {
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.conf.Configuration;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded in-memory cache of users and statuses, enabled with entityCacheEnabled.<br>
+ * Users are looked up by id or screen name, statuses by id. Entries expire after entityCacheTTLSecs seconds, and the
+ * least recently used ones are evicted once more than entityCacheMaxSize users or statuses are held.<br>
+ * Users are cached per Twitter instance, since some of their properties depend on the authenticating user.<br>
+ * Cached users and statuses return null from getRateLimitStatus(), since no request is made to look them up.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see Twitter#getEntityCache()
+ * @since Twitter4J 2.2.1
+ */
+public final class EntityCache {
+    private final int maxSize;
+    private final long ttl;
+    private final Map<Long, CacheEntry<User>> users;
+    // lower-cased screen name to user id
+    private final Map<String, Long> screenNames = new HashMap<String, Long>();
+    private final Map<Long, CacheEntry<Status>> statuses;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /*package*/ EntityCache(Configuration conf) {
+        this(conf.getEntityCacheMaxSize(), conf.getEntityCacheTTLSecs() * 1000L);
+    }
+
+    /*package*/ EntityCache(int maxSize, long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        users = new LinkedHashMap<Long, CacheEntry<User>>(16, 0.75f, true) {
+            private static final long serialVersionUID = -5427693127430474478L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CacheEntry<User>> eldest) {
+                if (size() > EntityCache.this.maxSize) {
+                    removeScreenName(eldest.getValue().entity);
+                    return true;
+                }
+                return false;
+            }
+        };
+        statuses = new LinkedHashMap<Long, CacheEntry<Status>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 2929542196547226404L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CacheEntry<Status>> eldest) {
+                return size() > EntityCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached user.
+     *
+     * @param userId user id
+     * @return the user, or null if not cached or expired
+     */
+    public synchronized User getUser(long userId) {
+        return get(users, userId);
+    }
+
+    /**
+     * Returns the cached user.
+     *
+     * @param screenName screen name, case-insensitive
+     * @return the user, or null if not cached or expired
+     */
+    public synchronized User getUser(String screenName) {
+        Long userId = screenNames.get(screenName.toLowerCase());
+        if (null == userId) {
+            missCount++;
+            return null;
+        }
+        return get(users, userId);
+    }
+
+    /**
+     * Returns the cached status.
+     *
+     * @param statusId status id
+     * @return the status, or null if not cached or expired
+     */
+    public synchronized Status getStatus(long statusId) {
+        return get(statuses, statusId);
+    }
+
+    /**
+     * Removes the user, for example when the profile has been updated.
+     *
+     * @param userId user id
+     */
+    public synchronized void invalidateUser(long userId) {
+        CacheEntry<User> entry = users.remove(userId);
+        if (null != entry) {
+            removeScreenName(entry.entity);
+        }
+    }
+
+    /**
+     * Removes the status, for example when it has been deleted.
+     *
+     * @param statusId status id
+     */
+    public synchronized void invalidateStatus(long statusId) {
+        statuses.remove(statusId);
+    }
+
+    /**
+     * Removes all the users and statuses.
+     */
+    public synchronized void clear() {
+        users.clear();
+        screenNames.clear();
+        statuses.clear();
+    }
+
+    /**
+     * @return number of look ups answered from the cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of look ups not answered from the cache
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of users cached, including expired ones not evicted yet
+     */
+    public synchronized int getUserCount() {
+        return users.size();
+    }
+
+    /**
+     * @return number of statuses cached, including expired ones not evicted yet
+     */
+    public synchronized int getStatusCount() {
+        return statuses.size();
+    }
+
+    /*package*/ synchronized void put(User user) {
+        user = withoutRateLimitStatus(user);
+        CacheEntry<User> previous = users.put(user.getId(), new CacheEntry<User>(user, System.currentTimeMillis() + ttl));
+        if (null != previous) {
+            removeScreenName(previous.entity);
+        }
+        if (null != user.getScreenName()) {
+            screenNames.put(user.getScreenName().toLowerCase(), user.getId());
+        }
+    }
+
+    /*package*/ synchronized void put(Status status) {
+        status = withoutRateLimitStatus(status);
+        statuses.put(status.getId(), new CacheEntry<Status>(status, System.currentTimeMillis() + ttl));
+    }
+
+    /*package*/ void putUsers(List<User> users) {
+        for (User user : users) {
+            put(user);
+        }
+    }
+
+    /*package*/ void putStatuses(List<Status> statuses) {
+        for (Status status : statuses) {
+            put(status);
+        }
+    }
+
+    private <T> T get(Map<Long, CacheEntry<T>> entries, long id) {
+        CacheEntry<T> entry = entries.get(id);
+        if (null != entry && entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(id);
+            if (entry.entity instanceof User) {
+                removeScreenName((User) entry.entity);
+            }
+            entry = null;
+        }
+        if (null == entry) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.entity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T withoutRateLimitStatus(T entity) {
+        // the rate limit status belongs to the response the entity was read from
+        if (entity instanceof TwitterResponseImpl && null != ((TwitterResponseImpl) entity).getRateLimitStatus()) {
+            return (T) ((TwitterResponseImpl) entity).copyWithoutRateLimitStatus();
+        }
+        return entity;
+    }
+
+    private void removeScreenName(User user) {
+        if (null != user.getScreenName()) {
+            String screenName = user.getScreenName().toLowerCase();
+            Long userId = screenNames.get(screenName);
+            if (null != userId && user.getId() == userId) {
+                screenNames.remove(screenName);
+            }
+        }
+    }
+
+    private static final class CacheEntry<T> {
+        final T entity;
+        final long expiresAt;
+
+        CacheEntry(T entity, long expiresAt) {
+            this.entity = entity;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{" +
+                "maxSize=" + maxSize +
+                ", ttl=" + ttl +
+                ", userCount=" + getUserCount() +
+                ", statusCount=" + getStatusCount() +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                '}';
+    }
+}
@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
+import twitter4j.internal.json.RawJSONHolder;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
@@ -29,7 +30,8 @@ import static twitter4j.internal.util.ParseUtil.getInt;
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.1.9
  */
-class FriendshipJSONImpl implements Friendship {
+class FriendshipJSONImpl implements Friendship, RawJSONHolder {
+    private transient byte[] rawJSON = null;
     private static final long serialVersionUID = -7592213959077711096L;
     private final int id;
     private final String name;
@@ -70,12 +72,12 @@ class FriendshipJSONImpl implements Friendship {
                 JSONObject json = list.getJSONObject(i);
                 Friendship friendship = new FriendshipJSONImpl(json);
                 if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(friendship, json);
+                    DataObjectFactoryUtil.registerJSONObject(friendship, json, conf);
                 }
                 friendshipList.add(friendship);
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(friendshipList, list);
+                DataObjectFactoryUtil.registerJSONObject(friendshipList, list, conf);
             }
             return friendshipList;
         } catch (JSONException jsone) {
@@ -105,6 +107,20 @@ class FriendshipJSONImpl implements Friendship {
         return followedBy;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] getRawJSONBytes() {
+        return rawJSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setRawJSONBytes(byte[] rawJSON) {
+        this.rawJSON = rawJSON;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
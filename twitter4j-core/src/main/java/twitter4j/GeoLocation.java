@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 import twitter4j.internal.util.T4JInternalStringUtil;
 
 /**
@@ -67,6 +68,41 @@ public class GeoLocation implements java.io.Serializable {
         return null;
     }
 
+    /**
+     * returns a GeoLocation instance from the value of a "geo" element.
+     *
+     * @param reader JSONReader positioned at the value of a "geo" element
+     * @return GeoLocation instance, or null if the value is null
+     * @throws TwitterException when coordinates is not included in geo element (should be an API side issue)
+     */
+    /*package*/
+    static GeoLocation getInstance(JSONReader reader) throws TwitterException {
+        try {
+            if (JSONReader.Token.NULL == reader.peek()) {
+                reader.nextNull();
+                return null;
+            }
+            GeoLocation geoLocation = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("coordinates".equals(reader.nextName())) {
+                    reader.beginArray();
+                    geoLocation = new GeoLocation(reader.nextDouble(), reader.nextDouble());
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (null == geoLocation) {
+                throw new TwitterException("coordinates not found in geo element");
+            }
+            return geoLocation;
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
     /*package*/
     static GeoLocation[][] coordinatesAsGeoLocationArray(JSONArray coordinates) throws TwitterException {
         try {
@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 
 /**
  * A data class representing one single Hashtag entity.
@@ -52,6 +53,29 @@ import twitter4j.internal.org.json.JSONObject;
         }
     }
 
+    /* package */ HashtagEntityJSONImpl(JSONReader reader) throws TwitterException {
+        super();
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("indices".equals(name)) {
+                    reader.beginArray();
+                    this.start = reader.nextInt();
+                    this.end = reader.nextInt();
+                    reader.endArray();
+                } else if ("text".equals(name)) {
+                    this.text = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
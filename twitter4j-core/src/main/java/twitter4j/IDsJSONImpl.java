@@ -19,9 +19,8 @@ package twitter4j;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
-import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
-import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 import twitter4j.internal.util.ParseUtil;
 
 import java.util.Arrays;
@@ -40,51 +39,78 @@ import java.util.Arrays;
 
     /*package*/ IDsJSONImpl(HttpResponse res, Configuration conf) throws TwitterException {
         super(res);
-        String json = res.asString();
-        init(json);
-        if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+        if (!conf.isJSONStoreEnabled()) {
+            try {
+                init(new JSONReader(res.asReaderToParse()));
+            } finally {
+                res.parsed();
+            }
+            return;
+        }
+        String json;
+        try {
+            json = res.asStringToParse();
+            init(new JSONReader(json));
+        } finally {
+            res.parsed();
         }
+        DataObjectFactoryUtil.clearThreadLocalMap();
+        DataObjectFactoryUtil.registerJSONObject(this, json, conf);
     }
 
     /*package*/ IDsJSONImpl(String json) throws TwitterException {
-        init(json);
+        init(new JSONReader(json));
     }
 
-    private void init(String jsonStr) throws TwitterException {
-
-        JSONArray idList;
+    private void init(JSONReader reader) throws TwitterException {
+        // ids are scanned straight into a long[]. a page may contain 5000 ids and building a JSONArray of them
+        // would cost a String per id
         try {
-            if (jsonStr.startsWith("{")) {
-                JSONObject json = new JSONObject(jsonStr);
-                idList = json.getJSONArray("ids");
-                ids = new long[idList.length()];
-                for (int i = 0; i < idList.length(); i++) {
-                    try {
-                        ids[i] = Long.parseLong(idList.getString(i));
-                    } catch (NumberFormatException nfe) {
-                        throw new TwitterException("Twitter API returned malformed response: " + json, nfe);
+            if (JSONReader.Token.BEGIN_OBJECT == reader.peek()) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if ("ids".equals(name)) {
+                        ids = readIDs(reader);
+                    } else if ("previous_cursor".equals(name)) {
+                        previousCursor = ParseUtil.getLong(reader);
+                    } else if ("next_cursor".equals(name)) {
+                        nextCursor = ParseUtil.getLong(reader);
+                    } else {
+                        reader.skipValue();
                     }
                 }
-                previousCursor = ParseUtil.getLong("previous_cursor", json);
-                nextCursor = ParseUtil.getLong("next_cursor", json);
-            } else {
-                idList = new JSONArray(jsonStr);
-                ids = new long[idList.length()];
-                for (int i = 0; i < idList.length(); i++) {
-                    try {
-                        ids[i] = Long.parseLong(idList.getString(i));
-                    } catch (NumberFormatException nfe) {
-                        throw new TwitterException("Twitter API returned malformed response: " + idList, nfe);
-                    }
+                reader.endObject();
+                if (null == ids) {
+                    throw new TwitterException("Twitter API returned malformed response: ids are missing");
                 }
+            } else {
+                ids = readIDs(reader);
             }
         } catch (JSONException jsone) {
-            throw new TwitterException(jsone);
+            throw new TwitterException("Twitter API returned malformed response", jsone);
         }
+    }
 
-
+    private static long[] readIDs(JSONReader reader) throws JSONException {
+        long[] ids = new long[256];
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (size == ids.length) {
+                long[] grown = new long[ids.length * 2];
+                System.arraycopy(ids, 0, grown, 0, size);
+                ids = grown;
+            }
+            ids[size++] = reader.nextLong();
+        }
+        reader.endArray();
+        if (size == ids.length) {
+            return ids;
+        }
+        long[] trimmed = new long[size];
+        System.arraycopy(ids, 0, trimmed, 0, size);
+        return trimmed;
     }
 
     /**
@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
+import twitter4j.internal.json.RawJSONHolder;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
@@ -30,7 +31,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  */
-/*package*/ final class LocationJSONImpl implements Location {
+/*package*/ final class LocationJSONImpl implements Location, RawJSONHolder {
     private final int woeid;
     private final String countryName;
     private final String countryCode;
@@ -38,6 +39,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
     private final int placeCode;
     private final String name;
     private final String url;
+    private transient byte[] rawJSON = null;
     private static final long serialVersionUID = 7095092358530897222L;
 
     /*package*/ LocationJSONImpl(JSONObject location) throws TwitterException {
@@ -65,11 +67,13 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
         }
-        return createLocationList(res.asJSONArray(), conf.isJSONStoreEnabled());
+        return createLocationList(res.asJSONArray(), conf);
     }
 
     /*package*/
-    static ResponseList<Location> createLocationList(JSONArray list, boolean storeJSON) throws TwitterException {
+    static ResponseList<Location> createLocationList(JSONArray list, Configuration conf) throws TwitterException {
+        // conf is null when raw JSON forms don't need to be stored
+        boolean storeJSON = null != conf && conf.isJSONStoreEnabled();
         try {
             int size = list.length();
             ResponseList<Location> locations =
@@ -79,11 +83,11 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
                 Location location = new LocationJSONImpl(json);
                 locations.add(location);
                 if (storeJSON) {
-                    DataObjectFactoryUtil.registerJSONObject(location, json);
+                    DataObjectFactoryUtil.registerJSONObject(location, json, conf);
                 }
             }
             if(storeJSON){
-                DataObjectFactoryUtil.registerJSONObject(locations, list);
+                DataObjectFactoryUtil.registerJSONObject(locations, list, conf);
             }
             return locations;
         } catch (JSONException jsone) {
@@ -142,6 +146,20 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
         return url;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] getRawJSONBytes() {
+        return rawJSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setRawJSONBytes(byte[] rawJSON) {
+        this.rawJSON = rawJSON;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
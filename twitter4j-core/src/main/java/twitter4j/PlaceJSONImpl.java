@@ -54,7 +54,7 @@ final class PlaceJSONImpl extends TwitterResponseImpl implements Place, java.io.
         init(json);
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+            DataObjectFactoryUtil.registerJSONObject(this, json, conf);
         }
     }
 
@@ -155,11 +155,11 @@ final class PlaceJSONImpl extends TwitterResponseImpl implements Place, java.io.
                 Place place = new PlaceJSONImpl(json);
                 places.add(place);
                 if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(place, json);
+                    DataObjectFactoryUtil.registerJSONObject(place, json, conf);
                 }
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(places, list);
+                DataObjectFactoryUtil.registerJSONObject(places, list, conf);
             }
             return places;
         } catch (JSONException jsone) {
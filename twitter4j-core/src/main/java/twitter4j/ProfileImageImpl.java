@@ -18,6 +18,8 @@ package twitter4j;
 
 import twitter4j.internal.http.HttpResponse;
 
+import java.io.IOException;
+
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.1.7
@@ -29,6 +31,14 @@ class ProfileImageImpl extends TwitterResponseImpl implements ProfileImage {
     ProfileImageImpl(HttpResponse res) {
         super(res);
         url = res.getResponseHeader("Location");
+        if (null == url) {
+            // the HttpClient followed the redirect to the image itself
+            url = res.getURL();
+            try {
+                res.disconnect();
+            } catch (IOException ignore) {
+            }
+        }
     }
 
     public String getURL() {
@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
+import twitter4j.internal.json.RawJSONHolder;
 import twitter4j.internal.org.json.JSONObject;
 
 import java.util.Date;
@@ -32,13 +33,14 @@ import static twitter4j.internal.util.ParseUtil.getInt;
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @see <a href="http://dev.twitter.com/pages/rate-limiting">Rate Limiting | dev.twitter.com</a>
  */
-/*package*/ final class RateLimitStatusJSONImpl implements RateLimitStatus, java.io.Serializable {
+/*package*/ final class RateLimitStatusJSONImpl implements RateLimitStatus, java.io.Serializable, RawJSONHolder {
 
     private int remainingHits;
     private int hourlyLimit;
     private int resetTimeInSeconds;
     private int secondsUntilReset;
     private Date resetTime;
+    private transient byte[] rawJSON = null;
     private static final long serialVersionUID = 832355052293658614L;
 
     private RateLimitStatusJSONImpl(int hourlyLimit, int remainingHits, int resetTimeInSeconds, Date resetTime) {
@@ -54,7 +56,7 @@ import static twitter4j.internal.util.ParseUtil.getInt;
         init(json);
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+            DataObjectFactoryUtil.registerJSONObject(this, json, conf);
         }
     }
 
@@ -169,6 +171,20 @@ import static twitter4j.internal.util.ParseUtil.getInt;
         return resetTime;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] getRawJSONBytes() {
+        return rawJSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setRawJSONBytes(byte[] rawJSON) {
+        this.rawJSON = rawJSON;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
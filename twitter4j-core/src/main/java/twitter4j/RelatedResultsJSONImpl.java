@@ -46,16 +46,18 @@ import java.util.Map;
             DataObjectFactoryUtil.clearThreadLocalMap();
         }
         JSONArray jsonArray = res.asJSONArray();
-        init(jsonArray, res, conf.isJSONStoreEnabled());
+        init(jsonArray, res, conf);
     }
 
     /* package */ RelatedResultsJSONImpl(JSONArray jsonArray) throws TwitterException {
         super();
-        init(jsonArray, null, false);
+        init(jsonArray, null, null);
 
     }
 
-    private void init(JSONArray jsonArray, HttpResponse res, boolean registerRawJSON) throws TwitterException {
+    private void init(JSONArray jsonArray, HttpResponse res, Configuration conf) throws TwitterException {
+        // conf is null when raw JSON forms don't need to be stored
+        boolean registerRawJSON = null != conf && conf.isJSONStoreEnabled();
         tweetsMap = new HashMap<String, ResponseList<Status>>(2);
         try {
             for (int i = 0, listLen = jsonArray.length(); i < listLen; ++i) {
@@ -81,12 +83,12 @@ import java.util.Map;
                     JSONObject json = results.getJSONObject(j).getJSONObject("value");
                     Status status = new StatusJSONImpl(json);
                     if (registerRawJSON) {
-                        DataObjectFactoryUtil.registerJSONObject(status, json);
+                        DataObjectFactoryUtil.registerJSONObject(status, json, conf);
                     }
                     statuses.add(status);
                 }
                 if (registerRawJSON) {
-                    DataObjectFactoryUtil.registerJSONObject(statuses, results);
+                    DataObjectFactoryUtil.registerJSONObject(statuses, results, conf);
                 }
             }
         } catch (JSONException jsone) {
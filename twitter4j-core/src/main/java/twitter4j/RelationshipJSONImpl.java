@@ -50,7 +50,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
         this(res, res.asJSONObject());
         if(conf.isJSONStoreEnabled()){
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, res.asJSONObject());
+            DataObjectFactoryUtil.registerJSONObject(this, res.asJSONObject(), conf);
         }
     }
 
@@ -90,12 +90,12 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
                 JSONObject json = list.getJSONObject(i);
                 Relationship relationship = new RelationshipJSONImpl(json);
                 if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(relationship, json);
+                    DataObjectFactoryUtil.registerJSONObject(relationship, json, conf);
                 }
                 relationships.add(relationship);
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(relationships, list);
+                DataObjectFactoryUtil.registerJSONObject(relationships, list, conf);
             }
             return relationships;
         } catch (JSONException jsone) {
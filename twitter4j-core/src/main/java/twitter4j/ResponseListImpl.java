@@ -19,14 +19,16 @@ package twitter4j;
 import java.util.ArrayList;
 
 import twitter4j.internal.http.HttpResponse;
+import twitter4j.internal.json.RawJSONHolder;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.1.3
  */
-class ResponseListImpl<T> extends ArrayList<T> implements ResponseList<T> {
+class ResponseListImpl<T> extends ArrayList<T> implements ResponseList<T>, RawJSONHolder {
     private transient RateLimitStatus rateLimitStatus = null;
     private transient RateLimitStatus featureSpecificRateLimitStatus = null;
+    private transient byte[] rawJSON = null;
     private static final long serialVersionUID = 5646617841989265312L;
 
     ResponseListImpl(int size, HttpResponse res) {
@@ -48,4 +50,18 @@ class ResponseListImpl<T> extends ArrayList<T> implements ResponseList<T> {
     public RateLimitStatus getFeatureSpecificRateLimitStatus() {
         return featureSpecificRateLimitStatus;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] getRawJSONBytes() {
+        return rawJSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setRawJSONBytes(byte[] rawJSON) {
+        this.rawJSON = rawJSON;
+    }
 }
@@ -52,7 +52,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
         JSONObject json = res.asJSONObject();
         init(json);
         if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+            DataObjectFactoryUtil.registerJSONObject(this, json, conf);
         }
     }
 
@@ -74,11 +74,11 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
                 SavedSearch savedSearch = new SavedSearchJSONImpl(savedSearchesJSON);
                 savedSearches.add(savedSearch);
                 if(conf.isJSONStoreEnabled()){
-                    DataObjectFactoryUtil.registerJSONObject(savedSearch, savedSearchesJSON);
+                    DataObjectFactoryUtil.registerJSONObject(savedSearch, savedSearchesJSON, conf);
                 }
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(savedSearches, json);
+                DataObjectFactoryUtil.registerJSONObject(savedSearches, json, conf);
             }
             return savedSearches;
         } catch (JSONException jsone) {
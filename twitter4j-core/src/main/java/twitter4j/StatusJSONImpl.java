@@ -23,9 +23,14 @@ import twitter4j.internal.logging.Logger;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import static twitter4j.internal.util.ParseUtil.getBoolean;
 import static twitter4j.internal.util.ParseUtil.getDate;
@@ -63,106 +68,330 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
     private URLEntity[] urlEntities;
     private HashtagEntity[] hashtagEntities;
 
+    // lazy parsing: the fields below are decoded from lazyJSON on first access
+    private static final int TEXT = 1;
+    private static final int SOURCE = 1 << 1;
+    private static final int CREATED_AT = 1 << 2;
+    private static final int IN_REPLY_TO_SCREEN_NAME = 1 << 3;
+    private static final int USER = 1 << 4;
+    private static final int PLACE = 1 << 5;
+    private static final int RETWEETED_STATUS = 1 << 6;
+    private static final int CONTRIBUTORS = 1 << 7;
+    private static final int ENTITIES = 1 << 8;
+    private static final int ALL_LAZY_FIELDS = (1 << 9) - 1;
+
+    private transient JSONObject lazyJSON = null;
+    private transient volatile int pendingFields = 0;
+
     /*package*/StatusJSONImpl(HttpResponse res, Configuration conf) throws TwitterException {
         super(res);
+        if (!conf.isJSONStoreEnabled() && !conf.isLazyParsingEnabled()) {
+            // the raw JSONObject won't be stored. populate fields straight from the response text
+            try {
+                init(new JSONReader(res.asReaderToParse()));
+            } finally {
+                res.parsed();
+            }
+            return;
+        }
         JSONObject json = res.asJSONObject();
-        init(json);
+        init(json, conf.isLazyParsingEnabled());
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+            DataObjectFactoryUtil.registerJSONObject(this, json, conf);
         }
     }
 
     /*package*/ StatusJSONImpl(JSONObject json) throws TwitterException {
+        this(json, false);
+    }
+
+    /*package*/ StatusJSONImpl(JSONObject json, Configuration conf) throws TwitterException {
+        this(json, conf.isLazyParsingEnabled());
+    }
+
+    /**
+     * @param json JSONObject to be parsed
+     * @param lazy if true, the JSONObject is retained and expensive fields are decoded on first access.
+     *             decoding errors are then logged instead of being thrown.
+     * @throws TwitterException when the JSONObject is malformed
+     */
+    /*package*/ StatusJSONImpl(JSONObject json, boolean lazy) throws TwitterException {
         super();
-        init(json);
+        init(json, lazy);
     }
 
-    private void init(JSONObject json) throws TwitterException {
+    /*package*/ StatusJSONImpl(JSONReader reader) throws TwitterException {
+        super();
+        init(reader);
+    }
+
+    private void init(JSONObject json, boolean lazy) throws TwitterException {
         id = getLong("id", json);
-        text = getUnescapedString("text", json);
-        source = getUnescapedString("source", json);
-        createdAt = getDate("created_at", json);
         isTruncated = getBoolean("truncated", json);
         inReplyToStatusId = getLong("in_reply_to_status_id", json);
         inReplyToUserId = getLong("in_reply_to_user_id", json);
         isFavorited = getBoolean("favorited", json);
-        inReplyToScreenName = getUnescapedString("in_reply_to_screen_name", json);
         retweetCount = getLong("retweet_count", json);
         wasRetweetedByMe = getBoolean("retweeted", json);
-        try {
-            if (!json.isNull("user")) {
-                user = new UserJSONImpl(json.getJSONObject("user"));
-            }
-        } catch (JSONException jsone) {
-            throw new TwitterException(jsone);
-        }
         geoLocation = GeoLocation.getInstance(json);
-        if (!json.isNull("place")) {
+        if (!json.isNull("annotations")) {
             try {
-                place = new PlaceJSONImpl(json.getJSONObject("place"));
+                JSONArray annotationsArray = json.getJSONArray("annotations");
+                annotations = new Annotations(annotationsArray);
             } catch (JSONException ignore) {
-                ignore.printStackTrace();
-                logger.warn("failed to parse place:" + json);
             }
         }
-
-        if (!json.isNull("retweeted_status")) {
-            try {
-                retweetedStatus = new StatusJSONImpl(json.getJSONObject("retweeted_status"));
-            } catch (JSONException ignore) {
-                ignore.printStackTrace();
-                logger.warn("failed to parse retweeted_status:" + json);
+        if (lazy) {
+            lazyJSON = json;
+            pendingFields = ALL_LAZY_FIELDS;
+        } else {
+            for (int field = TEXT; field <= ENTITIES; field <<= 1) {
+                decode(json, field, false);
             }
         }
-        if (!json.isNull("contributors")) {
-            try {
-                JSONArray contributorsArray = json.getJSONArray("contributors");
-                contributors = new String[contributorsArray.length()];
-                for (int i = 0; i < contributorsArray.length(); i++) {
-                    contributors[i] = contributorsArray.getString(i);
+    }
+
+    private void decode(JSONObject json, int field, boolean lazy) throws TwitterException {
+        switch (field) {
+            case TEXT:
+                text = getUnescapedString("text", json);
+                break;
+            case SOURCE:
+                source = getUnescapedString("source", json);
+                break;
+            case CREATED_AT:
+                createdAt = getDate("created_at", json);
+                break;
+            case IN_REPLY_TO_SCREEN_NAME:
+                inReplyToScreenName = getUnescapedString("in_reply_to_screen_name", json);
+                break;
+            case USER:
+                try {
+                    if (!json.isNull("user")) {
+                        user = new UserJSONImpl(json.getJSONObject("user"), lazy);
+                    }
+                } catch (JSONException jsone) {
+                    throw new TwitterException(jsone);
                 }
-            } catch (JSONException ignore) {
-                ignore.printStackTrace();
-                logger.warn("failed to parse contributors:" + json);
-            }
-        } else {
-            contributors = null;
+                break;
+            case PLACE:
+                if (!json.isNull("place")) {
+                    try {
+                        place = new PlaceJSONImpl(json.getJSONObject("place"));
+                    } catch (JSONException ignore) {
+                        ignore.printStackTrace();
+                        logger.warn("failed to parse place:" + json);
+                    }
+                }
+                break;
+            case RETWEETED_STATUS:
+                if (!json.isNull("retweeted_status")) {
+                    try {
+                        retweetedStatus = new StatusJSONImpl(json.getJSONObject("retweeted_status"), lazy);
+                    } catch (JSONException ignore) {
+                        ignore.printStackTrace();
+                        logger.warn("failed to parse retweeted_status:" + json);
+                    }
+                }
+                break;
+            case CONTRIBUTORS:
+                if (!json.isNull("contributors")) {
+                    try {
+                        JSONArray contributorsArray = json.getJSONArray("contributors");
+                        contributors = new String[contributorsArray.length()];
+                        for (int i = 0; i < contributorsArray.length(); i++) {
+                            contributors[i] = contributorsArray.getString(i);
+                        }
+                    } catch (JSONException ignore) {
+                        ignore.printStackTrace();
+                        logger.warn("failed to parse contributors:" + json);
+                    }
+                } else {
+                    contributors = null;
+                }
+                break;
+            case ENTITIES:
+                if (!json.isNull("entities")) {
+                    try {
+                        JSONObject entities = json.getJSONObject("entities");
+
+                        JSONArray userMentionsArray = entities.getJSONArray("user_mentions");
+                        int len = userMentionsArray.length();
+                        userMentionEntities = new UserMentionEntity[len];
+                        for (int i = 0; i < len; i++) {
+                            userMentionEntities[i] = new UserMentionEntityJSONImpl(userMentionsArray.getJSONObject(i));
+                        }
+
+                        JSONArray urlsArray = entities.getJSONArray("urls");
+                        len = urlsArray.length();
+                        urlEntities = new URLEntity[len];
+                        for (int i = 0; i < len; i++) {
+                            urlEntities[i] = new URLEntityJSONImpl(urlsArray.getJSONObject(i));
+                        }
+
+                        JSONArray hashtagsArray = entities.getJSONArray("hashtags");
+                        len = hashtagsArray.length();
+                        hashtagEntities = new HashtagEntity[len];
+                        for (int i = 0; i < len; i++) {
+                            hashtagEntities[i] = new HashtagEntityJSONImpl(hashtagsArray.getJSONObject(i));
+                        }
+                    } catch (JSONException ignore) {
+                    }
+                }
+                break;
+            default:
+                throw new AssertionError();
         }
-        if (!json.isNull("entities")) {
-            try {
-                JSONObject entities = json.getJSONObject("entities");
+    }
 
-                JSONArray userMentionsArray = entities.getJSONArray("user_mentions");
-                int len = userMentionsArray.length();
-                userMentionEntities = new UserMentionEntity[len];
-                for (int i = 0; i < len; i++) {
-                    userMentionEntities[i] = new UserMentionEntityJSONImpl(userMentionsArray.getJSONObject(i));
+    /**
+     * Decodes the given lazy field if it's not decoded yet.
+     *
+     * @param field field to be decoded
+     */
+    private void materialize(int field) {
+        if (0 == (pendingFields & field)) {
+            return;
+        }
+        synchronized (this) {
+            JSONObject json = lazyJSON;
+            for (int bit = TEXT; bit <= ENTITIES; bit <<= 1) {
+                if (0 != (field & bit) && 0 != (pendingFields & bit)) {
+                    try {
+                        decode(json, bit, true);
+                    } catch (TwitterException te) {
+                        logger.warn("failed to parse status:" + te.getMessage());
+                    }
+                    // volatile write publishes the decoded field
+                    pendingFields &= ~bit;
                 }
+            }
+            if (0 == pendingFields) {
+                lazyJSON = null;
+            }
+        }
+    }
 
-                JSONArray urlsArray = entities.getJSONArray("urls");
-                len = urlsArray.length();
-                urlEntities = new URLEntity[len];
-                for (int i = 0; i < len; i++) {
-                    urlEntities[i] = new URLEntityJSONImpl(urlsArray.getJSONObject(i));
-                }
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        materialize(ALL_LAZY_FIELDS);
+        out.defaultWriteObject();
+    }
 
-                JSONArray hashtagsArray = entities.getJSONArray("hashtags");
-                len = hashtagsArray.length();
-                hashtagEntities = new HashtagEntity[len];
-                for (int i = 0; i < len; i++) {
-                    hashtagEntities[i] = new HashtagEntityJSONImpl(hashtagsArray.getJSONObject(i));
+    private void init(JSONReader reader) throws TwitterException {
+        // defaults for missing elements, same as init(JSONObject)
+        id = -1;
+        inReplyToStatusId = -1;
+        inReplyToUserId = -1;
+        retweetCount = -1;
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("id".equals(name)) {
+                    id = getLong(reader);
+                } else if ("text".equals(name)) {
+                    text = getUnescapedString(reader);
+                } else if ("source".equals(name)) {
+                    source = getUnescapedString(reader);
+                } else if ("created_at".equals(name)) {
+                    createdAt = getDate(reader, "EEE MMM d HH:mm:ss z yyyy");
+                } else if ("truncated".equals(name)) {
+                    isTruncated = getBoolean(reader);
+                } else if ("in_reply_to_status_id".equals(name)) {
+                    inReplyToStatusId = getLong(reader);
+                } else if ("in_reply_to_user_id".equals(name)) {
+                    inReplyToUserId = getLong(reader);
+                } else if ("favorited".equals(name)) {
+                    isFavorited = getBoolean(reader);
+                } else if ("in_reply_to_screen_name".equals(name)) {
+                    inReplyToScreenName = getUnescapedString(reader);
+                } else if ("retweet_count".equals(name)) {
+                    retweetCount = getLong(reader);
+                } else if ("retweeted".equals(name)) {
+                    wasRetweetedByMe = getBoolean(reader);
+                } else if (JSONReader.Token.NULL == reader.peek()) {
+                    reader.nextNull();
+                } else if ("user".equals(name)) {
+                    user = new UserJSONImpl(reader);
+                } else if ("geo".equals(name)) {
+                    geoLocation = GeoLocation.getInstance(reader);
+                } else if ("place".equals(name) || "retweeted_status".equals(name) || "contributors".equals(name)
+                        || "entities".equals(name) || "annotations".equals(name)) {
+                    // same as init(JSONObject), a malformed element is logged and doesn't fail the whole status
+                    int depth = reader.getDepth();
+                    try {
+                        initOptionalElement(name, reader);
+                    } catch (JSONException jsone) {
+                        logger.warn("failed to parse " + name + ":" + jsone.getMessage());
+                        reader.skipRestOfValue(depth);
+                    } catch (TwitterException te) {
+                        logger.warn("failed to parse " + name + ":" + te.getMessage());
+                        reader.skipRestOfValue(depth);
+                    }
+                } else {
+                    reader.skipValue();
                 }
-            } catch (JSONException ignore) {
             }
+            reader.endObject();
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
         }
-        if (!json.isNull("annotations")) {
-            try {
-                JSONArray annotationsArray = json.getJSONArray("annotations");
-                annotations = new Annotations(annotationsArray);
-            } catch (JSONException ignore) {
+    }
+
+    private void initOptionalElement(String name, JSONReader reader) throws TwitterException, JSONException {
+        if ("place".equals(name)) {
+            place = new PlaceJSONImpl(reader.nextJSONObject());
+        } else if ("retweeted_status".equals(name)) {
+            retweetedStatus = new StatusJSONImpl(reader);
+        } else if ("contributors".equals(name)) {
+            List<String> contributorList = new ArrayList<String>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                contributorList.add(reader.nextString());
+            }
+            reader.endArray();
+            contributors = contributorList.toArray(new String[contributorList.size()]);
+        } else if ("entities".equals(name)) {
+            initEntities(reader);
+        } else {
+            annotations = new Annotations(reader.nextJSONArray());
+        }
+    }
+
+    private void initEntities(JSONReader reader) throws TwitterException, JSONException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("user_mentions".equals(name)) {
+                List<UserMentionEntity> entities = new ArrayList<UserMentionEntity>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    entities.add(new UserMentionEntityJSONImpl(reader));
+                }
+                reader.endArray();
+                userMentionEntities = entities.toArray(new UserMentionEntity[entities.size()]);
+            } else if ("urls".equals(name)) {
+                List<URLEntity> entities = new ArrayList<URLEntity>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    entities.add(new URLEntityJSONImpl(reader));
+                }
+                reader.endArray();
+                urlEntities = entities.toArray(new URLEntity[entities.size()]);
+            } else if ("hashtags".equals(name)) {
+                List<HashtagEntity> entities = new ArrayList<HashtagEntity>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    entities.add(new HashtagEntityJSONImpl(reader));
+                }
+                reader.endArray();
+                hashtagEntities = entities.toArray(new HashtagEntity[entities.size()]);
+            } else {
+                reader.skipValue();
             }
         }
+        reader.endObject();
     }
 
     public int compareTo(Status that) {
@@ -179,6 +408,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public Date getCreatedAt() {
+        materialize(CREATED_AT);
         return this.createdAt;
     }
 
@@ -193,6 +423,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public String getText() {
+        materialize(TEXT);
         return this.text;
     }
 
@@ -200,6 +431,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public String getSource() {
+        materialize(SOURCE);
         return this.source;
     }
 
@@ -229,6 +461,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public String getInReplyToScreenName() {
+        materialize(IN_REPLY_TO_SCREEN_NAME);
         return inReplyToScreenName;
     }
 
@@ -243,6 +476,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public Place getPlace() {
+        materialize(PLACE);
         return place;
     }
 
@@ -250,6 +484,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public String[] getContributors() {
+        materialize(CONTRIBUTORS);
         return contributors;
     }
 
@@ -275,6 +510,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public User getUser() {
+        materialize(USER);
         return user;
     }
 
@@ -282,6 +518,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public boolean isRetweet() {
+        materialize(RETWEETED_STATUS);
         return null != retweetedStatus;
     }
 
@@ -289,6 +526,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public Status getRetweetedStatus() {
+        materialize(RETWEETED_STATUS);
         return retweetedStatus;
     }
 
@@ -310,6 +548,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public UserMentionEntity[] getUserMentionEntities() {
+        materialize(ENTITIES);
         return userMentionEntities;
     }
 
@@ -317,6 +556,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public URLEntity[] getURLEntities() {
+        materialize(ENTITIES);
         return urlEntities;
     }
 
@@ -324,11 +564,19 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
      * {@inheritDoc}
      */
     public HashtagEntity[] getHashtagEntities() {
+        materialize(ENTITIES);
         return hashtagEntities;
     }
 
     /*package*/
     static ResponseList<Status> createStatusList(HttpResponse res, Configuration conf) throws TwitterException {
+        if (!conf.isJSONStoreEnabled() && !conf.isLazyParsingEnabled()) {
+            try {
+                return createStatusList(new JSONReader(res.asReaderToParse()), res);
+            } finally {
+                res.parsed();
+            }
+        }
         try {
             if (conf.isJSONStoreEnabled()) {
                 DataObjectFactoryUtil.clearThreadLocalMap();
@@ -338,14 +586,14 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
             ResponseList<Status> statuses = new ResponseListImpl<Status>(size, res);
             for (int i = 0; i < size; i++) {
                 JSONObject json = list.getJSONObject(i);
-                Status status = new StatusJSONImpl(json);
+                Status status = new StatusJSONImpl(json, conf);
                 if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(status, json);
+                    DataObjectFactoryUtil.registerJSONObject(status, json, conf);
                 }
                 statuses.add(status);
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(statuses, list);
+                DataObjectFactoryUtil.registerJSONObject(statuses, list, conf);
             }
             return statuses;
         } catch (JSONException jsone) {
@@ -355,6 +603,21 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
         }
     }
 
+    private static ResponseList<Status> createStatusList(JSONReader reader, HttpResponse res) throws TwitterException {
+        try {
+            // 20 is the default count of timeline methods
+            ResponseList<Status> statuses = new ResponseListImpl<Status>(20, res);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                statuses.add(new StatusJSONImpl(reader));
+            }
+            reader.endArray();
+            return statuses;
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
     @Override
     public int hashCode() {
         return (int) id;
@@ -373,6 +636,7 @@ import static twitter4j.internal.util.ParseUtil.getUnescapedString;
 
     @Override
     public String toString() {
+        materialize(ALL_LAZY_FIELDS);
         return "StatusJSONImpl{" +
                 "createdAt=" + createdAt +
                 ", id=" + id +
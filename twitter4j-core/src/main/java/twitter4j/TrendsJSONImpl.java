@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
+import twitter4j.internal.json.RawJSONHolder;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
@@ -38,11 +39,12 @@ import static twitter4j.internal.util.ParseUtil.getDate;
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.0.2
  */
-/*package*/ final class TrendsJSONImpl implements Trends, java.io.Serializable {
+/*package*/ final class TrendsJSONImpl implements Trends, java.io.Serializable, RawJSONHolder {
     private Date asOf;
     private Date trendAt;
     private Trend[] trends;
     private Location location;
+    private transient byte[] rawJSON = null;
     private static final long serialVersionUID = -7151479143843312309L;
 
     public int compareTo(Trends that) {
@@ -51,18 +53,18 @@ import static twitter4j.internal.util.ParseUtil.getDate;
 
     TrendsJSONImpl(HttpResponse res, Configuration conf) throws TwitterException {
         String jsonStr = res.asString();
-        init(res.asString(), conf.isJSONStoreEnabled());
+        init(res.asString(), conf);
         if(conf.isJSONStoreEnabled()){
             DataObjectFactoryUtil.clearThreadLocalMap();
-            DataObjectFactoryUtil.registerJSONObject(this, jsonStr);
+            DataObjectFactoryUtil.registerJSONObject(this, jsonStr, conf);
         }
     }
 
     TrendsJSONImpl(String jsonStr) throws TwitterException {
-        init(jsonStr, false);
+        init(jsonStr, null);
     }
 
-    void init(String jsonStr, boolean storeJSON) throws TwitterException {
+    void init(String jsonStr, Configuration conf) throws TwitterException {
         try {
             JSONObject json;
             if (jsonStr.startsWith("[")) {
@@ -76,7 +78,7 @@ import static twitter4j.internal.util.ParseUtil.getDate;
                 json = new JSONObject(jsonStr);
             }
             this.asOf = parseTrendsDate(json.getString("as_of"));
-            this.location = extractLocation(json, storeJSON);
+            this.location = extractLocation(json, conf);
             JSONArray array = json.getJSONArray("trends");
             this.trendAt = asOf;
             this.trends = jsonArrayToTrendArray(array);
@@ -94,14 +96,14 @@ import static twitter4j.internal.util.ParseUtil.getDate;
     }
 
     /*package*/
-    static List<Trends> createTrendsList(HttpResponse res, boolean storeJSON) throws
+    static List<Trends> createTrendsList(HttpResponse res, Configuration conf) throws
             TwitterException {
         JSONObject json = res.asJSONObject();
         List<Trends> trends;
         try {
             Date asOf = parseTrendsDate(json.getString("as_of"));
             JSONObject trendsJson = json.getJSONObject("trends");
-            Location location = extractLocation(json, storeJSON);
+            Location location = extractLocation(json, conf);
             trends = new ArrayList<Trends>(trendsJson.length());
             Iterator<?> ite = trendsJson.keys();
             while (ite.hasNext()) {
@@ -129,13 +131,13 @@ import static twitter4j.internal.util.ParseUtil.getDate;
         }
     }
 
-    private static Location extractLocation(JSONObject json, boolean storeJSON) throws TwitterException {
+    private static Location extractLocation(JSONObject json, Configuration conf) throws TwitterException {
         if (json.isNull("locations")) {
             return null;
         }
         ResponseList<Location> locations;
         try {
-            locations = LocationJSONImpl.createLocationList(json.getJSONArray("locations"), storeJSON);
+            locations = LocationJSONImpl.createLocationList(json.getJSONArray("locations"), conf);
         } catch (JSONException e) {
             throw new AssertionError("locations can't be null");
         }
@@ -201,6 +203,20 @@ import static twitter4j.internal.util.ParseUtil.getDate;
         return trendAt;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] getRawJSONBytes() {
+        return rawJSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setRawJSONBytes(byte[] rawJSON) {
+        this.rawJSON = rawJSON;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -47,4 +47,13 @@ public interface Twitter extends java.io.Serializable,
         LegalResources,
         NewTwitterMethods,
         HelpMethods {
+
+    /**
+     * Returns the cache of users and statuses answering showUser and showStatus.<br>
+     * The cache is populated by the methods returning users and statuses, and is available if entityCacheEnabled is set to true.
+     *
+     * @return the entity cache, or null if disabled
+     * @since Twitter4J 2.2.1
+     */
+    EntityCache getEntityCache();
 }
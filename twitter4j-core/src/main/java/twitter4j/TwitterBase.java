@@ -17,6 +17,8 @@ package twitter4j;
 
 import twitter4j.auth.Authorization;
 import twitter4j.conf.Configuration;
+import twitter4j.internal.http.HttpMetrics;
+import twitter4j.internal.http.HttpMetricsListener;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -60,6 +62,43 @@ public interface TwitterBase {
      */
     void addRateLimitStatusListener(RateLimitStatusListener listener);
 
+    /**
+     * Returns the number of requests on behalf of the authenticating account currently held back to pace the rate
+     * limit. The budget is shared with the other instances acting on behalf of the same account.<br>
+     * Always returns 0 unless http.rateLimitPacingEnabled is set to true.
+     *
+     * @return the number of requests waiting for their turn
+     * @since Twitter4J 2.2.1
+     */
+    int getRateLimitQueueLength();
+
+    /**
+     * Returns how long a request sent now by this instance would be held back to pace the rate limit.<br>
+     * With http.rateLimitPacingEnabled set to true, the remaining rate limit is spread evenly until it resets. Batch jobs can use this value to keep the maximum sustainable throughput.<br>
+     * Always returns 0 unless http.rateLimitPacingEnabled is set to true.
+     *
+     * @return projected wait in milliseconds
+     * @since Twitter4J 2.2.1
+     */
+    long getRateLimitProjectedWait();
+
+    /**
+     * Returns latencies, sizes and status codes of the requests made by this instance, broken down by endpoint.<br>
+     * Available if http.metricsEnabled is set to true.
+     *
+     * @return the metrics, or null if disabled
+     * @since Twitter4J 2.2.1
+     */
+    HttpMetrics getHttpMetrics();
+
+    /**
+     * Registers a listener notified of the metrics of every request made by this instance, to export them to a monitoring system.
+     *
+     * @param listener listener
+     * @since Twitter4J 2.2.1
+     */
+    void addHttpMetricsListener(HttpMetricsListener listener);
+
     /**
      * Returns the authorization scheme for this instance.<br>
      * The returned type will be either of BasicAuthorization, OAuthAuthorization, or NullAuthorization
@@ -26,9 +26,12 @@ import twitter4j.auth.OAuthSupport;
 import twitter4j.auth.RequestToken;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpClientWrapper;
+import twitter4j.internal.http.HttpMetrics;
+import twitter4j.internal.http.HttpMetricsListener;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.http.HttpResponseEvent;
 import twitter4j.internal.http.HttpResponseListener;
+import twitter4j.internal.http.RateLimitScheduler;
 import twitter4j.internal.http.XAuthAuthorization;
 
 import java.io.IOException;
@@ -50,6 +53,7 @@ abstract class TwitterBaseImpl implements java.io.Serializable, OAuthSupport, Ht
     protected transient long id = 0;
 
     protected transient HttpClientWrapper http;
+    protected transient EntityCache entityCache = null;
     private List<RateLimitStatusListener> rateLimitStatusListeners = new ArrayList<RateLimitStatusListener>(0);
 
     protected Authorization auth;
@@ -86,6 +90,13 @@ abstract class TwitterBaseImpl implements java.io.Serializable, OAuthSupport, Ht
         }
         http = new HttpClientWrapper(conf);
         http.setHttpResponseListener(this);
+        initEntityCache();
+    }
+
+    private void initEntityCache() {
+        if (conf.isEntityCacheEnabled()) {
+            entityCache = new EntityCache(conf);
+        }
     }
 
     /**
@@ -142,6 +153,36 @@ abstract class TwitterBaseImpl implements java.io.Serializable, OAuthSupport, Ht
         rateLimitStatusListeners.add(listener);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public int getRateLimitQueueLength() {
+        RateLimitScheduler scheduler = http.getRateLimitScheduler();
+        return null == scheduler ? 0 : scheduler.getQueueLength(auth);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getRateLimitProjectedWait() {
+        RateLimitScheduler scheduler = http.getRateLimitScheduler();
+        return null == scheduler ? 0 : scheduler.getProjectedWait(auth);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public HttpMetrics getHttpMetrics() {
+        return http.getHttpMetrics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addHttpMetricsListener(HttpMetricsListener listener) {
+        http.addHttpMetricsListener(listener);
+    }
+
     public void httpResponseReceived(HttpResponseEvent event) {
         if (rateLimitStatusListeners.size() != 0) {
             HttpResponse res = event.getResponse();
@@ -230,6 +271,7 @@ abstract class TwitterBaseImpl implements java.io.Serializable, OAuthSupport, Ht
         rateLimitStatusListeners = (List<RateLimitStatusListener>) stream.readObject();
         http = new HttpClientWrapper(conf);
         http.setHttpResponseListener(this);
+        initEntityCache();
     }
 
 
@@ -137,6 +137,16 @@ public class TwitterException extends Exception implements TwitterResponse, Http
         return value;
     }
 
+    /**
+     * Returns the header fields of the response.
+     *
+     * @return response header fields, or null if no response has been received
+     * @since Twitter4J 2.2.1
+     */
+    public Map<String, List<String>> getResponseHeaderFields() {
+        return responseHeaderFields;
+    }
+
     /**
      * {@inheritDoc}
      *
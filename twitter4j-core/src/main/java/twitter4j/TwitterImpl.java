@@ -18,8 +18,11 @@ package twitter4j;
 
 import twitter4j.auth.Authorization;
 import twitter4j.conf.Configuration;
+import twitter4j.internal.http.HttpClientWrapper;
 import twitter4j.internal.http.HttpParameter;
 import twitter4j.internal.http.HttpResponse;
+import twitter4j.internal.http.HttpResponseListener;
+import twitter4j.internal.http.RequestMethod;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.util.T4JInternalStringUtil;
 
@@ -31,8 +34,11 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static twitter4j.internal.http.HttpParameter.getParameterArray;
+import static twitter4j.internal.http.RequestMethod.GET;
+import static twitter4j.internal.http.RequestMethod.POST;
 
 /**
  * A java representation of the <a href="http://apiwiki.twitter.com/">Twitter API</a><br>
@@ -91,6 +97,122 @@ class TwitterImpl extends TwitterBaseImpl
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /* Entity cache */
+
+    // cached entities don't carry raw JSON, so the cache is bypassed if it is to be stored
+    private Status getCachedStatus(long statusId) {
+        return null == entityCache || conf.isJSONStoreEnabled() ? null : entityCache.getStatus(statusId);
+    }
+
+    private User getCachedUser(long userId) {
+        return null == entityCache || conf.isJSONStoreEnabled() ? null : entityCache.getUser(userId);
+    }
+
+    private User getCachedUser(String screenName) {
+        return null == entityCache || conf.isJSONStoreEnabled() ? null : entityCache.getUser(screenName);
+    }
+
+    private Status cache(Status status) {
+        if (null != entityCache) {
+            entityCache.put(status);
+        }
+        return status;
+    }
+
+    private User cache(User user) {
+        if (null != entityCache) {
+            entityCache.put(user);
+        }
+        return user;
+    }
+
+    /**
+     * Drops the authenticating user from the cache once a call changing its counts has returned, so that a
+     * concurrent lookup can't cache the counts from before the change.
+     *
+     * @param result result of the call
+     * @return result
+     */
+    private <T> T invalidateAuthenticatingUser(T result) {
+        // the id is known once verifyCredentials() or getId() has been called
+        if (null != entityCache && 0 != id) {
+            entityCache.invalidateUser(id);
+        }
+        return result;
+    }
+
+    private <T extends List<Status>> T cacheStatuses(T statuses) {
+        if (null != entityCache) {
+            entityCache.putStatuses(statuses);
+        }
+        return statuses;
+    }
+
+    private <T extends List<User>> T cacheUsers(T users) {
+        if (null != entityCache) {
+            entityCache.putUsers(users);
+        }
+        return users;
+    }
+
+    /**
+     * An API call made of a single request. The methods of Twitter send it and wait for the response, while
+     * AsyncTwitter sends it with
+     * {@link HttpClientWrapper#request(RequestMethod, String, HttpParameter[], Authorization, Executor, HttpResponseListener)}
+     * and parses the response on its dispatcher once it has arrived.
+     *
+     * @param <T> type of the result
+     */
+    /*package*/ abstract class Call<T> {
+        private final RequestMethod method;
+        private final String url;
+        private final HttpParameter[] parameters;
+
+        Call(RequestMethod method, String url, HttpParameter[] parameters) {
+            this.method = method;
+            this.url = url;
+            this.parameters = parameters;
+        }
+
+        /**
+         * @return the result if it is known without sending the request, or null
+         */
+        T getCached() {
+            return null;
+        }
+
+        abstract T parse(HttpResponse res) throws TwitterException;
+
+        T call() throws TwitterException {
+            T result = getCached();
+            if (null == result) {
+                result = parse(POST == method ? http.post(url, parameters, auth) : http.get(url, parameters, auth));
+            }
+            return result;
+        }
+
+        void send(Executor executor, HttpResponseListener listener) {
+            http.request(method, url, parameters, auth, executor, listener);
+        }
+    }
+
+    private final class StatusListCall extends Call<ResponseList<Status>> {
+        StatusListCall(String url, HttpParameter[] parameters) {
+            super(GET, url, parameters);
+        }
+
+        ResponseList<Status> parse(HttpResponse res) throws TwitterException {
+            return cacheStatuses(StatusJSONImpl.createStatusList(res, conf));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -117,7 +239,7 @@ class TwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public Trends getCurrentTrends() throws TwitterException {
-        return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL() + "trends/current.json"), conf.isJSONStoreEnabled()).get(0);
+        return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL() + "trends/current.json"), conf).get(0);
     }
 
     /**
@@ -125,14 +247,14 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public Trends getCurrentTrends(boolean excludeHashTags) throws TwitterException {
         return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL() + "trends/current.json"
-                + (excludeHashTags ? "?exclude=hashtags" : "")), conf.isJSONStoreEnabled()).get(0);
+                + (excludeHashTags ? "?exclude=hashtags" : "")), conf).get(0);
     }
 
     /**
      * {@inheritDoc}
      */
     public List<Trends> getDailyTrends() throws TwitterException {
-        return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL() + "trends/daily.json"), conf.isJSONStoreEnabled());
+        return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL() + "trends/daily.json"), conf);
     }
 
     /**
@@ -141,7 +263,7 @@ class TwitterImpl extends TwitterBaseImpl
     public List<Trends> getDailyTrends(Date date, boolean excludeHashTags) throws TwitterException {
         return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL()
                 + "trends/daily.json?date=" + toDateStr(date)
-                + (excludeHashTags ? "&exclude=hashtags" : "")), conf.isJSONStoreEnabled());
+                + (excludeHashTags ? "&exclude=hashtags" : "")), conf);
     }
 
     private String toDateStr(Date date) {
@@ -157,7 +279,7 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public List<Trends> getWeeklyTrends() throws TwitterException {
         return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL()
-                + "trends/weekly.json"), conf.isJSONStoreEnabled());
+                + "trends/weekly.json"), conf);
     }
 
     /**
@@ -166,7 +288,7 @@ class TwitterImpl extends TwitterBaseImpl
     public List<Trends> getWeeklyTrends(Date date, boolean excludeHashTags) throws TwitterException {
         return TrendsJSONImpl.createTrendsList(http.get(conf.getRestBaseURL()
                 + "trends/weekly.json?date=" + toDateStr(date)
-                + (excludeHashTags ? "&exclude=hashtags" : "")), conf.isJSONStoreEnabled());
+                + (excludeHashTags ? "&exclude=hashtags" : "")), conf);
     }
 
     /* Status Methods */
@@ -176,8 +298,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getPublicTimeline() throws
             TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
-                "statuses/public_timeline.json?include_entities=" + conf.isIncludeEntitiesEnabled() + "&include_rts=" + conf.isIncludeRTsEnabled(), auth), conf);
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
+                "statuses/public_timeline.json?include_entities=" + conf.isIncludeEntitiesEnabled() + "&include_rts=" + conf.isIncludeRTsEnabled(), auth), conf));
     }
 
     /**
@@ -185,8 +307,13 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getHomeTimeline() throws
             TwitterException {
+        return getHomeTimelineCall().call();
+    }
+
+    /*package*/ Call<ResponseList<Status>> getHomeTimelineCall() {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + "statuses/home_timeline.json?include_entities=" + conf.isIncludeEntitiesEnabled(), auth), conf);
+        return new StatusListCall(conf.getRestBaseURL() + "statuses/home_timeline.json?include_entities="
+                + conf.isIncludeEntitiesEnabled(), null);
     }
 
     /**
@@ -194,9 +321,13 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getHomeTimeline(Paging paging) throws
             TwitterException {
+        return getHomeTimelineCall(paging).call();
+    }
+
+    /*package*/ Call<ResponseList<Status>> getHomeTimelineCall(Paging paging) {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
-                + "statuses/home_timeline.json", mergeParameters(paging.asPostParameterArray(), INCLUDE_ENTITIES), auth), conf);
+        return new StatusListCall(conf.getRestBaseURL() + "statuses/home_timeline.json"
+                , mergeParameters(paging.asPostParameterArray(), INCLUDE_ENTITIES));
     }
 
     /**
@@ -205,9 +336,9 @@ class TwitterImpl extends TwitterBaseImpl
     public ResponseList<Status> getFriendsTimeline() throws
             TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/friends_timeline.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&include_rts=" + conf.isIncludeRTsEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&include_rts=" + conf.isIncludeRTsEnabled(), auth), conf));
     }
 
     /**
@@ -216,10 +347,10 @@ class TwitterImpl extends TwitterBaseImpl
     public ResponseList<Status> getFriendsTimeline(Paging paging) throws
             TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/friends_timeline.json",
                 mergeParameters(new HttpParameter[]{INCLUDE_RTS, INCLUDE_ENTITIES}
-                        , paging.asPostParameterArray()), auth), conf);
+                        , paging.asPostParameterArray()), auth), conf));
 
     }
 
@@ -229,12 +360,15 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getUserTimeline(String screenName, Paging paging)
             throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
-                + "statuses/user_timeline.json",
+        return getUserTimelineCall(screenName, paging).call();
+    }
+
+    /*package*/ Call<ResponseList<Status>> getUserTimelineCall(String screenName, Paging paging) {
+        return new StatusListCall(conf.getRestBaseURL() + "statuses/user_timeline.json",
                 mergeParameters(new HttpParameter[]{new HttpParameter("screen_name", screenName)
                         , INCLUDE_RTS
                         , INCLUDE_ENTITIES}
-                        , paging.asPostParameterArray()), auth), conf);
+                        , paging.asPostParameterArray()));
     }
 
     /**
@@ -242,12 +376,15 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getUserTimeline(long userId, Paging paging)
             throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
-                + "statuses/user_timeline.json",
+        return getUserTimelineCall(userId, paging).call();
+    }
+
+    /*package*/ Call<ResponseList<Status>> getUserTimelineCall(long userId, Paging paging) {
+        return new StatusListCall(conf.getRestBaseURL() + "statuses/user_timeline.json",
                 mergeParameters(new HttpParameter[]{new HttpParameter("user_id", userId)
                         , INCLUDE_RTS
                         , INCLUDE_ENTITIES}
-                        , paging.asPostParameterArray()), auth), conf);
+                        , paging.asPostParameterArray()));
     }
 
     /**
@@ -277,12 +414,15 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getUserTimeline(Paging paging) throws
             TwitterException {
+        return getUserTimelineCall(paging).call();
+    }
+
+    /*package*/ Call<ResponseList<Status>> getUserTimelineCall(Paging paging) {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
-                "statuses/user_timeline.json",
+        return new StatusListCall(conf.getRestBaseURL() + "statuses/user_timeline.json",
                 mergeParameters(new HttpParameter[]{INCLUDE_RTS
                         , INCLUDE_ENTITIES}
-                        , paging.asPostParameterArray()), auth), conf);
+                        , paging.asPostParameterArray()));
     }
 
     /**
@@ -290,9 +430,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getMentions() throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
                 "statuses/mentions.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&include_rts=" + conf.isIncludeRTsEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&include_rts=" + conf.isIncludeRTsEnabled(), auth), conf));
     }
 
     /**
@@ -300,11 +440,11 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getMentions(Paging paging) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/mentions.json",
                 mergeParameters(new HttpParameter[]{INCLUDE_RTS
                         , INCLUDE_ENTITIES}
-                        , paging.asPostParameterArray()), auth), conf);
+                        , paging.asPostParameterArray()), auth), conf));
     }
 
     /**
@@ -312,8 +452,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getRetweetedByMe() throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
-                + "statuses/retweeted_by_me.json?include_entities=" + conf.isIncludeEntitiesEnabled(), auth), conf);
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+                + "statuses/retweeted_by_me.json?include_entities=" + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -321,9 +461,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getRetweetedByMe(Paging paging) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/retweeted_by_me.json", mergeParameters(paging.asPostParameterArray()
-                , INCLUDE_ENTITIES), auth), conf);
+                , INCLUDE_ENTITIES), auth), conf));
     }
 
     /**
@@ -331,9 +471,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getRetweetedToMe() throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/retweeted_to_me.json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -341,9 +481,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getRetweetedToMe(Paging paging) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
                 "statuses/retweeted_to_me.json", mergeParameters(paging.asPostParameterArray()
-                , INCLUDE_ENTITIES), auth), conf);
+                , INCLUDE_ENTITIES), auth), conf));
     }
 
     /**
@@ -351,9 +491,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getRetweetsOfMe() throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/retweets_of_me.json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -361,53 +501,53 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getRetweetsOfMe(Paging paging) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/retweets_of_me.json", mergeParameters(paging.asPostParameterArray()
-                , INCLUDE_ENTITIES), auth), conf);
+                , INCLUDE_ENTITIES), auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<Status> getRetweetedToUser(String screenName, Paging paging) throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
                 "statuses/retweeted_to_user.json", mergeParameters(paging.asPostParameterArray()
                 , new HttpParameter[]{
                         new HttpParameter("screen_name", screenName)
-                        , INCLUDE_ENTITIES}), auth), conf);
+                        , INCLUDE_ENTITIES}), auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<Status> getRetweetedToUser(long userId, Paging paging) throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
                 "statuses/retweeted_to_user.json", mergeParameters(paging.asPostParameterArray()
                 , new HttpParameter[]{
                         new HttpParameter("user_id", userId)
-                        , INCLUDE_ENTITIES}), auth), conf);
+                        , INCLUDE_ENTITIES}), auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<Status> getRetweetedByUser(String screenName, Paging paging) throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
                 "statuses/retweeted_by_user.json", mergeParameters(paging.asPostParameterArray()
                 , new HttpParameter[]{
                         new HttpParameter("screen_name", screenName)
-                        , INCLUDE_ENTITIES}), auth), conf);
+                        , INCLUDE_ENTITIES}), auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<Status> getRetweetedByUser(long userId, Paging paging) throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() +
                 "statuses/retweeted_by_user.json", mergeParameters(paging.asPostParameterArray()
                 , new HttpParameter[]{
                         new HttpParameter("user_id", userId)
-                        , INCLUDE_ENTITIES}), auth), conf);
+                        , INCLUDE_ENTITIES}), auth), conf));
     }
 
     /**
@@ -415,9 +555,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<User> getRetweetedBy(long statusId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createUserList(http.get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createUserList(http.get(conf.getRestBaseURL()
                 + "statuses/" + statusId + "/retweeted_by.json?count=100&include_entities"
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -434,29 +574,57 @@ class TwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public Status showStatus(long id) throws TwitterException {
-        return new StatusJSONImpl(http.get(conf.getRestBaseURL() + "statuses/show/" + id + ".json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+        return showStatusCall(id).call();
+    }
+
+    /*package*/ Call<Status> showStatusCall(final long id) {
+        return new Call<Status>(GET, conf.getRestBaseURL() + "statuses/show/" + id + ".json?include_entities="
+                + conf.isIncludeEntitiesEnabled(), null) {
+            @Override
+            Status getCached() {
+                return getCachedStatus(id);
+            }
+
+            Status parse(HttpResponse res) throws TwitterException {
+                return cache(new StatusJSONImpl(res, conf));
+            }
+        };
     }
 
     /**
      * {@inheritDoc}
      */
     public Status updateStatus(String status) throws TwitterException {
+        return updateStatusCall(status).call();
+    }
+
+    /*package*/ Call<Status> updateStatusCall(String status) {
         ensureAuthorizationEnabled();
-        return new StatusJSONImpl(http.post(conf.getRestBaseURL() + "statuses/update.json",
-                new HttpParameter[]{new HttpParameter("status", status)
-                        , INCLUDE_ENTITIES}, auth), conf);
+        return new UpdateStatusCall(new HttpParameter[]{new HttpParameter("status", status)
+                , INCLUDE_ENTITIES});
     }
 
     /**
      * {@inheritDoc}
      */
     public Status updateStatus(StatusUpdate latestStatus) throws TwitterException {
+        return updateStatusCall(latestStatus).call();
+    }
+
+    /*package*/ Call<Status> updateStatusCall(StatusUpdate latestStatus) {
         ensureAuthorizationEnabled();
-        return new StatusJSONImpl(http.post(conf.getRestBaseURL()
-                + "statuses/update.json",
-                mergeParameters(latestStatus.asHttpParameterArray(),
-                        INCLUDE_ENTITIES), auth), conf);
+        return new UpdateStatusCall(mergeParameters(latestStatus.asHttpParameterArray(),
+                INCLUDE_ENTITIES));
+    }
+
+    private final class UpdateStatusCall extends Call<Status> {
+        UpdateStatusCall(HttpParameter[] parameters) {
+            super(POST, conf.getRestBaseURL() + "statuses/update.json", parameters);
+        }
+
+        Status parse(HttpResponse res) throws TwitterException {
+            return cache(invalidateAuthenticatingUser(new StatusJSONImpl(res, conf)));
+        }
     }
 
     /**
@@ -464,9 +632,12 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public Status destroyStatus(long statusId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new StatusJSONImpl(http.post(conf.getRestBaseURL()
+        if (null != entityCache) {
+            entityCache.invalidateStatus(statusId);
+        }
+        return invalidateAuthenticatingUser(new StatusJSONImpl(http.post(conf.getRestBaseURL()
                 + "statuses/destroy/" + statusId + ".json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -474,9 +645,13 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public Status retweetStatus(long statusId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new StatusJSONImpl(http.post(conf.getRestBaseURL()
+        if (null != entityCache) {
+            // the retweet count has changed
+            entityCache.invalidateStatus(statusId);
+        }
+        return cache(invalidateAuthenticatingUser(new StatusJSONImpl(http.post(conf.getRestBaseURL()
                 + "statuses/retweet/" + statusId + ".json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf)));
     }
 
     /**
@@ -484,9 +659,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getRetweets(long statusId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "statuses/retweets/" + statusId + ".json?count=100&include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /* User Methods */
@@ -495,38 +670,78 @@ class TwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public User showUser(String screenName) throws TwitterException {
-        return new UserJSONImpl(http.get(conf.getRestBaseURL() + "users/show.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf);
+        return showUserCall(screenName).call();
+    }
+
+    /*package*/ Call<User> showUserCall(final String screenName) {
+        return new UserCall(conf.getRestBaseURL() + "users/show.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName) {
+            @Override
+            User getCached() {
+                return getCachedUser(screenName);
+            }
+        };
     }
 
     /**
      * {@inheritDoc}
      */
     public User showUser(long userId) throws TwitterException {
-        return new UserJSONImpl(http.get(conf.getRestBaseURL() + "users/show.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf);
+        return showUserCall(userId).call();
+    }
+
+    /*package*/ Call<User> showUserCall(final long userId) {
+        return new UserCall(conf.getRestBaseURL() + "users/show.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId) {
+            @Override
+            User getCached() {
+                return getCachedUser(userId);
+            }
+        };
+    }
+
+    private class UserCall extends Call<User> {
+        UserCall(String url) {
+            super(GET, url, null);
+        }
+
+        User parse(HttpResponse res) throws TwitterException {
+            return cache(new UserJSONImpl(res, conf));
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<User> lookupUsers(String[] screenNames) throws TwitterException {
+        return lookupUsersCall(screenNames).call();
+    }
+
+    /*package*/ Call<ResponseList<User>> lookupUsersCall(String[] screenNames) {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
-                "users/lookup.json", new HttpParameter[]{
-                new HttpParameter("screen_name", T4JInternalStringUtil.join(screenNames))
-                , INCLUDE_ENTITIES}, auth), conf);
+        return new LookupUsersCall(new HttpParameter("screen_name", T4JInternalStringUtil.join(screenNames)));
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<User> lookupUsers(long[] ids) throws TwitterException {
+        return lookupUsersCall(ids).call();
+    }
+
+    /*package*/ Call<ResponseList<User>> lookupUsersCall(long[] ids) {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
-                "users/lookup.json", new HttpParameter[]{
-                new HttpParameter("user_id", T4JInternalStringUtil.join(ids))
-                , INCLUDE_ENTITIES}, auth), conf);
+        return new LookupUsersCall(new HttpParameter("user_id", T4JInternalStringUtil.join(ids)));
+    }
+
+    private final class LookupUsersCall extends Call<ResponseList<User>> {
+        LookupUsersCall(HttpParameter users) {
+            super(GET, conf.getRestBaseURL() + "users/lookup.json", new HttpParameter[]{users, INCLUDE_ENTITIES});
+        }
+
+        ResponseList<User> parse(HttpResponse res) throws TwitterException {
+            return cacheUsers(UserJSONImpl.createUserList(res, conf));
+        }
     }
 
     /**
@@ -534,12 +749,12 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<User> searchUsers(String query, int page) throws TwitterException {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
+        return cacheUsers(UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
                 "users/search.json", new HttpParameter[]{
                 new HttpParameter("q", query),
                 new HttpParameter("per_page", 20),
                 new HttpParameter("page", page)
-                , INCLUDE_ENTITIES}, auth), conf);
+                , INCLUDE_ENTITIES}, auth), conf));
     }
 
     /**
@@ -557,7 +772,7 @@ class TwitterImpl extends TwitterBaseImpl
         HttpResponse res = http.get(conf.getRestBaseURL() + "users/suggestions/"
                 + categorySlug + ".json", auth);
         try {
-            return UserJSONImpl.createUserList(res.asJSONObject().getJSONArray("users"), res, conf);
+            return cacheUsers(UserJSONImpl.createUserList(res.asJSONObject().getJSONArray("users"), res, conf));
         } catch (JSONException jsone) {
             throw new TwitterException(jsone);
         }
@@ -569,7 +784,7 @@ class TwitterImpl extends TwitterBaseImpl
     public ResponseList<User> getMemberSuggestions(String categorySlug) throws TwitterException {
         HttpResponse res = http.get(conf.getRestBaseURL() + "users/suggestions/"
                 + categorySlug + "/members.json", auth);
-        return UserJSONImpl.createUserList(res.asJSONArray(), res, conf);
+        return cacheUsers(UserJSONImpl.createUserList(res.asJSONArray(), res, conf));
     }
 
     /**
@@ -584,56 +799,56 @@ class TwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFriendsStatuses(long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
                 + "statuses/friends.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFriendsStatuses(String screenName, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
                 + "statuses/friends.json?include_entities="
                 + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName + "&cursor="
-                + cursor, auth), conf);
+                + cursor, auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFriendsStatuses(long userId, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
                 + "statuses/friends.json?include_entities="
                 + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId
-                + "&cursor=" + cursor, null, auth), conf);
+                + "&cursor=" + cursor, null, auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFollowersStatuses(long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
                 + "statuses/followers.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFollowersStatuses(String screenName, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
                 + "statuses/followers.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName + "&cursor=" + cursor, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName + "&cursor=" + cursor, auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public PagableResponseList<User> getFollowersStatuses(long userId, long cursor) throws TwitterException {
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL()
                 + "statuses/followers.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId + "&cursor=" + cursor, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId + "&cursor=" + cursor, auth), conf));
     }
 
     /*List Methods*/
@@ -703,18 +918,18 @@ class TwitterImpl extends TwitterBaseImpl
      * {@inheritDoc}
      */
     public ResponseList<Status> getUserListStatuses(String listOwnerScreenName, int id, Paging paging) throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + listOwnerScreenName +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + listOwnerScreenName +
                 "/lists/" + id + "/statuses.json", mergeParameters(paging.asPostParameterArray(Paging.SMCP, Paging.PER_PAGE)
-                , INCLUDE_ENTITIES), auth), conf);
+                , INCLUDE_ENTITIES), auth), conf));
     }
 
     /**
      * {@inheritDoc}
      */
     public ResponseList<Status> getUserListStatuses(long listOwnerId, int id, Paging paging) throws TwitterException {
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + listOwnerId +
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + listOwnerId +
                 "/lists/" + id + "/statuses.json", mergeParameters(paging.asPostParameterArray(Paging.SMCP, Paging.PER_PAGE)
-                , INCLUDE_ENTITIES), auth), conf);
+                , INCLUDE_ENTITIES), auth), conf));
     }
 
     /**
@@ -761,9 +976,9 @@ class TwitterImpl extends TwitterBaseImpl
     public PagableResponseList<User> getUserListMembers(String listOwnerScreenName, int listId
             , long cursor) throws TwitterException {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL() +
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL() +
                 listOwnerScreenName + "/" + listId + "/members.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf));
     }
 
     /**
@@ -772,9 +987,9 @@ class TwitterImpl extends TwitterBaseImpl
     public PagableResponseList<User> getUserListMembers(long listOwnerId, int listId
             , long cursor) throws TwitterException {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL() +
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL() +
                 listOwnerId + "/" + listId + "/members.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf));
     }
 
     /**
@@ -831,9 +1046,9 @@ class TwitterImpl extends TwitterBaseImpl
     public PagableResponseList<User> getUserListSubscribers(String listOwnerScreenName
             , int listId, long cursor) throws TwitterException {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL() +
+        return cacheUsers(UserJSONImpl.createPagableUserList(http.get(conf.getRestBaseURL() +
                 listOwnerScreenName + "/" + listId + "/subscribers.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&cursor=" + cursor, auth), conf));
     }
 
     /**
@@ -957,8 +1172,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User createFriendship(String screenName) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf);
+        return cache(invalidateAuthenticatingUser(new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf)));
     }
 
     /**
@@ -966,8 +1181,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User createFriendship(long userId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf);
+        return cache(invalidateAuthenticatingUser(new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf)));
     }
 
     /**
@@ -975,8 +1190,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User createFriendship(String screenName, boolean follow) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName + "&follow=" + follow, auth), conf);
+        return cache(invalidateAuthenticatingUser(new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName + "&follow=" + follow, auth), conf)));
     }
 
     /**
@@ -984,8 +1199,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User createFriendship(long userId, boolean follow) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId + "&follow=" + follow, auth), conf);
+        return cache(invalidateAuthenticatingUser(new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/create.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId + "&follow=" + follow, auth), conf)));
     }
 
     /**
@@ -993,8 +1208,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User destroyFriendship(String screenName) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/destroy.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf);
+        return cache(invalidateAuthenticatingUser(new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/destroy.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf)));
     }
 
     /**
@@ -1002,8 +1217,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User destroyFriendship(long userId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/destroy.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf);
+        return cache(invalidateAuthenticatingUser(new UserJSONImpl(http.post(conf.getRestBaseURL() + "friendships/destroy.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf)));
     }
 
     /**
@@ -1169,8 +1384,8 @@ class TwitterImpl extends TwitterBaseImpl
         addParameterToList(profile, "location", location);
         addParameterToList(profile, "description", description);
         profile.add(INCLUDE_ENTITIES);
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "account/update_profile.json"
-                , profile.toArray(new HttpParameter[profile.size()]), auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "account/update_profile.json"
+                , profile.toArray(new HttpParameter[profile.size()]), auth), conf));
     }
 
     /**
@@ -1212,9 +1427,9 @@ class TwitterImpl extends TwitterBaseImpl
         addParameterToList(colors, "profile_sidebar_border_color"
                 , profileSidebarBorderColor);
         colors.add(INCLUDE_ENTITIES);
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() +
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() +
                 "account/update_profile_colors.json",
-                colors.toArray(new HttpParameter[colors.size()]), auth), conf);
+                colors.toArray(new HttpParameter[colors.size()]), auth), conf));
     }
 
     private void addParameterToList(List<HttpParameter> colors,
@@ -1230,10 +1445,10 @@ class TwitterImpl extends TwitterBaseImpl
     public User updateProfileImage(File image) throws TwitterException {
         checkFileValidity(image);
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL()
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL()
                 + "account/update_profile_image.json"
                 , new HttpParameter[]{new HttpParameter("image", image)
-                        , INCLUDE_ENTITIES}, auth), conf);
+                        , INCLUDE_ENTITIES}, auth), conf));
     }
 
     /**
@@ -1241,10 +1456,10 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User updateProfileImage(InputStream image) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL()
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL()
                 + "account/update_profile_image.json"
                 , new HttpParameter[]{new HttpParameter("image", "image", image)
-                        , INCLUDE_ENTITIES}, auth), conf);
+                        , INCLUDE_ENTITIES}, auth), conf));
     }
 
     /**
@@ -1254,11 +1469,11 @@ class TwitterImpl extends TwitterBaseImpl
             throws TwitterException {
         ensureAuthorizationEnabled();
         checkFileValidity(image);
-        return new UserJSONImpl(http.post(conf.getRestBaseURL()
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL()
                 + "account/update_profile_background_image.json",
                 new HttpParameter[]{new HttpParameter("image", image)
                         , new HttpParameter("tile", tile)
-                        , INCLUDE_ENTITIES}, auth), conf);
+                        , INCLUDE_ENTITIES}, auth), conf));
     }
 
     /**
@@ -1267,11 +1482,11 @@ class TwitterImpl extends TwitterBaseImpl
     public User updateProfileBackgroundImage(InputStream image, boolean tile)
             throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL()
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL()
                 + "account/update_profile_background_image.json",
                 new HttpParameter[]{new HttpParameter("image", "image", image)
                         , new HttpParameter("tile", tile)
-                        , INCLUDE_ENTITIES}, auth), conf);
+                        , INCLUDE_ENTITIES}, auth), conf));
     }
 
     /**
@@ -1297,9 +1512,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getFavorites() throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "favorites.json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -1307,9 +1522,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getFavorites(int page) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + "favorites.json"
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + "favorites.json"
                 , new HttpParameter[]{new HttpParameter("page", page)
-                        , INCLUDE_ENTITIES}, auth), conf);
+                        , INCLUDE_ENTITIES}, auth), conf));
     }
 
     /**
@@ -1317,9 +1532,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getFavorites(String id) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL()
                 + "favorites/" + id + ".json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -1327,9 +1542,9 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public ResponseList<Status> getFavorites(String id, int page) throws TwitterException {
         ensureAuthorizationEnabled();
-        return StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + "favorites/" + id + ".json",
+        return cacheStatuses(StatusJSONImpl.createStatusList(http.get(conf.getRestBaseURL() + "favorites/" + id + ".json",
                 mergeParameters(getParameterArray("page", page)
-                        , INCLUDE_ENTITIES), auth), conf);
+                        , INCLUDE_ENTITIES), auth), conf));
     }
 
     /**
@@ -1337,8 +1552,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public Status createFavorite(long id) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new StatusJSONImpl(http.post(conf.getRestBaseURL() + "favorites/create/" + id + ".json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+        return cache(invalidateAuthenticatingUser(new StatusJSONImpl(http.post(conf.getRestBaseURL() + "favorites/create/" + id + ".json?include_entities="
+                + conf.isIncludeEntitiesEnabled(), auth), conf)));
     }
 
     /**
@@ -1346,8 +1561,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public Status destroyFavorite(long id) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new StatusJSONImpl(http.post(conf.getRestBaseURL() + "favorites/destroy/" + id + ".json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+        return cache(invalidateAuthenticatingUser(new StatusJSONImpl(http.post(conf.getRestBaseURL() + "favorites/destroy/" + id + ".json?include_entities="
+                + conf.isIncludeEntitiesEnabled(), auth), conf)));
     }
 
     /**
@@ -1355,8 +1570,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User enableNotification(String screenName) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/follow.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/follow.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf));
     }
 
     /**
@@ -1364,8 +1579,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User enableNotification(long userId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/follow.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&userId=" + userId, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/follow.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&userId=" + userId, auth), conf));
     }
 
     /**
@@ -1373,8 +1588,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User disableNotification(String screenName) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/leave.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/leave.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf));
     }
 
     /**
@@ -1382,8 +1597,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User disableNotification(long userId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/leave.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "notifications/leave.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf));
     }
 
     /* Block Methods */
@@ -1393,8 +1608,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User createBlock(String screenName) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/create.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/create.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf));
     }
 
     /**
@@ -1402,8 +1617,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User createBlock(long userId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/create.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/create.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf));
     }
 
     /**
@@ -1411,8 +1626,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User destroyBlock(String screen_name) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/destroy.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screen_name, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/destroy.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screen_name, auth), conf));
     }
 
     /**
@@ -1420,8 +1635,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User destroyBlock(long userId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/destroy.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "blocks/destroy.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf));
     }
 
     /**
@@ -1462,9 +1677,9 @@ class TwitterImpl extends TwitterBaseImpl
     public ResponseList<User> getBlockingUsers() throws
             TwitterException {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
+        return cacheUsers(UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
                 "blocks/blocking.json?include_entities="
-                + conf.isIncludeEntitiesEnabled(), auth), conf);
+                + conf.isIncludeEntitiesEnabled(), auth), conf));
     }
 
     /**
@@ -1473,9 +1688,9 @@ class TwitterImpl extends TwitterBaseImpl
     public ResponseList<User> getBlockingUsers(int page) throws
             TwitterException {
         ensureAuthorizationEnabled();
-        return UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
+        return cacheUsers(UserJSONImpl.createUserList(http.get(conf.getRestBaseURL() +
                 "blocks/blocking.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&page=" + page, auth), conf);
+                + conf.isIncludeEntitiesEnabled() + "&page=" + page, auth), conf));
     }
 
     /**
@@ -1493,8 +1708,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User reportSpam(long userId) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "report_spam.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "report_spam.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&user_id=" + userId, auth), conf));
     }
 
     /**
@@ -1502,8 +1717,8 @@ class TwitterImpl extends TwitterBaseImpl
      */
     public User reportSpam(String screenName) throws TwitterException {
         ensureAuthorizationEnabled();
-        return new UserJSONImpl(http.post(conf.getRestBaseURL() + "report_spam.json?include_entities="
-                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf);
+        return cache(new UserJSONImpl(http.post(conf.getRestBaseURL() + "report_spam.json?include_entities="
+                + conf.isIncludeEntitiesEnabled() + "&screen_name=" + screenName, auth), conf));
     }
 
     /* Saved Searches Methods */
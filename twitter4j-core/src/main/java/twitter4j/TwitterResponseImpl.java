@@ -17,6 +17,7 @@
 package twitter4j;
 
 import twitter4j.internal.http.HttpResponse;
+import twitter4j.internal.json.RawJSONHolder;
 
 
 /**
@@ -27,9 +28,10 @@ import twitter4j.internal.http.HttpResponse;
  * @see twitter4j.Status
  * @see twitter4j.User
  */
-/*package*/ abstract class TwitterResponseImpl implements TwitterResponse, java.io.Serializable {
+/*package*/ abstract class TwitterResponseImpl implements TwitterResponse, java.io.Serializable, RawJSONHolder, Cloneable {
 
     private transient RateLimitStatus rateLimitStatus = null;
+    private transient byte[] rawJSON = null;
     private static final long serialVersionUID = -7284708239736552059L;
 
     public TwitterResponseImpl() {
@@ -45,4 +47,34 @@ import twitter4j.internal.http.HttpResponse;
     public RateLimitStatus getRateLimitStatus() {
         return rateLimitStatus;
     }
+
+    /**
+     * Returns a shallow copy of this object with no rate limit status, to be handed out again without a request
+     * being made.
+     *
+     * @return the copy
+     */
+    /*package*/ TwitterResponseImpl copyWithoutRateLimitStatus() {
+        try {
+            TwitterResponseImpl copy = (TwitterResponseImpl) clone();
+            copy.rateLimitStatus = null;
+            return copy;
+        } catch (CloneNotSupportedException cnse) {
+            throw new AssertionError(cnse);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public byte[] getRawJSONBytes() {
+        return rawJSON;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setRawJSONBytes(byte[] rawJSON) {
+        this.rawJSON = rawJSON;
+    }
 }
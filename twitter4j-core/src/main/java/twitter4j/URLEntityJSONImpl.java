@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -69,6 +70,43 @@ import java.net.URL;
         }
     }
 
+    /* package */ URLEntityJSONImpl(JSONReader reader) throws TwitterException {
+        super();
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("indices".equals(name)) {
+                    reader.beginArray();
+                    this.start = reader.nextInt();
+                    this.end = reader.nextInt();
+                    reader.endArray();
+                } else if ("url".equals(name)) {
+                    this.url = toURL(reader.nextString());
+                } else if ("expanded_url".equals(name)) {
+                    this.expandedURL = toURL(reader.nextString());
+                } else if ("display_url".equals(name)) {
+                    this.displayURL = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
+    private static URL toURL(String url) {
+        if (null != url) {
+            try {
+                return new URL(url);
+            } catch (MalformedURLException ignore) {
+            }
+        }
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
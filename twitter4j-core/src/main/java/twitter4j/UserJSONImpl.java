@@ -19,10 +19,14 @@ package twitter4j;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
+import twitter4j.internal.logging.Logger;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Date;
@@ -40,6 +44,7 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
  * @see <a href="http://apiwiki.twitter.com/REST+API+Documentation#Basicuserinformationelement">REST API Documentation - Basic user information element</a>
  */
 /*package*/ final class UserJSONImpl extends TwitterResponseImpl implements User, java.io.Serializable {
+    private static final Logger logger = Logger.getLogger(UserJSONImpl.class);
 
     private long id;
     private String name;
@@ -77,24 +82,60 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
     private boolean isFollowRequestSent;
     private static final long serialVersionUID = -6345893237975349030L;
 
+    // lazy parsing: the fields below are decoded from lazyJSON on first access
+    private static final int CREATED_AT = 1;
+    private static final int STATUS = 1 << 1;
+    private static final int ALL_LAZY_FIELDS = CREATED_AT | STATUS;
+
+    private transient JSONObject lazyJSON = null;
+    private transient volatile int pendingFields = 0;
+
     /*package*/UserJSONImpl(HttpResponse res, Configuration conf) throws TwitterException {
         super(res);
+        if (!conf.isJSONStoreEnabled() && !conf.isLazyParsingEnabled()) {
+            // the raw JSONObject won't be stored. populate fields straight from the response text
+            try {
+                init(new JSONReader(res.asReaderToParse()));
+            } finally {
+                res.parsed();
+            }
+            return;
+        }
         if (conf.isJSONStoreEnabled()) {
             DataObjectFactoryUtil.clearThreadLocalMap();
         }
         JSONObject json = res.asJSONObject();
-        init(json);
+        init(json, conf.isLazyParsingEnabled());
         if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+            DataObjectFactoryUtil.registerJSONObject(this, json, conf);
         }
     }
 
     /*package*/UserJSONImpl(JSONObject json) throws TwitterException {
+        this(json, false);
+    }
+
+    /*package*/UserJSONImpl(JSONObject json, Configuration conf) throws TwitterException {
+        this(json, conf.isLazyParsingEnabled());
+    }
+
+    /**
+     * @param json JSONObject to be parsed
+     * @param lazy if true, the JSONObject is retained and created_at and status are decoded on first access.
+     *             decoding errors are then logged instead of being thrown.
+     * @throws TwitterException when the JSONObject is malformed
+     */
+    /*package*/UserJSONImpl(JSONObject json, boolean lazy) throws TwitterException {
+        super();
+        init(json, lazy);
+    }
+
+    /*package*/UserJSONImpl(JSONReader reader) throws TwitterException {
         super();
-        init(json);
+        init(reader);
     }
 
-    private void init(JSONObject json) throws TwitterException {
+    private void init(JSONObject json, boolean lazy) throws TwitterException {
         try {
             id = getLong("id", json);
             name = getRawString("name", json);
@@ -118,7 +159,6 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
             profileUseBackgroundImage = getBoolean("profile_use_background_image", json);
             showAllInlineMedia = getBoolean("show_all_inline_media", json);
             friendsCount = getInt("friends_count", json);
-            createdAt = getDate("created_at", json, "EEE MMM dd HH:mm:ss z yyyy");
             favouritesCount = getInt("favourites_count", json);
             utcOffset = getInt("utc_offset", json);
             timeZone = getRawString("time_zone", json);
@@ -128,15 +168,149 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
             statusesCount = getInt("statuses_count", json);
             listedCount = getInt("listed_count", json);
             isFollowRequestSent = getBoolean("follow_request_sent", json);
-            if (!json.isNull("status")) {
-                JSONObject statusJSON = json.getJSONObject("status");
-                status = new StatusJSONImpl(statusJSON);
+            if (lazy) {
+                lazyJSON = json;
+                pendingFields = ALL_LAZY_FIELDS;
+            } else {
+                decode(json, CREATED_AT, false);
+                decode(json, STATUS, false);
             }
         } catch (JSONException jsone) {
             throw new TwitterException(jsone.getMessage() + ":" + json.toString(), jsone);
         }
     }
 
+    private void decode(JSONObject json, int field, boolean lazy) throws TwitterException, JSONException {
+        if (CREATED_AT == field) {
+            createdAt = getDate("created_at", json, "EEE MMM dd HH:mm:ss z yyyy");
+        } else if (!json.isNull("status")) {
+            JSONObject statusJSON = json.getJSONObject("status");
+            status = new StatusJSONImpl(statusJSON, lazy);
+        }
+    }
+
+    /**
+     * Decodes the given lazy fields if they're not decoded yet.
+     *
+     * @param fields fields to be decoded
+     */
+    private void materialize(int fields) {
+        if (0 == (pendingFields & fields)) {
+            return;
+        }
+        synchronized (this) {
+            JSONObject json = lazyJSON;
+            for (int bit = CREATED_AT; bit <= STATUS; bit <<= 1) {
+                if (0 != (fields & bit) && 0 != (pendingFields & bit)) {
+                    try {
+                        decode(json, bit, true);
+                    } catch (TwitterException te) {
+                        logger.warn("failed to parse user:" + te.getMessage());
+                    } catch (JSONException jsone) {
+                        logger.warn("failed to parse user:" + jsone.getMessage());
+                    }
+                    // volatile write publishes the decoded field
+                    pendingFields &= ~bit;
+                }
+            }
+            if (0 == pendingFields) {
+                lazyJSON = null;
+            }
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        materialize(ALL_LAZY_FIELDS);
+        out.defaultWriteObject();
+    }
+
+    private void init(JSONReader reader) throws TwitterException {
+        // defaults for missing elements, same as init(JSONObject)
+        id = -1;
+        followersCount = -1;
+        friendsCount = -1;
+        favouritesCount = -1;
+        utcOffset = -1;
+        statusesCount = -1;
+        listedCount = -1;
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("id".equals(name)) {
+                    id = getLong(reader);
+                } else if ("name".equals(name)) {
+                    this.name = getRawString(reader);
+                } else if ("screen_name".equals(name)) {
+                    screenName = getRawString(reader);
+                } else if ("location".equals(name)) {
+                    location = getRawString(reader);
+                } else if ("description".equals(name)) {
+                    description = getRawString(reader);
+                } else if ("contributors_enabled".equals(name)) {
+                    isContributorsEnabled = getBoolean(reader);
+                } else if ("profile_image_url".equals(name)) {
+                    profileImageUrl = getRawString(reader);
+                } else if ("url".equals(name)) {
+                    url = getRawString(reader);
+                } else if ("protected".equals(name)) {
+                    isProtected = getBoolean(reader);
+                } else if ("geo_enabled".equals(name)) {
+                    isGeoEnabled = getBoolean(reader);
+                } else if ("verified".equals(name)) {
+                    isVerified = getBoolean(reader);
+                } else if ("is_translator".equals(name)) {
+                    translator = getBoolean(reader);
+                } else if ("followers_count".equals(name)) {
+                    followersCount = getInt(reader);
+                } else if ("profile_background_color".equals(name)) {
+                    profileBackgroundColor = getRawString(reader);
+                } else if ("profile_text_color".equals(name)) {
+                    profileTextColor = getRawString(reader);
+                } else if ("profile_link_color".equals(name)) {
+                    profileLinkColor = getRawString(reader);
+                } else if ("profile_sidebar_fill_color".equals(name)) {
+                    profileSidebarFillColor = getRawString(reader);
+                } else if ("profile_sidebar_border_color".equals(name)) {
+                    profileSidebarBorderColor = getRawString(reader);
+                } else if ("profile_use_background_image".equals(name)) {
+                    profileUseBackgroundImage = getBoolean(reader);
+                } else if ("show_all_inline_media".equals(name)) {
+                    showAllInlineMedia = getBoolean(reader);
+                } else if ("friends_count".equals(name)) {
+                    friendsCount = getInt(reader);
+                } else if ("created_at".equals(name)) {
+                    createdAt = getDate(reader, "EEE MMM dd HH:mm:ss z yyyy");
+                } else if ("favourites_count".equals(name)) {
+                    favouritesCount = getInt(reader);
+                } else if ("utc_offset".equals(name)) {
+                    utcOffset = getInt(reader);
+                } else if ("time_zone".equals(name)) {
+                    timeZone = getRawString(reader);
+                } else if ("profile_background_image_url".equals(name)) {
+                    profileBackgroundImageUrl = getRawString(reader);
+                } else if ("profile_background_tile".equals(name)) {
+                    profileBackgroundTiled = getBoolean(reader);
+                } else if ("lang".equals(name)) {
+                    lang = getRawString(reader);
+                } else if ("statuses_count".equals(name)) {
+                    statusesCount = getInt(reader);
+                } else if ("listed_count".equals(name)) {
+                    listedCount = getInt(reader);
+                } else if ("follow_request_sent".equals(name)) {
+                    isFollowRequestSent = getBoolean(reader);
+                } else if ("status".equals(name) && JSONReader.Token.NULL != reader.peek()) {
+                    status = new StatusJSONImpl(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
     public int compareTo(User that) {
         return (int) (this.id - that.getId());
     }
@@ -276,6 +450,7 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
      * {@inheritDoc}
      */
     public Status getStatus() {
+        materialize(STATUS);
         return status;
     }
 
@@ -284,6 +459,7 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
      * {@inheritDoc}
      */
     public Date getCreatedAt() {
+        materialize(CREATED_AT);
         return createdAt;
     }
 
@@ -386,12 +562,12 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
                 JSONObject userJson = list.getJSONObject(i);
                 User user = new UserJSONImpl(userJson);
                 if(conf.isJSONStoreEnabled()){
-                    DataObjectFactoryUtil.registerJSONObject(user, userJson);
+                    DataObjectFactoryUtil.registerJSONObject(user, userJson, conf);
                 }
                 users.add(user);
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(users, json);
+                DataObjectFactoryUtil.registerJSONObject(users, json, conf);
             }
             return users;
         } catch (JSONException jsone) {
@@ -403,9 +579,30 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
 
     /*package*/
     static ResponseList<User> createUserList(HttpResponse res, Configuration conf) throws TwitterException {
+        if (!conf.isJSONStoreEnabled() && !conf.isLazyParsingEnabled()) {
+            try {
+                return createUserList(new JSONReader(res.asReaderToParse()), res);
+            } finally {
+                res.parsed();
+            }
+        }
         return createUserList(res.asJSONArray(), res, conf);
     }
 
+    private static ResponseList<User> createUserList(JSONReader reader, HttpResponse res) throws TwitterException {
+        try {
+            ResponseList<User> users = new ResponseListImpl<User>(20, res);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                users.add(new UserJSONImpl(reader));
+            }
+            reader.endArray();
+            return users;
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
     /*package*/
     static ResponseList<User> createUserList(JSONArray list, HttpResponse res, Configuration conf) throws TwitterException {
         try {
@@ -417,14 +614,14 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
                     new ResponseListImpl<User>(size, res);
             for (int i = 0; i < size; i++) {
                 JSONObject json = list.getJSONObject(i);
-                User user = new UserJSONImpl(json);
+                User user = new UserJSONImpl(json, conf);
                 users.add(user);
                 if(conf.isJSONStoreEnabled()){
-                    DataObjectFactoryUtil.registerJSONObject(user, json);
+                    DataObjectFactoryUtil.registerJSONObject(user, json, conf);
                 }
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(users, list);
+                DataObjectFactoryUtil.registerJSONObject(users, list, conf);
             }
             return users;
         } catch (JSONException jsone) {
@@ -452,6 +649,7 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
 
     @Override
     public String toString() {
+        materialize(ALL_LAZY_FIELDS);
         return "UserJSONImpl{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
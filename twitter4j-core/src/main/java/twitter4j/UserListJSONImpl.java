@@ -59,7 +59,7 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
         JSONObject json = res.asJSONObject();
         init(json);
         if (conf.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(this, json);
+            DataObjectFactoryUtil.registerJSONObject(this, json, conf);
         }
     }
 
@@ -190,11 +190,11 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
                 UserList userList = new UserListJSONImpl(userListJson);
                 users.add(userList);
                 if (conf.isJSONStoreEnabled()) {
-                    DataObjectFactoryUtil.registerJSONObject(userList, userListJson);
+                    DataObjectFactoryUtil.registerJSONObject(userList, userListJson, conf);
                 }
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(users, json);
+                DataObjectFactoryUtil.registerJSONObject(users, json, conf);
             }
             return users;
         } catch (JSONException jsone) {
@@ -219,11 +219,11 @@ import static twitter4j.internal.util.ParseUtil.getRawString;
                 UserList userList = new UserListJSONImpl(userListJson);
                 users.add(userList);
                 if(conf.isJSONStoreEnabled()){
-                    DataObjectFactoryUtil.registerJSONObject(userList, userListJson);
+                    DataObjectFactoryUtil.registerJSONObject(userList, userListJson, conf);
                 }
             }
             if (conf.isJSONStoreEnabled()) {
-                DataObjectFactoryUtil.registerJSONObject(users, list);
+                DataObjectFactoryUtil.registerJSONObject(users, list, conf);
             }
             return users;
         } catch (JSONException jsone) {
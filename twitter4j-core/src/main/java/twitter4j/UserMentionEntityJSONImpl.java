@@ -19,6 +19,7 @@ package twitter4j;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 import twitter4j.internal.util.ParseUtil;
 
 /**
@@ -58,6 +59,34 @@ import twitter4j.internal.util.ParseUtil;
         }
     }
 
+    /* package */ UserMentionEntityJSONImpl(JSONReader reader) throws TwitterException {
+        super();
+        id = -1;
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("indices".equals(name)) {
+                    reader.beginArray();
+                    this.start = reader.nextInt();
+                    this.end = reader.nextInt();
+                    reader.endArray();
+                } else if ("name".equals(name)) {
+                    this.name = reader.nextString();
+                } else if ("screen_name".equals(name)) {
+                    this.screenName = reader.nextString();
+                } else if ("id".equals(name)) {
+                    id = ParseUtil.getLong(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (JSONException jsone) {
+            throw new TwitterException(jsone);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
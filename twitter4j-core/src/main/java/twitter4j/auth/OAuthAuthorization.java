@@ -18,19 +18,15 @@ package twitter4j.auth;
 
 import twitter4j.TwitterException;
 import twitter4j.conf.Configuration;
-import twitter4j.internal.http.BASE64Encoder;
 import twitter4j.internal.http.HttpClientWrapper;
 import twitter4j.internal.http.HttpParameter;
 import twitter4j.internal.http.HttpRequest;
 import twitter4j.internal.logging.Logger;
 import twitter4j.internal.util.T4JInternalStringUtil;
 
-import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -47,10 +43,16 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
 
     private static final String HMAC_SHA1 = "HmacSHA1";
     private static final HttpParameter OAUTH_SIGNATURE_METHOD = new HttpParameter("oauth_signature_method", "HMAC-SHA1");
+    private static final HttpParameter[] NO_PARAMETERS = new HttpParameter[0];
+    // sorted
+    private static final String[] OAUTH_PARAMETER_NAMES = {"oauth_consumer_key", "oauth_nonce"
+            , "oauth_signature_method", "oauth_timestamp", "oauth_token", "oauth_version"};
     private static final Logger logger = Logger.getLogger(OAuthAuthorization.class);
     private static final long serialVersionUID = -4368426677157998618L;
     private String consumerKey = "";
     private String consumerSecret;
+    private transient String encodedConsumerKey;
+    private transient SecretKeySpec consumerSecretKeySpec;
 
     private String realm = null;
 
@@ -176,6 +178,17 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
         this.oauthToken = accessToken;
     }
 
+    /**
+     * Returns the consumer key and the token currently set, which identify the account the requests are signed on
+     * behalf of.
+     *
+     * @return consumer key and token separated by a space, or the consumer key alone if no token has been set
+     * @since Twitter4J 2.2.1
+     */
+    public String getAccountKey() {
+        return null == oauthToken ? consumerKey : consumerKey + " " + oauthToken.getToken();
+    }
+
     /**
      * Sets the OAuth realm
      *
@@ -188,39 +201,100 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
 
 
     /*package*/ String generateAuthorizationHeader(String method, String url, HttpParameter[] params, String nonce, String timestamp, OAuthToken otoken) {
-        if (null == params) {
-            params = new HttpParameter[0];
+        if (null == params || HttpParameter.containsFile(params)) {
+            params = NO_PARAMETERS;
         }
-        List<HttpParameter> oauthHeaderParams = new ArrayList<HttpParameter>(5);
-        oauthHeaderParams.add(new HttpParameter("oauth_consumer_key", consumerKey));
-        oauthHeaderParams.add(OAUTH_SIGNATURE_METHOD);
-        oauthHeaderParams.add(new HttpParameter("oauth_timestamp", timestamp));
-        oauthHeaderParams.add(new HttpParameter("oauth_nonce", nonce));
-        oauthHeaderParams.add(new HttpParameter("oauth_version", "1.0"));
+        String encodedNonce = HttpParameter.encode(nonce);
+        String encodedTimestamp = HttpParameter.encode(timestamp);
+        String signature = generateSignature(method, url, params, nonce, encodedNonce, timestamp, encodedTimestamp, otoken);
+
+        StringBuilder header = new StringBuilder(256);
+        header.append("OAuth oauth_consumer_key=\"").append(getEncodedConsumerKey())
+                .append("\",oauth_signature_method=\"HMAC-SHA1\",oauth_timestamp=\"").append(encodedTimestamp)
+                .append("\",oauth_nonce=\"").append(encodedNonce)
+                .append("\",oauth_version=\"1.0\"");
         if (null != otoken) {
-            oauthHeaderParams.add(new HttpParameter("oauth_token", otoken.getToken()));
-        }
-        List<HttpParameter> signatureBaseParams = new ArrayList<HttpParameter>(oauthHeaderParams.size() + params.length);
-        signatureBaseParams.addAll(oauthHeaderParams);
-        if (!HttpParameter.containsFile(params)) {
-            signatureBaseParams.addAll(toParamList(params));
+            header.append(",oauth_token=\"").append(otoken.getEncodedToken()).append('"');
         }
-        parseGetParameters(url, signatureBaseParams);
-        StringBuffer base = new StringBuffer(method).append("&")
-                .append(HttpParameter.encode(constructRequestURL(url))).append("&");
-        base.append(HttpParameter.encode(normalizeRequestParameters(signatureBaseParams)));
-        String oauthBaseString = base.toString();
-        logger.debug("OAuth base string: ", oauthBaseString);
-        String signature = generateSignature(oauthBaseString, otoken);
-        logger.debug("OAuth signature: ", signature);
-
-        oauthHeaderParams.add(new HttpParameter("oauth_signature", signature));
-
+        header.append(",oauth_signature=\"");
+        HttpParameter.encode(signature, header).append('"');
         // http://oauth.net/core/1.0/#rfc.section.9.1.1
         if (null != realm) {
-            oauthHeaderParams.add(new HttpParameter("realm", realm));
+            header.append(",realm=\"");
+            HttpParameter.encode(realm, header).append('"');
         }
-        return "OAuth " + encodeParameters(oauthHeaderParams, ",", true);
+        return header.toString();
+    }
+
+    /**
+     * Builds the signature base string into the buffer of the thread's signer and signs it.<br>
+     * The request parameters are sorted on their own and merged with the OAuth parameters, whose order is fixed, so that the consumer key and the token are encoded only once.
+     *
+     * @return signature
+     * @see <a href="http://oauth.net/core/1.0a/#anchor13">OAuth Core - 9.1.  Signature Base String</a>
+     */
+    private String generateSignature(String method, String url, HttpParameter[] params, String nonce, String encodedNonce
+            , String timestamp, String encodedTimestamp, OAuthToken otoken) {
+        HttpParameter[] sorted;
+        if (-1 == url.indexOf('?')) {
+            sorted = params.clone();
+        } else {
+            List<HttpParameter> paramList = toParamList(params);
+            parseGetParameters(url, paramList);
+            sorted = paramList.toArray(new HttpParameter[paramList.size()]);
+        }
+        Arrays.sort(sorted);
+        String token = null;
+        String encodedToken = null;
+        if (null != otoken) {
+            token = otoken.getToken();
+            encodedToken = otoken.getEncodedToken();
+        }
+        // in the order of OAUTH_PARAMETER_NAMES
+        String[] values = {consumerKey, nonce, "HMAC-SHA1", timestamp, token, "1.0"};
+        String[] encodedValues = {getEncodedConsumerKey(), encodedNonce, "HMAC-SHA1", encodedTimestamp, encodedToken, "1.0"};
+
+        OAuthSigner signer = OAuthSigner.getInstance();
+        StringBuilder base = signer.getBuffer();
+        base.append(method).append('&');
+        HttpParameter.encode(constructRequestURL(url), base).append('&');
+        int oauthIndex = 0;
+        int paramIndex = 0;
+        boolean first = true;
+        while (oauthIndex < values.length || paramIndex < sorted.length) {
+            if (oauthIndex < values.length && null == values[oauthIndex]) {
+                // no token
+                oauthIndex++;
+                continue;
+            }
+            if (!first) {
+                base.append("%26");
+            }
+            first = false;
+            boolean oauthParameterFirst = paramIndex == sorted.length;
+            if (!oauthParameterFirst && oauthIndex < values.length) {
+                int compared = OAUTH_PARAMETER_NAMES[oauthIndex].compareTo(sorted[paramIndex].getName());
+                if (0 == compared) {
+                    compared = values[oauthIndex].compareTo(sorted[paramIndex].getValue());
+                }
+                oauthParameterFirst = compared <= 0;
+            }
+            if (oauthParameterFirst) {
+                base.append(OAUTH_PARAMETER_NAMES[oauthIndex]).append("%3D");
+                OAuthSigner.appendEncoded(base, encodedValues[oauthIndex]);
+                oauthIndex++;
+            } else {
+                HttpParameter.encode(sorted[paramIndex].getName(), base, true).append("%3D");
+                HttpParameter.encode(sorted[paramIndex].getValue(), base, true);
+                paramIndex++;
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("OAuth base string: ", base.toString());
+        }
+        String signature = signer.sign(getSecretKeySpec(otoken));
+        logger.debug("OAuth signature: ", signature);
+        return signature;
     }
 
     private void parseGetParameters(String url, List<HttpParameter> signatureBaseParams) {
@@ -264,7 +338,11 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
         long timestamp = System.currentTimeMillis() / 1000;
         long nonce = timestamp + RAND.nextInt();
 
-        List<HttpParameter> oauthHeaderParams = new ArrayList<HttpParameter>(5);
+        String nonceStr = String.valueOf(nonce);
+        String timestampStr = String.valueOf(timestamp);
+        String signature = generateSignature(method, url, NO_PARAMETERS, nonceStr, nonceStr, timestampStr, timestampStr, oauthToken);
+
+        List<HttpParameter> oauthHeaderParams = new ArrayList<HttpParameter>(7);
         oauthHeaderParams.add(new HttpParameter("oauth_consumer_key", consumerKey));
         oauthHeaderParams.add(OAUTH_SIGNATURE_METHOD);
         oauthHeaderParams.add(new HttpParameter("oauth_timestamp", timestamp));
@@ -273,18 +351,6 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
         if (null != oauthToken) {
             oauthHeaderParams.add(new HttpParameter("oauth_token", oauthToken.getToken()));
         }
-
-        List<HttpParameter> signatureBaseParams = new ArrayList<HttpParameter>(oauthHeaderParams.size());
-        signatureBaseParams.addAll(oauthHeaderParams);
-        parseGetParameters(url, signatureBaseParams);
-
-        StringBuffer base = new StringBuffer(method).append("&")
-                .append(HttpParameter.encode(constructRequestURL(url))).append("&");
-        base.append(HttpParameter.encode(normalizeRequestParameters(signatureBaseParams)));
-
-        String oauthBaseString = base.toString();
-        String signature = generateSignature(oauthBaseString, oauthToken);
-
         oauthHeaderParams.add(new HttpParameter("oauth_signature", signature));
 
         return oauthHeaderParams;
@@ -299,29 +365,32 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
      * @see <a href="http://oauth.net/core/1.0a/#rfc.section.9.2.1">OAuth Core - 9.2.1.  Generating Signature</a>
      */
     /*package*/ String generateSignature(String data, OAuthToken token) {
-        byte[] byteHMAC = null;
-        try {
-            Mac mac = Mac.getInstance(HMAC_SHA1);
-            SecretKeySpec spec;
-            if (null == token) {
+        byte[] bytes = data.getBytes();
+        return OAuthSigner.getInstance().sign(getSecretKeySpec(token), bytes, bytes.length);
+    }
+
+    private SecretKeySpec getSecretKeySpec(OAuthToken token) {
+        if (null == token) {
+            if (null == consumerSecretKeySpec) {
                 String oauthSignature = HttpParameter.encode(consumerSecret) + "&";
-                spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
-            } else {
-                spec = token.getSecretKeySpec();
-                if (null == spec) {
-                    String oauthSignature = HttpParameter.encode(consumerSecret) + "&" + HttpParameter.encode(token.getTokenSecret());
-                    spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
-                    token.setSecretKeySpec(spec);
-                }
+                consumerSecretKeySpec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
             }
-            mac.init(spec);
-            byteHMAC = mac.doFinal(data.getBytes());
-        } catch (InvalidKeyException e) {
-            e.printStackTrace();
-        } catch (NoSuchAlgorithmException ignore) {
-            // should never happen
+            return consumerSecretKeySpec;
+        }
+        SecretKeySpec spec = token.getSecretKeySpec();
+        if (null == spec) {
+            String oauthSignature = HttpParameter.encode(consumerSecret) + "&" + HttpParameter.encode(token.getTokenSecret());
+            spec = new SecretKeySpec(oauthSignature.getBytes(), HMAC_SHA1);
+            token.setSecretKeySpec(spec);
+        }
+        return spec;
+    }
+
+    private String getEncodedConsumerKey() {
+        if (null == encodedConsumerKey) {
+            encodedConsumerKey = HttpParameter.encode(consumerKey);
         }
-        return BASE64Encoder.encode(byteHMAC);
+        return encodedConsumerKey;
     }
 
     /*package*/
@@ -381,7 +450,7 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
     }
 
     public static String encodeParameters(List<HttpParameter> httpParams, String splitter, boolean quot) {
-        StringBuffer buf = new StringBuffer();
+        StringBuilder buf = new StringBuilder();
         for (HttpParameter param : httpParams) {
             if (!param.isFile()) {
                 if (buf.length() != 0) {
@@ -390,11 +459,11 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
                     }
                     buf.append(splitter);
                 }
-                buf.append(HttpParameter.encode(param.getName())).append("=");
+                HttpParameter.encode(param.getName(), buf).append("=");
                 if (quot) {
                     buf.append("\"");
                 }
-                buf.append(HttpParameter.encode(param.getValue()));
+                HttpParameter.encode(param.getValue(), buf);
             }
         }
         if (buf.length() != 0) {
@@ -445,6 +514,8 @@ public class OAuthAuthorization implements Authorization, java.io.Serializable,
     public void setOAuthConsumer(String consumerKey, String consumerSecret) {
         this.consumerKey = null != consumerKey ? consumerKey : "";
         this.consumerSecret = null != consumerSecret ? consumerSecret : "";
+        encodedConsumerKey = null;
+        consumerSecretKeySpec = null;
     }
 
     @Override
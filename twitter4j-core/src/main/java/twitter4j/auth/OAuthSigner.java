@@ -0,0 +1,140 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.auth;
+
+import twitter4j.internal.http.BASE64Encoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-confined HMAC-SHA1 signing engine.<br>
+ * Mac.getInstance() and Mac.init() are costly compared to signing a short base string, so each thread keeps initialized Mac instances for the most recently used keys, along with a buffer the signature base string is built into.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class OAuthSigner {
+    private static final String HMAC_SHA1 = "HmacSHA1";
+    private static final int MAX_CACHED_MACS = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+    // don't keep buffers grown by huge requests
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<OAuthSigner> SIGNER = new ThreadLocal<OAuthSigner>() {
+        @Override
+        protected OAuthSigner initialValue() {
+            return new OAuthSigner();
+        }
+    };
+
+    private StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private final Map<SecretKeySpec, Mac> macs = new LinkedHashMap<SecretKeySpec, Mac>(16, 0.75f, true) {
+        private static final long serialVersionUID = 2390541286377962581L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SecretKeySpec, Mac> eldest) {
+            return size() > MAX_CACHED_MACS;
+        }
+    };
+
+    private OAuthSigner() {
+    }
+
+    /**
+     * @return the signer confined to the current thread
+     */
+    static OAuthSigner getInstance() {
+        return SIGNER.get();
+    }
+
+    /**
+     * @return the emptied base string buffer
+     */
+    StringBuilder getBuffer() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * Signs the content of the buffer, which is expected to contain only US-ASCII characters as the signature base string does.
+     *
+     * @param spec key
+     * @return BASE64 encoded signature
+     */
+    String sign(SecretKeySpec spec) {
+        int length = buffer.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) buffer.charAt(i);
+        }
+        return sign(spec, bytes, length);
+    }
+
+    /**
+     * @param spec   key
+     * @param data   data to be signed
+     * @param length length of the data
+     * @return BASE64 encoded signature
+     */
+    String sign(SecretKeySpec spec, byte[] data, int length) {
+        Mac mac = macs.get(spec);
+        try {
+            if (null == mac) {
+                mac = Mac.getInstance(HMAC_SHA1);
+                mac.init(spec);
+                macs.put(spec, mac);
+            }
+        } catch (InvalidKeyException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            // should never happen
+            throw new AssertionError(e);
+        }
+        mac.update(data, 0, length);
+        // doFinal() resets the Mac to its initialized state
+        return BASE64Encoder.encode(mac.doFinal());
+    }
+
+    /**
+     * Appends an already percent-encoded string, encoding it once more as the signature base string requires.
+     *
+     * @param buf     buffer
+     * @param encoded percent-encoded string
+     */
+    static void appendEncoded(StringBuilder buf, String encoded) {
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if ('%' == c) {
+                buf.append("%25");
+            } else {
+                buf.append(c);
+            }
+        }
+    }
+}
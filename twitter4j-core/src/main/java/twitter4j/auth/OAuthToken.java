@@ -17,6 +17,7 @@
 package twitter4j.auth;
 
 import twitter4j.TwitterException;
+import twitter4j.internal.http.HttpParameter;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.util.T4JInternalStringUtil;
 
@@ -29,6 +30,7 @@ abstract class OAuthToken implements java.io.Serializable {
     private String tokenSecret;
 
     private transient SecretKeySpec secretKeySpec;
+    private transient String encodedToken;
     String[] responseStr = null;
 
     public OAuthToken(String token, String tokenSecret) {
@@ -62,6 +64,13 @@ abstract class OAuthToken implements java.io.Serializable {
         return secretKeySpec;
     }
 
+    /*package*/ String getEncodedToken() {
+        if (null == encodedToken) {
+            encodedToken = HttpParameter.encode(token);
+        }
+        return encodedToken;
+    }
+
     public String getParameter(String parameter) {
         String value = null;
         for (String str : responseStr) {
@@ -106,6 +106,8 @@ public interface Configuration extends HttpClientConfiguration
 
     boolean isJSONStoreEnabled();
 
+    boolean isJSONCaptureEnabled();
+
     boolean isUserStreamRepliesAllEnabled();
 
     String getMediaProvider();
@@ -117,4 +119,16 @@ public interface Configuration extends HttpClientConfiguration
     int getAsyncNumThreads();
 
     String getDispatcherImpl();
+
+    int getAsyncQueueSize();
+
+    String getAsyncQueueFullPolicy();
+
+    boolean isLazyParsingEnabled();
+
+    boolean isEntityCacheEnabled();
+
+    int getEntityCacheMaxSize();
+
+    int getEntityCacheTTLSecs();
 }
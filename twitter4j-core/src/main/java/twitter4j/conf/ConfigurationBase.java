@@ -74,6 +74,8 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
 
     private boolean jsonStoreEnabled;
 
+    private boolean jsonCaptureEnabled;
+
     private boolean userStreamRepliesAllEnabled;
 
     private String mediaProvider;
@@ -81,6 +83,39 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
     private String mediaProviderAPIKey;
 
     private Properties mediaProviderParameters;
+
+    private int asyncQueueSize;
+
+    private String asyncQueueFullPolicy;
+
+    private boolean lazyParsingEnabled;
+
+    private boolean httpConnectionPoolEnabled;
+
+    private int httpConnectionPoolIdleTimeout;
+
+    private boolean httpNIOEnabled;
+
+    private int httpNIOThreadCount;
+
+    private boolean httpRateLimitPacingEnabled;
+
+    private boolean entityCacheEnabled;
+
+    private int entityCacheMaxSize;
+
+    private int entityCacheTTLSecs;
+
+    private boolean httpCacheEnabled;
+
+    private int httpCacheMaxEntries;
+
+    private String httpCacheStorageImpl;
+
+    private String httpRetryPolicyImpl;
+
+    private boolean httpMetricsEnabled;
+
     // hidden portion
     private String clientVersion;
     private String clientURL;
@@ -147,6 +182,7 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
         setIncludeEntitiesEnbled(false);
 
         setJSONStoreEnabled(false);
+        setJSONCaptureEnabled(false);
 
         setOAuthRequestTokenURL(DEFAULT_OAUTH_REQUEST_TOKEN_URL);
         setOAuthAuthorizationURL(DEFAULT_OAUTH_AUTHORIZATION_URL);
@@ -167,6 +203,22 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
 
         setIncludeRTsEnbled(true);
         setUserStreamRepliesAllEnabled(false);
+        setAsyncQueueSize(8192);
+        setAsyncQueueFullPolicy("block");
+        setLazyParsingEnabled(false);
+        setHttpConnectionPoolEnabled(false);
+        setHttpConnectionPoolIdleTimeout(30000);
+        setHttpNIOEnabled(false);
+        setHttpNIOThreadCount(2);
+        setHttpRateLimitPacingEnabled(false);
+        setEntityCacheEnabled(false);
+        setEntityCacheMaxSize(1000);
+        setEntityCacheTTLSecs(60);
+        setHttpCacheEnabled(false);
+        setHttpCacheMaxEntries(100);
+        setHttpCacheStorageImpl("twitter4j.internal.http.MemoryHttpCacheStorage");
+        setHttpRetryPolicyImpl("twitter4j.internal.http.FixedIntervalRetryPolicy");
+        setHttpMetricsEnabled(false);
         String isDalvik;
         try {
             isDalvik = System.getProperty(DALVIK, dalvikDetected);
@@ -547,6 +599,14 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
         this.jsonStoreEnabled = enabled;
     }
 
+    public boolean isJSONCaptureEnabled() {
+        return jsonCaptureEnabled;
+    }
+
+    protected final void setJSONCaptureEnabled(boolean jsonCaptureEnabled) {
+        this.jsonCaptureEnabled = jsonCaptureEnabled;
+    }
+
     public boolean isUserStreamRepliesAllEnabled() {
         return this.userStreamRepliesAllEnabled;
     }
@@ -579,6 +639,134 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
         this.mediaProviderParameters = props;
     }
 
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    protected final void setAsyncQueueSize(int asyncQueueSize) {
+        this.asyncQueueSize = asyncQueueSize;
+    }
+
+    public String getAsyncQueueFullPolicy() {
+        return asyncQueueFullPolicy;
+    }
+
+    protected final void setAsyncQueueFullPolicy(String asyncQueueFullPolicy) {
+        this.asyncQueueFullPolicy = asyncQueueFullPolicy;
+    }
+
+    public boolean isLazyParsingEnabled() {
+        return lazyParsingEnabled;
+    }
+
+    protected final void setLazyParsingEnabled(boolean lazyParsingEnabled) {
+        this.lazyParsingEnabled = lazyParsingEnabled;
+    }
+
+    public final boolean isHttpConnectionPoolEnabled() {
+        return httpConnectionPoolEnabled;
+    }
+
+    protected final void setHttpConnectionPoolEnabled(boolean httpConnectionPoolEnabled) {
+        this.httpConnectionPoolEnabled = httpConnectionPoolEnabled;
+    }
+
+    public final int getHttpConnectionPoolIdleTimeout() {
+        return httpConnectionPoolIdleTimeout;
+    }
+
+    protected final void setHttpConnectionPoolIdleTimeout(int httpConnectionPoolIdleTimeout) {
+        this.httpConnectionPoolIdleTimeout = httpConnectionPoolIdleTimeout;
+    }
+
+    public final boolean isHttpNIOEnabled() {
+        return httpNIOEnabled;
+    }
+
+    protected final void setHttpNIOEnabled(boolean httpNIOEnabled) {
+        this.httpNIOEnabled = httpNIOEnabled;
+    }
+
+    public final int getHttpNIOThreadCount() {
+        return httpNIOThreadCount;
+    }
+
+    protected final void setHttpNIOThreadCount(int httpNIOThreadCount) {
+        this.httpNIOThreadCount = httpNIOThreadCount;
+    }
+
+    public final boolean isHttpRateLimitPacingEnabled() {
+        return httpRateLimitPacingEnabled;
+    }
+
+    protected final void setHttpRateLimitPacingEnabled(boolean httpRateLimitPacingEnabled) {
+        this.httpRateLimitPacingEnabled = httpRateLimitPacingEnabled;
+    }
+
+    public boolean isEntityCacheEnabled() {
+        return entityCacheEnabled;
+    }
+
+    protected final void setEntityCacheEnabled(boolean entityCacheEnabled) {
+        this.entityCacheEnabled = entityCacheEnabled;
+    }
+
+    public int getEntityCacheMaxSize() {
+        return entityCacheMaxSize;
+    }
+
+    protected final void setEntityCacheMaxSize(int entityCacheMaxSize) {
+        this.entityCacheMaxSize = entityCacheMaxSize;
+    }
+
+    public int getEntityCacheTTLSecs() {
+        return entityCacheTTLSecs;
+    }
+
+    protected final void setEntityCacheTTLSecs(int entityCacheTTLSecs) {
+        this.entityCacheTTLSecs = entityCacheTTLSecs;
+    }
+
+    public final boolean isHttpCacheEnabled() {
+        return httpCacheEnabled;
+    }
+
+    protected final void setHttpCacheEnabled(boolean httpCacheEnabled) {
+        this.httpCacheEnabled = httpCacheEnabled;
+    }
+
+    public final int getHttpCacheMaxEntries() {
+        return httpCacheMaxEntries;
+    }
+
+    protected final void setHttpCacheMaxEntries(int httpCacheMaxEntries) {
+        this.httpCacheMaxEntries = httpCacheMaxEntries;
+    }
+
+    public final String getHttpCacheStorageImpl() {
+        return httpCacheStorageImpl;
+    }
+
+    protected final void setHttpCacheStorageImpl(String httpCacheStorageImpl) {
+        this.httpCacheStorageImpl = httpCacheStorageImpl;
+    }
+
+    public final String getHttpRetryPolicyImpl() {
+        return httpRetryPolicyImpl;
+    }
+
+    protected final void setHttpRetryPolicyImpl(String httpRetryPolicyImpl) {
+        this.httpRetryPolicyImpl = httpRetryPolicyImpl;
+    }
+
+    public final boolean isHttpMetricsEnabled() {
+        return httpMetricsEnabled;
+    }
+
+    protected final void setHttpMetricsEnabled(boolean httpMetricsEnabled) {
+        this.httpMetricsEnabled = httpMetricsEnabled;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -657,6 +845,26 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
             return false;
         if (userStreamBaseURL != null ? !userStreamBaseURL.equals(that.userStreamBaseURL) : that.userStreamBaseURL != null)
             return false;
+        if (asyncQueueSize != that.asyncQueueSize) return false;
+        if (asyncQueueFullPolicy != null ? !asyncQueueFullPolicy.equals(that.asyncQueueFullPolicy) : that.asyncQueueFullPolicy != null)
+            return false;
+        if (lazyParsingEnabled != that.lazyParsingEnabled) return false;
+        if (httpConnectionPoolEnabled != that.httpConnectionPoolEnabled) return false;
+        if (httpConnectionPoolIdleTimeout != that.httpConnectionPoolIdleTimeout) return false;
+        if (httpNIOEnabled != that.httpNIOEnabled) return false;
+        if (httpNIOThreadCount != that.httpNIOThreadCount) return false;
+        if (httpRateLimitPacingEnabled != that.httpRateLimitPacingEnabled) return false;
+        if (entityCacheEnabled != that.entityCacheEnabled) return false;
+        if (entityCacheMaxSize != that.entityCacheMaxSize) return false;
+        if (entityCacheTTLSecs != that.entityCacheTTLSecs) return false;
+        if (httpCacheEnabled != that.httpCacheEnabled) return false;
+        if (httpCacheMaxEntries != that.httpCacheMaxEntries) return false;
+        if (httpCacheStorageImpl != null ? !httpCacheStorageImpl.equals(that.httpCacheStorageImpl) : that.httpCacheStorageImpl != null)
+            return false;
+        if (httpRetryPolicyImpl != null ? !httpRetryPolicyImpl.equals(that.httpRetryPolicyImpl) : that.httpRetryPolicyImpl != null)
+            return false;
+        if (httpMetricsEnabled != that.httpMetricsEnabled) return false;
+        if (jsonCaptureEnabled != that.jsonCaptureEnabled) return false;
 
         return true;
     }
@@ -704,6 +912,23 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
         result = 31 * result + (mediaProvider != null ? mediaProvider.hashCode() : 0);
         result = 31 * result + (mediaProviderAPIKey != null ? mediaProviderAPIKey.hashCode() : 0);
         result = 31 * result + (mediaProviderParameters != null ? mediaProviderParameters.hashCode() : 0);
+        result = 31 * result + asyncQueueSize;
+        result = 31 * result + (asyncQueueFullPolicy != null ? asyncQueueFullPolicy.hashCode() : 0);
+        result = 31 * result + (lazyParsingEnabled ? 1 : 0);
+        result = 31 * result + (httpConnectionPoolEnabled ? 1 : 0);
+        result = 31 * result + httpConnectionPoolIdleTimeout;
+        result = 31 * result + (httpNIOEnabled ? 1 : 0);
+        result = 31 * result + httpNIOThreadCount;
+        result = 31 * result + (httpRateLimitPacingEnabled ? 1 : 0);
+        result = 31 * result + (entityCacheEnabled ? 1 : 0);
+        result = 31 * result + entityCacheMaxSize;
+        result = 31 * result + entityCacheTTLSecs;
+        result = 31 * result + (httpCacheEnabled ? 1 : 0);
+        result = 31 * result + httpCacheMaxEntries;
+        result = 31 * result + (httpCacheStorageImpl != null ? httpCacheStorageImpl.hashCode() : 0);
+        result = 31 * result + (httpRetryPolicyImpl != null ? httpRetryPolicyImpl.hashCode() : 0);
+        result = 31 * result + (httpMetricsEnabled ? 1 : 0);
+        result = 31 * result + (jsonCaptureEnabled ? 1 : 0);
         return result;
     }
 
@@ -751,6 +976,23 @@ class ConfigurationBase implements Configuration, java.io.Serializable {
                 ", mediaProvider=" + mediaProvider +
                 ", mediaProviderAPIKey=" + mediaProviderAPIKey +
                 ", mediaProviderParameters=" + mediaProviderParameters +
+                ", asyncQueueSize=" + asyncQueueSize +
+                ", asyncQueueFullPolicy='" + asyncQueueFullPolicy + '\'' +
+                ", lazyParsingEnabled=" + lazyParsingEnabled +
+                ", httpConnectionPoolEnabled=" + httpConnectionPoolEnabled +
+                ", httpConnectionPoolIdleTimeout=" + httpConnectionPoolIdleTimeout +
+                ", httpNIOEnabled=" + httpNIOEnabled +
+                ", httpNIOThreadCount=" + httpNIOThreadCount +
+                ", httpRateLimitPacingEnabled=" + httpRateLimitPacingEnabled +
+                ", entityCacheEnabled=" + entityCacheEnabled +
+                ", entityCacheMaxSize=" + entityCacheMaxSize +
+                ", entityCacheTTLSecs=" + entityCacheTTLSecs +
+                ", httpCacheEnabled=" + httpCacheEnabled +
+                ", httpCacheMaxEntries=" + httpCacheMaxEntries +
+                ", httpCacheStorageImpl='" + httpCacheStorageImpl + '\'' +
+                ", httpRetryPolicyImpl='" + httpRetryPolicyImpl + '\'' +
+                ", httpMetricsEnabled=" + httpMetricsEnabled +
+                ", jsonCaptureEnabled=" + jsonCaptureEnabled +
                 '}';
     }
 
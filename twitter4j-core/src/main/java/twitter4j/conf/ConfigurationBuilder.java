@@ -133,6 +133,12 @@ public final class ConfigurationBuilder {
         return this;
     }
 
+    public ConfigurationBuilder setHttpRetryPolicyImpl(String httpRetryPolicyImpl) {
+        checkNotBuilt();
+        configurationBean.setHttpRetryPolicyImpl(httpRetryPolicyImpl);
+        return this;
+    }
+
     public ConfigurationBuilder setOAuthConsumerKey(String oAuthConsumerKey) {
         checkNotBuilt();
         configurationBean.setOAuthConsumerKey(oAuthConsumerKey);
@@ -253,6 +259,12 @@ public final class ConfigurationBuilder {
         return this;
     }
 
+    public ConfigurationBuilder setJSONCaptureEnabled(boolean jsonCaptureEnabled) {
+        checkNotBuilt();
+        configurationBean.setJSONCaptureEnabled(jsonCaptureEnabled);
+        return this;
+    }
+
     public ConfigurationBuilder setUserStreamRepliesAllEnabled(boolean enabled) {
         checkNotBuilt();
         configurationBean.setUserStreamRepliesAllEnabled(enabled);
@@ -277,6 +289,96 @@ public final class ConfigurationBuilder {
         return this;
     }
 
+    public ConfigurationBuilder setAsyncQueueSize(int asyncQueueSize) {
+        checkNotBuilt();
+        configurationBean.setAsyncQueueSize(asyncQueueSize);
+        return this;
+    }
+
+    public ConfigurationBuilder setAsyncQueueFullPolicy(String asyncQueueFullPolicy) {
+        checkNotBuilt();
+        configurationBean.setAsyncQueueFullPolicy(asyncQueueFullPolicy);
+        return this;
+    }
+
+    public ConfigurationBuilder setLazyParsingEnabled(boolean lazyParsingEnabled) {
+        checkNotBuilt();
+        configurationBean.setLazyParsingEnabled(lazyParsingEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpConnectionPoolEnabled(boolean httpConnectionPoolEnabled) {
+        checkNotBuilt();
+        configurationBean.setHttpConnectionPoolEnabled(httpConnectionPoolEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpConnectionPoolIdleTimeout(int httpConnectionPoolIdleTimeout) {
+        checkNotBuilt();
+        configurationBean.setHttpConnectionPoolIdleTimeout(httpConnectionPoolIdleTimeout);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpNIOEnabled(boolean httpNIOEnabled) {
+        checkNotBuilt();
+        configurationBean.setHttpNIOEnabled(httpNIOEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpNIOThreadCount(int httpNIOThreadCount) {
+        checkNotBuilt();
+        configurationBean.setHttpNIOThreadCount(httpNIOThreadCount);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpRateLimitPacingEnabled(boolean httpRateLimitPacingEnabled) {
+        checkNotBuilt();
+        configurationBean.setHttpRateLimitPacingEnabled(httpRateLimitPacingEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setEntityCacheEnabled(boolean entityCacheEnabled) {
+        checkNotBuilt();
+        configurationBean.setEntityCacheEnabled(entityCacheEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setEntityCacheMaxSize(int entityCacheMaxSize) {
+        checkNotBuilt();
+        configurationBean.setEntityCacheMaxSize(entityCacheMaxSize);
+        return this;
+    }
+
+    public ConfigurationBuilder setEntityCacheTTLSecs(int entityCacheTTLSecs) {
+        checkNotBuilt();
+        configurationBean.setEntityCacheTTLSecs(entityCacheTTLSecs);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpCacheEnabled(boolean httpCacheEnabled) {
+        checkNotBuilt();
+        configurationBean.setHttpCacheEnabled(httpCacheEnabled);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpCacheMaxEntries(int httpCacheMaxEntries) {
+        checkNotBuilt();
+        configurationBean.setHttpCacheMaxEntries(httpCacheMaxEntries);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpCacheStorageImpl(String httpCacheStorageImpl) {
+        checkNotBuilt();
+        configurationBean.setHttpCacheStorageImpl(httpCacheStorageImpl);
+        return this;
+    }
+
+    public ConfigurationBuilder setHttpMetricsEnabled(boolean httpMetricsEnabled) {
+        checkNotBuilt();
+        configurationBean.setHttpMetricsEnabled(httpMetricsEnabled);
+        return this;
+    }
+
     public Configuration build() {
         checkNotBuilt();
         try {
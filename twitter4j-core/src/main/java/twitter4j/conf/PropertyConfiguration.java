@@ -52,9 +52,19 @@ public final class PropertyConfiguration extends ConfigurationBase implements ja
 
     public static final String HTTP_RETRY_COUNT = "http.retryCount";
     public static final String HTTP_RETRY_INTERVAL_SECS = "http.retryIntervalSecs";
+    public static final String HTTP_RETRY_POLICY_IMPL = "http.retryPolicyImpl";
 
     public static final String HTTP_MAX_TOTAL_CONNECTIONS = "http.maxTotalConnections";
     public static final String HTTP_DEFAULT_MAX_PER_ROUTE = "http.defaultMaxPerRoute";
+    public static final String HTTP_CONNECTION_POOL_ENABLED = "http.connectionPoolEnabled";
+    public static final String HTTP_CONNECTION_POOL_IDLE_TIMEOUT = "http.connectionPoolIdleTimeout";
+    public static final String HTTP_NIO_ENABLED = "http.nioEnabled";
+    public static final String HTTP_NIO_THREAD_COUNT = "http.nioThreadCount";
+    public static final String HTTP_RATE_LIMIT_PACING_ENABLED = "http.rateLimitPacingEnabled";
+    public static final String HTTP_CACHE_ENABLED = "http.cacheEnabled";
+    public static final String HTTP_CACHE_MAX_ENTRIES = "http.cacheMaxEntries";
+    public static final String HTTP_CACHE_STORAGE_IMPL = "http.cacheStorageImpl";
+    public static final String HTTP_METRICS_ENABLED = "http.metricsEnabled";
 
     public static final String OAUTH_CONSUMER_KEY = "oauth.consumerKey";
     public static final String OAUTH_CONSUMER_SECRET = "oauth.consumerSecret";
@@ -76,9 +86,16 @@ public final class PropertyConfiguration extends ConfigurationBase implements ja
 
     public static final String ASYNC_NUM_THREADS = "async.numThreads";
     public static final String ASYNC_DISPATCHER_IMPL = "async.dispatcherImpl";
+    public static final String ASYNC_QUEUE_SIZE = "async.queueSize";
+    public static final String ASYNC_QUEUE_FULL_POLICY = "async.queueFullPolicy";
     public static final String INCLUDE_RTS = "includeRTs";
     public static final String INCLUDE_ENTITIES = "includeEntities";
     public static final String JSON_STORE_ENABLED = "jsonStoreEnabled";
+    public static final String JSON_CAPTURE_ENABLED = "jsonCaptureEnabled";
+    public static final String LAZY_PARSING_ENABLED = "lazyParsingEnabled";
+    public static final String ENTITY_CACHE_ENABLED = "entityCacheEnabled";
+    public static final String ENTITY_CACHE_MAX_SIZE = "entityCacheMaxSize";
+    public static final String ENTITY_CACHE_TTL_SECS = "entityCacheTTLSecs";
     public static final String STREAM_USER_REPLIES_ALL = "stream.user.repliesAll";
 
     public static final String MEDIA_PROVIDER = "media.provider";
@@ -269,6 +286,9 @@ public final class PropertyConfiguration extends ConfigurationBase implements ja
         if (notNull(props, prefix, HTTP_RETRY_INTERVAL_SECS)) {
             setHttpRetryIntervalSeconds(getIntProperty(props, prefix, HTTP_RETRY_INTERVAL_SECS));
         }
+        if (notNull(props, prefix, HTTP_RETRY_POLICY_IMPL)) {
+            setHttpRetryPolicyImpl(getString(props, prefix, HTTP_RETRY_POLICY_IMPL));
+        }
         if (notNull(props, prefix, HTTP_MAX_TOTAL_CONNECTIONS)) {
             setHttpMaxTotalConnections(getIntProperty(props, prefix, HTTP_MAX_TOTAL_CONNECTIONS));
         }
@@ -345,6 +365,9 @@ public final class PropertyConfiguration extends ConfigurationBase implements ja
         if (notNull(props, prefix, JSON_STORE_ENABLED)) {
             setJSONStoreEnabled(getBoolean(props, prefix, JSON_STORE_ENABLED));
         }
+        if (notNull(props, prefix, JSON_CAPTURE_ENABLED)) {
+            setJSONCaptureEnabled(getBoolean(props, prefix, JSON_CAPTURE_ENABLED));
+        }
         if (notNull(props, prefix, STREAM_USER_REPLIES_ALL)) {
             setUserStreamRepliesAllEnabled(getBoolean(props, prefix, STREAM_USER_REPLIES_ALL));
         }
@@ -363,6 +386,51 @@ public final class PropertyConfiguration extends ConfigurationBase implements ja
             }
             setMediaProviderParameters(p);
         }
+        if (notNull(props, prefix, ASYNC_QUEUE_SIZE)) {
+            setAsyncQueueSize(getIntProperty(props, prefix, ASYNC_QUEUE_SIZE));
+        }
+        if (notNull(props, prefix, ASYNC_QUEUE_FULL_POLICY)) {
+            setAsyncQueueFullPolicy(getString(props, prefix, ASYNC_QUEUE_FULL_POLICY));
+        }
+        if (notNull(props, prefix, LAZY_PARSING_ENABLED)) {
+            setLazyParsingEnabled(getBoolean(props, prefix, LAZY_PARSING_ENABLED));
+        }
+        if (notNull(props, prefix, HTTP_CONNECTION_POOL_ENABLED)) {
+            setHttpConnectionPoolEnabled(getBoolean(props, prefix, HTTP_CONNECTION_POOL_ENABLED));
+        }
+        if (notNull(props, prefix, HTTP_CONNECTION_POOL_IDLE_TIMEOUT)) {
+            setHttpConnectionPoolIdleTimeout(getIntProperty(props, prefix, HTTP_CONNECTION_POOL_IDLE_TIMEOUT));
+        }
+        if (notNull(props, prefix, HTTP_NIO_ENABLED)) {
+            setHttpNIOEnabled(getBoolean(props, prefix, HTTP_NIO_ENABLED));
+        }
+        if (notNull(props, prefix, HTTP_NIO_THREAD_COUNT)) {
+            setHttpNIOThreadCount(getIntProperty(props, prefix, HTTP_NIO_THREAD_COUNT));
+        }
+        if (notNull(props, prefix, HTTP_RATE_LIMIT_PACING_ENABLED)) {
+            setHttpRateLimitPacingEnabled(getBoolean(props, prefix, HTTP_RATE_LIMIT_PACING_ENABLED));
+        }
+        if (notNull(props, prefix, ENTITY_CACHE_ENABLED)) {
+            setEntityCacheEnabled(getBoolean(props, prefix, ENTITY_CACHE_ENABLED));
+        }
+        if (notNull(props, prefix, ENTITY_CACHE_MAX_SIZE)) {
+            setEntityCacheMaxSize(getIntProperty(props, prefix, ENTITY_CACHE_MAX_SIZE));
+        }
+        if (notNull(props, prefix, ENTITY_CACHE_TTL_SECS)) {
+            setEntityCacheTTLSecs(getIntProperty(props, prefix, ENTITY_CACHE_TTL_SECS));
+        }
+        if (notNull(props, prefix, HTTP_CACHE_ENABLED)) {
+            setHttpCacheEnabled(getBoolean(props, prefix, HTTP_CACHE_ENABLED));
+        }
+        if (notNull(props, prefix, HTTP_CACHE_MAX_ENTRIES)) {
+            setHttpCacheMaxEntries(getIntProperty(props, prefix, HTTP_CACHE_MAX_ENTRIES));
+        }
+        if (notNull(props, prefix, HTTP_CACHE_STORAGE_IMPL)) {
+            setHttpCacheStorageImpl(getString(props, prefix, HTTP_CACHE_STORAGE_IMPL));
+        }
+        if (notNull(props, prefix, HTTP_METRICS_ENABLED)) {
+            setHttpMetricsEnabled(getBoolean(props, prefix, HTTP_METRICS_ENABLED));
+        }
     }
 
     protected boolean getBoolean(Properties props, String prefix, String name) {
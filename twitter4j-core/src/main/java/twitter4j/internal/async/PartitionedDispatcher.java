@@ -0,0 +1,34 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.async;
+
+/**
+ * A Dispatcher which runs tasks sharing the same routing key sequentially, in the order they were submitted.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public interface PartitionedDispatcher extends Dispatcher {
+
+    /**
+     * Queues the task on the partition associated with the key.
+     *
+     * @param key  routing key. tasks with the same key are executed in order by the same thread
+     * @param task task to be executed
+     */
+    void invokeLater(long key, Runnable task);
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.internal.async;
+
+import twitter4j.conf.Configuration;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static twitter4j.internal.async.RingBufferDispatcherImpl.BLOCK;
+import static twitter4j.internal.async.RingBufferDispatcherImpl.DROP_OLDEST;
+import static twitter4j.internal.async.RingBufferDispatcherImpl.REJECT;
+
+/**
+ * Dispatcher implementation which pins every partition to a single worker thread.<br>
+ * Tasks submitted with {@link #invokeLater(long, Runnable)} are hashed by their key, so tasks sharing a key run
+ * in submission order while different keys are processed in parallel. Tasks without a key are spread round-robin.<br>
+ * Each partition is a bounded lock-free ring buffer of async.queueSize / async.numThreads slots, and
+ * async.queueFullPolicy applies per partition.<br>
+ * To use this implementation, set async.dispatcherImpl to twitter4j.internal.async.PartitionedDispatcherImpl.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class PartitionedDispatcherImpl implements PartitionedDispatcher {
+    private static final long MAX_BLOCK_WAIT_NANOS = 1000L * 1000L;
+
+    private final PartitionWorker[] workers;
+    private final String policy;
+    private final AtomicInteger roundRobin = new AtomicInteger(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private volatile boolean active = true;
+
+    public PartitionedDispatcherImpl(Configuration conf) {
+        policy = null == conf.getAsyncQueueFullPolicy() ? BLOCK : conf.getAsyncQueueFullPolicy().toLowerCase();
+        if (!BLOCK.equals(policy) && !DROP_OLDEST.equals(policy) && !REJECT.equals(policy)) {
+            throw new IllegalArgumentException("Unknown queue full policy: " + conf.getAsyncQueueFullPolicy());
+        }
+        int partitions = Math.max(1, conf.getAsyncNumThreads());
+        int partitionSize = Math.max(1, conf.getAsyncQueueSize() / partitions);
+        workers = new PartitionWorker[partitions];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new PartitionWorker("Twitter4J Async Dispatcher", this, i, partitionSize);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            public void run() {
+                if (active) {
+                    shutdown();
+                }
+            }
+        });
+    }
+
+    public void invokeLater(Runnable task) {
+        int index = (roundRobin.getAndIncrement() & Integer.MAX_VALUE) % workers.length;
+        enqueue(workers[index], task);
+    }
+
+    public void invokeLater(long key, Runnable task) {
+        // spread the bits so that sequential ids don't cluster on a few partitions
+        long hash = key ^ (key >>> 32);
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        int index = (int) ((hash & Integer.MAX_VALUE) % workers.length);
+        enqueue(workers[index], task);
+    }
+
+    private void enqueue(PartitionWorker worker, Runnable task) {
+        RingBuffer<Runnable> q = worker.q;
+        if (!q.offer(task)) {
+            if (BLOCK.equals(policy)) {
+                long waitNanos = 1000;
+                while (active && !q.offer(task)) {
+                    LockSupport.parkNanos(waitNanos);
+                    waitNanos = Math.min(waitNanos * 2, MAX_BLOCK_WAIT_NANOS);
+                }
+            } else if (DROP_OLDEST.equals(policy)) {
+                do {
+                    if (null != q.poll()) {
+                        droppedCount.incrementAndGet();
+                    }
+                } while (!q.offer(task));
+            } else {
+                rejectedCount.incrementAndGet();
+                return;
+            }
+        }
+        worker.wakeUp();
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return number of pending tasks across all partitions
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (PartitionWorker worker : workers) {
+            size += worker.q.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return number of tasks discarded by the drop_oldest policy
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return number of tasks discarded by the reject policy
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public void shutdown() {
+        if (active) {
+            active = false;
+            for (PartitionWorker worker : workers) {
+                worker.shutdown();
+                LockSupport.unpark(worker);
+            }
+        }
+    }
+}
+
+class PartitionWorker extends Thread {
+    private static final int SPINS_BEFORE_PARK = 64;
+    private final PartitionedDispatcherImpl dispatcher;
+    final RingBuffer<Runnable> q;
+    private final AtomicBoolean parked = new AtomicBoolean(false);
+    private volatile boolean alive = true;
+
+    PartitionWorker(String name, PartitionedDispatcherImpl dispatcher, int index, int capacity) {
+        super(name + "[" + index + "]");
+        this.dispatcher = dispatcher;
+        this.q = new RingBuffer<Runnable>(capacity);
+    }
+
+    void wakeUp() {
+        if (parked.get() && parked.compareAndSet(true, false)) {
+            LockSupport.unpark(this);
+        }
+    }
+
+    public void shutdown() {
+        alive = false;
+    }
+
+    private Runnable poll() {
+        int spins = 0;
+        while (alive && dispatcher.isActive()) {
+            Runnable task = q.poll();
+            if (null != task) {
+                return task;
+            }
+            if (spins++ < SPINS_BEFORE_PARK) {
+                continue;
+            }
+            // the producer checks the flag after offering, so re-check the queue before parking
+            parked.set(true);
+            try {
+                if (q.isEmpty() && alive) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                parked.set(false);
+            }
+            spins = 0;
+        }
+        return null;
+    }
+
+    public void run() {
+        while (alive) {
+            Runnable task = poll();
+            if (null != task) {
+                try {
+                    task.run();
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.internal.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free multi-producer / multi-consumer queue.<br>
+ * Every slot carries a sequence number which tells producers and consumers whether the slot is ready to be
+ * written or read, so neither side ever takes a monitor.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class RingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong(0);
+    private final AtomicLong tail = new AtomicLong(0);
+
+    /**
+     * @param capacity the capacity of the buffer. rounded up to the next power of two.
+     */
+    RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity should be greater than 0: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        elements = new AtomicReferenceArray<E>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Inserts the element if there is room for it.
+     *
+     * @param element element to be inserted
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        if (null == element) {
+            throw new NullPointerException();
+        }
+        for (; ;) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (0 == diff) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // another producer claimed this slot. retry with the latest tail
+        }
+    }
+
+    /**
+     * Removes and returns the oldest element.
+     *
+     * @return the oldest element, or null if the buffer is empty
+     */
+    E poll() {
+        for (; ;) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - (position + 1);
+            if (0 == diff) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = elements.get(index);
+                    elements.set(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+            // another consumer took this slot. retry with the latest head
+        }
+    }
+
+    boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    int size() {
+        long size = tail.get() - head.get();
+        return size < 0 ? 0 : (int) Math.min(size, capacity());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
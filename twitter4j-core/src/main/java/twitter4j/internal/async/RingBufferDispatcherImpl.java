@@ -0,0 +1,198 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.internal.async;
+
+import twitter4j.conf.Configuration;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatcher implementation backed by a bounded lock-free ring buffer.<br>
+ * Neither invokeLater() nor the worker threads take a monitor. Idle workers are parked and woken up by producers.<br>
+ * The behavior on a full queue is configured with async.queueFullPolicy:
+ * <ul>
+ * <li>block: the caller waits until a slot becomes available (default)</li>
+ * <li>drop_oldest: the oldest pending task is discarded to make room</li>
+ * <li>reject: the new task is discarded</li>
+ * </ul>
+ * Discarded tasks are counted and can be retrieved via {@link #getDroppedCount()} and {@link #getRejectedCount()}.<br>
+ * To use this implementation, set async.dispatcherImpl to twitter4j.internal.async.RingBufferDispatcherImpl.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class RingBufferDispatcherImpl implements Dispatcher {
+    public static final String BLOCK = "block";
+    public static final String DROP_OLDEST = "drop_oldest";
+    public static final String REJECT = "reject";
+
+    private static final int SPINS_BEFORE_PARK = 64;
+    private static final long MAX_BLOCK_WAIT_NANOS = 1000L * 1000L;
+
+    private final RingBuffer<Runnable> q;
+    private final String policy;
+    private final RingBufferWorker[] workers;
+    private final AtomicInteger idleWorkers = new AtomicInteger(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private volatile boolean active = true;
+
+    public RingBufferDispatcherImpl(Configuration conf) {
+        q = new RingBuffer<Runnable>(conf.getAsyncQueueSize());
+        policy = null == conf.getAsyncQueueFullPolicy() ? BLOCK : conf.getAsyncQueueFullPolicy().toLowerCase();
+        if (!BLOCK.equals(policy) && !DROP_OLDEST.equals(policy) && !REJECT.equals(policy)) {
+            throw new IllegalArgumentException("Unknown queue full policy: " + conf.getAsyncQueueFullPolicy());
+        }
+        workers = new RingBufferWorker[conf.getAsyncNumThreads()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new RingBufferWorker("Twitter4J Async Dispatcher", this, i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            public void run() {
+                if (active) {
+                    shutdown();
+                }
+            }
+        });
+    }
+
+    public void invokeLater(Runnable task) {
+        if (!q.offer(task)) {
+            if (BLOCK.equals(policy)) {
+                long waitNanos = 1000;
+                while (active && !q.offer(task)) {
+                    LockSupport.parkNanos(waitNanos);
+                    waitNanos = Math.min(waitNanos * 2, MAX_BLOCK_WAIT_NANOS);
+                }
+            } else if (DROP_OLDEST.equals(policy)) {
+                do {
+                    if (null != q.poll()) {
+                        droppedCount.incrementAndGet();
+                    }
+                } while (!q.offer(task));
+            } else {
+                rejectedCount.incrementAndGet();
+                return;
+            }
+        }
+        if (0 < idleWorkers.get()) {
+            for (RingBufferWorker worker : workers) {
+                if (worker.wakeUp()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    Runnable poll(RingBufferWorker worker) {
+        int spins = 0;
+        while (active) {
+            Runnable task = q.poll();
+            if (null != task) {
+                return task;
+            }
+            if (spins++ < SPINS_BEFORE_PARK) {
+                continue;
+            }
+            // announce that this worker is about to park, then re-check the queue so that
+            // a task offered in the meantime is never left behind
+            worker.parked.set(true);
+            idleWorkers.incrementAndGet();
+            try {
+                if (q.isEmpty() && active) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                worker.parked.set(false);
+                idleWorkers.decrementAndGet();
+            }
+            spins = 0;
+        }
+        return null;
+    }
+
+    /**
+     * @return number of pending tasks
+     */
+    public int getQueueSize() {
+        return q.size();
+    }
+
+    /**
+     * @return number of tasks discarded by the drop_oldest policy
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return number of tasks discarded by the reject policy
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public void shutdown() {
+        if (active) {
+            active = false;
+            for (RingBufferWorker worker : workers) {
+                worker.shutdown();
+                LockSupport.unpark(worker);
+            }
+        }
+    }
+}
+
+class RingBufferWorker extends Thread {
+    private final RingBufferDispatcherImpl q;
+    final AtomicBoolean parked = new AtomicBoolean(false);
+    private volatile boolean alive = true;
+
+    RingBufferWorker(String name, RingBufferDispatcherImpl q, int index) {
+        super(name + "[" + index + "]");
+        this.q = q;
+    }
+
+    boolean wakeUp() {
+        if (parked.compareAndSet(true, false)) {
+            LockSupport.unpark(this);
+            return true;
+        }
+        return false;
+    }
+
+    public void shutdown() {
+        alive = false;
+    }
+
+    public void run() {
+        while (alive) {
+            Runnable task = q.poll(this);
+            if (null != task) {
+                try {
+                    task.run();
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+}
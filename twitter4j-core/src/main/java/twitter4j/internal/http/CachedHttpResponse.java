@@ -0,0 +1,69 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response replayed from the HTTP cache.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class CachedHttpResponse extends HttpResponse {
+    private final HttpCacheEntry entry;
+
+    CachedHttpResponse(HttpCacheEntry entry, HttpClientConfiguration conf) {
+        super(conf);
+        this.entry = entry;
+        this.statusCode = HttpResponseCode.OK;
+        this.responseAsString = entry.getBody();
+        try {
+            this.is = new ByteArrayInputStream(entry.getBody().getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException uee) {
+            throw new AssertionError(uee);
+        }
+    }
+
+    @Override
+    public String getResponseHeader(String name) {
+        return entry.getResponseHeader(name);
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaderFields() {
+        return entry.getResponseHeaderFields();
+    }
+
+    @Override
+    Object getParsedBody() {
+        return entry.getParsedBody();
+    }
+
+    @Override
+    void setParsedBody(Object parsedBody) {
+        entry.setParsedBody(parsedBody);
+    }
+
+    @Override
+    public void disconnect() {
+        released();
+    }
+}
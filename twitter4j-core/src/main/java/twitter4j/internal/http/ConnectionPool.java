@@ -0,0 +1,232 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounds the connections used by HttpClientImpl when http.connectionPoolEnabled is true.<br>
+ * Sockets themselves are held by the JDK keep-alive cache of HttpURLConnection, which also takes care of reusing
+ * and closing them. The pool only bounds the number of connections in use per host (http.defaultMaxPerRoute) and in
+ * total (http.maxTotalConnections), and counts how connections were handed back.<br>
+ * A connection is in use until its response is read to the end or disconnected. The lease of a response garbage
+ * collected in the meantime is reclaimed, and its connection closed, the next time the pool is used.<br>
+ * Idle sockets are closed by the keep-alive cache, so http.connectionPoolIdleTimeout doesn't apply here.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class ConnectionPool {
+    private final int maxPerHost;
+    private final int maxTotal;
+
+    // number of leased connections per host
+    private final Map<String, Integer> leased = new HashMap<String, Integer>();
+    private int leasedTotal = 0;
+    // leases held by responses, enqueued once their response has been garbage collected
+    private final Set<Lease> leases = new HashSet<Lease>();
+    private final ReferenceQueue<HttpResponse> collected = new ReferenceQueue<HttpResponse>();
+
+    // statistics
+    private long leaseCount = 0;
+    private long waitCount = 0;
+    private long keepAliveCount = 0;
+    private long discardCount = 0;
+
+    ConnectionPool(int maxPerHost, int maxTotal) {
+        this.maxPerHost = maxPerHost;
+        this.maxTotal = maxTotal;
+    }
+
+    /**
+     * Leases a connection to the host, waiting for one to be released if the pool is exhausted.
+     *
+     * @param host    host name and port
+     * @param timeout maximum time to wait in milliseconds. 0 means no timeout
+     * @throws IOException when no connection became available within the timeout
+     */
+    synchronized void lease(String host, long timeout) throws IOException {
+        long deadline = 0 < timeout ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+        boolean waited = false;
+        reclaimCollected();
+        while (maxPerHost <= getLeasedCount(host) || maxTotal <= leasedTotal) {
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0) {
+                throw new IOException("Timed out waiting for a pooled connection to " + host);
+            }
+            if (!waited) {
+                waitCount++;
+                waited = true;
+            }
+            try {
+                // wake up now and then to reclaim leases of collected responses, which notify nobody
+                wait(Math.min(wait, RECLAIM_INTERVAL));
+                reclaimCollected();
+            } catch (InterruptedException ie) {
+                throw new IOException("Interrupted while waiting for a pooled connection to " + host);
+            }
+        }
+        leased.put(host, getLeasedCount(host) + 1);
+        leasedTotal++;
+        leaseCount++;
+    }
+
+    /**
+     * Releases a leased connection.
+     *
+     * @param host      host name and port
+     * @param keptAlive true if the response was fully drained and the connection was handed back to the keep-alive
+     *                  cache, false if the connection was closed
+     */
+    synchronized void release(String host, boolean keptAlive) {
+        int count = getLeasedCount(host) - 1;
+        if (0 == count) {
+            leased.remove(host);
+        } else {
+            leased.put(host, count);
+        }
+        leasedTotal--;
+        if (keptAlive) {
+            keepAliveCount++;
+        } else {
+            discardCount++;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Hands the lease over to the response. The lease is released by {@link Lease#release(boolean)}, or reclaimed
+     * once the response has been garbage collected.
+     *
+     * @param response response holding the connection
+     * @param host     host name and port the connection was leased for
+     * @param con      connection, closed if the lease is reclaimed
+     * @return lease
+     */
+    synchronized Lease track(HttpResponse response, String host, HttpURLConnection con) {
+        Lease lease = new Lease(response, host, con);
+        leases.add(lease);
+        return lease;
+    }
+
+    private void reclaimCollected() {
+        Lease lease;
+        while (null != (lease = (Lease) collected.poll())) {
+            if (leases.remove(lease)) {
+                lease.con.disconnect();
+                release(lease.host, false);
+            }
+        }
+    }
+
+    private synchronized boolean untrack(Lease lease) {
+        return leases.remove(lease);
+    }
+
+    private int getLeasedCount(String host) {
+        Integer count = leased.get(host);
+        return null == count ? 0 : count;
+    }
+
+    /**
+     * @return number of connections currently in use
+     */
+    public synchronized int getLeasedCount() {
+        reclaimCollected();
+        return leasedTotal;
+    }
+
+    /**
+     * @return total number of leases
+     */
+    public synchronized long getLeaseCount() {
+        return leaseCount;
+    }
+
+    /**
+     * @return number of leases which had to wait for a connection to be released
+     */
+    public synchronized long getWaitCount() {
+        return waitCount;
+    }
+
+    /**
+     * @return number of connections handed back to the keep-alive cache after their response was drained
+     */
+    public synchronized long getKeepAliveCount() {
+        return keepAliveCount;
+    }
+
+    /**
+     * @return number of connections closed instead of being handed back to the keep-alive cache
+     */
+    public synchronized long getDiscardCount() {
+        return discardCount;
+    }
+
+    private static final long RECLAIM_INTERVAL = 1000;
+
+    /**
+     * Connection leased to a response. Being a phantom reference, it doesn't cost the response anything on the way
+     * to the garbage collector, unlike a finalizer.
+     */
+    final class Lease extends PhantomReference<HttpResponse> {
+        private final String host;
+        private final HttpURLConnection con;
+
+        private Lease(HttpResponse response, String host, HttpURLConnection con) {
+            super(response, collected);
+            this.host = host;
+            this.con = con;
+        }
+
+        /**
+         * Releases the connection, unless it has already been.
+         *
+         * @param keptAlive true if the connection was handed back to the keep-alive cache
+         * @return false if the connection had already been released
+         */
+        boolean release(boolean keptAlive) {
+            if (!untrack(this)) {
+                return false;
+            }
+            clear();
+            ConnectionPool.this.release(host, keptAlive);
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ConnectionPool{" +
+                "maxPerHost=" + maxPerHost +
+                ", maxTotal=" + maxTotal +
+                ", leased=" + leasedTotal +
+                ", leaseCount=" + leaseCount +
+                ", waitCount=" + waitCount +
+                ", keepAliveCount=" + keepAliveCount +
+                ", discardCount=" + discardCount +
+                '}';
+    }
+}
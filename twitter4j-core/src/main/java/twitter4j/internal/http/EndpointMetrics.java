@@ -0,0 +1,135 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.internal.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics aggregated over the requests to an endpoint. Durations are in microseconds.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see HttpMetrics
+ * @since Twitter4J 2.2.1
+ */
+public final class EndpointMetrics {
+    private final String endpoint;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+    private final ConcurrentMap<Integer, AtomicLong> statusCodes = new ConcurrentHashMap<Integer, AtomicLong>();
+    private final LatencyHistogram connectTime = new LatencyHistogram();
+    private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+    private final LatencyHistogram bodyReadTime = new LatencyHistogram();
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final LatencyHistogram totalTime = new LatencyHistogram();
+
+    EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(HttpRequestMetrics metrics) {
+        requestCount.incrementAndGet();
+        retryCount.addAndGet(metrics.getRetryCount());
+        receivedBytes.addAndGet(metrics.getReceivedBytes());
+        decodedBytes.addAndGet(metrics.getDecodedBytes());
+        AtomicLong count = statusCodes.get(metrics.getStatusCode());
+        if (null == count) {
+            AtomicLong newCount = new AtomicLong();
+            count = statusCodes.putIfAbsent(metrics.getStatusCode(), newCount);
+            if (null == count) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+        connectTime.record(metrics.getConnectTime());
+        timeToFirstByte.record(metrics.getTimeToFirstByte());
+        bodyReadTime.record(metrics.getBodyReadTime());
+        parseTime.record(metrics.getParseTime());
+        totalTime.record(metrics.getTotalTime());
+    }
+
+    /**
+     * @return endpoint template, like "statuses/user_timeline"
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    public long getReceivedBytes() {
+        return receivedBytes.get();
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes.get();
+    }
+
+    /**
+     * @return number of responses per status code. -1 counts requests failed without a response
+     */
+    public Map<Integer, Long> getStatusCodeCounts() {
+        Map<Integer, Long> counts = new TreeMap<Integer, Long>();
+        for (Map.Entry<Integer, AtomicLong> entry : statusCodes.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    public LatencyHistogram getConnectTime() {
+        return connectTime;
+    }
+
+    public LatencyHistogram getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    public LatencyHistogram getBodyReadTime() {
+        return bodyReadTime;
+    }
+
+    public LatencyHistogram getParseTime() {
+        return parseTime;
+    }
+
+    public LatencyHistogram getTotalTime() {
+        return totalTime;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointMetrics{" +
+                "endpoint='" + endpoint + '\'' +
+                ", requestCount=" + requestCount +
+                ", retryCount=" + retryCount +
+                ", receivedBytes=" + receivedBytes +
+                ", decodedBytes=" + decodedBytes +
+                ", statusCodes=" + getStatusCodeCounts() +
+                ", totalTime=" + totalTime +
+                '}';
+    }
+}
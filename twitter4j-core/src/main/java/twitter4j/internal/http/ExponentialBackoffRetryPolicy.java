@@ -0,0 +1,236 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.TwitterException;
+import twitter4j.internal.logging.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Retries up to http.retryCount times with jittered exponential backoff, starting from http.retryIntervalSecs
+ * seconds.<br>
+ * The wait before the n-th retry is picked at random between 0 and min(60 seconds, interval * 2^n), so that clients
+ * failing at the same time don't retry in lockstep.<br>
+ * Retries are limited per endpoint to 20% of the requests made in the last minute, plus 10, so that retries can't
+ * multiply the load on an API that is already failing. Endpoints are told apart by their template, e.g.
+ * "statuses/show/:id", so that requests for different ids share the budget and the circuit breaker.<br>
+ * A circuit breaker per endpoint fails requests fast, without sending them, for 30 seconds once half or more of the
+ * last 20 attempts failed. Then a single request is let through, and the circuit closes again if it succeeds.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class ExponentialBackoffRetryPolicy implements RetryPolicy {
+    private static final Logger logger = Logger.getLogger(ExponentialBackoffRetryPolicy.class);
+    private static final int MAX_ENDPOINTS = 256;
+    private static final long BUDGET_WINDOW = 60 * 1000;
+    // number of attempts the error rate is calculated from
+    private static final int BREAKER_WINDOW = 20;
+
+    private static final Random random = new Random();
+
+    private final int retryCount;
+    private final long interval;
+    private final long maxInterval;
+    private final double budgetRatio;
+    private final int minRetriesPerWindow;
+    private final double errorRateThreshold;
+    private final int minAttempts;
+    private final long openDuration;
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<String, Endpoint>(16, 0.75f, true) {
+        private static final long serialVersionUID = -6101356842757823447L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Endpoint> eldest) {
+            return size() > MAX_ENDPOINTS;
+        }
+    };
+
+    public ExponentialBackoffRetryPolicy(HttpClientConfiguration conf) {
+        this(conf.getHttpRetryCount(), conf.getHttpRetryIntervalSeconds() * 1000L, 60 * 1000, 0.2, 10, 0.5, 10
+                , 30 * 1000);
+    }
+
+    /**
+     * @param retryCount          maximum number of retries per request
+     * @param interval            wait before the first retry in milliseconds, doubled on each retry
+     * @param maxInterval         upper bound of the wait in milliseconds
+     * @param budgetRatio         retries allowed per endpoint in proportion to requests made within a minute
+     * @param minRetriesPerWindow retries allowed per endpoint within a minute regardless of the number of requests
+     * @param errorRateThreshold  ratio of failed attempts opening the circuit
+     * @param minAttempts         number of attempts needed before the circuit may open
+     * @param openDuration        milliseconds the circuit stays open
+     */
+    public ExponentialBackoffRetryPolicy(int retryCount, long interval, long maxInterval, double budgetRatio
+            , int minRetriesPerWindow, double errorRateThreshold, int minAttempts, long openDuration) {
+        this.retryCount = retryCount;
+        this.interval = interval;
+        this.maxInterval = Math.max(interval, maxInterval);
+        this.budgetRatio = budgetRatio;
+        this.minRetriesPerWindow = minRetriesPerWindow;
+        this.errorRateThreshold = errorRateThreshold;
+        this.minAttempts = Math.min(minAttempts, BREAKER_WINDOW);
+        this.openDuration = openDuration;
+    }
+
+    public void beforeRequest(HttpRequest req) throws TwitterException {
+        String key = getKey(req);
+        synchronized (this) {
+            Endpoint endpoint = endpoints.get(key);
+            if (null == endpoint || 0 == endpoint.openedAt) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (now < endpoint.openedAt + openDuration
+                    || (0 != endpoint.probeSentAt && now < endpoint.probeSentAt + openDuration)) {
+                throw new TwitterException("Circuit breaker is open for " + key + " after "
+                        + endpoint.failures + " failures out of the last " + endpoint.attempts + " attempts.");
+            }
+            // half-open: let a single request through to see if the API recovered
+            endpoint.probeSentAt = now;
+        }
+    }
+
+    public void onResponse(HttpRequest req, int retriedCount) {
+        String key = getKey(req);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Endpoint endpoint = getEndpoint(key);
+            if (0 == retriedCount) {
+                endpoint.countRequest(now, BUDGET_WINDOW);
+            }
+            if (0 != endpoint.openedAt) {
+                logger.info("Closing circuit breaker for " + key);
+                endpoint.close();
+            }
+            endpoint.record(false, BREAKER_WINDOW);
+        }
+    }
+
+    public long onFailure(HttpRequest req, int retriedCount, int statusCode) {
+        String key = getKey(req);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Endpoint endpoint = getEndpoint(key);
+            endpoint.record(true, BREAKER_WINDOW);
+            if (0 == retriedCount) {
+                endpoint.countRequest(now, BUDGET_WINDOW);
+            }
+            if (0 != endpoint.openedAt) {
+                if (0 != endpoint.probeSentAt) {
+                    // the API is still failing
+                    endpoint.openedAt = now;
+                    endpoint.probeSentAt = 0;
+                }
+                return -1;
+            }
+            if (minAttempts <= endpoint.attempts && errorRateThreshold <= (double) endpoint.failures / endpoint.attempts) {
+                logger.warn("Opening circuit breaker for " + key + ": " + endpoint.failures
+                        + " failures out of the last " + endpoint.attempts + " attempts.");
+                endpoint.openedAt = now;
+                return -1;
+            }
+            if (retryCount <= retriedCount) {
+                return -1;
+            }
+            if (Math.max(minRetriesPerWindow, endpoint.requests * budgetRatio) <= endpoint.retries) {
+                logger.debug("Retry budget exhausted for ", key);
+                return -1;
+            }
+            endpoint.retries++;
+        }
+        long ceiling = Math.min(maxInterval, interval << Math.min(retriedCount, 30));
+        if (ceiling < 0) {
+            // overflow
+            ceiling = maxInterval;
+        }
+        return (long) (random.nextDouble() * ceiling);
+    }
+
+    private Endpoint getEndpoint(String key) {
+        Endpoint endpoint = endpoints.get(key);
+        if (null == endpoint) {
+            endpoint = new Endpoint();
+            endpoints.put(key, endpoint);
+        }
+        return endpoint;
+    }
+
+    /*package*/ synchronized boolean isOpen(String url) {
+        Endpoint endpoint = endpoints.get(getKey(url));
+        return null != endpoint && 0 != endpoint.openedAt;
+    }
+
+    private static String getKey(HttpRequest req) {
+        return getKey(req.getURL());
+    }
+
+    private static String getKey(String url) {
+        return HttpRequestMetrics.getEndpoint(url);
+    }
+
+    private static final class Endpoint {
+        // outcomes of the recent attempts, true for failures
+        private final boolean[] outcomes = new boolean[BREAKER_WINDOW];
+        private int next = 0;
+        private int attempts = 0;
+        private int failures = 0;
+
+        private long windowStart = 0;
+        private int requests = 0;
+        private int retries = 0;
+
+        private long openedAt = 0;
+        private long probeSentAt = 0;
+
+        void record(boolean failed, int window) {
+            if (attempts == window) {
+                if (outcomes[next]) {
+                    failures--;
+                }
+            } else {
+                attempts++;
+            }
+            outcomes[next] = failed;
+            if (failed) {
+                failures++;
+            }
+            next = (next + 1) % window;
+        }
+
+        void countRequest(long now, long window) {
+            if (windowStart + window <= now) {
+                windowStart = now;
+                requests = 0;
+                retries = 0;
+            }
+            requests++;
+        }
+
+        void close() {
+            openedAt = 0;
+            probeSentAt = 0;
+            next = 0;
+            attempts = 0;
+            failures = 0;
+        }
+    }
+}
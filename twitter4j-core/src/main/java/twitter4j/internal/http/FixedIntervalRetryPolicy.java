@@ -0,0 +1,43 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+/**
+ * Retries up to http.retryCount times, waiting http.retryIntervalSecs seconds in between.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class FixedIntervalRetryPolicy implements RetryPolicy {
+    private final int retryCount;
+    private final long interval;
+
+    public FixedIntervalRetryPolicy(HttpClientConfiguration conf) {
+        retryCount = conf.getHttpRetryCount();
+        interval = conf.getHttpRetryIntervalSeconds() * 1000L;
+    }
+
+    public void beforeRequest(HttpRequest req) {
+    }
+
+    public void onResponse(HttpRequest req, int retriedCount) {
+    }
+
+    public long onFailure(HttpRequest req, int retriedCount, int statusCode) {
+        return retriedCount < retryCount ? interval : -1;
+    }
+}
@@ -16,8 +16,12 @@
 
 package twitter4j.internal.http;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public final class HTMLEntity {
     public static String escape(String original) {
@@ -40,42 +44,76 @@ public final class HTMLEntity {
         }
     }
 
+    /**
+     * Unescapes character entity references in a single pass.
+     *
+     * @param original string to be unescaped
+     * @return unescaped string. the original instance is returned if it contains no entity reference
+     */
     public static String unescape(String original) {
-        String returnValue = null;
-        if (null != original) {
-            StringBuffer buf = new StringBuffer(original);
-            unescape(buf);
-            returnValue = buf.toString();
+        if (null == original) {
+            return null;
         }
-        return returnValue;
-    }
-
-    public static void unescape(StringBuffer original) {
-        int index = 0;
-        int semicolonIndex;
-        String escaped;
-        String entity;
-        while (index < original.length()) {
-            index = original.indexOf("&", index);
-            if (-1 == index) {
-                break;
+        int index = original.indexOf('&');
+        if (-1 == index) {
+            return original;
+        }
+        int length = original.length();
+        // an entity reference is always longer than the character it represents
+        char[] buf = null;
+        int bufLength = 0;
+        int copied = 0;
+        while (-1 != index) {
+            int node = 0;
+            int i = index + 1;
+            for (; i < length && -1 != node; i++) {
+                char c = original.charAt(i);
+                if (';' == c) {
+                    break;
+                }
+                node = child(node, c);
             }
-            semicolonIndex = original.indexOf(";", index);
-            if (-1 != semicolonIndex) {
-                escaped = original.substring(index, semicolonIndex + 1);
-                entity = escapeEntityMap.get(escaped);
-                if (null != entity) {
-                    original.replace(index, semicolonIndex + 1, entity);
+            if (-1 != node && i < length && NO_VALUE != NODE_VALUES[node]) {
+                if (null == buf) {
+                    buf = new char[length];
                 }
-                index++;
+                original.getChars(copied, index, buf, bufLength);
+                bufLength += index - copied;
+                buf[bufLength++] = NODE_VALUES[node];
+                copied = i + 1;
+                index = original.indexOf('&', copied);
             } else {
-                break;
+                index = original.indexOf('&', index + 1);
             }
         }
+        if (null == buf) {
+            return original;
+        }
+        original.getChars(copied, length, buf, bufLength);
+        bufLength += length - copied;
+        return new String(buf, 0, bufLength);
+    }
+
+    public static void unescape(StringBuffer original) {
+        String str = original.toString();
+        String unescaped = unescape(str);
+        if (unescaped != str) {
+            original.replace(0, original.length(), unescaped);
+        }
+    }
+
+    private static int child(int node, char c) {
+        int index = Arrays.binarySearch(NODE_KEYS[node], c);
+        return index < 0 ? -1 : NODE_CHILDREN[node][index];
     }
 
     private static Map<String, String> entityEscapeMap = new HashMap<String, String>();
-    private static Map<String, String> escapeEntityMap = new HashMap<String, String>();
+
+    // trie of entity names without the leading '&' and trailing ';' (e.g. "amp", "#38")
+    private static final char NO_VALUE = '\uFFFF';
+    private static final char[][] NODE_KEYS;
+    private static final int[][] NODE_CHILDREN;
+    private static final char[] NODE_VALUES;
 
     static {
         String[][] entities =
@@ -358,10 +396,43 @@ public final class HTMLEntity {
                         , {"&rsaquo;", "&#8250;"/* single right-pointing angle quotation mark */, "\u203A"}
 /* rsaquo is proposed but not yet ISO standardized */
                         , {"&euro;", "&#8364;" /* euro sign */, "\u20AC"}};
+        List<Map<Character, Integer>> children = new ArrayList<Map<Character, Integer>>();
+        List<Character> values = new ArrayList<Character>();
+        children.add(new TreeMap<Character, Integer>());
+        values.add(NO_VALUE);
         for (String[] entity : entities) {
             entityEscapeMap.put(entity[2], entity[0]);
-            escapeEntityMap.put(entity[0], entity[2]);
-            escapeEntityMap.put(entity[1], entity[2]);
+            for (int i = 0; i < 2; i++) {
+                String name = entity[i];
+                int node = 0;
+                for (int j = 1; j < name.length() - 1; j++) {
+                    Integer next = children.get(node).get(name.charAt(j));
+                    if (null == next) {
+                        next = children.size();
+                        children.get(node).put(name.charAt(j), next);
+                        children.add(new TreeMap<Character, Integer>());
+                        values.add(NO_VALUE);
+                    }
+                    node = next;
+                }
+                values.set(node, entity[2].charAt(0));
+            }
+        }
+        NODE_KEYS = new char[children.size()][];
+        NODE_CHILDREN = new int[children.size()][];
+        NODE_VALUES = new char[children.size()];
+        for (int node = 0; node < children.size(); node++) {
+            Map<Character, Integer> map = children.get(node);
+            NODE_KEYS[node] = new char[map.size()];
+            NODE_CHILDREN[node] = new int[map.size()];
+            int i = 0;
+            // TreeMap iterates in ascending order, as required by binarySearch()
+            for (Map.Entry<Character, Integer> entry : map.entrySet()) {
+                NODE_KEYS[node][i] = entry.getKey();
+                NODE_CHILDREN[node][i] = entry.getValue();
+                i++;
+            }
+            NODE_VALUES[node] = values.get(node);
         }
     }
 
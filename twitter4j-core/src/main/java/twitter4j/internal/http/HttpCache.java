@@ -0,0 +1,170 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.TwitterException;
+import twitter4j.auth.Authorization;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static twitter4j.internal.http.HttpResponseCode.OK;
+
+/**
+ * Caches GET responses and revalidates them with If-None-Match / If-Modified-Since.<br>
+ * Responses are fresh for the max-age of their Cache-Control header, and are returned without a request meanwhile.
+ * Stale responses are sent with the validators and replayed when the server answers 304 Not Modified, so that the
+ * body is not downloaded again. The JSONObject or JSONArray returned by asJSONObject() and asJSONArray() is shared by
+ * the replays of a response, while bodies read with asReaderToParse() are parsed again on every replay.<br>
+ * no-store is not honored: the cache is private to the client, and a response carrying a validator is only replayed
+ * once the server confirmed it has not changed.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class HttpCache {
+    private final HttpClientWrapperConfiguration conf;
+    private final HttpCacheStorage storage;
+
+    HttpCache(HttpClientWrapperConfiguration conf) {
+        this.conf = conf;
+        try {
+            storage = (HttpCacheStorage) Class.forName(conf.getHttpCacheStorageImpl())
+                    .getConstructor(HttpClientWrapperConfiguration.class).newInstance(conf);
+        } catch (InstantiationException e) {
+            throw new AssertionError(e);
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        } catch (ClassNotFoundException e) {
+            throw new AssertionError(e);
+        } catch (ClassCastException e) {
+            throw new AssertionError(e);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        } catch (InvocationTargetException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    HttpCacheStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * @param req request
+     * @return key identifying the method, URL and authorization of the request
+     */
+    static String getKey(HttpRequest req) {
+        StringBuilder key = new StringBuilder(req.getURL().length() + 32);
+        Authorization authorization = req.getAuthorization();
+        key.append(req.getMethod().name()).append(' ')
+                .append(null == authorization ? 0 : authorization.hashCode()).append(' ')
+                .append(req.getURL());
+        HttpParameter[] params = req.getParameters();
+        if (null != params && 0 != params.length) {
+            key.append(-1 == req.getURL().indexOf('?') ? '?' : '&')
+                    .append(HttpParameter.encodeParameters(params));
+        }
+        return key.toString();
+    }
+
+    /**
+     * @param key cache key
+     * @param req request
+     * @return the cached response for the request, or null
+     */
+    HttpCacheEntry get(String key, HttpRequest req) {
+        HttpCacheEntry entry = storage.get(key);
+        // keys of different authorizations may collide
+        return null != entry && entry.isAuthorizedFor(req.getAuthorization()) ? entry : null;
+    }
+
+    /**
+     * @param req   request
+     * @param entry stale response
+     * @return the request with the validators of the response
+     */
+    static HttpRequest toConditionalRequest(HttpRequest req, HttpCacheEntry entry) {
+        if (null == entry.getETag() && null == entry.getLastModified()) {
+            return req;
+        }
+        Map<String, String> headers = new HashMap<String, String>();
+        if (null != req.getRequestHeaders()) {
+            headers.putAll(req.getRequestHeaders());
+        }
+        if (null != entry.getETag()) {
+            headers.put("If-None-Match", entry.getETag());
+        }
+        if (null != entry.getLastModified()) {
+            headers.put("If-Modified-Since", entry.getLastModified());
+        }
+        return new HttpRequest(req.getMethod(), req.getURL(), req.getParameters(), req.getAuthorization(), headers);
+    }
+
+    /**
+     * Stores the response if it can be revalidated or reused.
+     *
+     * @param key cache key
+     * @param req request
+     * @param res response
+     * @return the response to be returned in place of res
+     * @throws TwitterException when the body could not be read
+     */
+    HttpResponse store(String key, HttpRequest req, HttpResponse res) throws TwitterException {
+        if (OK != res.getStatusCode()) {
+            return res;
+        }
+        long maxAge = getMaxAge(res.getResponseHeader("Cache-Control"));
+        if (0 == maxAge && null == res.getResponseHeader("ETag") && null == res.getResponseHeader("Last-Modified")) {
+            return res;
+        }
+        Map<String, List<String>> headers = res.getResponseHeaderFields();
+        HttpCacheEntry entry = new HttpCacheEntry(req.getAuthorization(), headers, res.asString(), maxAge);
+        storage.put(key, entry);
+        return replay(entry);
+    }
+
+    HttpResponse replay(HttpCacheEntry entry) {
+        return new CachedHttpResponse(entry, conf);
+    }
+
+    /**
+     * @param cacheControl Cache-Control header
+     * @return max-age in milliseconds, or 0 if the response must be revalidated
+     */
+    static long getMaxAge(String cacheControl) {
+        if (null == cacheControl) {
+            return 0;
+        }
+        long maxAge = 0;
+        for (String directive : cacheControl.split(",")) {
+            directive = directive.trim().toLowerCase();
+            if ("no-cache".equals(directive)) {
+                return 0;
+            }
+            if (directive.startsWith("max-age=")) {
+                try {
+                    maxAge = Math.max(0, Long.parseLong(directive.substring("max-age=".length()).trim()) * 1000);
+                } catch (NumberFormatException ignore) {
+                }
+            }
+        }
+        return maxAge;
+    }
+}
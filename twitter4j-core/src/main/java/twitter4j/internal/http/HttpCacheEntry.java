@@ -0,0 +1,132 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.auth.Authorization;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response held by the HTTP cache.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class HttpCacheEntry implements java.io.Serializable {
+    private final Authorization authorization;
+    // replaced as a whole when the response is revalidated
+    private volatile Map<String, List<String>> headers;
+    private final String body;
+    private final String etag;
+    private final String lastModified;
+    // how long the response is fresh, in milliseconds
+    private final long maxAge;
+    private volatile long expires;
+    // body parsed by the first response read from this entry, shared by the following ones
+    private transient volatile Object parsedBody = null;
+    private static final long serialVersionUID = 4428936107469134583L;
+
+    HttpCacheEntry(Authorization authorization, Map<String, List<String>> headers, String body, long maxAge) {
+        this.authorization = authorization;
+        this.headers = new LinkedHashMap<String, List<String>>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (null != header.getKey()) {
+                this.headers.put(header.getKey(), new ArrayList<String>(header.getValue()));
+            }
+        }
+        this.body = body;
+        this.etag = getResponseHeader("ETag");
+        this.lastModified = getResponseHeader("Last-Modified");
+        this.maxAge = maxAge;
+        this.expires = System.currentTimeMillis() + maxAge;
+    }
+
+    /**
+     * @param authorization authorization of the request
+     * @return true if the response was returned to a request with the same authorization
+     */
+    boolean isAuthorizedFor(Authorization authorization) {
+        return null == this.authorization ? null == authorization : this.authorization.equals(authorization);
+    }
+
+    String getResponseHeader(String name) {
+        return NIOHttpResponseImpl.getHeader(headers, name);
+    }
+
+    Map<String, List<String>> getResponseHeaderFields() {
+        return headers;
+    }
+
+    String getBody() {
+        return body;
+    }
+
+    String getETag() {
+        return etag;
+    }
+
+    String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return true if the response can be used without revalidating it
+     */
+    boolean isFresh() {
+        return System.currentTimeMillis() < expires;
+    }
+
+    /**
+     * Makes the response fresh again, after the server confirmed it has not been modified. The headers of the 304
+     * response replace the stored ones, so that the rate limit headers of the replays are up to date.
+     *
+     * @param notModifiedHeaders headers of the 304 response, or null
+     */
+    void revalidated(Map<String, List<String>> notModifiedHeaders) {
+        if (null != notModifiedHeaders) {
+            Map<String, List<String>> updated = new LinkedHashMap<String, List<String>>(headers);
+            for (Map.Entry<String, List<String>> header : notModifiedHeaders.entrySet()) {
+                String name = header.getKey();
+                // the body of the stored response is replayed, so are the headers describing it
+                if (null == name || name.equalsIgnoreCase("Content-Length")
+                        || name.equalsIgnoreCase("Content-Encoding") || name.equalsIgnoreCase("Transfer-Encoding")) {
+                    continue;
+                }
+                for (Iterator<String> names = updated.keySet().iterator(); names.hasNext(); ) {
+                    if (name.equalsIgnoreCase(names.next())) {
+                        names.remove();
+                    }
+                }
+                updated.put(name, new ArrayList<String>(header.getValue()));
+            }
+            this.headers = updated;
+        }
+        this.expires = System.currentTimeMillis() + maxAge;
+    }
+
+    Object getParsedBody() {
+        return parsedBody;
+    }
+
+    void setParsedBody(Object parsedBody) {
+        this.parsedBody = parsedBody;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+/**
+ * Storage backend of the HTTP response cache, specified with http.cacheStorageImpl.<br>
+ * Implementations must be thread safe and have a public constructor taking HttpClientWrapperConfiguration.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see MemoryHttpCacheStorage
+ * @since Twitter4J 2.2.1
+ */
+public interface HttpCacheStorage {
+    /**
+     * @param key cache key
+     * @return the entry, or null
+     */
+    HttpCacheEntry get(String key);
+
+    /**
+     * @param key   cache key
+     * @param entry entry to be stored
+     */
+    void put(String key, HttpCacheEntry entry);
+
+    /**
+     * @param key cache key
+     */
+    void remove(String key);
+}
@@ -27,5 +27,16 @@ public interface HttpClient {
 
     HttpResponse request(HttpRequest req) throws TwitterException;
 
+    /**
+     * Sends the request and notifies the listener of the response, or of the failure.<br>
+     * Non-blocking implementations return right away and notify the listener from an I/O thread once the whole
+     * response has been received. Others notify the listener before returning.
+     *
+     * @param req      request
+     * @param listener listener
+     * @since Twitter4J 2.2.1
+     */
+    void request(HttpRequest req, HttpResponseListener listener);
+
     void shutdown();
 }
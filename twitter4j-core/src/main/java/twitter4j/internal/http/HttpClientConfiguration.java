@@ -37,10 +37,24 @@ public interface HttpClientConfiguration {
 
     int getHttpRetryIntervalSeconds();
 
+    String getHttpRetryPolicyImpl();
+
     int getHttpMaxTotalConnections();
 
     int getHttpDefaultMaxPerRoute();
 
+    boolean isHttpConnectionPoolEnabled();
+
+    /**
+     * @return milliseconds after which an idle pooled connection of the NIO client is closed. HttpClientImpl leaves
+     *         idle sockets to the keep-alive cache of HttpURLConnection and ignores this setting
+     */
+    int getHttpConnectionPoolIdleTimeout();
+
+    boolean isHttpNIOEnabled();
+
+    int getHttpNIOThreadCount();
+
     boolean isPrettyDebugEnabled();
 
     boolean isGZIPEnabled();
@@ -51,6 +51,9 @@ public final class HttpClientFactory {
     }
 
     public static HttpClient getInstance(HttpClientConfiguration conf) {
+        if (conf.isHttpNIOEnabled()) {
+            return NIOHttpClientImpl.getInstance(conf);
+        }
         try {
             return (HttpClient) HTTP_CLIENT_CONSTRUCTOR.newInstance(conf);
         } catch (InstantiationException e) {
@@ -61,4 +64,28 @@ public final class HttpClientFactory {
             throw new AssertionError(e);
         }
     }
+
+    /**
+     * @param conf configuration
+     * @return a new instance of the RetryPolicy specified with http.retryPolicyImpl
+     * @since Twitter4J 2.2.1
+     */
+    static RetryPolicy newRetryPolicy(HttpClientConfiguration conf) {
+        try {
+            return (RetryPolicy) Class.forName(conf.getHttpRetryPolicyImpl())
+                    .getConstructor(HttpClientConfiguration.class).newInstance(conf);
+        } catch (InstantiationException e) {
+            throw new AssertionError(e);
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        } catch (ClassNotFoundException e) {
+            throw new AssertionError(e);
+        } catch (ClassCastException e) {
+            throw new AssertionError(e);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        } catch (InvocationTargetException e) {
+            throw new AssertionError(e);
+        }
+    }
 }
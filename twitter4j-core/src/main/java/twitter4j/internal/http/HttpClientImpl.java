@@ -21,9 +21,7 @@ import twitter4j.conf.ConfigurationContext;
 import twitter4j.internal.logging.Logger;
 import twitter4j.internal.util.T4JInternalStringUtil;
 
-import java.io.BufferedInputStream;
-import java.io.DataOutputStream;
-import java.io.FileInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Authenticator;
@@ -48,6 +46,8 @@ public class HttpClientImpl implements HttpClient, HttpResponseCode, java.io.Ser
 
     private static boolean isJDK14orEarlier = false;
     private final HttpClientConfiguration CONF;
+    private transient ConnectionPool pool = null;
+    private transient RetryPolicy retryPolicy = null;
 
     private static final long serialVersionUID = -8819171414069621503L;
 
@@ -82,6 +82,29 @@ public class HttpClientImpl implements HttpClient, HttpResponseCode, java.io.Ser
     public void shutdown() {
     }
 
+    /**
+     * Returns the connection pool, which also exposes connection statistics.
+     *
+     * @return the connection pool, or null if http.connectionPoolEnabled is false
+     */
+    public synchronized ConnectionPool getConnectionPool() {
+        if (null == pool && CONF.isHttpConnectionPoolEnabled()) {
+            pool = new ConnectionPool(CONF.getHttpDefaultMaxPerRoute(), CONF.getHttpMaxTotalConnections());
+        }
+        return pool;
+    }
+
+    /**
+     * @return the retry policy specified with http.retryPolicyImpl
+     * @since Twitter4J 2.2.1
+     */
+    public synchronized RetryPolicy getRetryPolicy() {
+        if (null == retryPolicy) {
+            retryPolicy = HttpClientFactory.newRetryPolicy(CONF);
+        }
+        return retryPolicy;
+    }
+
     private static final Map<HttpClientConfiguration, HttpClient> instanceMap = new HashMap<HttpClientConfiguration, HttpClient>(1);
 
     public static HttpClient getInstance(HttpClientConfiguration conf) {
@@ -102,71 +125,109 @@ public class HttpClientImpl implements HttpClient, HttpResponseCode, java.io.Ser
     }
 
     public HttpResponse request(HttpRequest req) throws TwitterException {
-        int retriedCount;
-        int retry = CONF.getHttpRetryCount() + 1;
+        MultipartEntity multipart = null;
+        if (req.getMethod() == POST && HttpParameter.containsFile(req.getParameters())) {
+            try {
+                // built once as file bodies given as streams can be read only once
+                multipart = new MultipartEntity(req.getParameters());
+            } catch (IOException ioe) {
+                throw new TwitterException(ioe.getMessage(), ioe);
+            }
+        }
+        try {
+            return request(req, multipart);
+        } finally {
+            if (null != multipart) {
+                multipart.close();
+            }
+        }
+    }
+
+    /**
+     * Sends the request on the calling thread, and notifies the listener before returning.
+     *
+     * @param req      request
+     * @param listener listener
+     * @since Twitter4J 2.2.1
+     */
+    public void request(HttpRequest req, HttpResponseListener listener) {
+        HttpResponse res = null;
+        TwitterException te = null;
+        try {
+            res = request(req);
+        } catch (TwitterException e) {
+            te = e;
+        }
+        listener.httpResponseReceived(new HttpResponseEvent(req, res, te));
+    }
+
+    private HttpResponse request(HttpRequest req, MultipartEntity multipart) throws TwitterException {
         HttpResponse res = null;
-        for (retriedCount = 0; retriedCount < retry; retriedCount++) {
+        ConnectionPool pool = getConnectionPool();
+        RetryPolicy retryPolicy = getRetryPolicy();
+        for (int retriedCount = 0; ; retriedCount++) {
+            retryPolicy.beforeRequest(req);
+            if (null != req.getMetrics()) {
+                req.getMetrics().setRetryCount(retriedCount);
+            }
             int responseCode = -1;
+            long delay;
             try {
-                HttpURLConnection con;
+                HttpURLConnection con = null;
                 OutputStream os = null;
+                String host = null;
+                boolean released = true;
                 try {
+                    if (null != pool) {
+                        host = getHost(req.getURL());
+                        pool.lease(host, CONF.getHttpConnectionTimeout());
+                        released = false;
+                    }
                     con = getConnection(req.getURL());
                     con.setDoInput(true);
                     setHeaders(req, con);
                     con.setRequestMethod(req.getMethod().name());
+                    long connectedAt;
                     if (req.getMethod() == POST) {
-                        if (HttpParameter.containsFile(req.getParameters())) {
-                            String boundary = "----Twitter4J-upload" + System.currentTimeMillis();
-                            con.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
-                            boundary = "--" + boundary;
+                        if (null != multipart) {
+                            con.setRequestProperty("Content-Type", multipart.getContentType());
+                            long contentLength = multipart.getContentLength();
+                            if (!isJDK14orEarlier && contentLength <= Integer.MAX_VALUE) {
+                                // let HttpURLConnection stream the body instead of buffering it
+                                con.setFixedLengthStreamingMode((int) contentLength);
+                            }
                             con.setDoOutput(true);
+                            connectedAt = connect(req, con);
                             os = con.getOutputStream();
-                            DataOutputStream out = new DataOutputStream(os);
-                            for (HttpParameter param : req.getParameters()) {
-                                if (param.isFile()) {
-                                    write(out, boundary + "\r\n");
-                                    write(out, "Content-Disposition: form-data; name=\"" + param.getName() + "\"; filename=\"" + param.getFile().getName() + "\"\r\n");
-                                    write(out, "Content-Type: " + param.getContentType() + "\r\n\r\n");
-                                    BufferedInputStream in = new BufferedInputStream(
-                                            param.hasFileBody() ? param.getFileBody() : new FileInputStream(param.getFile())
-                                    );
-                                    int buff = 0;
-                                    while ((buff = in.read()) != -1) {
-                                        out.write(buff);
-                                    }
-                                    write(out, "\r\n");
-                                    in.close();
-                                } else {
-                                    write(out, boundary + "\r\n");
-                                    write(out, "Content-Disposition: form-data; name=\"" + param.getName() + "\"\r\n");
-                                    write(out, "Content-Type: text/plain; charset=UTF-8\r\n\r\n");
-                                    logger.debug(param.getValue());
-//                                    out.write(encode(param.getValue()).getBytes("UTF-8"));
-                                    out.write(param.getValue().getBytes("UTF-8"));
-                                    write(out, "\r\n");
-                                }
-                            }
-                            write(out, boundary + "--\r\n");
-                            write(out, "\r\n");
-
+                            multipart.writeTo(os, req.getUploadProgressListener());
                         } else {
                             con.setRequestProperty("Content-Type",
                                     "application/x-www-form-urlencoded");
-                            String postParam = HttpParameter.encodeParameters(req.getParameters());
-                            logger.debug("Post Params: ", postParam);
-                            byte[] bytes = postParam.getBytes("UTF-8");
+                            ByteArrayOutputStream postParam = new ByteArrayOutputStream(256);
+                            HttpParameter.encodeParameters(req.getParameters(), postParam);
+                            if (logger.isDebugEnabled()) {
+                                logger.debug("Post Params: ", postParam.toString("US-ASCII"));
+                            }
                             con.setRequestProperty("Content-Length",
-                                    Integer.toString(bytes.length));
+                                    Integer.toString(postParam.size()));
                             con.setDoOutput(true);
+                            connectedAt = connect(req, con);
                             os = con.getOutputStream();
-                            os.write(bytes);
+                            postParam.writeTo(os);
                         }
                         os.flush();
                         os.close();
+                    } else {
+                        connectedAt = connect(req, con);
                     }
-                    res = new HttpResponseImpl(con, CONF);
+                    res = new HttpResponseImpl(con, CONF, pool, host);
+                    // the response releases the connection from now on
+                    released = true;
                     responseCode = con.getResponseCode();
+                    HttpRequestMetrics metrics = req.getMetrics();
+                    if (null != metrics) {
+                        metrics.setTimings(metrics.getConnectTime(), System.nanoTime() - connectedAt);
+                    }
                     if (logger.isDebugEnabled()) {
                         logger.debug("Response: ");
                         Map<String, List<String>> responseHeaders = con.getHeaderFields();
@@ -184,12 +245,17 @@ public class HttpClientImpl implements HttpClient, HttpResponseCode, java.io.Ser
                     if (responseCode < OK || (responseCode != FOUND && MULTIPLE_CHOICES <= responseCode)) {
                         if (responseCode == ENHANCE_YOUR_CLAIM ||
                                 responseCode == BAD_REQUEST ||
-                                responseCode < INTERNAL_SERVER_ERROR ||
-                                retriedCount == CONF.getHttpRetryCount()) {
+                                responseCode < INTERNAL_SERVER_ERROR) {
+                            retryPolicy.onResponse(req, retriedCount);
                             throw new TwitterException(res.asString(), res);
                         }
                         // will retry if the status code is INTERNAL_SERVER_ERROR
+                        delay = retryPolicy.onFailure(req, retriedCount, responseCode);
+                        if (delay < 0) {
+                            throw new TwitterException(res.asString(), res);
+                        }
                     } else {
+                        retryPolicy.onResponse(req, retriedCount);
                         break;
                     }
                 } finally {
@@ -197,10 +263,17 @@ public class HttpClientImpl implements HttpClient, HttpResponseCode, java.io.Ser
                         os.close();
                     } catch (Exception ignore) {
                     }
+                    if (!released) {
+                        if (null != con) {
+                            con.disconnect();
+                        }
+                        pool.release(host, false);
+                    }
                 }
             } catch (IOException ioe) {
                 // connection timeout or read timeout
-                if (retriedCount == CONF.getHttpRetryCount()) {
+                delay = retryPolicy.onFailure(req, retriedCount, responseCode);
+                if (delay < 0) {
                     throw new TwitterException(ioe.getMessage(), ioe, responseCode);
                 }
             }
@@ -208,18 +281,40 @@ public class HttpClientImpl implements HttpClient, HttpResponseCode, java.io.Ser
                 if (logger.isDebugEnabled() && null != res) {
                     res.asString();
                 }
-                logger.debug("Sleeping " + CONF.getHttpRetryIntervalSeconds() + " seconds until the next retry.");
-                Thread.sleep(CONF.getHttpRetryIntervalSeconds() * 1000);
+                if (null != pool && null != res) {
+                    // give the connection back before retrying
+                    res.disconnect();
+                }
+                logger.debug("Sleeping " + delay + " milliseconds until the next retry.");
+                Thread.sleep(delay);
             } catch (InterruptedException ignore) {
                 //nothing to do
+            } catch (IOException ioe) {
+                logger.warn("Failed to release the connection before retrying: ", ioe.getMessage());
             }
         }
         return res;
     }
 
-    private void write(DataOutputStream out, String outStr) throws IOException {
-        out.writeBytes(outStr);
-        logger.debug(outStr);
+    /**
+     * Connects explicitly to measure the connect time, which is near 0 for a kept-alive connection.
+     *
+     * @return System.nanoTime() when connected
+     */
+    private static long connect(HttpRequest req, HttpURLConnection con) throws IOException {
+        long startedAt = System.nanoTime();
+        con.connect();
+        long connectedAt = System.nanoTime();
+        if (null != req.getMetrics()) {
+            req.getMetrics().setTimings(connectedAt - startedAt, 0);
+        }
+        return connectedAt;
+    }
+
+    private static String getHost(String url) throws IOException {
+        URL u = new URL(url);
+        int port = -1 != u.getPort() ? u.getPort() : u.getDefaultPort();
+        return u.getHost() + ":" + port;
     }
 
     public static String encode(String str) {
@@ -17,12 +17,17 @@
 package twitter4j.internal.http;
 
 import twitter4j.TwitterException;
+import twitter4j.UploadProgressListener;
 import twitter4j.auth.Authorization;
 import twitter4j.conf.ConfigurationContext;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
+import static twitter4j.internal.http.HttpResponseCode.NOT_MODIFIED;
 import static twitter4j.internal.http.RequestMethod.DELETE;
 import static twitter4j.internal.http.RequestMethod.GET;
 import static twitter4j.internal.http.RequestMethod.HEAD;
@@ -41,11 +46,29 @@ public final class HttpClientWrapper implements java.io.Serializable {
     private final Map<String, String> requestHeaders;
     private static final long serialVersionUID = -6511977105603119379L;
     private HttpResponseListener httpResponseListener;
+    // null unless rate limit pacing is enabled
+    private transient RateLimitScheduler rateLimitScheduler = null;
+    // null unless the HTTP cache is enabled
+    private transient HttpCache httpCache = null;
+    // null unless HTTP metrics are enabled
+    private transient HttpMetrics httpMetrics = null;
+    // null unless a metrics listener is added
+    private transient volatile List<HttpMetricsListener> httpMetricsListeners = null;
 
     public HttpClientWrapper(HttpClientWrapperConfiguration wrapperConf) {
         this.wrapperConf = wrapperConf;
         requestHeaders = wrapperConf.getRequestHeaders();
         http = HttpClientFactory.getInstance(wrapperConf);
+        if (wrapperConf.isHttpRateLimitPacingEnabled()) {
+            rateLimitScheduler = RateLimitScheduler.getInstance();
+        }
+        if (wrapperConf.isHttpCacheEnabled()) {
+            httpCache = new HttpCache(wrapperConf);
+        }
+        if (wrapperConf.isHttpMetricsEnabled()) {
+            httpMetrics = new HttpMetrics();
+            addHttpMetricsListener(httpMetrics);
+        }
     }
 
     // never used with this project. Just for handiness for those using this class.
@@ -53,6 +76,16 @@ public final class HttpClientWrapper implements java.io.Serializable {
         this.wrapperConf = ConfigurationContext.getInstance();
         requestHeaders = wrapperConf.getRequestHeaders();
         http = HttpClientFactory.getInstance(wrapperConf);
+        if (wrapperConf.isHttpRateLimitPacingEnabled()) {
+            rateLimitScheduler = RateLimitScheduler.getInstance();
+        }
+        if (wrapperConf.isHttpCacheEnabled()) {
+            httpCache = new HttpCache(wrapperConf);
+        }
+        if (wrapperConf.isHttpMetricsEnabled()) {
+            httpMetrics = new HttpMetrics();
+            addHttpMetricsListener(httpMetrics);
+        }
     }
 
     public void shutdown() {
@@ -60,26 +93,226 @@ public final class HttpClientWrapper implements java.io.Serializable {
     }
 
     private HttpResponse request(HttpRequest req) throws TwitterException {
-        HttpResponse res;
+        Exchange exchange = new Exchange(req);
+        HttpResponse res = exchange.lookUp();
+        if (null != res) {
+            return res;
+        }
+        HttpRequest measured = exchange.prepare();
+        TwitterException te = null;
+        try {
+            res = http.request(measured);
+        } catch (TwitterException e) {
+            te = e;
+        }
+        return exchange.completed(res, te);
+    }
+
+    /**
+     * Sends the request without waiting for the response.<br>
+     * With http.nio enabled the calling thread isn't held while the request is in flight. The I/O thread only hands
+     * the response to the executor, which caches it, reports it to the metrics and response listeners, and then
+     * notifies the listener. Otherwise the request is sent on the calling thread, which notifies the listener.
+     *
+     * @param method        method
+     * @param url           url
+     * @param parameters    parameters, or null
+     * @param authorization authorization, or null
+     * @param executor      executor notifying the listener
+     * @param listener      listener
+     * @since Twitter4J 2.2.1
+     */
+    public void request(RequestMethod method, String url, HttpParameter[] parameters, Authorization authorization
+            , final Executor executor, final HttpResponseListener listener) {
+        final HttpRequest req = new HttpRequest(method, url, parameters, authorization, this.requestHeaders);
+        if (!wrapperConf.isHttpNIOEnabled()) {
+            HttpResponse res = null;
+            TwitterException te = null;
+            try {
+                res = request(req);
+            } catch (TwitterException e) {
+                te = e;
+            }
+            listener.httpResponseReceived(new HttpResponseEvent(req, res, te));
+            return;
+        }
+        final Exchange exchange = new Exchange(req);
+        HttpRequest measured;
         try {
-            res = http.request(req);
-            //fire HttpResponseEvent
-            if (null != httpResponseListener) {
-                httpResponseListener.httpResponseReceived(new HttpResponseEvent(req, res, null));
+            HttpResponse res = exchange.lookUp();
+            if (null != res) {
+                listener.httpResponseReceived(new HttpResponseEvent(req, res, null));
+                return;
             }
+            measured = exchange.prepare();
         } catch (TwitterException te) {
-            if (null != httpResponseListener) {
-                httpResponseListener.httpResponseReceived(new HttpResponseEvent(req, null, te));
+            listener.httpResponseReceived(new HttpResponseEvent(req, null, te));
+            return;
+        }
+        http.request(measured, new HttpResponseListener() {
+            public void httpResponseReceived(final HttpResponseEvent event) {
+                // called on the I/O thread
+                executor.execute(new Runnable() {
+                    public void run() {
+                        HttpResponse res = null;
+                        TwitterException te = null;
+                        try {
+                            res = exchange.completed(event.getResponse(), event.getTwitterException());
+                        } catch (TwitterException e) {
+                            te = e;
+                        }
+                        listener.httpResponseReceived(new HttpResponseEvent(req, res, te));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * A request on its way through the cache, the rate limit scheduler and the metrics.
+     */
+    private final class Exchange {
+        private HttpRequest req;
+        private String cacheKey = null;
+        private HttpCacheEntry cached = null;
+        private List<HttpMetricsListener> metricsListeners = null;
+        private HttpRequestMetrics metrics = null;
+        private long startedAt = 0;
+
+        Exchange(HttpRequest req) {
+            this.req = req;
+        }
+
+        /**
+         * @return the cached response if it is fresh, or null
+         */
+        HttpResponse lookUp() {
+            if (null != httpCache && GET == req.getMethod()) {
+                cacheKey = HttpCache.getKey(req);
+                cached = httpCache.get(cacheKey, req);
+                if (null != cached) {
+                    if (cached.isFresh()) {
+                        return httpCache.replay(cached);
+                    }
+                    req = HttpCache.toConditionalRequest(req, cached);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the request to be sent
+         * @throws TwitterException when the rate limit scheduler gives up waiting
+         */
+        HttpRequest prepare() throws TwitterException {
+            if (null != rateLimitScheduler) {
+                rateLimitScheduler.acquire(req);
+            }
+            metricsListeners = httpMetricsListeners;
+            if (null == metricsListeners) {
+                return req;
+            }
+            startedAt = System.nanoTime();
+            // the HttpClient records the timings into the metrics of this call
+            metrics = new HttpRequestMetrics(req);
+            return new HttpRequest(req, metrics);
+        }
+
+        HttpResponse completed(HttpResponse res, TwitterException te) throws TwitterException {
+            boolean replayed = false;
+            if (null != te && null != cached && NOT_MODIFIED == te.getStatusCode()) {
+                // the stored response is the response to this request
+                cached.revalidated(te.getResponseHeaderFields());
+                res = httpCache.replay(cached);
+                te = null;
+                replayed = true;
+            }
+            try {
+                if (null != te) {
+                    throw te;
+                }
+                if (null != metrics) {
+                    if (replayed) {
+                        // nothing is left to be received
+                        metrics.setStatusCode(NOT_MODIFIED);
+                        metrics.setTotalTime(System.nanoTime() - startedAt);
+                        metrics.fireRequestCompleted(metricsListeners);
+                    } else {
+                        // reported once the body has been consumed or the response disconnected
+                        metrics.setStatusCode(res.getStatusCode());
+                        res.setMetrics(metrics, startedAt, metricsListeners);
+                        if (HEAD == req.getMethod() || "0".equals(res.getResponseHeader("Content-Length"))) {
+                            // there is no body to wait for
+                            res.completeMetrics();
+                        }
+                    }
+                }
+                if (null != rateLimitScheduler) {
+                    rateLimitScheduler.update(req, res, null);
+                }
+                if (null != cacheKey && !replayed) {
+                    res = httpCache.store(cacheKey, req, res);
+                }
+                //fire HttpResponseEvent
+                if (null != httpResponseListener) {
+                    httpResponseListener.httpResponseReceived(new HttpResponseEvent(req, res, null));
+                }
+            } catch (TwitterException e) {
+                te = e;
+                if (null != metrics) {
+                    metrics.setStatusCode(te.getStatusCode());
+                    metrics.setTotalTime(System.nanoTime() - startedAt);
+                    metrics.fireRequestCompleted(metricsListeners);
+                }
+                if (null != rateLimitScheduler) {
+                    rateLimitScheduler.update(req, null, te);
+                }
+                if (null != httpResponseListener) {
+                    httpResponseListener.httpResponseReceived(new HttpResponseEvent(req, null, te));
+                }
+                throw te;
             }
-            throw te;
+            return res;
         }
-        return res;
     }
 
     public void setHttpResponseListener(HttpResponseListener listener) {
         httpResponseListener = listener;
     }
 
+    /**
+     * Returns the scheduler pacing requests to the rate limit.
+     *
+     * @return the scheduler, or null if rate limit pacing is disabled
+     * @since Twitter4J 2.2.1
+     */
+    public RateLimitScheduler getRateLimitScheduler() {
+        return rateLimitScheduler;
+    }
+
+    /**
+     * Returns the metrics recorded per endpoint.
+     *
+     * @return the metrics, or null if http.metricsEnabled is false
+     * @since Twitter4J 2.2.1
+     */
+    public HttpMetrics getHttpMetrics() {
+        return httpMetrics;
+    }
+
+    /**
+     * Adds a listener notified of the metrics of every request.
+     *
+     * @param listener listener
+     * @since Twitter4J 2.2.1
+     */
+    public synchronized void addHttpMetricsListener(HttpMetricsListener listener) {
+        if (null == httpMetricsListeners) {
+            httpMetricsListeners = new CopyOnWriteArrayList<HttpMetricsListener>();
+        }
+        httpMetricsListeners.add(listener);
+    }
+
     public HttpResponse get(String url, HttpParameter[] parameters
             , Authorization authorization) throws TwitterException {
         return request(new HttpRequest(GET, url, parameters, authorization, this.requestHeaders));
@@ -107,11 +340,16 @@ public final class HttpClientWrapper implements java.io.Serializable {
     }
 
     public HttpResponse post(String url, HttpParameter[] parameters, Map<String, String> requestHeaders) throws TwitterException {
+        return post(url, parameters, requestHeaders, null);
+    }
+
+    public HttpResponse post(String url, HttpParameter[] parameters, Map<String, String> requestHeaders
+            , UploadProgressListener uploadProgressListener) throws TwitterException {
         Map<String, String> headers = new HashMap<String, String>(this.requestHeaders);
         if (requestHeaders != null)
             headers.putAll(requestHeaders);
 
-        return request(new HttpRequest(POST, url, parameters, null, headers));
+        return request(new HttpRequest(POST, url, parameters, null, headers, uploadProgressListener));
     }
 
     public HttpResponse post(String url, Authorization authorization) throws TwitterException {
@@ -23,4 +23,34 @@ public interface HttpClientWrapperConfiguration extends HttpClientConfiguration
      * @return request headers
      */
     Map<String, String> getRequestHeaders();
+
+    /**
+     * @return true if requests are paced to spread the remaining rate limit until it resets
+     * @since Twitter4J 2.2.1
+     */
+    boolean isHttpRateLimitPacingEnabled();
+
+    /**
+     * @return true if GET responses are cached and revalidated with ETag / Last-Modified
+     * @since Twitter4J 2.2.1
+     */
+    boolean isHttpCacheEnabled();
+
+    /**
+     * @return maximum number of responses held by the default cache storage
+     * @since Twitter4J 2.2.1
+     */
+    int getHttpCacheMaxEntries();
+
+    /**
+     * @return class name of the HttpCacheStorage implementation
+     * @since Twitter4J 2.2.1
+     */
+    String getHttpCacheStorageImpl();
+
+    /**
+     * @return true if latencies, sizes and status codes of requests are recorded per endpoint
+     * @since Twitter4J 2.2.1
+     */
+    boolean isHttpMetricsEnabled();
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.internal.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Aggregates request metrics per endpoint template, enabled with http.metricsEnabled.<br>
+ * Monitoring systems can poll {@link #getEndpointMetrics()}, or be fed every request with an HttpMetricsListener
+ * added to HttpClientWrapper.<br>
+ * At most {@value #MAX_ENDPOINTS} endpoints are tracked. Requests to further endpoints are aggregated under
+ * {@value #OTHER_ENDPOINTS}.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class HttpMetrics implements HttpMetricsListener {
+    public static final int MAX_ENDPOINTS = 256;
+    public static final String OTHER_ENDPOINTS = "*";
+
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<String, EndpointMetrics>();
+
+    public void requestCompleted(HttpRequestMetrics metrics) {
+        String name = metrics.getEndpoint();
+        EndpointMetrics endpoint = endpoints.get(name);
+        // the bound may be overshot by concurrent requests, by a few entries at most
+        if (null == endpoint && MAX_ENDPOINTS <= endpoints.size()) {
+            name = OTHER_ENDPOINTS;
+            endpoint = endpoints.get(name);
+        }
+        if (null == endpoint) {
+            EndpointMetrics newEndpoint = new EndpointMetrics(name);
+            endpoint = endpoints.putIfAbsent(name, newEndpoint);
+            if (null == endpoint) {
+                endpoint = newEndpoint;
+            }
+        }
+        endpoint.record(metrics);
+    }
+
+    /**
+     * @param endpoint endpoint template, like "statuses/user_timeline"
+     * @return metrics of the endpoint, or null if no request has been made to it
+     */
+    public EndpointMetrics getEndpointMetrics(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * @return metrics of all endpoints requested so far
+     */
+    public List<EndpointMetrics> getEndpointMetrics() {
+        return new ArrayList<EndpointMetrics>(endpoints.values());
+    }
+
+    /**
+     * Discards the metrics recorded so far.
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.internal.http;
+
+/**
+ * Receives the metrics of every request made through HttpClientWrapper, to export them to a monitoring system.<br>
+ * Listeners are notified from the thread that made the request, and therefore should return quickly.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see HttpMetrics
+ * @since Twitter4J 2.2.1
+ */
+public interface HttpMetricsListener {
+    /**
+     * Called once the response body has been read and parsed, or the request failed.
+     *
+     * @param metrics metrics of the request
+     */
+    void requestCompleted(HttpRequestMetrics metrics);
+}
@@ -16,10 +16,9 @@
 
 package twitter4j.internal.http;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
 import java.util.List;
 
 /**
@@ -232,7 +231,7 @@ public final class HttpParameter implements Comparable<HttpParameter>, java.io.S
         if (null == httpParams) {
             return "";
         }
-        StringBuffer buf = new StringBuffer();
+        StringBuilder buf = new StringBuilder(httpParams.length * 32);
         for (int j = 0; j < httpParams.length; j++) {
             if (httpParams[j].isFile()) {
                 throw new IllegalArgumentException("parameter [" + httpParams[j].name + "]should be text");
@@ -240,41 +239,161 @@ public final class HttpParameter implements Comparable<HttpParameter>, java.io.S
             if (j != 0) {
                 buf.append("&");
             }
-            buf.append(encode(httpParams[j].name))
-                    .append("=").append(encode(httpParams[j].value));
+            encode(httpParams[j].name, buf).append("=");
+            encode(httpParams[j].value, buf);
         }
         return buf.toString();
     }
 
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    // RFC 3986 unreserved characters, indexed by US-ASCII code
+    private static final boolean[] UNRESERVED = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        UNRESERVED['-'] = true;
+        UNRESERVED['.'] = true;
+        UNRESERVED['_'] = true;
+        UNRESERVED['~'] = true;
+    }
+
     /**
      * @param value string to be encoded
-     * @return encoded string
+     * @return encoded string. the value itself if it consists of unreserved characters only
      * @see <a href="http://wiki.oauth.net/TestCases">OAuth / TestCases</a>
      * @see <a href="http://groups.google.com/group/oauth/browse_thread/thread/a8398d0521f4ae3d/9d79b698ab217df2?hl=en&lnk=gst&q=space+encoding#9d79b698ab217df2">Space encoding - OAuth | Google Groups</a>
      * @see <a href="http://tools.ietf.org/html/rfc3986#section-2.1">RFC 3986 - Uniform Resource Identifier (URI): Generic Syntax - 2.1. Percent-Encoding</a>
      */
     public static String encode(String value) {
-        String encoded = null;
-        try {
-            encoded = URLEncoder.encode(value, "UTF-8");
-        } catch (UnsupportedEncodingException ignore) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || !UNRESERVED[c]) {
+                StringBuilder buf = new StringBuilder(length + 16);
+                buf.append(value, 0, i);
+                return encode(value, i, buf, null, "%").toString();
+            }
         }
-        StringBuffer buf = new StringBuffer(encoded.length());
-        char focus;
-        for (int i = 0; i < encoded.length(); i++) {
-            focus = encoded.charAt(i);
-            if (focus == '*') {
-                buf.append("%2A");
-            } else if (focus == '+') {
-                buf.append("%20");
-            } else if (focus == '%' && (i + 1) < encoded.length()
-                    && encoded.charAt(i + 1) == '7' && encoded.charAt(i + 2) == 'E') {
-                buf.append('~');
-                i += 2;
+        return value;
+    }
+
+    /**
+     * Percent-encodes the value as UTF-8 into the given buffer.
+     *
+     * @param value string to be encoded
+     * @param buf   buffer
+     * @return the buffer
+     * @since Twitter4J 2.2.1
+     */
+    public static StringBuilder encode(String value, StringBuilder buf) {
+        return encode(value, 0, buf, null, "%");
+    }
+
+    /**
+     * Percent-encodes the value as UTF-8 into the given buffer, optionally encoding the escapes once more as the
+     * OAuth signature base string requires.
+     *
+     * @param value string to be encoded
+     * @param buf   buffer
+     * @param twice true to write "%2520" for a space rather than "%20"
+     * @return the buffer
+     * @since Twitter4J 2.2.1
+     */
+    public static StringBuilder encode(String value, StringBuilder buf, boolean twice) {
+        return encode(value, 0, buf, null, twice ? "%25" : "%");
+    }
+
+    /**
+     * Percent-encodes the value as UTF-8 into the given stream. The output is US-ASCII, so it can be sent as a
+     * request body as it is.
+     *
+     * @param value string to be encoded
+     * @param out   stream
+     * @since Twitter4J 2.2.1
+     */
+    public static void encode(String value, ByteArrayOutputStream out) {
+        encode(value, 0, null, out, "%");
+    }
+
+    /**
+     * Writes the parameters as an application/x-www-form-urlencoded body.
+     *
+     * @param httpParams parameters
+     * @param out        stream
+     * @since Twitter4J 2.2.1
+     */
+    public static void encodeParameters(HttpParameter[] httpParams, ByteArrayOutputStream out) {
+        if (null == httpParams) {
+            return;
+        }
+        for (int j = 0; j < httpParams.length; j++) {
+            if (httpParams[j].isFile()) {
+                throw new IllegalArgumentException("parameter [" + httpParams[j].name + "]should be text");
+            }
+            if (j != 0) {
+                out.write('&');
+            }
+            encode(httpParams[j].name, out);
+            out.write('=');
+            encode(httpParams[j].value, out);
+        }
+    }
+
+    /**
+     * Writes into either buf or out.
+     *
+     * @param percent "%", or "%25" to encode the escapes once more
+     */
+    private static StringBuilder encode(String value, int start, StringBuilder buf, ByteArrayOutputStream out
+            , String percent) {
+        int length = value.length();
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (!UNRESERVED[c]) {
+                    appendEscaped(buf, out, percent, c);
+                } else if (null != buf) {
+                    buf.append(c);
+                } else {
+                    out.write(c);
+                }
+            } else if (c < 0x800) {
+                appendEscaped(buf, out, percent, 0xC0 | (c >> 6));
+                appendEscaped(buf, out, percent, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendEscaped(buf, out, percent, 0xF0 | (codePoint >> 18));
+                appendEscaped(buf, out, percent, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendEscaped(buf, out, percent, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendEscaped(buf, out, percent, 0x80 | (codePoint & 0x3F));
+            } else if (Character.MIN_SURROGATE <= c && c <= Character.MAX_SURROGATE) {
+                // unpaired surrogate. replaced with '?' as the UTF-8 encoder does
+                appendEscaped(buf, out, percent, '?');
             } else {
-                buf.append(focus);
+                appendEscaped(buf, out, percent, 0xE0 | (c >> 12));
+                appendEscaped(buf, out, percent, 0x80 | ((c >> 6) & 0x3F));
+                appendEscaped(buf, out, percent, 0x80 | (c & 0x3F));
             }
         }
-        return buf.toString();
+        return buf;
+    }
+
+    private static void appendEscaped(StringBuilder buf, ByteArrayOutputStream out, String percent, int b) {
+        if (null != buf) {
+            buf.append(percent).append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        } else {
+            out.write('%');
+            out.write(HEX[(b >> 4) & 0xF]);
+            out.write(HEX[b & 0xF]);
+        }
     }
 }
@@ -16,6 +16,7 @@
 
 package twitter4j.internal.http;
 
+import twitter4j.UploadProgressListener;
 import twitter4j.auth.Authorization;
 
 import java.util.Arrays;
@@ -38,6 +39,14 @@ public final class HttpRequest implements java.io.Serializable {
 
     private Map<String, String> requestHeaders;
 
+    private transient UploadProgressListener uploadProgressListener = null;
+
+    // the metrics of the call the request is sent for, or null
+    private transient HttpRequestMetrics metrics = null;
+
+    // the account the request is made on behalf of, taken once as the authorization may be given another token
+    private transient Object accountKey = null;
+
     private static final long serialVersionUID = -3463594029098858381L;
 
 
@@ -64,6 +73,38 @@ public final class HttpRequest implements java.io.Serializable {
         this.requestHeaders = requestHeaders;
     }
 
+    /**
+     * @param method                 Specifies the HTTP method
+     * @param url                    the request to request
+     * @param parameters             parameters
+     * @param authorization          Authentication implementation
+     * @param requestHeaders         request headers
+     * @param uploadProgressListener listener notified while a multipart body is written
+     * @since Twitter4J 2.2.1
+     */
+    public HttpRequest(RequestMethod method, String url, HttpParameter[] parameters
+            , Authorization authorization, Map<String, String> requestHeaders
+            , UploadProgressListener uploadProgressListener) {
+        this(method, url, parameters, authorization, requestHeaders);
+        this.uploadProgressListener = uploadProgressListener;
+    }
+
+    /**
+     * Returns a copy of the request recording into the metrics of a single call.
+     *
+     * @param req     request
+     * @param metrics metrics of the call
+     */
+    /*package*/ HttpRequest(HttpRequest req, HttpRequestMetrics metrics) {
+        this.method = req.method;
+        this.url = req.url;
+        this.parameters = req.parameters;
+        this.authorization = req.authorization;
+        this.requestHeaders = req.requestHeaders;
+        this.uploadProgressListener = req.uploadProgressListener;
+        this.metrics = metrics;
+    }
+
     public RequestMethod getMethod() {
         return method;
     }
@@ -80,10 +121,38 @@ public final class HttpRequest implements java.io.Serializable {
         return authorization;
     }
 
+    /**
+     * @return the account the request is made on behalf of, as it was when first asked for
+     */
+    /*package*/ synchronized Object getAccountKey() {
+        if (null == accountKey) {
+            accountKey = RateLimitScheduler.getAccountKey(authorization);
+        }
+        return accountKey;
+    }
+
     public Map<String, String> getRequestHeaders() {
         return requestHeaders;
     }
 
+    /**
+     * Returns the metrics the HttpClient records the timings of the request into.
+     *
+     * @return metrics of the call, or null if the request is not measured
+     * @since Twitter4J 2.2.1
+     */
+    public HttpRequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return listener notified while a multipart body is written, or null
+     * @since Twitter4J 2.2.1
+     */
+    public UploadProgressListener getUploadProgressListener() {
+        return uploadProgressListener;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package twitter4j.internal.http;
+
+import twitter4j.internal.logging.Logger;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Timings, sizes and outcome of a request.<br>
+ * Durations are in nanoseconds. Those the HttpClient implementation doesn't measure are 0.<br>
+ * An instance is created for every call made while HttpMetricsListeners are registered, and is reachable from the
+ * request handed to the HttpClient with {@link HttpRequest#getMetrics()}, so that the HttpClient can record the
+ * timings it measures.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class HttpRequestMetrics {
+    private static final Logger logger = Logger.getLogger(HttpRequestMetrics.class);
+    private final RequestMethod method;
+    private final String url;
+    private final String endpoint;
+    private int statusCode = -1;
+    // set by the HttpClient
+    private volatile int retryCount = 0;
+    private volatile long connectTime = 0;
+    private volatile long timeToFirstByte = 0;
+    private long bodyReadTime = 0;
+    private long parseTime = 0;
+    private long totalTime = 0;
+    private long receivedBytes = 0;
+    private long decodedBytes = 0;
+
+    HttpRequestMetrics(HttpRequest req) {
+        this.method = req.getMethod();
+        this.url = req.getURL();
+        this.endpoint = getEndpoint(url);
+    }
+
+    /**
+     * Records the number of retries made so far. Called by the HttpClient before each attempt.
+     *
+     * @param retryCount number of retries
+     */
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Records the timings of the attempt. Called by the HttpClient once the response head has been received.
+     *
+     * @param connectTime     time taken to connect, 0 for a kept-alive connection
+     * @param timeToFirstByte time from sending the request to receiving the response head, excluding the connect time
+     */
+    public void setTimings(long connectTime, long timeToFirstByte) {
+        this.connectTime = connectTime;
+        this.timeToFirstByte = timeToFirstByte;
+    }
+
+    void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    void setBody(long bodyReadTime, long parseTime, long receivedBytes, long decodedBytes) {
+        this.bodyReadTime = bodyReadTime;
+        this.parseTime = parseTime;
+        this.receivedBytes = receivedBytes;
+        this.decodedBytes = decodedBytes;
+    }
+
+    void setTotalTime(long totalTime) {
+        this.totalTime = totalTime;
+    }
+
+    void fireRequestCompleted(List<HttpMetricsListener> listeners) {
+        for (HttpMetricsListener listener : listeners) {
+            try {
+                listener.requestCompleted(this);
+            } catch (RuntimeException re) {
+                logger.warn("Exception thrown from HttpMetricsListener: ", re.toString());
+            }
+        }
+    }
+
+    // first path segments of the REST resources. Paths starting otherwise are those of the list API, keyed by user
+    private static final Set<String> RESOURCES = new HashSet<String>(Arrays.asList("account", "blocks"
+            , "direct_messages", "favorites", "followers", "friends", "friendships", "geo", "help", "legal", "lists"
+            , "notifications", "oauth", "related_results", "report_spam", "saved_searches", "search", "statuses"
+            , "trends", "users"));
+
+    /**
+     * Returns the endpoint template of the URL: the path without the API version, the extension and the query, with
+     * the ids, screen names and slugs in the path replaced by placeholders.<br>
+     * e.g. "statuses/user_timeline" for http://api.twitter.com/1/statuses/user_timeline.json?count=200,
+     * "statuses/show/:id" for http://api.twitter.com/1/statuses/show/12345.json and
+     * ":user/lists/:list/statuses" for http://api.twitter.com/1/twit4j/lists/friends/statuses.json
+     *
+     * @param url URL
+     * @return endpoint template
+     */
+    static String getEndpoint(String url) {
+        int start = url.indexOf("://");
+        start = url.indexOf('/', -1 == start ? 0 : start + 3);
+        if (-1 == start) {
+            return "";
+        }
+        int end = url.indexOf('?', start);
+        String path = url.substring(start + 1, -1 == end ? url.length() : end);
+        int dot = path.lastIndexOf('.');
+        if (dot > path.lastIndexOf('/')) {
+            path = path.substring(0, dot);
+        }
+        String[] segments = path.split("/");
+        int first = 1 < segments.length && isVersion(segments[0]) ? 1 : 0;
+        int length = segments.length - first;
+        String[] template = new String[length];
+        for (int i = 0; i < length; i++) {
+            template[i] = isNumeric(segments[first + i]) ? ":id" : segments[first + i];
+        }
+        templateNames(template);
+        StringBuilder buf = new StringBuilder(path.length());
+        for (String segment : template) {
+            if (0 != buf.length()) {
+                buf.append('/');
+            }
+            buf.append(segment);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Replaces the screen names and slugs at their known positions, so that requests about different users share
+     * the template of their endpoint.
+     *
+     * @param template path segments
+     */
+    private static void templateNames(String[] template) {
+        int length = template.length;
+        if (2 <= length && !RESOURCES.contains(template[0])
+                && ("lists".equals(template[1]) || 3 <= length && isListResource(template[2]))) {
+            // {user}/lists, {user}/lists/{list}[/statuses], {user}/lists/memberships|subscriptions
+            // and {user}/{list}/members|subscribers[/...]
+            template[0] = ":user";
+            if (!"lists".equals(template[1])) {
+                template[1] = ":list";
+            } else if (3 <= length && !"memberships".equals(template[2]) && !"subscriptions".equals(template[2])) {
+                template[2] = ":list";
+            }
+        } else if (3 == length && "users".equals(template[0]) && "profile_image".equals(template[1])) {
+            template[2] = ":screen_name";
+        } else if (3 <= length && "users".equals(template[0]) && "suggestions".equals(template[1])) {
+            template[2] = ":slug";
+        } else if (3 == length && "geo".equals(template[0]) && "id".equals(template[1])) {
+            template[2] = ":id";
+        } else if (2 == length && "favorites".equals(template[0])) {
+            // the id or screen name of the user
+            template[1] = ":id";
+        }
+    }
+
+    private static boolean isListResource(String segment) {
+        return "members".equals(segment) || "subscribers".equals(segment);
+    }
+
+    private static boolean isVersion(String segment) {
+        return 0 != segment.length() && Character.isDigit(segment.charAt(0))
+                && isNumeric(segment.replace(".", ""));
+    }
+
+    private static boolean isNumeric(String segment) {
+        if (0 == segment.length()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public RequestMethod getMethod() {
+        return method;
+    }
+
+    public String getURL() {
+        return url;
+    }
+
+    /**
+     * @return endpoint template, like "statuses/user_timeline"
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return status code of the response, or -1 if no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return number of retries made before the response was received
+     */
+    public int getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * @return time taken to connect, 0 for a kept-alive connection
+     */
+    public long getConnectTime() {
+        return connectTime;
+    }
+
+    /**
+     * @return time from sending the request to receiving the response head, excluding the connect time
+     */
+    public long getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    /**
+     * @return time spent waiting for the body to be received
+     */
+    public long getBodyReadTime() {
+        return bodyReadTime;
+    }
+
+    /**
+     * @return time spent parsing the body and mapping it to objects
+     */
+    public long getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * @return time from the first attempt to the completion of the request, including retries
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * @return body bytes received, compressed if the response was gzipped
+     */
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    /**
+     * @return body bytes after decompression
+     */
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpRequestMetrics{" +
+                "method=" + method +
+                ", endpoint='" + endpoint + '\'' +
+                ", statusCode=" + statusCode +
+                ", retryCount=" + retryCount +
+                ", connectTime=" + connectTime +
+                ", timeToFirstByte=" + timeToFirstByte +
+                ", bodyReadTime=" + bodyReadTime +
+                ", parseTime=" + parseTime +
+                ", totalTime=" + totalTime +
+                ", receivedBytes=" + receivedBytes +
+                ", decodedBytes=" + decodedBytes +
+                '}';
+    }
+}
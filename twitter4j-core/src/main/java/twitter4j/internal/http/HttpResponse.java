@@ -17,6 +17,7 @@
 package twitter4j.internal.http;
 
 import twitter4j.TwitterException;
+import twitter4j.conf.Configuration;
 import twitter4j.conf.ConfigurationContext;
 import twitter4j.internal.logging.Logger;
 import twitter4j.internal.org.json.JSONArray;
@@ -28,6 +29,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +42,7 @@ import java.util.Map;
  */
 public abstract class HttpResponse {
     private static final Logger logger = Logger.getLogger(HttpResponseImpl.class);
+    private static final int BUFFER_SIZE = 8 * 1024;
     protected final HttpClientConfiguration CONF;
 
     HttpResponse() {
@@ -52,6 +57,17 @@ public abstract class HttpResponse {
     protected String responseAsString = null;
     protected InputStream is;
     private boolean streamConsumed = false;
+    private CountingInputStream received = null;
+    private CountingInputStream decoded = null;
+    // null unless HttpMetrics listeners are registered
+    private HttpRequestMetrics metrics = null;
+    private List<HttpMetricsListener> metricsListeners = null;
+    private long requestStartedAt = 0;
+    private long consumeStartedAt = 0;
+    // set while the body is parsed after being read, so that asString() doesn't complete the metrics
+    private boolean parsing = false;
+    // the body being parsed from the reader returned by asReaderToParse()
+    private InputStream parsedStream = null;
 
     public final int getStatusCode() {
         return statusCode;
@@ -61,6 +77,17 @@ public abstract class HttpResponse {
 
     public abstract Map<String, List<String>> getResponseHeaderFields();
 
+    /**
+     * Returns the URL the response was received from, which differs from the requested URL once redirects have been
+     * followed.
+     *
+     * @return the URL, or null if unknown
+     * @since Twitter4J 2.2.1
+     */
+    public String getURL() {
+        return null;
+    }
+
     /**
      * Returns the response stream.<br>
      * This method cannot be called after calling asString() or asDcoument()<br>
@@ -88,6 +115,7 @@ public abstract class HttpResponse {
      */
     public final String asString() throws TwitterException {
         if (null == responseAsString) {
+            startConsuming();
             BufferedReader br = null;
             InputStream stream = null;
             try {
@@ -95,11 +123,12 @@ public abstract class HttpResponse {
                 if (null == stream) {
                     return null;
                 }
-                br = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
-                StringBuffer buf = new StringBuffer();
-                String line;
-                while (null != (line = br.readLine())) {
-                    buf.append(line).append("\n");
+                br = new BufferedReader(new InputStreamReader(stream, "UTF-8"), BUFFER_SIZE);
+                StringBuilder buf = new StringBuilder(BUFFER_SIZE);
+                char[] chars = new char[BUFFER_SIZE];
+                int count;
+                while (-1 != (count = br.read(chars))) {
+                    buf.append(chars, 0, count);
                 }
                 this.responseAsString = buf.toString();
                 logger.debug(responseAsString);
@@ -121,11 +150,168 @@ public abstract class HttpResponse {
                     }
                 }
                 disconnectForcibly();
+                if (!parsing) {
+                    completeMetrics();
+                }
             }
+        } else if (!parsing) {
+            // read before, or replayed from the cache
+            completeMetrics();
         }
         return responseAsString;
     }
 
+    /**
+     * Returns the response body as string, to be parsed by the caller. {@link #parsed()} must be called once the
+     * body has been parsed, so that the time spent is reported to HttpMetricsListeners as parse time.
+     *
+     * @return response body
+     * @throws TwitterException
+     * @since Twitter4J 2.2.1
+     */
+    public final String asStringToParse() throws TwitterException {
+        startConsuming();
+        parsing = true;
+        return asString();
+    }
+
+    /**
+     * Returns a reader of the response body, to be parsed by the caller while the body is received and decoded.
+     * {@link #parsed()} must be called once the body has been parsed, so that the connection is released and the
+     * time spent is reported to HttpMetricsListeners as parse time.<br>
+     * The body is read into a String first if it has already been read, or if it is to be logged.
+     *
+     * @return response body
+     * @throws TwitterException
+     * @since Twitter4J 2.2.1
+     */
+    public final Reader asReaderToParse() throws TwitterException {
+        startConsuming();
+        parsing = true;
+        if (null != responseAsString || null == is || logger.isDebugEnabled()) {
+            String body = asString();
+            return new StringReader(null == body ? "" : body);
+        }
+        parsedStream = asStream();
+        streamConsumed = true;
+        try {
+            return new InputStreamReader(parsedStream, "UTF-8");
+        } catch (UnsupportedEncodingException uee) {
+            throw new AssertionError(uee);
+        }
+    }
+
+    /**
+     * Marks the end of parsing the body returned by {@link #asStringToParse()} or {@link #asReaderToParse()}.
+     *
+     * @since Twitter4J 2.2.1
+     */
+    public final void parsed() {
+        if (null != parsedStream) {
+            try {
+                parsedStream.close();
+            } catch (IOException ignore) {
+            }
+            parsedStream = null;
+            disconnectForcibly();
+        }
+        parsing = false;
+        completeMetrics();
+    }
+
+    /**
+     * Reports the request to the listeners once the body has been consumed, or the response disconnected.
+     *
+     * @param metrics   metrics of the request
+     * @param startedAt System.nanoTime() when the request was started
+     * @param listeners listeners to be notified
+     */
+    /*package*/ void setMetrics(HttpRequestMetrics metrics, long startedAt, List<HttpMetricsListener> listeners) {
+        this.metrics = metrics;
+        this.requestStartedAt = startedAt;
+        this.metricsListeners = listeners;
+    }
+
+    private void startConsuming() {
+        if (null != metrics && 0 == consumeStartedAt) {
+            consumeStartedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Reports the request to the HttpMetricsListeners when the response is disconnected before its body has been
+     * consumed. To be called by the implementations from {@link #disconnect()}.
+     *
+     * @since Twitter4J 2.2.1
+     */
+    protected final void released() {
+        if (!parsing) {
+            completeMetrics();
+        }
+    }
+
+    /*package*/ void completeMetrics() {
+        if (null == metrics) {
+            return;
+        }
+        long now = System.nanoTime();
+        long bodyReadTime = null == received ? 0 : received.getReadTime();
+        long consumeTime = 0 == consumeStartedAt ? 0 : now - consumeStartedAt;
+        metrics.setBody(bodyReadTime, Math.max(0, consumeTime - bodyReadTime)
+                , getReceivedBodyLength(), getDecodedBodyLength());
+        metrics.setTotalTime(now - requestStartedAt);
+        HttpRequestMetrics completed = metrics;
+        metrics = null;
+        completed.fireRequestCompleted(metricsListeners);
+    }
+
+    /**
+     * Wraps the body to count the bytes received and decoded, and to inflate a gzipped one.
+     *
+     * @param body            response body as received
+     * @param contentEncoding Content-Encoding response header, or null
+     * @return decoded response body
+     * @throws IOException when the gzip header is broken
+     */
+    protected final InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        received = new CountingInputStream(body);
+        if ("gzip".equals(contentEncoding)) {
+            // the response is gzipped
+            decoded = new CountingInputStream(new PooledGZIPInputStream(received));
+            return decoded;
+        }
+        decoded = received;
+        return received;
+    }
+
+    /**
+     * Returns the number of body bytes received so far, compressed if the response is gzipped.
+     *
+     * @return bytes received
+     * @since Twitter4J 2.2.1
+     */
+    public final long getReceivedBodyLength() {
+        return null == received ? 0 : received.getCount();
+    }
+
+    /**
+     * Returns the number of body bytes read so far, after decompression.
+     *
+     * @return bytes decoded
+     * @since Twitter4J 2.2.1
+     */
+    public final long getDecodedBodyLength() {
+        return null == decoded ? 0 : decoded.getCount();
+    }
+
+    /**
+     * @return true if the data objects keep their raw JSON, which is then sliced from the body as it was received
+     */
+    private boolean keepsJSONSource() {
+        return CONF instanceof Configuration && ((Configuration) CONF).isJSONStoreEnabled()
+                && ((Configuration) CONF).isJSONCaptureEnabled();
+    }
+
     private JSONObject json = null;
 
     /**
@@ -136,7 +322,16 @@ public abstract class HttpResponse {
      * @throws TwitterException
      */
     public final JSONObject asJSONObject() throws TwitterException {
+        if (null == json && getParsedBody() instanceof JSONObject) {
+            json = (JSONObject) getParsedBody();
+            if (!parsing) {
+                completeMetrics();
+            }
+        }
         if (null == json) {
+            startConsuming();
+            boolean wasParsing = parsing;
+            parsing = true;
             InputStreamReader reader = null;
             try {
                 if (logger.isDebugEnabled()) {
@@ -147,6 +342,8 @@ public abstract class HttpResponse {
                     } else {
                         json = new JSONObject(asString());
                     }
+                } else if (keepsJSONSource()) {
+                    json = new JSONObject(new JSONTokener(asString(), true));
                 } else {
                     reader = asReader();
                     json = new JSONObject(new JSONTokener(reader));
@@ -165,7 +362,12 @@ public abstract class HttpResponse {
                     }
                 }
                 disconnectForcibly();
+                parsing = wasParsing;
+                if (!parsing) {
+                    completeMetrics();
+                }
             }
+            setParsedBody(json);
         }
         return json;
     }
@@ -178,7 +380,16 @@ public abstract class HttpResponse {
      * @throws TwitterException
      */
     public final JSONArray asJSONArray() throws TwitterException {
+        if (getParsedBody() instanceof JSONArray) {
+            if (!parsing) {
+                completeMetrics();
+            }
+            return (JSONArray) getParsedBody();
+        }
         JSONArray json = null;
+        startConsuming();
+        boolean wasParsing = parsing;
+        parsing = true;
         InputStreamReader reader = null;
         try {
             if (logger.isDebugEnabled()) {
@@ -189,6 +400,8 @@ public abstract class HttpResponse {
                 } else {
                     json = new JSONArray(asString());
                 }
+            } else if (keepsJSONSource()) {
+                json = new JSONArray(new JSONTokener(asString(), true));
             } else {
                 reader = asReader();
                 json = new JSONArray(new JSONTokener(reader));
@@ -207,10 +420,27 @@ public abstract class HttpResponse {
                 }
             }
             disconnectForcibly();
+            parsing = wasParsing;
+            if (!parsing) {
+                completeMetrics();
+            }
         }
+        setParsedBody(json);
         return json;
     }
 
+    /**
+     * Returns the body parsed by a previous response replayed from the same cache entry.
+     *
+     * @return JSONObject or JSONArray, or null
+     */
+    /*package*/ Object getParsedBody() {
+        return null;
+    }
+
+    /*package*/ void setParsedBody(Object parsedBody) {
+    }
+
     public final InputStreamReader asReader() {
         try {
             return new InputStreamReader(is, "UTF-8");
@@ -220,6 +450,10 @@ public abstract class HttpResponse {
     }
 
     private void disconnectForcibly() {
+        if (null != received && logger.isDebugEnabled()) {
+            logger.debug("Body: " + getReceivedBodyLength() + " bytes received, "
+                    + getDecodedBodyLength() + " bytes decoded");
+        }
         try {
             disconnect();
         } catch (Exception ignore) {
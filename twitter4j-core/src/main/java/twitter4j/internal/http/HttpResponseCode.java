@@ -23,8 +23,11 @@ package twitter4j.internal.http;
 public interface HttpResponseCode {
     int OK = 200;// OK: Success!
     int MULTIPLE_CHOICES = 300;//
+    int MOVED_PERMANENTLY = 301;//
     int FOUND = 302;//
+    int SEE_OTHER = 303;//
     int NOT_MODIFIED = 304;// Not Modified: There was no new data to return.
+    int TEMPORARY_REDIRECT = 307;//
     int BAD_REQUEST = 400;// Bad Request: The request was invalid. An accompanying error message will explain why. This is the status code will be returned during rate limiting.
     int UNAUTHORIZED = 401;// Not Authorized: Authentication credentials were missing or incorrect.
     int FORBIDDEN = 403;// Forbidden: The request is understood, but it has been refused.  An accompanying error message will explain why.
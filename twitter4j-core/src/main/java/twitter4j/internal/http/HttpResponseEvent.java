@@ -30,7 +30,7 @@ public final class HttpResponseEvent {
 
     private TwitterException twitterException;
 
-    HttpResponseEvent(HttpRequest request, HttpResponse response, TwitterException te) {
+    public HttpResponseEvent(HttpRequest request, HttpResponse response, TwitterException te) {
         this.request = request;
         this.response = response;
         this.twitterException = te;
@@ -16,29 +16,49 @@
 
 package twitter4j.internal.http;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.GZIPInputStream;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.1.2
  */
 public class HttpResponseImpl extends HttpResponse {
+    // responses larger than this are closed rather than drained for reuse
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
     private HttpURLConnection con;
+    private ConnectionPool.Lease lease = null;
+    private DrainingInputStream body = null;
+    private boolean released = false;
 
     HttpResponseImpl(HttpURLConnection con, HttpClientConfiguration conf) throws IOException {
+        this(con, conf, null, null);
+    }
+
+    /**
+     * @param pool pool the connection is leased from, or null
+     * @param host host the connection is leased for
+     */
+    HttpResponseImpl(HttpURLConnection con, HttpClientConfiguration conf, ConnectionPool pool, String host) throws IOException {
         super(conf);
         this.con = con;
         this.statusCode = con.getResponseCode();
         if (null == (is = con.getErrorStream())) {
             is = con.getInputStream();
         }
-        if (null != is && "gzip".equals(con.getContentEncoding())) {
-            // the response is gzipped
-            is = new GZIPInputStream(is);
+        if (null != is && null != pool) {
+            is = body = new DrainingInputStream(is);
+        }
+        if (null != is) {
+            is = decode(is, con.getContentEncoding());
+        }
+        if (null != pool) {
+            lease = pool.track(this, host, con);
         }
     }
 
@@ -57,10 +77,98 @@ public class HttpResponseImpl extends HttpResponse {
         return con.getHeaderFields();
     }
 
+    @Override
+    public String getURL() {
+        return null == con ? null : con.getURL().toString();
+    }
+
     /**
      * {@inheritDoc}
      */
     public void disconnect() {
-        con.disconnect();
+        released();
+        if (null == lease) {
+            con.disconnect();
+            return;
+        }
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            released = true;
+        }
+        boolean reusable = false;
+        if (null == body) {
+            reusable = true;
+        } else {
+            try {
+                body.close();
+                reusable = body.isDrained();
+            } catch (IOException ignore) {
+            }
+        }
+        if (!reusable) {
+            con.disconnect();
+        }
+        lease.release(reusable);
+    }
+
+    /**
+     * Drains the unread part of the body on close, so that HttpURLConnection returns the socket to the keep-alive
+     * cache. HttpURLConnection.disconnect() would close the socket instead.
+     */
+    private static final class DrainingInputStream extends FilterInputStream {
+        private boolean eof = false;
+        private boolean closed = false;
+
+        DrainingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (-1 == b) {
+                eof = true;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (-1 == count) {
+                eof = true;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (!eof) {
+                    byte[] buf = new byte[4096];
+                    int drained = 0;
+                    int count;
+                    while (drained <= MAX_DRAIN_BYTES && -1 != (count = super.read(buf, 0, buf.length))) {
+                        drained += count;
+                    }
+                    eof = drained <= MAX_DRAIN_BYTES;
+                }
+            } finally {
+                super.close();
+            }
+        }
+
+        /**
+         * @return true if the body was read to the end
+         */
+        boolean isDrained() {
+            return eof;
+        }
     }
 }
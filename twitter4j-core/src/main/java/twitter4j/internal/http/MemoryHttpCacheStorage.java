@@ -0,0 +1,58 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps up to http.cacheMaxEntries responses in memory, evicting the least recently used ones.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class MemoryHttpCacheStorage implements HttpCacheStorage {
+    private final Map<String, HttpCacheEntry> entries;
+
+    public MemoryHttpCacheStorage(HttpClientWrapperConfiguration conf) {
+        final int maxEntries = conf.getHttpCacheMaxEntries();
+        entries = new LinkedHashMap<String, HttpCacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2387463418592932402L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HttpCacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized HttpCacheEntry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, HttpCacheEntry entry) {
+        entries.put(key, entry);
+    }
+
+    public synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    /*package*/ synchronized int size() {
+        return entries.size();
+    }
+}
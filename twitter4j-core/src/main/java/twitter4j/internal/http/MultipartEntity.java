@@ -0,0 +1,306 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.UploadProgressListener;
+import twitter4j.internal.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * multipart/form-data request body whose length is computed up front, so that it can be streamed with fixed-length streaming mode instead of being buffered by HttpURLConnection.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class MultipartEntity {
+    private static final Logger logger = Logger.getLogger(MultipartEntity.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final String contentType;
+    // byte[], File or FileStreamPart
+    private final List<Object> parts = new ArrayList<Object>();
+    private final long contentLength;
+
+    MultipartEntity(HttpParameter[] params) throws IOException {
+        String boundary = "----Twitter4J-upload" + System.currentTimeMillis();
+        contentType = "multipart/form-data; boundary=" + boundary;
+        boundary = "--" + boundary;
+        long length = 0;
+        for (HttpParameter param : params) {
+            String head;
+            if (param.isFile()) {
+                head = boundary + "\r\n"
+                        + "Content-Disposition: form-data; name=\"" + param.getName() + "\"; filename=\"" + param.getFile().getName() + "\"\r\n"
+                        + "Content-Type: " + param.getContentType() + "\r\n\r\n";
+            } else {
+                head = boundary + "\r\n"
+                        + "Content-Disposition: form-data; name=\"" + param.getName() + "\"\r\n"
+                        + "Content-Type: text/plain; charset=UTF-8\r\n\r\n";
+            }
+            logger.debug(head);
+            length += add(head.getBytes("ISO-8859-1"));
+            if (param.isFile()) {
+                if (!param.hasFileBody()) {
+                    parts.add(param.getFile());
+                    length += param.getFile().length();
+                } else if (param.getFileBody() instanceof FileInputStream) {
+                    FileStreamPart part = new FileStreamPart((FileInputStream) param.getFileBody());
+                    parts.add(part);
+                    length += part.length;
+                } else {
+                    // the length of a stream is unknown until it is read
+                    length += add(readFully(param.getFileBody()));
+                }
+            } else {
+                logger.debug(param.getValue());
+                length += add(param.getValue().getBytes("UTF-8"));
+            }
+            length += add(CRLF);
+        }
+        length += add((boundary + "--\r\n\r\n").getBytes("ISO-8859-1"));
+        contentLength = length;
+    }
+
+    private int add(byte[] bytes) {
+        parts.add(bytes);
+        return bytes.length;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Writes the body in blocks of up to 64KB. Can be called again when the request is retried.
+     *
+     * @param os       destination
+     * @param listener listener to be notified after each block, or null
+     * @throws IOException when the destination or a file fails
+     */
+    void writeTo(OutputStream os, UploadProgressListener listener) throws IOException {
+        long sent = 0;
+        byte[] buffer = null;
+        for (Object part : parts) {
+            if (part instanceof byte[]) {
+                byte[] bytes = (byte[]) part;
+                os.write(bytes);
+                sent += bytes.length;
+                notifyProgress(listener, sent);
+                continue;
+            }
+            if (null == buffer) {
+                buffer = new byte[BUFFER_SIZE];
+            }
+            InputStream in;
+            long remaining;
+            if (part instanceof File) {
+                in = new FileInputStream((File) part);
+                remaining = ((File) part).length();
+            } else {
+                FileStreamPart stream = (FileStreamPart) part;
+                stream.rewind();
+                in = stream.in;
+                remaining = stream.length;
+            }
+            try {
+                while (remaining > 0) {
+                    int count = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (-1 == count) {
+                        throw new IOException("file is shorter than expected. " + remaining + " bytes missing");
+                    }
+                    os.write(buffer, 0, count);
+                    remaining -= count;
+                    sent += count;
+                    notifyProgress(listener, sent);
+                }
+            } finally {
+                if (part instanceof File) {
+                    in.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a reader handing the body out chunk by chunk, for a client writing it from a selector loop.
+     *
+     * @param listener listener to be notified as the chunks are written, or null
+     * @return reader
+     */
+    ChunkReader newChunkReader(UploadProgressListener listener) {
+        return new ChunkReader(listener);
+    }
+
+    /**
+     * Hands the body out in chunks of up to 64KB. A chunk is taken to have been written once the next one is asked
+     * for, and the listener is notified then.
+     */
+    final class ChunkReader {
+        private final UploadProgressListener listener;
+        private int partIndex = 0;
+        private InputStream in = null;
+        private long remaining;
+        private byte[] buffer = null;
+        private long returned = 0;
+        private long notified = 0;
+
+        private ChunkReader(UploadProgressListener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * @return the next chunk, valid until the next call, or null once the whole body has been returned
+         * @throws IOException when a file fails
+         */
+        ByteBuffer next() throws IOException {
+            if (notified != returned) {
+                notified = returned;
+                notifyProgress(listener, returned);
+            }
+            while (partIndex < parts.size()) {
+                Object part = parts.get(partIndex);
+                if (part instanceof byte[]) {
+                    partIndex++;
+                    byte[] bytes = (byte[]) part;
+                    returned += bytes.length;
+                    return ByteBuffer.wrap(bytes);
+                }
+                if (null == in) {
+                    if (null == buffer) {
+                        buffer = new byte[BUFFER_SIZE];
+                    }
+                    if (part instanceof File) {
+                        in = new FileInputStream((File) part);
+                        remaining = ((File) part).length();
+                    } else {
+                        FileStreamPart stream = (FileStreamPart) part;
+                        stream.rewind();
+                        in = stream.in;
+                        remaining = stream.length;
+                    }
+                }
+                if (remaining > 0) {
+                    int count = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (-1 == count) {
+                        throw new IOException("file is shorter than expected. " + remaining + " bytes missing");
+                    }
+                    remaining -= count;
+                    returned += count;
+                    return ByteBuffer.wrap(buffer, 0, count);
+                }
+                closePart();
+                partIndex++;
+            }
+            return null;
+        }
+
+        /**
+         * Prepares the body to be handed out again from the start.
+         */
+        void rewind() {
+            closePart();
+            partIndex = 0;
+            returned = 0;
+            notified = 0;
+        }
+
+        /**
+         * Closes the file being read, if any. Streams given as file bodies are closed by {@link MultipartEntity#close()}.
+         */
+        void closePart() {
+            if (null != in && parts.get(partIndex) instanceof File) {
+                try {
+                    in.close();
+                } catch (IOException ignore) {
+                }
+            }
+            in = null;
+        }
+    }
+
+    /**
+     * Closes the streams given as file bodies.
+     */
+    void close() {
+        for (Object part : parts) {
+            if (part instanceof FileStreamPart) {
+                try {
+                    ((FileStreamPart) part).in.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private void notifyProgress(UploadProgressListener listener, long sent) {
+        if (null != listener) {
+            try {
+                listener.onProgress(sent, contentLength);
+            } catch (Exception ignore) {
+            }
+        }
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] buf = new byte[BUFFER_SIZE];
+            int count;
+            while (-1 != (count = is.read(buf))) {
+                baos.write(buf, 0, count);
+            }
+            return baos.toByteArray();
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * A FileInputStream body. The remaining length is known from its channel, which also allows it to be rewound.
+     */
+    private static final class FileStreamPart {
+        private final FileInputStream in;
+        private final long position;
+        private final long length;
+
+        FileStreamPart(FileInputStream in) throws IOException {
+            this.in = in;
+            FileChannel channel = in.getChannel();
+            position = channel.position();
+            length = channel.size() - position;
+        }
+
+        void rewind() throws IOException {
+            in.getChannel().position(position);
+        }
+    }
+}
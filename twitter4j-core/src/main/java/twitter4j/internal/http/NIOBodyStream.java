@@ -0,0 +1,180 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Hands a response body over from the selector loop to the consuming thread.<br>
+ * The loop offers bytes as they arrive. Once the buffer holds "capacity" bytes the loop stops reading from the socket
+ * until the consumer catches up, so a slow consumer (e.g. a stream listener) applies back pressure to the server
+ * instead of growing the heap.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class NIOBodyStream extends InputStream {
+    private final int capacity;
+    private final Runnable resumer;
+    private byte[] buf;
+    private int position = 0;
+    private int limit = 0;
+    private boolean finished = false;
+    private boolean closed = false;
+    private boolean paused = false;
+    // the last bytes of the body are held back until the exchange is completed
+    private boolean held = false;
+    private IOException error = null;
+
+    /**
+     * @param capacity maximum number of buffered bytes
+     * @param resumer  invoked from the consuming thread when the loop has to resume reading, or the stream is closed
+     */
+    NIOBodyStream(int capacity, Runnable resumer) {
+        this.capacity = capacity;
+        this.resumer = resumer;
+        this.buf = new byte[Math.min(capacity, 8192)];
+    }
+
+    /**
+     * Copies as many bytes as the buffer accepts. Called from the loop thread.
+     *
+     * @param src  source
+     * @param last true if src holds the end of the body. the bytes stay hidden from the consumer until
+     *             {@link #finish()}, so that the connection is back in the pool by the time the consumer is done
+     * @return true if all the bytes were accepted. false means that the loop has to stop reading until resumed
+     */
+    synchronized boolean offer(ByteBuffer src, boolean last) {
+        if (closed) {
+            // nobody is interested any longer
+            src.position(src.limit());
+            return true;
+        }
+        int unread = limit - position;
+        int length = Math.min(src.remaining(), capacity - unread);
+        if (buf.length < limit + length) {
+            if (buf.length < unread + length) {
+                byte[] newBuf = new byte[Math.min(capacity, Math.max(buf.length * 2, unread + length))];
+                System.arraycopy(buf, position, newBuf, 0, unread);
+                buf = newBuf;
+            } else {
+                System.arraycopy(buf, position, buf, 0, unread);
+            }
+            position = 0;
+            limit = unread;
+        }
+        src.get(buf, limit, length);
+        limit += length;
+        paused = src.hasRemaining();
+        held = last && !paused;
+        if (0 < length && !held) {
+            notifyAll();
+        }
+        return !paused;
+    }
+
+    synchronized void finish() {
+        finished = true;
+        held = false;
+        notifyAll();
+    }
+
+    synchronized void fail(IOException ioe) {
+        if (!finished && null == error) {
+            error = ioe;
+            held = false;
+            notifyAll();
+        }
+    }
+
+    synchronized boolean isFinished() {
+        return finished;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int count = read(b, 0, 1);
+        return -1 == count ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (0 == len) {
+            return 0;
+        }
+        boolean resume;
+        int count;
+        synchronized (this) {
+            while ((position == limit || held) && !finished && null == error && !closed) {
+                try {
+                    wait();
+                } catch (InterruptedException ie) {
+                    throw new InterruptedIOException(ie.getMessage());
+                }
+            }
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (position == limit) {
+                if (null != error) {
+                    throw error;
+                }
+                return -1;
+            }
+            count = Math.min(len, limit - position);
+            System.arraycopy(buf, position, b, off, count);
+            position += count;
+            resume = paused && limit - position <= capacity / 2;
+            if (resume) {
+                paused = false;
+            }
+        }
+        if (resume) {
+            resumer.run();
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buf = new byte[0];
+            position = limit = 0;
+            paused = false;
+            notifyAll();
+        }
+        // let the loop decide whether the rest of the body is discarded or the connection is closed
+        resumer.run();
+    }
+}
@@ -0,0 +1,896 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.FINISHED;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NEED_TASK;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NEED_WRAP;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING;
+
+/**
+ * A non-blocking HTTP/1.1 connection, optionally over TLS and / or tunneled through an HTTP proxy.<br>
+ * Apart from {@link #start(NIOExchange)}, every method is called from the loop thread the connection belongs to.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class NIOConnection {
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+    // a closed body of a known length up to this size is read to the end rather than closing the connection
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    // connection states
+    private static final int CONNECTING = 0;
+    private static final int TUNNELING = 1;
+    private static final int OPEN = 2;
+    private static final int CLOSED = 3;
+
+    // exchange phases
+    private static final int WRITING = 0;
+    private static final int READING_HEAD = 1;
+    private static final int READING_BODY = 2;
+
+    // body framing
+    private static final int FIXED = 0;
+    private static final int CHUNKED = 1;
+    private static final int UNTIL_CLOSE = 2;
+
+    // chunked transfer coding
+    private static final int CHUNK_SIZE = 0;
+    private static final int CHUNK_DATA = 1;
+    private static final int CHUNK_END = 2;
+    private static final int CHUNK_TRAILER = 3;
+
+    private final NIOHttpClientImpl client;
+    private final NIOSelectorLoop loop;
+    final String key;
+
+    private SocketChannel channel = null;
+    private SelectionKey selectionKey = null;
+    private SSLEngine engine = null;
+    private boolean verified = false;
+    // raw bytes (TLS only)
+    private ByteBuffer netIn = null;
+    private ByteBuffer netOut = null;
+    // plain bytes. in write mode between events
+    private ByteBuffer appIn = ByteBuffer.allocate(8192);
+    private ByteBuffer outgoing = null;
+    private int state = CONNECTING;
+    private boolean eof = false;
+
+    private NIOExchange exchange = null;
+    private int phase;
+    private int framing;
+    private long remaining;
+    // bytes of the body read after the consumer closed it
+    private long discarded;
+    private int chunkState;
+    private boolean keepAlive;
+    private boolean paused = false;
+    private boolean headIncomplete = false;
+    // true once the connection served an exchange
+    private boolean reused = false;
+    // true once a byte of the response has been received
+    private boolean received = false;
+
+    private long connectStart;
+    private long connectStartedAt;
+    private long lastActivity;
+    private long idleSince;
+
+    NIOConnection(NIOHttpClientImpl client, NIOSelectorLoop loop, String key) {
+        this.client = client;
+        this.loop = loop;
+        this.key = key;
+    }
+
+    /**
+     * Starts the exchange over this connection. May be called from any thread.
+     *
+     * @param ex exchange
+     */
+    void start(final NIOExchange ex) {
+        ex.connection = this;
+        loop.execute(new Runnable() {
+            public void run() {
+                begin(ex);
+            }
+        });
+    }
+
+    /**
+     * Resumes reading after the consumer caught up with the body, or abandons the body the consumer is no longer
+     * interested in. May be called from any thread.
+     *
+     * @param ex exchange
+     */
+    void resume(final NIOExchange ex) {
+        loop.execute(new Runnable() {
+            public void run() {
+                if (ex != exchange || CLOSED == state) {
+                    return;
+                }
+                paused = false;
+                lastActivity = System.currentTimeMillis();
+                if (ex.body.isClosed() && READING_BODY == phase && !isDrainable()) {
+                    abandon();
+                    return;
+                }
+                onReady();
+            }
+        });
+    }
+
+    private void begin(NIOExchange ex) {
+        if (CLOSED == state) {
+            // an idle connection closed by the server or evicted while being handed over. nothing has been sent
+            reused = true;
+            received = false;
+            retryOrFail(ex, new IOException("Connection closed"));
+            return;
+        }
+        exchange = ex;
+        phase = WRITING;
+        received = false;
+        paused = false;
+        discarded = 0;
+        outgoing = null;
+        lastActivity = System.currentTimeMillis();
+        try {
+            if (null == channel) {
+                open(ex);
+            } else {
+                reused = true;
+                pump();
+            }
+        } catch (IOException ioe) {
+            fail(ioe);
+        }
+    }
+
+    private void open(NIOExchange ex) throws IOException {
+        loop.add(this);
+        connectStart = System.currentTimeMillis();
+        connectStartedAt = System.nanoTime();
+        channel = SocketChannel.open();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        selectionKey = channel.register(loop.getSelector(), 0, this);
+        if (channel.connect(ex.address)) {
+            connected();
+        } else {
+            selectionKey.interestOps(SelectionKey.OP_CONNECT);
+        }
+    }
+
+    private void connected() throws IOException {
+        lastActivity = System.currentTimeMillis();
+        exchange.connectTime = System.nanoTime() - connectStartedAt;
+        if (client.isProxyConfigured() && exchange.secure) {
+            state = TUNNELING;
+            outgoing = ByteBuffer.wrap(client.createTunnelRequest(exchange.host, exchange.port));
+        } else {
+            state = OPEN;
+            if (exchange.secure) {
+                startTLS(exchange);
+            }
+        }
+        pump();
+    }
+
+    private void startTLS(NIOExchange ex) throws IOException {
+        engine = NIOHttpClientImpl.createSSLEngine(ex.host, ex.port);
+        engine.beginHandshake();
+        SSLSession session = engine.getSession();
+        netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+        netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+        if (appIn.capacity() < session.getApplicationBufferSize()) {
+            appIn = ByteBuffer.allocate(session.getApplicationBufferSize());
+        }
+    }
+
+    /**
+     * Called by the loop when the channel is ready.
+     */
+    void onReady() {
+        try {
+            if (CONNECTING == state) {
+                if (!channel.finishConnect()) {
+                    return;
+                }
+                connected();
+            } else if (CLOSED != state) {
+                pump();
+            }
+        } catch (IOException ioe) {
+            fail(ioe);
+        }
+    }
+
+    private void pump() throws IOException {
+        boolean progress = true;
+        while (progress && CLOSED != state) {
+            progress = write();
+            if (CLOSED != state && !eof && !paused) {
+                progress |= read();
+            }
+            if (CLOSED != state) {
+                progress |= consume();
+            }
+        }
+        if (CLOSED != state) {
+            updateInterest();
+        }
+    }
+
+    private void updateInterest() {
+        int ops = 0;
+        if (CONNECTING == state) {
+            ops = SelectionKey.OP_CONNECT;
+        } else {
+            if (!eof && !paused) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (null != engine ? 0 < netOut.position() : null != outgoing && outgoing.hasRemaining()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+        }
+        if (selectionKey.interestOps() != ops) {
+            selectionKey.interestOps(ops);
+        }
+    }
+
+    private boolean write() throws IOException {
+        boolean progress = false;
+        if (null == engine) {
+            while ((null != outgoing && outgoing.hasRemaining()) || nextOutgoing()) {
+                if (0 == channel.write(outgoing)) {
+                    break;
+                }
+                progress = true;
+                lastActivity = System.currentTimeMillis();
+            }
+            return progress;
+        }
+        while (true) {
+            if (0 < netOut.position()) {
+                netOut.flip();
+                int count = channel.write(netOut);
+                netOut.compact();
+                if (0 < count) {
+                    progress = true;
+                    lastActivity = System.currentTimeMillis();
+                }
+                if (0 < netOut.position()) {
+                    // the socket doesn't accept more for now
+                    break;
+                }
+            }
+            SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+            if (NEED_TASK == status) {
+                runDelegatedTasks();
+                progress = true;
+                continue;
+            }
+            ByteBuffer src;
+            if (NEED_WRAP == status) {
+                src = EMPTY;
+            } else if (NOT_HANDSHAKING != status && FINISHED != status) {
+                // waiting for the peer
+                break;
+            } else if ((null != outgoing && outgoing.hasRemaining()) || nextOutgoing()) {
+                src = outgoing;
+            } else {
+                break;
+            }
+            SSLEngineResult result = engine.wrap(src, netOut);
+            if (SSLEngineResult.Status.BUFFER_OVERFLOW == result.getStatus()) {
+                netOut = grow(netOut, netOut.capacity() + engine.getSession().getPacketBufferSize());
+                continue;
+            }
+            if (SSLEngineResult.Status.CLOSED == result.getStatus()) {
+                throw new IOException("TLS session closed");
+            }
+            onHandshakeStatus(result);
+            if (0 == result.bytesConsumed() && 0 == result.bytesProduced()) {
+                break;
+            }
+            progress = true;
+        }
+        return progress;
+    }
+
+    /**
+     * Moves on to the next chunk of the request.
+     *
+     * @return false if there is nothing more to send for now
+     */
+    private boolean nextOutgoing() throws IOException {
+        if (null == exchange || WRITING != phase || OPEN != state) {
+            return false;
+        }
+        ByteBuffer chunk = exchange.nextChunk();
+        if (null == chunk) {
+            phase = READING_HEAD;
+            outgoing = null;
+            return false;
+        }
+        outgoing = chunk;
+        return true;
+    }
+
+    private boolean read() throws IOException {
+        ByteBuffer dst = null != engine ? netIn : appIn;
+        if (!dst.hasRemaining()) {
+            return false;
+        }
+        int count = channel.read(dst);
+        if (-1 == count) {
+            eof = true;
+            return true;
+        }
+        if (0 < count) {
+            lastActivity = System.currentTimeMillis();
+            if (null != exchange) {
+                received = true;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean consume() throws IOException {
+        boolean progress = false;
+        if (null != engine) {
+            progress = unwrap();
+        }
+        progress |= parse();
+        if (eof && !progress && !paused && CLOSED != state) {
+            onEOF();
+        }
+        return progress;
+    }
+
+    private boolean unwrap() throws IOException {
+        boolean progress = false;
+        while (true) {
+            SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+            if (NEED_TASK == status) {
+                runDelegatedTasks();
+                progress = true;
+                continue;
+            }
+            if (NEED_WRAP == status || 0 == netIn.position()) {
+                break;
+            }
+            netIn.flip();
+            SSLEngineResult result = engine.unwrap(netIn, appIn);
+            netIn.compact();
+            switch (result.getStatus()) {
+                case BUFFER_OVERFLOW:
+                    if (0 < appIn.position()) {
+                        // parse the plain bytes first
+                        return progress;
+                    }
+                    appIn = grow(appIn, appIn.capacity() + engine.getSession().getApplicationBufferSize());
+                    continue;
+                case BUFFER_UNDERFLOW:
+                    if (!netIn.hasRemaining()) {
+                        netIn = grow(netIn, netIn.capacity() + engine.getSession().getPacketBufferSize());
+                    }
+                    return progress;
+                case CLOSED:
+                    eof = true;
+                    return true;
+                default:
+            }
+            onHandshakeStatus(result);
+            if (0 == result.bytesConsumed() && 0 == result.bytesProduced()) {
+                break;
+            }
+            progress = true;
+        }
+        return progress;
+    }
+
+    private void onHandshakeStatus(SSLEngineResult result) throws IOException {
+        if (NEED_TASK == result.getHandshakeStatus()) {
+            runDelegatedTasks();
+        }
+        if (FINISHED == result.getHandshakeStatus() && !verified) {
+            verifyHostname(exchange.host, engine.getSession());
+            verified = true;
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while (null != (task = engine.getDelegatedTask())) {
+            task.run();
+        }
+    }
+
+    private boolean parse() throws IOException {
+        if (0 == appIn.position()) {
+            return false;
+        }
+        boolean progress = false;
+        appIn.flip();
+        try {
+            while (appIn.hasRemaining() && CLOSED != state) {
+                boolean parsed;
+                if (TUNNELING == state) {
+                    parsed = parseTunnelResponse();
+                } else if (null == exchange) {
+                    // nothing is expected on an idle connection
+                    close();
+                    return false;
+                } else if (READING_BODY == phase) {
+                    parsed = parseBody();
+                    if (READING_BODY == phase && null != exchange && exchange.body.isClosed() && !isDrainable()) {
+                        abandon();
+                        return false;
+                    }
+                } else {
+                    parsed = parseHead();
+                }
+                if (!parsed) {
+                    break;
+                }
+                progress = true;
+            }
+        } finally {
+            appIn.compact();
+        }
+        if (headIncomplete && !appIn.hasRemaining()) {
+            if (MAX_HEAD_SIZE <= appIn.capacity()) {
+                throw new IOException("Response head exceeds " + MAX_HEAD_SIZE + " bytes");
+            }
+            appIn = grow(appIn, appIn.capacity() * 2);
+            progress = true;
+        }
+        return progress;
+    }
+
+    private boolean parseTunnelResponse() throws IOException {
+        List<String> lines = readHead();
+        if (null == lines) {
+            return false;
+        }
+        if (parseStatusCode(lines.get(0)) != 200) {
+            throw new IOException("Unable to tunnel through proxy. Proxy returns \"" + lines.get(0) + "\"");
+        }
+        state = OPEN;
+        startTLS(exchange);
+        return true;
+    }
+
+    private boolean parseHead() throws IOException {
+        List<String> lines = readHead();
+        if (null == lines) {
+            return false;
+        }
+        String statusLine = lines.get(0);
+        int statusCode = parseStatusCode(statusLine);
+        if (statusCode < 200) {
+            // interim response such as 100 Continue
+            return true;
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<String, List<String>>();
+        List<String> status = new ArrayList<String>(1);
+        status.add(statusLine);
+        headers.put(null, status);
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            List<String> values = headers.get(name);
+            if (null == values) {
+                values = new ArrayList<String>(1);
+                headers.put(name, values);
+            }
+            values.add(value);
+        }
+        String connection = NIOHttpResponseImpl.getHeader(headers, "Connection");
+        if (statusLine.startsWith("HTTP/1.0")) {
+            keepAlive = "keep-alive".equalsIgnoreCase(connection);
+        } else {
+            keepAlive = !"close".equalsIgnoreCase(connection);
+        }
+        String transferEncoding = NIOHttpResponseImpl.getHeader(headers, "Transfer-Encoding");
+        String contentLength = NIOHttpResponseImpl.getHeader(headers, "Content-Length");
+        if (exchange.head || 204 == statusCode || 304 == statusCode) {
+            framing = FIXED;
+            remaining = 0;
+        } else if (null != transferEncoding && transferEncoding.toLowerCase().contains("chunked")) {
+            framing = CHUNKED;
+            chunkState = CHUNK_SIZE;
+        } else if (null != contentLength) {
+            framing = FIXED;
+            try {
+                remaining = Long.parseLong(contentLength);
+            } catch (NumberFormatException nfe) {
+                throw new IOException("Invalid Content-Length: " + contentLength);
+            }
+        } else {
+            framing = UNTIL_CLOSE;
+            keepAlive = false;
+        }
+        phase = READING_BODY;
+        exchange.onHead(statusCode, headers, !(FIXED == framing && 0 == remaining));
+        if (FIXED == framing && 0 == remaining) {
+            complete();
+        }
+        return true;
+    }
+
+    /**
+     * @return lines of the head, or null if the head hasn't been received completely
+     */
+    private List<String> readHead() throws IOException {
+        int start = appIn.position();
+        int end = -1;
+        for (int i = start; i < appIn.limit(); i++) {
+            if ('\n' == appIn.get(i) && (i + 1 < appIn.limit() && '\n' == appIn.get(i + 1)
+                    || i + 2 < appIn.limit() && '\r' == appIn.get(i + 1) && '\n' == appIn.get(i + 2))) {
+                end = '\n' == appIn.get(i + 1) ? i + 2 : i + 3;
+                break;
+            }
+        }
+        if (-1 == end) {
+            headIncomplete = true;
+            return null;
+        }
+        headIncomplete = false;
+        List<String> lines = new ArrayList<String>();
+        String line;
+        while (appIn.position() < end && 0 != (line = readLine()).length()) {
+            lines.add(line);
+        }
+        appIn.position(end);
+        if (lines.isEmpty()) {
+            throw new IOException("Empty response head");
+        }
+        return lines;
+    }
+
+    private static int parseStatusCode(String statusLine) throws IOException {
+        // e.g. HTTP/1.1 200 OK
+        int start = statusLine.indexOf(' ');
+        if (statusLine.startsWith("HTTP/") && -1 != start && start + 4 <= statusLine.length()) {
+            try {
+                return Integer.parseInt(statusLine.substring(start + 1, start + 4));
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        throw new IOException("Invalid status line: " + statusLine);
+    }
+
+    /**
+     * @return true if the rest of a body the consumer closed is small enough to be read and discarded, which keeps
+     *         the connection reusable. streams are never drained
+     */
+    private boolean isDrainable() {
+        if (FIXED == framing) {
+            return remaining <= MAX_DRAIN_BYTES;
+        }
+        // the length of a chunked body is unknown. give up once too much has been discarded
+        return CHUNKED == framing && discarded <= MAX_DRAIN_BYTES;
+    }
+
+    private void abandon() {
+        NIOExchange ex = exchange;
+        exchange = null;
+        close();
+        ex.fail(new IOException("Stream closed"));
+    }
+
+    private boolean parseBody() throws IOException {
+        switch (framing) {
+            case FIXED:
+                boolean delivered = deliver(remaining);
+                if (0 == remaining) {
+                    complete();
+                    return true;
+                }
+                return delivered;
+            case UNTIL_CLOSE:
+                return deliver(Long.MAX_VALUE);
+            default:
+        }
+        String line;
+        switch (chunkState) {
+            case CHUNK_SIZE:
+                if (null == (line = readLine())) {
+                    return false;
+                }
+                int extension = line.indexOf(';');
+                String size = (-1 == extension ? line : line.substring(0, extension)).trim();
+                try {
+                    remaining = Long.parseLong(size, 16);
+                } catch (NumberFormatException nfe) {
+                    throw new IOException("Invalid chunk size: " + line);
+                }
+                chunkState = 0 == remaining ? CHUNK_TRAILER : CHUNK_DATA;
+                return true;
+            case CHUNK_DATA:
+                boolean delivered = deliver(remaining);
+                if (0 == remaining) {
+                    chunkState = CHUNK_END;
+                    return true;
+                }
+                return delivered;
+            case CHUNK_END:
+                if (null == readLine()) {
+                    return false;
+                }
+                chunkState = CHUNK_SIZE;
+                return true;
+            default:
+                if (null == (line = readLine())) {
+                    return false;
+                }
+                if (0 == line.length()) {
+                    complete();
+                }
+                return true;
+        }
+    }
+
+    /**
+     * Hands up to max bytes of the body over to the consumer.
+     *
+     * @return true if any byte was handed over
+     */
+    private boolean deliver(long max) {
+        int length = (int) Math.min(max, appIn.remaining());
+        if (0 == length) {
+            return false;
+        }
+        int limit = appIn.limit();
+        int start = appIn.position();
+        appIn.limit(start + length);
+        paused = !exchange.body.offer(appIn, FIXED == framing && length == remaining);
+        appIn.limit(limit);
+        int delivered = appIn.position() - start;
+        if (exchange.body.isClosed()) {
+            discarded += delivered;
+        }
+        if (UNTIL_CLOSE != framing) {
+            remaining -= delivered;
+        }
+        return 0 < delivered;
+    }
+
+    /**
+     * @return a line without terminator, or null if no complete line is available
+     */
+    private String readLine() throws IOException {
+        int start = appIn.position();
+        for (int i = start; i < appIn.limit(); i++) {
+            if ('\n' == appIn.get(i)) {
+                int end = i;
+                if (start < end && '\r' == appIn.get(end - 1)) {
+                    end--;
+                }
+                byte[] bytes = new byte[end - start];
+                appIn.get(bytes);
+                appIn.position(i + 1);
+                return toString(bytes);
+            }
+        }
+        if (MAX_HEAD_SIZE < appIn.remaining()) {
+            throw new IOException("Line exceeds " + MAX_HEAD_SIZE + " bytes");
+        }
+        return null;
+    }
+
+    private static String toString(byte[] bytes) {
+        try {
+            return new String(bytes, "ISO-8859-1");
+        } catch (UnsupportedEncodingException uee) {
+            throw new AssertionError(uee);
+        }
+    }
+
+    private void complete() {
+        NIOExchange ex = exchange;
+        exchange = null;
+        paused = false;
+        boolean reusable = keepAlive && !eof && !appIn.hasRemaining() && client.isKeepAliveEnabled();
+        if (reusable) {
+            idleSince = System.currentTimeMillis();
+            reusable = client.release(this);
+        }
+        if (!reusable) {
+            close();
+        }
+        ex.complete();
+    }
+
+    private void onEOF() {
+        if (null != exchange && READING_BODY == phase && UNTIL_CLOSE == framing) {
+            complete();
+        } else if (null != exchange) {
+            fail(new IOException("Connection closed by the server"));
+        } else {
+            close();
+        }
+    }
+
+    /**
+     * Closes the connection and fails the exchange in progress, if any.
+     *
+     * @param ioe cause
+     */
+    void fail(IOException ioe) {
+        NIOExchange ex = exchange;
+        exchange = null;
+        close();
+        if (null != ex) {
+            retryOrFail(ex, ioe);
+        }
+    }
+
+    private void retryOrFail(NIOExchange ex, IOException ioe) {
+        if (reused && !received && !ex.retried && !ex.body.isClosed()) {
+            // the server closed a keep-alive connection before the request reached it
+            ex.retried = true;
+            ex.rewind();
+            try {
+                client.dispatch(ex, true);
+                return;
+            } catch (IOException ignore) {
+            }
+        }
+        ex.fail(ioe);
+    }
+
+    /**
+     * Called by the loop periodically.
+     *
+     * @param now current time in milliseconds
+     */
+    void checkTimeout(long now) {
+        if (CLOSED == state) {
+            return;
+        }
+        if (null == exchange) {
+            if (client.getIdleTimeout() <= now - idleSince) {
+                close();
+            }
+        } else if (CONNECTING == state || TUNNELING == state) {
+            int timeout = client.getConnectionTimeout();
+            if (0 < timeout && timeout <= now - connectStart) {
+                fail(new SocketTimeoutException("connect timed out"));
+            }
+        } else if (!paused) {
+            int timeout = client.getReadTimeout();
+            if (0 < timeout && timeout <= now - lastActivity) {
+                fail(new SocketTimeoutException("Read timed out"));
+            }
+        }
+    }
+
+    /**
+     * Closes the connection.
+     */
+    void close() {
+        if (CLOSED == state) {
+            return;
+        }
+        state = CLOSED;
+        loop.remove(this);
+        client.removeIdle(this);
+        if (null != selectionKey) {
+            selectionKey.cancel();
+        }
+        if (null != channel) {
+            try {
+                channel.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    /**
+     * Closes the connection from any thread.
+     */
+    void closeLater() {
+        loop.execute(new Runnable() {
+            public void run() {
+                if (null == exchange) {
+                    close();
+                }
+            }
+        });
+    }
+
+    private static ByteBuffer grow(ByteBuffer buf, int capacity) {
+        ByteBuffer newBuf = ByteBuffer.allocate(capacity);
+        buf.flip();
+        newBuf.put(buf);
+        return newBuf;
+    }
+
+    /**
+     * Verifies that the certificate presented by the server matches the host name, as HttpsURLConnection does.
+     */
+    static void verifyHostname(String host, SSLSession session) throws IOException {
+        X509Certificate cert = (X509Certificate) session.getPeerCertificates()[0];
+        host = host.toLowerCase();
+        boolean hasDNSName = false;
+        try {
+            Collection<List<?>> altNames = cert.getSubjectAlternativeNames();
+            if (null != altNames) {
+                for (List<?> altName : altNames) {
+                    int type = (Integer) altName.get(0);
+                    if (2 == type) {
+                        // dNSName
+                        hasDNSName = true;
+                        if (matches(host, ((String) altName.get(1)).toLowerCase())) {
+                            return;
+                        }
+                    } else if (7 == type && host.equals(altName.get(1))) {
+                        // iPAddress
+                        return;
+                    }
+                }
+            }
+        } catch (CertificateParsingException ignore) {
+        }
+        if (!hasDNSName) {
+            for (String rdn : cert.getSubjectX500Principal().getName().split(",")) {
+                if (rdn.startsWith("CN=") && matches(host, rdn.substring(3).toLowerCase())) {
+                    return;
+                }
+            }
+        }
+        throw new SSLPeerUnverifiedException("Certificate doesn't match the host name: " + host);
+    }
+
+    private static boolean matches(String host, String pattern) {
+        if (pattern.startsWith("*.")) {
+            int dot = host.indexOf('.');
+            return 0 < dot && host.substring(dot).equals(pattern.substring(1));
+        }
+        return host.equals(pattern);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single request / response exchange of NIOHttpClientImpl.<br>
+ * The head and a form body are serialized up front. A multipart body is handed out by its MultipartEntity, which
+ * reads files in chunks on the loop thread as the socket accepts them. The exchange can be rewound, so that a request sent over a
+ * stale keep-alive connection can be sent again over a new one.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class NIOExchange {
+    final HttpRequest req;
+    final String connectionKey;
+    final String host;
+    final int port;
+    final boolean secure;
+    final InetSocketAddress address;
+    final boolean head;
+    private final List<byte[]> parts;
+    // null unless the body is multipart
+    private final MultipartEntity.ChunkReader multipart;
+    private final long contentLength;
+
+    private int partIndex = 0;
+
+    final NIOBodyStream body;
+    private final NIOHttpClientImpl.Callback callback;
+    boolean retried = false;
+    // nanoseconds taken to open the connection. 0 for a kept-alive connection
+    volatile long connectTime = 0;
+    // nanoseconds from dispatching the exchange to receiving the response head, excluding the connect time
+    volatile long timeToFirstByte = 0;
+    private final long createdAt = System.nanoTime();
+    // connection the exchange is currently assigned to
+    volatile NIOConnection connection = null;
+
+    // response head
+    private int statusCode = -1;
+    private Map<String, List<String>> responseHeaders = null;
+    private boolean hasBody;
+    private IOException error = null;
+    private boolean completed = false;
+
+    NIOExchange(HttpRequest req, String connectionKey, String host, int port, boolean secure, InetSocketAddress address
+            , List<byte[]> parts, MultipartEntity.ChunkReader multipart, long contentLength, int bodyCapacity
+            , NIOHttpClientImpl.Callback callback) {
+        this.req = req;
+        this.connectionKey = connectionKey;
+        this.host = host;
+        this.port = port;
+        this.secure = secure;
+        this.address = address;
+        this.head = RequestMethod.HEAD == req.getMethod();
+        this.parts = parts;
+        this.multipart = multipart;
+        this.contentLength = contentLength;
+        this.body = new NIOBodyStream(bodyCapacity, new Runnable() {
+            public void run() {
+                NIOConnection current = connection;
+                if (null != current) {
+                    current.resume(NIOExchange.this);
+                }
+            }
+        });
+        this.callback = callback;
+    }
+
+    long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Returns the next chunk of the serialized request. Called from the loop thread.
+     *
+     * @return next chunk, or null when the whole request has been returned
+     * @throws IOException when a file couldn't be read
+     */
+    ByteBuffer nextChunk() throws IOException {
+        if (partIndex < parts.size()) {
+            return ByteBuffer.wrap(parts.get(partIndex++));
+        }
+        return null == multipart ? null : multipart.next();
+    }
+
+    /**
+     * Prepares the request to be sent again.
+     */
+    void rewind() {
+        partIndex = 0;
+        if (null != multipart) {
+            multipart.rewind();
+        }
+    }
+
+    private void closeFile() {
+        if (null != multipart) {
+            multipart.closePart();
+        }
+    }
+
+    /**
+     * Called from the loop thread once the response head has been received.
+     */
+    synchronized void onHead(int statusCode, Map<String, List<String>> responseHeaders, boolean hasBody) {
+        this.timeToFirstByte = System.nanoTime() - createdAt - connectTime;
+        this.statusCode = statusCode;
+        this.responseHeaders = responseHeaders;
+        this.hasBody = hasBody;
+        notifyAll();
+    }
+
+    /**
+     * Called from the loop thread once the whole response has been received.
+     */
+    void complete() {
+        closeFile();
+        body.finish();
+        synchronized (this) {
+            completed = true;
+        }
+        if (null != callback) {
+            callback.onComplete(this);
+        }
+    }
+
+    /**
+     * Called from the loop thread when the exchange failed.
+     */
+    void fail(IOException ioe) {
+        closeFile();
+        body.fail(ioe);
+        synchronized (this) {
+            if (null != error || completed) {
+                return;
+            }
+            error = ioe;
+            notifyAll();
+        }
+        if (null != callback) {
+            callback.onError(this, ioe);
+        }
+    }
+
+    /**
+     * Blocks until the response head has been received.
+     *
+     * @throws IOException when the exchange failed
+     */
+    synchronized void awaitHead() throws IOException {
+        while (null == responseHeaders && null == error) {
+            try {
+                wait();
+            } catch (InterruptedException ie) {
+                throw new InterruptedIOException(ie.getMessage());
+            }
+        }
+        if (null == responseHeaders) {
+            throw error;
+        }
+    }
+
+    synchronized int getStatusCode() {
+        return statusCode;
+    }
+
+    synchronized Map<String, List<String>> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    synchronized boolean hasBody() {
+        return hasBody;
+    }
+}
@@ -0,0 +1,694 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.TwitterException;
+import twitter4j.internal.logging.Logger;
+import twitter4j.internal.util.T4JInternalStringUtil;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import static twitter4j.internal.http.RequestMethod.GET;
+import static twitter4j.internal.http.RequestMethod.HEAD;
+import static twitter4j.internal.http.RequestMethod.POST;
+import static twitter4j.internal.http.RequestMethod.PUT;
+
+/**
+ * A non-blocking HttpClient implementation built on NIO selectors, enabled with http.nioEnabled.<br>
+ * Connections are multiplexed over a handful of shared I/O threads (http.nioThreadCount), so in-flight requests and
+ * open streams don't tie up a thread each. {@link #request(HttpRequest)} blocks the caller until the response head
+ * arrives and the body is streamed to the caller as it is received, so streaming APIs work as with HttpClientImpl.
+ * {@link #request(HttpRequest, HttpResponseListener)} doesn't block at all and notifies the listener once the
+ * whole response has been received. Its retries are scheduled on a timer rather than waited for on a thread.
+ * AsyncTwitter sends its requests through it without holding its dispatcher threads, see {@link HttpClientWrapper}.<br>
+ * Redirects of GET and HEAD requests are followed up to 5 times. Keep-alive connections are reused when
+ * http.connectionPoolEnabled is true. Instances are shared per configuration, see {@link #getInstance(HttpClientConfiguration)}.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class NIOHttpClientImpl implements HttpClient, HttpResponseCode, java.io.Serializable {
+    private static final Logger logger = Logger.getLogger(NIOHttpClientImpl.class);
+
+    // bytes of a response body buffered ahead of the consumer
+    private static final int BODY_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REDIRECTS = 5;
+
+    private static SSLContext sslContext = null;
+    private static Timer retryTimer = null;
+
+    private final HttpClientConfiguration CONF;
+    private transient Map<String, LinkedList<NIOConnection>> idleConnections = null;
+    private transient int idleCount = 0;
+    private transient RetryPolicy retryPolicy = null;
+
+    private static final long serialVersionUID = 2148385722738216460L;
+
+    interface Callback {
+        void onComplete(NIOExchange exchange);
+
+        void onError(NIOExchange exchange, IOException ioe);
+    }
+
+    public NIOHttpClientImpl(HttpClientConfiguration conf) {
+        this.CONF = conf;
+    }
+
+    private static final Map<HttpClientConfiguration, NIOHttpClientImpl> instanceMap = new HashMap<HttpClientConfiguration, NIOHttpClientImpl>(1);
+
+    /**
+     * Returns the client shared by all instances with the same configuration, so that keep-alive connections are
+     * shared as well.
+     *
+     * @param conf configuration
+     * @return the client
+     */
+    public static NIOHttpClientImpl getInstance(HttpClientConfiguration conf) {
+        synchronized (instanceMap) {
+            NIOHttpClientImpl client = instanceMap.get(conf);
+            if (null == client) {
+                client = new NIOHttpClientImpl(conf);
+                instanceMap.put(conf, client);
+            }
+            return client;
+        }
+    }
+
+    /**
+     * @return the retry policy specified with http.retryPolicyImpl
+     */
+    public synchronized RetryPolicy getRetryPolicy() {
+        if (null == retryPolicy) {
+            retryPolicy = HttpClientFactory.newRetryPolicy(CONF);
+        }
+        return retryPolicy;
+    }
+
+    private static synchronized Timer getRetryTimer() {
+        if (null == retryTimer) {
+            retryTimer = new Timer("Twitter4J Retry Timer", true);
+        }
+        return retryTimer;
+    }
+
+    /**
+     * Closes idle keep-alive connections.
+     */
+    public void shutdown() {
+        List<NIOConnection> connections = new ArrayList<NIOConnection>();
+        synchronized (this) {
+            if (null != idleConnections) {
+                for (LinkedList<NIOConnection> idle : idleConnections.values()) {
+                    connections.addAll(idle);
+                }
+                // nobody can take them any longer. they are closed by their loops
+                idleConnections.clear();
+                idleCount = 0;
+            }
+        }
+        for (NIOConnection connection : connections) {
+            connection.closeLater();
+        }
+    }
+
+    public HttpResponse request(HttpRequest req) throws TwitterException {
+        MultipartEntity multipart;
+        try {
+            multipart = newMultipartEntity(req);
+        } catch (IOException ioe) {
+            throw new TwitterException(ioe.getMessage(), ioe);
+        }
+        try {
+            return request(req, multipart);
+        } finally {
+            if (null != multipart) {
+                multipart.close();
+            }
+        }
+    }
+
+    /**
+     * @return the multipart body of the request, or null. built once as file bodies given as streams can be read
+     *         only once
+     */
+    private static MultipartEntity newMultipartEntity(HttpRequest req) throws IOException {
+        if ((req.getMethod() == POST || req.getMethod() == PUT) && HttpParameter.containsFile(req.getParameters())) {
+            return new MultipartEntity(req.getParameters());
+        }
+        return null;
+    }
+
+    private HttpResponse request(HttpRequest req, MultipartEntity multipart) throws TwitterException {
+        HttpResponse res = null;
+        RetryPolicy retryPolicy = getRetryPolicy();
+        for (int retriedCount = 0; ; retriedCount++) {
+            retryPolicy.beforeRequest(req);
+            if (null != req.getMetrics()) {
+                req.getMetrics().setRetryCount(retriedCount);
+            }
+            int responseCode = -1;
+            long delay;
+            try {
+                res = send(req, multipart);
+                responseCode = res.getStatusCode();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Response: ");
+                    Map<String, List<String>> responseHeaders = res.getResponseHeaderFields();
+                    for (String key : responseHeaders.keySet()) {
+                        for (String value : responseHeaders.get(key)) {
+                            if (null != key) {
+                                logger.debug(key + ": " + value);
+                            } else {
+                                logger.debug(value);
+                            }
+                        }
+                    }
+                }
+                if (responseCode < OK || (responseCode != FOUND && MULTIPLE_CHOICES <= responseCode)) {
+                    if (responseCode == ENHANCE_YOUR_CLAIM ||
+                            responseCode == BAD_REQUEST ||
+                            responseCode < INTERNAL_SERVER_ERROR) {
+                        retryPolicy.onResponse(req, retriedCount);
+                        throw new TwitterException(res.asString(), res);
+                    }
+                    // will retry if the status code is INTERNAL_SERVER_ERROR
+                    delay = retryPolicy.onFailure(req, retriedCount, responseCode);
+                    if (delay < 0) {
+                        throw new TwitterException(res.asString(), res);
+                    }
+                } else {
+                    retryPolicy.onResponse(req, retriedCount);
+                    break;
+                }
+            } catch (IOException ioe) {
+                // connection timeout or read timeout
+                delay = retryPolicy.onFailure(req, retriedCount, responseCode);
+                if (delay < 0) {
+                    throw new TwitterException(ioe.getMessage(), ioe, responseCode);
+                }
+            }
+            try {
+                if (logger.isDebugEnabled() && null != res) {
+                    res.asString();
+                }
+                if (null != res) {
+                    res.disconnect();
+                }
+                logger.debug("Sleeping " + delay + " milliseconds until the next retry.");
+                Thread.sleep(delay);
+            } catch (InterruptedException ignore) {
+                //nothing to do
+            } catch (IOException ignore) {
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Sends the request and waits for the response head, following redirects.
+     */
+    private HttpResponse send(HttpRequest req, MultipartEntity multipart) throws IOException {
+        HttpRequest target = req;
+        for (int redirects = 0; ; redirects++) {
+            // only GET and HEAD are redirected
+            NIOExchange exchange = newExchange(target, BODY_BUFFER_SIZE, null, 0 == redirects ? multipart : null);
+            dispatch(exchange, false);
+            exchange.awaitHead();
+            recordTimings(req, exchange);
+            HttpResponse res = new NIOHttpResponseImpl(exchange, CONF);
+            HttpRequest redirect = MAX_REDIRECTS <= redirects ? null : getRedirect(target, res);
+            if (null == redirect) {
+                return res;
+            }
+            res.disconnect();
+            target = redirect;
+        }
+    }
+
+    /**
+     * Returns the request following the redirect, as HttpURLConnection does with instanceFollowRedirects enabled.
+     * Only GET and HEAD requests are redirected, and the authorization isn't sent to another host.
+     *
+     * @param req request
+     * @param res response
+     * @return request following the redirect, or null if the response is not to be redirected
+     */
+    static HttpRequest getRedirect(HttpRequest req, HttpResponse res) {
+        int statusCode = res.getStatusCode();
+        if (MOVED_PERMANENTLY != statusCode && FOUND != statusCode && SEE_OTHER != statusCode
+                && TEMPORARY_REDIRECT != statusCode) {
+            return null;
+        }
+        if (GET != req.getMethod() && HEAD != req.getMethod()) {
+            return null;
+        }
+        String location = res.getResponseHeader("Location");
+        if (null == location) {
+            return null;
+        }
+        URL from;
+        URL to;
+        try {
+            from = new URL(req.getURL());
+            to = new URL(from, location);
+        } catch (MalformedURLException mue) {
+            logger.warn("Ignoring a malformed redirect: ", location);
+            return null;
+        }
+        if (!"http".equalsIgnoreCase(to.getProtocol()) && !"https".equalsIgnoreCase(to.getProtocol())) {
+            return null;
+        }
+        logger.debug("Redirected to ", to.toString());
+        boolean sameHost = from.getHost().equalsIgnoreCase(to.getHost());
+        return new HttpRequest(req.getMethod(), to.toString(), null, sameHost ? req.getAuthorization() : null
+                , req.getRequestHeaders());
+    }
+
+    /**
+     * Sends the request without blocking. The listener is notified from an I/O thread once the whole response has
+     * been received, and therefore must not block. Failed requests are retried as the RetryPolicy decides, and the
+     * listener is notified of the last attempt only.
+     *
+     * @param req      request
+     * @param listener listener
+     */
+    public void request(HttpRequest req, final HttpResponseListener listener) {
+        final MultipartEntity multipart;
+        try {
+            multipart = newMultipartEntity(req);
+        } catch (IOException ioe) {
+            fireResponseReceived(listener, new HttpResponseEvent(req, null, new TwitterException(ioe.getMessage(), ioe)));
+            return;
+        }
+        if (null == multipart) {
+            request(req, listener, 0, null);
+            return;
+        }
+        request(req, new HttpResponseListener() {
+            public void httpResponseReceived(HttpResponseEvent event) {
+                multipart.close();
+                listener.httpResponseReceived(event);
+            }
+        }, 0, multipart);
+    }
+
+    private void request(final HttpRequest req, final HttpResponseListener listener, final int retriedCount
+            , MultipartEntity multipart) {
+        final RetryPolicy retryPolicy = getRetryPolicy();
+        try {
+            retryPolicy.beforeRequest(req);
+        } catch (TwitterException te) {
+            fireResponseReceived(listener, new HttpResponseEvent(req, null, te));
+            return;
+        }
+        if (null != req.getMetrics()) {
+            req.getMetrics().setRetryCount(retriedCount);
+        }
+        send(req, req, listener, retriedCount, multipart, 0);
+    }
+
+    /**
+     * Sends the target, which is the request itself or a redirect of it, without blocking.
+     */
+    private void send(final HttpRequest req, final HttpRequest target, final HttpResponseListener listener
+            , final int retriedCount, final MultipartEntity multipart, final int redirects) {
+        final RetryPolicy retryPolicy = getRetryPolicy();
+        Callback callback = new Callback() {
+            public void onComplete(NIOExchange exchange) {
+                HttpResponse res = null;
+                TwitterException te = null;
+                try {
+                    recordTimings(req, exchange);
+                    res = new NIOHttpResponseImpl(exchange, CONF);
+                    HttpRequest redirect = MAX_REDIRECTS <= redirects ? null : getRedirect(target, res);
+                    if (null != redirect) {
+                        send(req, redirect, listener, retriedCount, null, redirects + 1);
+                        return;
+                    }
+                    int responseCode = res.getStatusCode();
+                    if (responseCode < OK || (responseCode != FOUND && MULTIPLE_CHOICES <= responseCode)) {
+                        if (responseCode == ENHANCE_YOUR_CLAIM ||
+                                responseCode == BAD_REQUEST ||
+                                responseCode < INTERNAL_SERVER_ERROR) {
+                            retryPolicy.onResponse(req, retriedCount);
+                        } else if (retryLater(req, listener, retriedCount, multipart, responseCode)) {
+                            return;
+                        }
+                        te = new TwitterException(res.asString(), res);
+                    } else {
+                        retryPolicy.onResponse(req, retriedCount);
+                    }
+                } catch (IOException ioe) {
+                    te = new TwitterException(ioe.getMessage(), ioe);
+                } catch (TwitterException e) {
+                    te = e;
+                }
+                fireResponseReceived(listener, new HttpResponseEvent(req, res, te));
+            }
+
+            public void onError(NIOExchange exchange, IOException ioe) {
+                if (!retryLater(req, listener, retriedCount, multipart, -1)) {
+                    fireResponseReceived(listener, new HttpResponseEvent(req, null
+                            , new TwitterException(ioe.getMessage(), ioe, -1)));
+                }
+            }
+        };
+        try {
+            // the whole body is buffered
+            dispatch(newExchange(target, Integer.MAX_VALUE, callback, multipart), false);
+        } catch (IOException ioe) {
+            callback.onError(null, ioe);
+        }
+    }
+
+    /**
+     * Schedules a retry of a failed asynchronous request, without holding up the calling I/O thread.
+     *
+     * @return false if the request is not to be retried
+     */
+    private boolean retryLater(final HttpRequest req, final HttpResponseListener listener, final int retriedCount
+            , final MultipartEntity multipart, int statusCode) {
+        long delay = getRetryPolicy().onFailure(req, retriedCount, statusCode);
+        if (delay < 0) {
+            return false;
+        }
+        logger.debug("Retrying in " + delay + " milliseconds.");
+        getRetryTimer().schedule(new TimerTask() {
+            public void run() {
+                try {
+                    request(req, listener, retriedCount + 1, multipart);
+                } catch (RuntimeException re) {
+                    // an exception would cancel the shared timer
+                    logger.warn("Failed to retry the request: ", re.toString());
+                }
+            }
+        }, delay);
+        return true;
+    }
+
+    private static void recordTimings(HttpRequest req, NIOExchange exchange) {
+        if (null != req.getMetrics()) {
+            req.getMetrics().setTimings(exchange.connectTime, exchange.timeToFirstByte);
+        }
+    }
+
+    private void fireResponseReceived(HttpResponseListener listener, HttpResponseEvent event) {
+        try {
+            listener.httpResponseReceived(event);
+        } catch (RuntimeException re) {
+            logger.warn("Exception thrown from HttpResponseListener: ", re.toString());
+        }
+    }
+
+    /**
+     * Serializes the request.
+     */
+    private NIOExchange newExchange(HttpRequest req, int bodyCapacity, Callback callback, MultipartEntity multipart)
+            throws IOException {
+        URL url = new URL(req.getURL());
+        boolean secure = "https".equalsIgnoreCase(url.getProtocol());
+        String host = url.getHost();
+        int port = -1 != url.getPort() ? url.getPort() : url.getDefaultPort();
+        InetSocketAddress address = isProxyConfigured()
+                ? new InetSocketAddress(CONF.getHttpProxyHost(), CONF.getHttpProxyPort())
+                : new InetSocketAddress(host, port);
+        if (address.isUnresolved()) {
+            throw new UnknownHostException(address.getHostName());
+        }
+
+        List<byte[]> parts = new ArrayList<byte[]>(2);
+        MultipartEntity.ChunkReader multipartReader = null;
+        long contentLength = -1;
+        String contentType = null;
+        if (null != multipart) {
+            contentType = multipart.getContentType();
+            contentLength = multipart.getContentLength();
+            multipartReader = multipart.newChunkReader(req.getUploadProgressListener());
+        } else if (req.getMethod() == POST || req.getMethod() == PUT) {
+            contentType = "application/x-www-form-urlencoded";
+            ByteArrayOutputStream postParam = new ByteArrayOutputStream(256);
+            HttpParameter.encodeParameters(req.getParameters(), postParam);
+            byte[] bytes = postParam.toByteArray();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Post Params: ", new String(bytes, "US-ASCII"));
+            }
+            parts.add(bytes);
+            contentLength = bytes.length;
+        }
+        parts.add(0, getBytes(createHead(req, url, secure, host, port, contentType, contentLength)));
+        return new NIOExchange(req, (secure ? "https://" : "http://") + host + ":" + port, host, port, secure, address
+                , parts, multipartReader, contentLength, bodyCapacity, callback);
+    }
+
+    private String createHead(HttpRequest req, URL url, boolean secure, String host, int port
+            , String contentType, long contentLength) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Request: ");
+            logger.debug(req.getMethod().name() + " ", req.getURL());
+        }
+        StringBuilder head = new StringBuilder(256);
+        head.append(req.getMethod().name()).append(' ');
+        if (isProxyConfigured() && !secure) {
+            head.append(req.getURL());
+        } else {
+            head.append(url.getPath().length() == 0 ? "/" : url.getPath());
+            if (null != url.getQuery()) {
+                head.append('?').append(url.getQuery());
+            }
+        }
+        head.append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(host);
+        if (port != url.getDefaultPort()) {
+            head.append(':').append(port);
+        }
+        head.append("\r\n");
+        boolean accept = false;
+        String authorizationHeader;
+        if (null != req.getAuthorization() && null != (authorizationHeader = req.getAuthorization().getAuthorizationHeader(req))) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Authorization: ", T4JInternalStringUtil.maskString(authorizationHeader));
+            }
+            head.append("Authorization: ").append(authorizationHeader).append("\r\n");
+        }
+        if (null != req.getRequestHeaders()) {
+            for (String key : req.getRequestHeaders().keySet()) {
+                head.append(key).append(": ").append(req.getRequestHeaders().get(key)).append("\r\n");
+                logger.debug(key + ": " + req.getRequestHeaders().get(key));
+                accept |= "Accept".equalsIgnoreCase(key);
+            }
+        }
+        if (!accept) {
+            head.append("Accept: */*\r\n");
+        }
+        if (null != contentType) {
+            head.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        if (-1 != contentLength) {
+            head.append("Content-Length: ").append(contentLength).append("\r\n");
+        }
+        if (isProxyConfigured() && !secure && null != getProxyAuthorization()) {
+            head.append("Proxy-Authorization: ").append(getProxyAuthorization()).append("\r\n");
+        }
+        if (!isKeepAliveEnabled()) {
+            head.append("Connection: close\r\n");
+        }
+        head.append("\r\n");
+        return head.toString();
+    }
+
+    /**
+     * @return CONNECT request establishing a tunnel through the proxy
+     */
+    byte[] createTunnelRequest(String host, int port) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Opening proxied connection(" + CONF.getHttpProxyHost() + ":" + CONF.getHttpProxyPort() + ")");
+        }
+        StringBuilder request = new StringBuilder(128);
+        request.append("CONNECT ").append(host).append(':').append(port).append(" HTTP/1.1\r\n");
+        request.append("Host: ").append(host).append(':').append(port).append("\r\n");
+        if (null != getProxyAuthorization()) {
+            request.append("Proxy-Authorization: ").append(getProxyAuthorization()).append("\r\n");
+        }
+        request.append("\r\n");
+        return getBytes(request.toString());
+    }
+
+    private String getProxyAuthorization() {
+        if (null == CONF.getHttpProxyUser() || CONF.getHttpProxyUser().equals("")) {
+            return null;
+        }
+        String credentials = CONF.getHttpProxyUser() + ":" + CONF.getHttpProxyPassword();
+        return "Basic " + BASE64Encoder.encode(getBytes(credentials));
+    }
+
+    boolean isProxyConfigured() {
+        return CONF.getHttpProxyHost() != null && !CONF.getHttpProxyHost().equals("");
+    }
+
+    private static byte[] getBytes(String str) {
+        try {
+            return str.getBytes("ISO-8859-1");
+        } catch (UnsupportedEncodingException uee) {
+            throw new AssertionError(uee);
+        }
+    }
+
+    static synchronized SSLEngine createSSLEngine(String host, int port) throws IOException {
+        try {
+            if (null == sslContext) {
+                sslContext = SSLContext.getInstance("TLS");
+                sslContext.init(null, null, null);
+            }
+        } catch (GeneralSecurityException gse) {
+            IOException ioe = new IOException(gse.getMessage());
+            ioe.initCause(gse);
+            throw ioe;
+        }
+        SSLEngine engine = sslContext.createSSLEngine(host, port);
+        engine.setUseClientMode(true);
+        return engine;
+    }
+
+    /**
+     * Sends the exchange over an idle keep-alive connection or a new connection.
+     *
+     * @param exchange exchange
+     * @param fresh    true to open a new connection
+     * @throws IOException when no selector could be opened
+     */
+    void dispatch(NIOExchange exchange, boolean fresh) throws IOException {
+        NIOConnection connection = fresh ? null : takeIdle(exchange.connectionKey);
+        if (null == connection) {
+            connection = new NIOConnection(this, NIOSelectorLoop.next(CONF.getHttpNIOThreadCount())
+                    , exchange.connectionKey);
+        }
+        connection.start(exchange);
+    }
+
+    boolean isKeepAliveEnabled() {
+        return CONF.isHttpConnectionPoolEnabled();
+    }
+
+    int getConnectionTimeout() {
+        return CONF.getHttpConnectionTimeout();
+    }
+
+    int getReadTimeout() {
+        return CONF.getHttpReadTimeout();
+    }
+
+    int getIdleTimeout() {
+        return CONF.getHttpConnectionPoolIdleTimeout();
+    }
+
+    private synchronized NIOConnection takeIdle(String key) {
+        if (null == idleConnections) {
+            return null;
+        }
+        LinkedList<NIOConnection> idle = idleConnections.get(key);
+        if (null == idle || idle.isEmpty()) {
+            return null;
+        }
+        idleCount--;
+        // the most recently used connection is the most likely to be alive
+        return idle.removeLast();
+    }
+
+    /**
+     * Keeps the connection for reuse.
+     *
+     * @param connection connection which completed an exchange
+     * @return false if too many connections are idle already
+     */
+    synchronized boolean release(NIOConnection connection) {
+        if (CONF.getHttpMaxTotalConnections() <= idleCount) {
+            return false;
+        }
+        if (null == idleConnections) {
+            idleConnections = new HashMap<String, LinkedList<NIOConnection>>();
+        }
+        LinkedList<NIOConnection> idle = idleConnections.get(connection.key);
+        if (null == idle) {
+            idle = new LinkedList<NIOConnection>();
+            idleConnections.put(connection.key, idle);
+        }
+        idle.addLast(connection);
+        idleCount++;
+        return true;
+    }
+
+    synchronized void removeIdle(NIOConnection connection) {
+        if (null == idleConnections) {
+            return;
+        }
+        LinkedList<NIOConnection> idle = idleConnections.get(connection.key);
+        if (null != idle && idle.remove(connection)) {
+            idleCount--;
+            if (idle.isEmpty()) {
+                idleConnections.remove(connection.key);
+            }
+        }
+    }
+
+    /**
+     * @return number of idle keep-alive connections
+     */
+    public synchronized int getIdleConnectionCount() {
+        return idleCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        NIOHttpClientImpl that = (NIOHttpClientImpl) o;
+
+        if (CONF != null ? !CONF.equals(that.CONF) : that.CONF != null)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return CONF != null ? CONF.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "NIOHttpClientImpl{" +
+                "CONF=" + CONF +
+                '}';
+    }
+}
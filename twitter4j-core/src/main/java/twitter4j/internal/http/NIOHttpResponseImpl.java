@@ -0,0 +1,76 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class NIOHttpResponseImpl extends HttpResponse {
+    private final NIOExchange exchange;
+    private final Map<String, List<String>> headers;
+
+    NIOHttpResponseImpl(NIOExchange exchange, HttpClientConfiguration conf) throws IOException {
+        super(conf);
+        this.exchange = exchange;
+        this.statusCode = exchange.getStatusCode();
+        this.headers = exchange.getResponseHeaders();
+        is = decode(exchange.body, exchange.hasBody() ? getResponseHeader("Content-Encoding") : null);
+    }
+
+    public String getResponseHeader(String name) {
+        return getHeader(headers, name);
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaderFields() {
+        return headers;
+    }
+
+    @Override
+    public String getURL() {
+        return exchange.req.getURL();
+    }
+
+    /**
+     * Closes the body without blocking. The selector loop reads and discards the rest of a short body, which keeps
+     * the connection reusable, or closes the connection.
+     */
+    public void disconnect() {
+        released();
+        exchange.body.close();
+    }
+
+    /**
+     * Looks up a header case-insensitively, as HttpURLConnection.getHeaderField(String) does.
+     *
+     * @return last value of the header, or null
+     */
+    static String getHeader(Map<String, List<String>> headers, String name) {
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey())) {
+                List<String> values = entry.getValue();
+                return values.get(values.size() - 1);
+            }
+        }
+        return null;
+    }
+}
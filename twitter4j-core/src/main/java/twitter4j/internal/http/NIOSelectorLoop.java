@@ -0,0 +1,147 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.internal.logging.Logger;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An I/O thread multiplexing connections of NIOHttpClientImpl over a single Selector.<br>
+ * Loops are shared by all clients configured with the same http.nioThreadCount and connections are assigned to them
+ * round-robin. All connection state is touched from the loop thread only; other threads hand work over with
+ * {@link #execute(Runnable)}.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class NIOSelectorLoop implements Runnable {
+    private static final Logger logger = Logger.getLogger(NIOSelectorLoop.class);
+
+    // granularity of timeout checks in milliseconds
+    private static final long TICK = 250;
+
+    private static final Map<Integer, NIOSelectorLoop[]> groups = new HashMap<Integer, NIOSelectorLoop[]>();
+    private static int counter = 0;
+
+    private final Selector selector;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+    // accessed from the loop thread only
+    private final Set<NIOConnection> connections = new HashSet<NIOConnection>();
+
+    private NIOSelectorLoop(String name) throws IOException {
+        selector = Selector.open();
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @param threadCount number of loops in the group
+     * @return the next loop of the group
+     * @throws IOException when the selector couldn't be opened
+     */
+    static synchronized NIOSelectorLoop next(int threadCount) throws IOException {
+        int count = Math.max(1, threadCount);
+        NIOSelectorLoop[] loops = groups.get(count);
+        if (null == loops) {
+            loops = new NIOSelectorLoop[count];
+            for (int i = 0; i < count; i++) {
+                loops[i] = new NIOSelectorLoop("Twitter4J NIO Selector[" + count + "-" + i + "]");
+            }
+            groups.put(count, loops);
+        }
+        counter = (counter + 1) & Integer.MAX_VALUE;
+        return loops[counter % count];
+    }
+
+    /**
+     * Runs the task on the loop thread.
+     *
+     * @param task task
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+
+    boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    void add(NIOConnection connection) {
+        connections.add(connection);
+    }
+
+    void remove(NIOConnection connection) {
+        connections.remove(connection);
+    }
+
+    public void run() {
+        long lastCheck = System.currentTimeMillis();
+        while (true) {
+            try {
+                selector.select(TICK);
+                Runnable task;
+                while (null != (task = tasks.poll())) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException re) {
+                        logger.warn("Unexpected error in the NIO selector loop: ", re.toString());
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    NIOConnection connection = (NIOConnection) key.attachment();
+                    if (key.isValid()) {
+                        connection.onReady();
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (TICK <= now - lastCheck) {
+                    lastCheck = now;
+                    // copy since connections close themselves on timeout
+                    List<NIOConnection> snapshot = new ArrayList<NIOConnection>(connections);
+                    for (NIOConnection connection : snapshot) {
+                        connection.checkTimeout(now);
+                    }
+                }
+            } catch (Throwable th) {
+                logger.warn("Unexpected error in the NIO selector loop: ", th.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads a gzipped response body, as GZIPInputStream does, with an Inflater taken from a pool.<br>
+ * GZIPInputStream allocates an Inflater and its native zlib state per response, and reads through a 512 byte buffer.
+ * Concatenated gzip members are not supported, as the API never sends them.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class PooledGZIPInputStream extends InflaterInputStream {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_INFLATERS = 16;
+    private static final List<Inflater> POOL = new ArrayList<Inflater>(MAX_POOLED_INFLATERS);
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final CRC32 crc = new CRC32();
+    private long inflated = 0;
+    private boolean eos = false;
+    private boolean closed = false;
+
+    PooledGZIPInputStream(InputStream in) throws IOException {
+        super(in, acquire(), BUFFER_SIZE);
+        try {
+            readHeader();
+        } catch (IOException ioe) {
+            release(inf);
+            closed = true;
+            throw ioe;
+        }
+    }
+
+    private static Inflater acquire() {
+        synchronized (POOL) {
+            if (!POOL.isEmpty()) {
+                return POOL.remove(POOL.size() - 1);
+            }
+        }
+        return new Inflater(true);
+    }
+
+    private static void release(Inflater inflater) {
+        inflater.reset();
+        synchronized (POOL) {
+            if (POOL.size() < MAX_POOLED_INFLATERS) {
+                POOL.add(inflater);
+                return;
+            }
+        }
+        inflater.end();
+    }
+
+    /*package*/ static int getPoolSize() {
+        synchronized (POOL) {
+            return POOL.size();
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if (0x1f != readUByte() || 0x8b != readUByte()) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (8 != readUByte()) {
+            throw new ZipException("Unsupported compression method");
+        }
+        int flags = readUByte();
+        // MTIME, XFL and OS
+        skipBytes(6);
+        if (FEXTRA == (flags & FEXTRA)) {
+            skipBytes(readUByte() | (readUByte() << 8));
+        }
+        if (FNAME == (flags & FNAME)) {
+            while (0 != readUByte()) {
+            }
+        }
+        if (FCOMMENT == (flags & FCOMMENT)) {
+            while (0 != readUByte()) {
+            }
+        }
+        if (FHCRC == (flags & FHCRC)) {
+            skipBytes(2);
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (eos) {
+            return -1;
+        }
+        int read = super.read(b, off, len);
+        if (-1 == read) {
+            eos = true;
+            readTrailer();
+        } else {
+            crc.update(b, off, read);
+            inflated += read;
+        }
+        return read;
+    }
+
+    private void readTrailer() throws IOException {
+        // the trailer starts right after the deflated data, possibly already in the buffer
+        int remaining = inf.getRemaining();
+        long expectedCrc = readTrailerInt(remaining);
+        long expectedSize = readTrailerInt(remaining - 4);
+        if (expectedCrc != crc.getValue() || expectedSize != (inflated & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+    }
+
+    private long readTrailerInt(int buffered) throws IOException {
+        long value = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = 0 < buffered - i ? buf[len - buffered + i] & 0xff : readUByte();
+            value |= ((long) b) << (i * 8);
+        }
+        return value;
+    }
+
+    private int readUByte() throws IOException {
+        int b = in.read();
+        if (-1 == b) {
+            throw new EOFException("Unexpected end of GZIP stream");
+        }
+        return b;
+    }
+
+    private void skipBytes(int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            readUByte();
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return eos ? 0 : super.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            in.close();
+        } finally {
+            release(inf);
+        }
+    }
+}
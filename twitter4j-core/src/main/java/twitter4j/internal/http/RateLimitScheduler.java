@@ -0,0 +1,298 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.RateLimitStatus;
+import twitter4j.TwitterException;
+import twitter4j.auth.Authorization;
+import twitter4j.auth.BasicAuthorization;
+import twitter4j.auth.OAuthAuthorization;
+import twitter4j.internal.logging.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static twitter4j.internal.http.HttpResponseCode.ENHANCE_YOUR_CLAIM;
+
+/**
+ * Paces outgoing requests so that the remaining rate limit is spread evenly until it resets, instead of being used up
+ * early and answered with 400 / 420.<br>
+ * The budget is learned from the X-RateLimit-* response headers per account, and from the X-FeatureRateLimit-*
+ * headers per account and endpoint template. Requests are let through unpaced until the first response tells the
+ * budget.<br>
+ * An account is identified by the consumer key and the token a request was signed with, so that all Twitter instances
+ * acting on behalf of the same account share a single budget, see {@link #getInstance()}.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class RateLimitScheduler {
+    private static final Logger logger = Logger.getLogger(RateLimitScheduler.class);
+    private static final int MAX_BUCKETS = 256;
+    // key for requests limited per IP address
+    private static final Object ANONYMOUS = new Object();
+
+    private final Map<Object, Bucket> buckets = new LinkedHashMap<Object, Bucket>(16, 0.75f, true) {
+        private static final long serialVersionUID = 2581013624811339375L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Bucket> eldest) {
+            return size() > MAX_BUCKETS;
+        }
+    };
+    private int queueLength = 0;
+
+    private static final RateLimitScheduler INSTANCE = new RateLimitScheduler();
+
+    /**
+     * Returns the scheduler shared by all HttpClientWrappers with rate limit pacing enabled.
+     *
+     * @return the scheduler
+     */
+    public static RateLimitScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Blocks until the request can be sent without exceeding the pace of the remaining rate limit.
+     *
+     * @param req request to be sent
+     * @throws TwitterException when interrupted while waiting
+     */
+    public void acquire(HttpRequest req) throws TwitterException {
+        long wait;
+        Object account = req.getAccountKey();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long sendAt = reserve(account, now);
+            sendAt = Math.max(sendAt, reserve(new FeatureKey(account, req.getURL()), now));
+            wait = sendAt - now;
+            if (wait <= 0) {
+                return;
+            }
+            queueLength++;
+            getBucket(account).waiting++;
+        }
+        try {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Holding back " + req.getURL() + " for " + wait + " milliseconds to pace the rate limit.");
+            }
+            Thread.sleep(wait);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TwitterException("Interrupted while waiting for the rate limit", ie);
+        } finally {
+            synchronized (this) {
+                queueLength--;
+                getBucket(account).waiting--;
+            }
+        }
+    }
+
+    /**
+     * Updates the budget from the response, or from the exception when the request failed.
+     *
+     * @param req request sent
+     * @param res response received, or null
+     * @param te  exception thrown, or null
+     */
+    public void update(HttpRequest req, HttpResponse res, TwitterException te) {
+        // the key taken by acquire(), even if the authorization has been given another token since
+        Object account = req.getAccountKey();
+        Object feature = new FeatureKey(account, req.getURL());
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (null != res) {
+                update(account, res, "X-RateLimit-");
+                update(feature, res, "X-FeatureRateLimit-");
+            } else if (null != te) {
+                update(account, te.getRateLimitStatus());
+                update(feature, te.getFeatureSpecificRateLimitStatus());
+                if (ENHANCE_YOUR_CLAIM == te.getStatusCode()) {
+                    try {
+                        getBucket(account).update(0, now + te.getRetryAfter() * 1000L);
+                    } catch (IllegalStateException noRetryAfter) {
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of requests currently held back.
+     *
+     * @return the number of requests of all accounts waiting for their turn
+     */
+    public synchronized int getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * Returns the number of requests with the given authorization currently held back.
+     *
+     * @param authorization authorization
+     * @return the number of requests waiting for their turn
+     */
+    public synchronized int getQueueLength(Authorization authorization) {
+        Bucket bucket = buckets.get(getAccountKey(authorization));
+        return null == bucket ? 0 : bucket.waiting;
+    }
+
+    /**
+     * Forgets all budgets.
+     */
+    synchronized void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * Returns how long a request sent now with the given authorization would be held back.<br>
+     * Endpoint specific limits are not taken into account.
+     *
+     * @param authorization authorization
+     * @return projected wait in milliseconds
+     */
+    public synchronized long getProjectedWait(Authorization authorization) {
+        Bucket bucket = buckets.get(getAccountKey(authorization));
+        if (null == bucket) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        return Math.max(0, bucket.getSendTime(now) - now);
+    }
+
+    private long reserve(Object key, long now) {
+        Bucket bucket = buckets.get(key);
+        return null == bucket ? now : bucket.reserve(now);
+    }
+
+    private Bucket getBucket(Object key) {
+        Bucket bucket = buckets.get(key);
+        if (null == bucket) {
+            bucket = new Bucket();
+            buckets.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    private void update(Object key, HttpResponse res, String prefix) {
+        String remaining = res.getResponseHeader(prefix + "Remaining");
+        String reset = res.getResponseHeader(prefix + "Reset");
+        if (null != remaining && null != reset) {
+            try {
+                getBucket(key).update(Integer.parseInt(remaining.trim()), Long.parseLong(reset.trim()) * 1000);
+            } catch (NumberFormatException ignore) {
+            }
+        }
+    }
+
+    private void update(Object key, RateLimitStatus status) {
+        if (null != status) {
+            getBucket(key).update(status.getRemainingHits(), status.getResetTime().getTime());
+        }
+    }
+
+    /**
+     * Returns the identity of the account the authorization currently acts on behalf of. Unlike the authorization
+     * itself, the key doesn't change when the authorization is given another token.
+     *
+     * @param authorization authorization, or null
+     * @return account key
+     */
+    static Object getAccountKey(Authorization authorization) {
+        if (null == authorization || !authorization.isEnabled()) {
+            return ANONYMOUS;
+        }
+        if (authorization instanceof OAuthAuthorization) {
+            return "OAuth " + ((OAuthAuthorization) authorization).getAccountKey();
+        }
+        if (authorization instanceof BasicAuthorization) {
+            return "Basic " + ((BasicAuthorization) authorization).getUserId();
+        }
+        if (authorization instanceof XAuthAuthorization) {
+            XAuthAuthorization xauth = (XAuthAuthorization) authorization;
+            return "xAuth " + xauth.getConsumerKey() + " " + xauth.getUserId();
+        }
+        return authorization;
+    }
+
+    private static final class Bucket {
+        private int remaining;
+        private long resetTime = 0;
+        // earliest time the next request may be sent
+        private long nextSendTime = 0;
+        // requests held back. counted on the account buckets only
+        private int waiting = 0;
+
+        void update(int remaining, long resetTime) {
+            this.remaining = remaining;
+            this.resetTime = resetTime;
+        }
+
+        long getSendTime(long now) {
+            if (now >= resetTime) {
+                // the window is over, or the budget is not known yet
+                return now;
+            }
+            if (remaining <= 0) {
+                return resetTime;
+            }
+            return Math.max(now, nextSendTime);
+        }
+
+        long reserve(long now) {
+            long sendTime = getSendTime(now);
+            if (sendTime < resetTime && remaining > 0) {
+                nextSendTime = sendTime + (resetTime - sendTime) / remaining;
+                remaining--;
+            }
+            return sendTime;
+        }
+    }
+
+    private static final class FeatureKey {
+        private final Object account;
+        // endpoint template, so that statuses/show/1 and statuses/show/2 share the limit
+        private final String path;
+
+        FeatureKey(Object account, String url) {
+            this.account = account;
+            this.path = HttpRequestMetrics.getEndpoint(url);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FeatureKey)) return false;
+
+            FeatureKey that = (FeatureKey) o;
+            return account.equals(that.account) && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * account.hashCode() + path.hashCode();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitScheduler{" +
+                "queueLength=" + getQueueLength() +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import twitter4j.TwitterException;
+
+/**
+ * Decides whether and when a failed request is retried, specified with http.retryPolicyImpl.<br>
+ * Requests are retried only when they failed with an I/O error or a server error (5xx other than 420). Other
+ * responses are reported to {@link #onResponse(HttpRequest, int)} and never retried.<br>
+ * The delay returned by {@link #onFailure(HttpRequest, int, int)} is waited on the calling thread by the blocking
+ * client. With http.nio enabled, retries are scheduled on a timer instead, and the tasks of AsyncTwitter give up their
+ * dispatcher thread while waiting.<br>
+ * Implementations must be thread safe and have a public constructor taking HttpClientConfiguration.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see FixedIntervalRetryPolicy
+ * @see ExponentialBackoffRetryPolicy
+ * @since Twitter4J 2.2.1
+ */
+public interface RetryPolicy {
+    /**
+     * Called before every attempt, including retries.
+     *
+     * @param req request
+     * @throws TwitterException to fail fast without sending the request
+     */
+    void beforeRequest(HttpRequest req) throws TwitterException;
+
+    /**
+     * Called when the server answered with a response not worth retrying.
+     *
+     * @param req          request
+     * @param retriedCount number of retries made so far
+     */
+    void onResponse(HttpRequest req, int retriedCount);
+
+    /**
+     * Called when an attempt failed with an I/O error or a server error.
+     *
+     * @param req          request
+     * @param retriedCount number of retries made so far
+     * @param statusCode   status code of the response, or -1 for I/O errors
+     * @return milliseconds to wait before the next attempt, or -1 to give up
+     */
+    long onFailure(HttpRequest req, int retriedCount, int statusCode);
+}
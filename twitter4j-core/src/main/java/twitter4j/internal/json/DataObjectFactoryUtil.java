@@ -16,13 +16,19 @@
 
 package twitter4j.internal.json;
 
-import twitter4j.json.DataObjectFactory;
+import twitter4j.conf.Configuration;
+import twitter4j.internal.org.json.JSONArray;
+import twitter4j.internal.org.json.JSONObject;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * provides public access to package private methods of twitter4j.json.DataObjectFactory class.<br>
+ * Keeps raw JSON forms of data objects for twitter4j.json.DataObjectFactory.<br>
+ * With jsonCaptureEnabled the JSON is kept by the object itself, if it is a {@link RawJSONHolder}, and is retrievable from any thread.
+ * Otherwise it is associated to the current thread until the next call.<br>
  * This class is not intended to be used by Twitter4J client.
  *
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -33,53 +39,128 @@ public class DataObjectFactoryUtil {
         throw new AssertionError("not intended to be instantiated.");
     }
 
-    private static final Method CLEAR_THREAD_LOCAL_MAP;
-    private static final Method REGISTER_JSON_OBJECT;
+    // created on first registration so that capturing threads never allocate one
+    private static final ThreadLocal<Map<Object, Object>> rawJsonMap = new ThreadLocal<Map<Object, Object>>();
 
-    static {
-        Method[] methods = DataObjectFactory.class.getDeclaredMethods();
-        Method clearThreadLocalMap = null;
-        Method registerJSONObject = null;
-        for (Method method : methods) {
-            if (method.getName().equals("clearThreadLocalMap")) {
-                clearThreadLocalMap = method;
-                clearThreadLocalMap.setAccessible(true);
-            } else if (method.getName().equals("registerJSONObject")) {
-                registerJSONObject = method;
-                registerJSONObject.setAccessible(true);
+    /**
+     * clears raw JSON forms associated with the current thread.
+     */
+    public static void clearThreadLocalMap() {
+        Map<Object, Object> map = rawJsonMap.get();
+        if (null != map) {
+            map.clear();
+        }
+    }
+
+    /**
+     * associates a raw JSON form to the current thread.
+     */
+    public static <T> T registerJSONObject(T key, Object json) {
+        Map<Object, Object> map = rawJsonMap.get();
+        if (null == map) {
+            map = new HashMap<Object, Object>();
+            rawJsonMap.set(map);
+        }
+        map.put(key, json);
+        return key;
+    }
+
+    /**
+     * keeps a raw JSON form in the object itself if jsonCaptureEnabled is set and the object is a {@link RawJSONHolder}, associates it to the current thread otherwise.<br>
+     * The JSON is kept as it appears in the response when it has been parsed from the response text. A list whose elements keep their own JSON keeps nothing, its JSON is put together from the elements on demand.
+     *
+     * @since Twitter4J 2.2.1
+     */
+    public static <T> T registerJSONObject(T key, Object json, Configuration conf) {
+        if (conf.isJSONCaptureEnabled() && key instanceof RawJSONHolder) {
+            if (!(key instanceof List) || !holdRawJSON((List<?>) key)) {
+                ((RawJSONHolder) key).setRawJSONBytes(toBytes(sourceOf(json)));
             }
+            return key;
         }
-        if (null == clearThreadLocalMap || null == registerJSONObject) {
-            throw new AssertionError();
+        return registerJSONObject(key, json);
+    }
+
+    private static String sourceOf(Object json) {
+        String source = null;
+        if (json instanceof JSONObject) {
+            source = ((JSONObject) json).getSource();
+        } else if (json instanceof JSONArray) {
+            source = ((JSONArray) json).getSource();
         }
-        CLEAR_THREAD_LOCAL_MAP = clearThreadLocalMap;
-        REGISTER_JSON_OBJECT = registerJSONObject;
+        return null != source ? source : json.toString();
     }
 
     /**
-     * provides a public access to {DAOFactory#clearThreadLocalMap}
+     * @return true if the list isn't empty and every element keeps its raw JSON
      */
-    public static void clearThreadLocalMap() {
-        try {
-            CLEAR_THREAD_LOCAL_MAP.invoke(null);
-        } catch (IllegalAccessException e) {
-            throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
-            throw new AssertionError(e);
+    private static boolean holdRawJSON(List<?> list) {
+        if (list.isEmpty()) {
+            return false;
         }
+        for (Object element : list) {
+            if (!(element instanceof RawJSONHolder) || null == ((RawJSONHolder) element).getRawJSONBytes()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * provides a public access to {DAOFactory#registerJSONObject}
+     * @return JSON array of the raw JSON of the elements, or null if the list is empty or an element doesn't keep its JSON
      */
-    @SuppressWarnings("unchecked")
-    public static <T> T registerJSONObject(T key, Object json) {
+    private static String joinRawJSON(List<?> list) {
+        if (!holdRawJSON(list)) {
+            return null;
+        }
+        StringBuilder buf = new StringBuilder("[");
+        for (Object element : list) {
+            if (1 < buf.length()) {
+                buf.append(',');
+            }
+            buf.append(toString(((RawJSONHolder) element).getRawJSONBytes()));
+        }
+        return buf.append(']').toString();
+    }
+
+    private static byte[] toBytes(String json) {
         try {
-            return (T) REGISTER_JSON_OBJECT.invoke(null, key, json);
-        } catch (IllegalAccessException e) {
+            return json.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
             throw new AssertionError(e);
-        } catch (InvocationTargetException e) {
+        }
+    }
+
+    private static String toString(byte[] bytes) {
+        try {
+            return new String(bytes, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
             throw new AssertionError(e);
         }
     }
+
+    /**
+     * @return raw JSON form of the object, or null if not available
+     * @since Twitter4J 2.2.1
+     */
+    public static String getRawJSON(Object obj) {
+        if (obj instanceof RawJSONHolder) {
+            byte[] bytes = ((RawJSONHolder) obj).getRawJSONBytes();
+            if (null != bytes) {
+                return toString(bytes);
+            }
+        }
+        Map<Object, Object> map = rawJsonMap.get();
+        Object json = null == map ? null : map.get(obj);
+        if (json instanceof String) {
+            return (String) json;
+        } else if (json != null) {
+            // object must be instance of JSONObject
+            return json.toString();
+        } else if (obj instanceof RawJSONHolder && obj instanceof List) {
+            return joinRawJSON((List<?>) obj);
+        } else {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.json;
+
+/**
+ * Implemented by data objects which keep the raw JSON they were created from when jsonCaptureEnabled is set.<br>
+ * The JSON is held as UTF-8 bytes and decoded on demand by {@link twitter4j.json.DataObjectFactory#getRawJSON(Object)}.<br>
+ * This interface is not intended to be used by Twitter4J client.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public interface RawJSONHolder {
+    /**
+     * @return raw JSON encoded in UTF-8, or null if not captured
+     */
+    byte[] getRawJSONBytes();
+
+    void setRawJSONBytes(byte[] rawJSON);
+}
@@ -89,6 +89,14 @@ public class JSONArray {
     private ArrayList myArrayList;
 
 
+    /**
+     * The text this JSONArray was parsed from, and where it appears in it.
+     */
+    private String source = null;
+    private int sourceStart;
+    private int sourceEnd;
+
+
     /**
      * Construct an empty JSONArray.
      */
@@ -107,6 +115,17 @@ public class JSONArray {
         if (x.nextClean() != '[') {
             throw x.syntaxError("A JSONArray text must start with '['");
         }
+        int start = x.getIndex() - 1;
+        parseElements(x);
+        if (null != x.getSource()) {
+            this.source = x.getSource();
+            this.sourceStart = start;
+            this.sourceEnd = x.getIndex();
+        }
+    }
+
+
+    private void parseElements(JSONTokener x) throws JSONException {
         if (x.nextClean() != ']') {
             x.back();
             for (; ;) {
@@ -135,6 +154,17 @@ public class JSONArray {
     }
 
 
+    /**
+     * Returns the text this JSONArray was parsed from, exactly as it appears in the source.
+     *
+     * @return the original text, or null unless the JSONArray was parsed by a JSONTokener keeping its source
+     * @since Twitter4J 2.2.1
+     */
+    public String getSource() {
+        return null == source ? null : source.substring(sourceStart, sourceEnd);
+    }
+
+
     /**
      * Construct a JSONArray from a source JSON text.
      *
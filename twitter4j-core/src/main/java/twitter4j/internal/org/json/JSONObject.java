@@ -138,6 +138,14 @@ public class JSONObject {
     private Map map;
 
 
+    /**
+     * The text this JSONObject was parsed from, and where it appears in it.
+     */
+    private String source = null;
+    private int sourceStart;
+    private int sourceEnd;
+
+
     /**
      * It is sometimes more convenient and less ambiguous to have a
      * <code>NULL</code> object than to use Java's <code>null</code> value.
@@ -185,12 +193,22 @@ public class JSONObject {
      */
     public JSONObject(JSONTokener x) throws JSONException {
         this();
-        char c;
-        String key;
-
         if (x.nextClean() != '{') {
             throw x.syntaxError("A JSONObject text must begin with '{'");
         }
+        int start = x.getIndex() - 1;
+        parseMembers(x);
+        if (null != x.getSource()) {
+            this.source = x.getSource();
+            this.sourceStart = start;
+            this.sourceEnd = x.getIndex();
+        }
+    }
+
+
+    private void parseMembers(JSONTokener x) throws JSONException {
+        char c;
+        String key;
         for (; ;) {
             c = x.nextClean();
             switch (c) {
@@ -234,6 +252,17 @@ public class JSONObject {
     }
 
 
+    /**
+     * Returns the text this JSONObject was parsed from, exactly as it appears in the source.
+     *
+     * @return the original text, or null unless the JSONObject was parsed by a JSONTokener keeping its source
+     * @since Twitter4J 2.2.1
+     */
+    public String getSource() {
+        return null == source ? null : source.substring(sourceStart, sourceEnd);
+    }
+
+
     /**
      * Construct a JSONObject from a Map.
      *
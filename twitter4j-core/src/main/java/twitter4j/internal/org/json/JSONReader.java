@@ -0,0 +1,635 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.org.json;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A pull-based JSON reader.<br>
+ * Unlike JSONObject and JSONArray, JSONReader doesn't build a tree. The caller walks through the source token by
+ * token, and scalar values are converted straight from the source without intermediate objects.
+ * <pre>
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *     String name = reader.nextName();
+ *     if ("id".equals(name)) {
+ *         id = reader.nextLong();
+ *     } else {
+ *         reader.skipValue();
+ *     }
+ * }
+ * reader.endObject();
+ * </pre>
+ * Like JSONTokener, unquoted strings are tolerated.<br>
+ * The source is either a String, a char array or a Reader. A Reader is read through a buffer which only holds the value being read,
+ * so that a response body is parsed while it is received, without being read into a String first.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class JSONReader {
+    public enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    // null when the source is a String
+    private final Reader in;
+    private boolean eof = false;
+    private char[] buf;
+    // buf[0, limit) holds the source from offset
+    private int limit;
+    private int offset = 0;
+    private int pos = 0;
+    // start of a value read by nextJSONObject() or nextJSONArray(), or -1
+    private int keepFrom = -1;
+
+    private int[] scopes = new int[16];
+    private int depth = 0;
+
+    // the peeked token, or null
+    private Token token;
+    // range of the peeked value in buf. for strings, the range excludes the quotes
+    private int valueStart;
+    private int valueEnd;
+    private boolean escaped;
+
+    /**
+     * @param source JSON text
+     */
+    public JSONReader(String source) {
+        this.in = null;
+        this.buf = source.toCharArray();
+        this.limit = buf.length;
+        scopes[depth++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Reads the text straight from the array, which must not be modified while it is being read.
+     *
+     * @param source JSON text
+     * @param length length of the text, from the start of the array
+     */
+    public JSONReader(char[] source, int length) {
+        this.in = null;
+        this.buf = source;
+        this.limit = length;
+        scopes[depth++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * @param in JSON text. The reader is not closed
+     */
+    public JSONReader(Reader in) {
+        this.in = in;
+        this.buf = new char[BUFFER_SIZE];
+        this.limit = 0;
+        scopes[depth++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return the next token
+     * @throws JSONException when the source is malformed
+     */
+    public Token peek() throws JSONException {
+        if (null != token) {
+            return token;
+        }
+        int c;
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                return readValue();
+            case NONEMPTY_DOCUMENT:
+                if (-1 != nextClean()) {
+                    throw syntaxError("Expected the end of the document");
+                }
+                return token = Token.END_DOCUMENT;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                c = nextClean();
+                if (']' == c) {
+                    return token = Token.END_ARRAY;
+                }
+                pos--;
+                return readValue();
+            case NONEMPTY_ARRAY:
+                c = nextClean();
+                if (']' == c) {
+                    return token = Token.END_ARRAY;
+                }
+                if (',' != c) {
+                    throw syntaxError("Expected a ',' or ']'");
+                }
+                return readValue();
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextClean();
+                if ('}' == c) {
+                    return token = Token.END_OBJECT;
+                }
+                if (NONEMPTY_OBJECT == scopes[depth - 1]) {
+                    if (',' != c) {
+                        throw syntaxError("Expected a ',' or '}'");
+                    }
+                    c = nextClean();
+                }
+                scopes[depth - 1] = DANGLING_NAME;
+                if ('"' == c || '\'' == c) {
+                    readString((char) c);
+                } else {
+                    pos--;
+                    readLiteral();
+                }
+                return token = Token.NAME;
+            case DANGLING_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                if (':' != nextClean()) {
+                    throw syntaxError("Expected a ':' after a key");
+                }
+                return readValue();
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * @return true if the current object or array has another element
+     * @throws JSONException when the source is malformed
+     */
+    public boolean hasNext() throws JSONException {
+        Token next = peek();
+        return Token.END_OBJECT != next && Token.END_ARRAY != next && Token.END_DOCUMENT != next;
+    }
+
+    public void beginObject() throws JSONException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        token = null;
+    }
+
+    public void endObject() throws JSONException {
+        expect(Token.END_OBJECT);
+        depth--;
+        token = null;
+    }
+
+    public void beginArray() throws JSONException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        token = null;
+    }
+
+    public void endArray() throws JSONException {
+        expect(Token.END_ARRAY);
+        depth--;
+        token = null;
+    }
+
+    /**
+     * @return the name of the next member
+     * @throws JSONException when the next token is not a member name
+     */
+    public String nextName() throws JSONException {
+        expect(Token.NAME);
+        token = null;
+        return valueAsString();
+    }
+
+    /**
+     * Returns the next value as a string. Numbers and booleans are returned as they appear in the source.
+     *
+     * @return the next value as a string, or null if the value is null
+     * @throws JSONException when the next token is not a scalar value
+     */
+    public String nextString() throws JSONException {
+        Token next = peek();
+        if (Token.NULL == next) {
+            token = null;
+            return null;
+        }
+        if (Token.STRING != next && Token.NUMBER != next && Token.BOOLEAN != next) {
+            throw syntaxError("Expected a string but was " + next);
+        }
+        token = null;
+        return valueAsString();
+    }
+
+    public long nextLong() throws JSONException {
+        Token next = peek();
+        if (Token.NUMBER != next && Token.STRING != next) {
+            throw syntaxError("Expected a number but was " + next);
+        }
+        token = null;
+        if (Token.NUMBER == next) {
+            long value = 0;
+            int i = valueStart;
+            boolean negative = '-' == buf[i];
+            if (negative) {
+                i++;
+            }
+            // up to 18 digits never overflow
+            if (i < valueEnd && valueEnd - i <= 18) {
+                for (; i < valueEnd; i++) {
+                    char c = buf[i];
+                    if (c < '0' || '9' < c) {
+                        break;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                if (i == valueEnd) {
+                    return negative ? -value : value;
+                }
+            }
+        }
+        String str = valueAsString();
+        try {
+            return Long.parseLong(str);
+        } catch (NumberFormatException nfe) {
+            try {
+                return (long) Double.parseDouble(str);
+            } catch (NumberFormatException nfe2) {
+                throw syntaxError("Expected a number but was " + str);
+            }
+        }
+    }
+
+    public int nextInt() throws JSONException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || Integer.MAX_VALUE < value) {
+            throw syntaxError("Expected an int but was " + value);
+        }
+        return (int) value;
+    }
+
+    public double nextDouble() throws JSONException {
+        Token next = peek();
+        if (Token.NUMBER != next && Token.STRING != next) {
+            throw syntaxError("Expected a number but was " + next);
+        }
+        token = null;
+        String str = valueAsString();
+        try {
+            return Double.parseDouble(str);
+        } catch (NumberFormatException nfe) {
+            throw syntaxError("Expected a number but was " + str);
+        }
+    }
+
+    public boolean nextBoolean() throws JSONException {
+        Token next = peek();
+        if (Token.BOOLEAN == next) {
+            token = null;
+            return 't' == buf[valueStart];
+        }
+        if (Token.STRING == next) {
+            // same as JSONObject.getBoolean()
+            String str = valueAsString();
+            if ("true".equalsIgnoreCase(str)) {
+                token = null;
+                return true;
+            } else if ("false".equalsIgnoreCase(str)) {
+                token = null;
+                return false;
+            }
+        }
+        throw syntaxError("Expected a boolean but was " + next);
+    }
+
+    public void nextNull() throws JSONException {
+        expect(Token.NULL);
+        token = null;
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays.
+     *
+     * @throws JSONException when the source is malformed
+     */
+    public void skipValue() throws JSONException {
+        int count = 0;
+        do {
+            Token next = peek();
+            if (Token.BEGIN_OBJECT == next) {
+                beginObject();
+                count++;
+            } else if (Token.BEGIN_ARRAY == next) {
+                beginArray();
+                count++;
+            } else if (Token.END_OBJECT == next) {
+                endObject();
+                count--;
+            } else if (Token.END_ARRAY == next) {
+                endArray();
+                count--;
+            } else if (Token.END_DOCUMENT == next) {
+                throw syntaxError("Unexpected end of the document");
+            } else {
+                token = null;
+            }
+        } while (0 != count);
+    }
+
+    /**
+     * Returns the nesting depth of the current position, to be passed to {@link #skipRestOfValue(int)}.
+     *
+     * @return nesting depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Skips whatever is left of a value which couldn't be read as expected, e.g. an object where an array was
+     * expected, so that reading can continue with the next member or element.
+     *
+     * @param depth depth returned by {@link #getDepth()} right before the value was read
+     * @throws JSONException when the source is malformed
+     */
+    public void skipRestOfValue(int depth) throws JSONException {
+        while (depth < this.depth) {
+            Token next = peek();
+            if (Token.END_OBJECT == next) {
+                endObject();
+            } else if (Token.END_ARRAY == next) {
+                endArray();
+            } else {
+                // member names are skipped as well
+                skipValue();
+            }
+        }
+        if (null != token || DANGLING_NAME == scopes[depth - 1]) {
+            // the value itself hasn't been consumed
+            skipValue();
+        }
+    }
+
+    /**
+     * Reads the next value as a JSONObject. Useful for parts of the document which are not worth walking through.
+     *
+     * @return the next value as a JSONObject
+     * @throws JSONException when the next token is not an object
+     */
+    public JSONObject nextJSONObject() throws JSONException {
+        expect(Token.BEGIN_OBJECT);
+        return new JSONObject(nextValueSource());
+    }
+
+    /**
+     * Reads the next value as a JSONArray.
+     *
+     * @return the next value as a JSONArray
+     * @throws JSONException when the next token is not an array
+     */
+    public JSONArray nextJSONArray() throws JSONException {
+        expect(Token.BEGIN_ARRAY);
+        return new JSONArray(nextValueSource());
+    }
+
+    private String nextValueSource() throws JSONException {
+        keepFrom = valueStart;
+        try {
+            skipValue();
+            return new String(buf, keepFrom, pos - keepFrom);
+        } finally {
+            keepFrom = -1;
+        }
+    }
+
+    private Token readValue() throws JSONException {
+        int c = nextClean();
+        switch (c) {
+            case '{':
+                valueStart = pos - 1;
+                return token = Token.BEGIN_OBJECT;
+            case '[':
+                valueStart = pos - 1;
+                return token = Token.BEGIN_ARRAY;
+            case '"':
+            case '\'':
+                readString((char) c);
+                return token = Token.STRING;
+            case -1:
+                throw syntaxError("Unexpected end of the document");
+            default:
+                pos--;
+                readLiteral();
+                if (valueStart == valueEnd) {
+                    throw syntaxError("Missing value");
+                }
+                int len = valueEnd - valueStart;
+                if (4 == len && valueIs("null")) {
+                    return token = Token.NULL;
+                } else if (4 == len && valueIs("true") || 5 == len && valueIs("false")) {
+                    return token = Token.BOOLEAN;
+                }
+                char first = buf[valueStart];
+                if ('-' == first || ('0' <= first && first <= '9')) {
+                    return token = Token.NUMBER;
+                }
+                return token = Token.STRING;
+        }
+    }
+
+    private boolean valueIs(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (literal.charAt(i) != buf[valueStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readString(char quote) throws JSONException {
+        valueStart = pos;
+        escaped = false;
+        while (pos < limit || fill(valueStart)) {
+            char c = buf[pos];
+            if (quote == c) {
+                valueEnd = pos++;
+                return;
+            } else if ('\\' == c) {
+                escaped = true;
+                pos++;
+                if (pos == limit && !fill(valueStart)) {
+                    break;
+                }
+            } else if ('\n' == c || '\r' == c) {
+                break;
+            }
+            pos++;
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    private void readLiteral() throws JSONException {
+        valueStart = pos;
+        escaped = false;
+        for (; pos < limit || fill(valueStart); pos++) {
+            char c = buf[pos];
+            if (c <= ' ' || ',' == c || ':' == c || ']' == c || '}' == c || '[' == c || '{' == c
+                    || '"' == c || '/' == c || '\\' == c || ';' == c || '=' == c || '#' == c) {
+                break;
+            }
+        }
+        valueEnd = pos;
+    }
+
+    private String valueAsString() throws JSONException {
+        if (!escaped) {
+            return new String(buf, valueStart, valueEnd - valueStart);
+        }
+        StringBuilder value = new StringBuilder(valueEnd - valueStart);
+        for (int i = valueStart; i < valueEnd; i++) {
+            char c = buf[i];
+            if ('\\' != c) {
+                value.append(c);
+                continue;
+            }
+            c = buf[++i];
+            switch (c) {
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'u':
+                    if (valueEnd < i + 5) {
+                        throw syntaxError("Illegal escape.");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(new String(buf, i + 1, 4), 16));
+                    } catch (NumberFormatException nfe) {
+                        throw syntaxError("Illegal escape.");
+                    }
+                    i += 4;
+                    break;
+                default:
+                    value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+    private int nextClean() throws JSONException {
+        while (pos < limit || fill(pos)) {
+            char c = buf[pos++];
+            if (c > ' ') {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads more of the source into the buffer, discarding what is before keep unless a value read by
+     * nextJSONObject() or nextJSONArray() starts there.
+     *
+     * @param keep index of the first char still needed
+     * @return false at the end of the source
+     * @throws JSONException when the source could not be read
+     */
+    private boolean fill(int keep) throws JSONException {
+        if (null == in || eof) {
+            return false;
+        }
+        if (0 <= keepFrom && keepFrom < keep) {
+            keep = keepFrom;
+        }
+        if (0 < keep) {
+            System.arraycopy(buf, keep, buf, 0, limit - keep);
+            limit -= keep;
+            offset += keep;
+            pos -= keep;
+            valueStart -= keep;
+            valueEnd -= keep;
+            if (0 <= keepFrom) {
+                keepFrom -= keep;
+            }
+        }
+        if (limit == buf.length) {
+            char[] newBuf = new char[buf.length * 2];
+            System.arraycopy(buf, 0, newBuf, 0, limit);
+            buf = newBuf;
+        }
+        try {
+            int count;
+            do {
+                count = in.read(buf, limit, buf.length - limit);
+            } while (0 == count);
+            if (-1 == count) {
+                eof = true;
+                return false;
+            }
+            limit += count;
+            return true;
+        } catch (IOException ioe) {
+            throw new JSONException(ioe);
+        }
+    }
+
+    private void expect(Token expected) throws JSONException {
+        Token next = peek();
+        if (expected != next) {
+            throw syntaxError("Expected " + expected + " but was " + next);
+        }
+    }
+
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            int[] newScopes = new int[depth * 2];
+            System.arraycopy(scopes, 0, newScopes, 0, depth);
+            scopes = newScopes;
+        }
+        scopes[depth++] = scope;
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + (offset + pos));
+    }
+}
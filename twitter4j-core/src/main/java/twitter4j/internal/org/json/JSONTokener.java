@@ -47,6 +47,8 @@ public class JSONTokener {
     private char 	previous;
     private Reader 	reader;
     private boolean usePrevious;
+    // the text being parsed when asked to keep it, so that objects and arrays can tell where they come from
+    private String  source = null;
 
 
     /**
@@ -84,6 +86,39 @@ public class JSONTokener {
     }
 
 
+    /**
+     * Construct a JSONTokener from a string, optionally letting the JSONObjects
+     * and JSONArrays it parses tell the text they come from. Keeping the source
+     * references the whole string from each of them.
+     *
+     * @param s          A source string.
+     * @param keepSource true to keep the source
+     * @since Twitter4J 2.2.1
+     */
+    public JSONTokener(String s, boolean keepSource) {
+        this(s);
+        if (keepSource) {
+            this.source = s;
+        }
+    }
+
+
+    /**
+     * @return the text being parsed, or null when parsing from a Reader
+     */
+    String getSource() {
+        return source;
+    }
+
+
+    /**
+     * @return the number of characters consumed so far
+     */
+    int getIndex() {
+        return index;
+    }
+
+
     /**
      * Back up one character. This provides a sort of lookahead capability,
      * so that you can test for a digit or letter before attempting to parse
@@ -20,6 +20,7 @@ import twitter4j.TwitterException;
 import twitter4j.internal.http.HTMLEntity;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
@@ -90,6 +91,11 @@ public final class ParseUtil {
     }
 
     public static Date getDate(String name, String format) throws TwitterException {
+        // the REST and Search API formats are parsed without SimpleDateFormat
+        Date date = TwitterDateParser.parse(name, format);
+        if (null != date) {
+            return date;
+        }
         SimpleDateFormat sdf = formatMap.get().get(format);
         if (null == sdf) {
             sdf = new SimpleDateFormat(format, Locale.ENGLISH);
@@ -153,4 +159,65 @@ public final class ParseUtil {
         }
         return Boolean.valueOf(str);
     }
-}
\ No newline at end of file
+
+    /*
+     * The methods below read the next value from a JSONReader, with the same conventions as the methods above:
+     * null or missing values are returned as null, -1 or false.
+     */
+
+    public static String getRawString(JSONReader reader) throws JSONException {
+        return reader.nextString();
+    }
+
+    public static String getUnescapedString(JSONReader reader) throws JSONException {
+        return HTMLEntity.unescape(reader.nextString());
+    }
+
+    public static Date getDate(JSONReader reader, String format) throws TwitterException, JSONException {
+        String dateStr = getUnescapedString(reader);
+        if ("null".equals(dateStr) || null == dateStr) {
+            return null;
+        } else {
+            return getDate(dateStr, format);
+        }
+    }
+
+    public static int getInt(JSONReader reader) throws JSONException {
+        if (JSONReader.Token.NUMBER == reader.peek()) {
+            long value = reader.nextLong();
+            // same as the NumberFormatException workaround in getInt(String)
+            return value < Integer.MIN_VALUE || Integer.MAX_VALUE < value ? -1 : (int) value;
+        }
+        return getInt(reader.nextString());
+    }
+
+    public static long getLong(JSONReader reader) throws JSONException {
+        if (JSONReader.Token.NUMBER == reader.peek()) {
+            return reader.nextLong();
+        }
+        return getLong(reader.nextString());
+    }
+
+    public static double getDouble(JSONReader reader) throws JSONException {
+        if (JSONReader.Token.NUMBER == reader.peek()) {
+            return reader.nextDouble();
+        }
+        String str = reader.nextString();
+        if (null == str || "".equals(str) || "null".equals(str)) {
+            return -1;
+        } else {
+            return Double.valueOf(str);
+        }
+    }
+
+    public static boolean getBoolean(JSONReader reader) throws JSONException {
+        if (JSONReader.Token.BOOLEAN == reader.peek()) {
+            return reader.nextBoolean();
+        }
+        String str = reader.nextString();
+        if (null == str || "null".equals(str)) {
+            return false;
+        }
+        return Boolean.valueOf(str);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.util;
+
+import java.util.Date;
+
+/**
+ * A parser dedicated to the date formats returned by the REST API ("EEE MMM d HH:mm:ss z yyyy")
+ * and the Search API ("EEE, d MMM yyyy HH:mm:ss z").<br>
+ * Dates are parsed straight from the characters, without SimpleDateFormat or Calendar.
+ * Recently parsed values are kept in a small cache since consecutive statuses tend to share the same second.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class TwitterDateParser {
+    private TwitterDateParser() {
+        throw new AssertionError();
+    }
+
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+
+    private static final int CACHE_SIZE = 64;
+    // entries are immutable. a racy read returns either a valid entry or a stale one which fails the equality check
+    private static final CacheEntry[] CACHE = new CacheEntry[CACHE_SIZE];
+
+    private static final class CacheEntry {
+        final String text;
+        final long time;
+
+        CacheEntry(String text, long time) {
+            this.text = text;
+            this.time = time;
+        }
+    }
+
+    /**
+     * @param str    date string
+     * @param format SimpleDateFormat pattern the string is expected to match
+     * @return parsed date, or null if the format is not supported or the string doesn't match the format
+     */
+    static Date parse(String str, String format) {
+        boolean rest;
+        if ("EEE MMM d HH:mm:ss z yyyy".equals(format) || "EEE MMM dd HH:mm:ss z yyyy".equals(format)
+                || "EEE MMM d HH:mm:ss Z yyyy".equals(format)) {
+            rest = true;
+        } else if ("EEE, d MMM yyyy HH:mm:ss z".equals(format) || "EEE, dd MMM yyyy HH:mm:ss z".equals(format)) {
+            rest = false;
+        } else {
+            return null;
+        }
+        int index = str.hashCode() & (CACHE_SIZE - 1);
+        CacheEntry entry = CACHE[index];
+        if (null != entry && entry.text.equals(str)) {
+            return new Date(entry.time);
+        }
+        long time = rest ? parseREST(str, 0, str.length()) : parseSearch(str, 0, str.length());
+        if (INVALID == time) {
+            return null;
+        }
+        CACHE[index] = new CacheEntry(str, time);
+        return new Date(time);
+    }
+
+    /**
+     * Parses "EEE MMM d HH:mm:ss z yyyy", e.g. "Tue Mar 29 08:44:41 +0000 2011".
+     *
+     * @param str   source
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @return milliseconds since the epoch, or {@link #INVALID}
+     */
+    static long parseREST(CharSequence str, int start, int end) {
+        int i = skipWord(str, start, end);
+        int month = month(str, i, end);
+        if (-1 == month || !isSpace(str, i + 3, end)) {
+            return INVALID;
+        }
+        i += 4;
+        int dayLength = isDigit(str, i + 1, end) ? 2 : 1;
+        int day = digits(str, i, dayLength, end);
+        if (!isSpace(str, i + dayLength, end)) {
+            return INVALID;
+        }
+        i += dayLength + 1;
+        long timeOfDay = timeOfDay(str, i, end);
+        if (INVALID == timeOfDay || !isSpace(str, i + 8, end)) {
+            return INVALID;
+        }
+        i += 9;
+        int zoneEnd = i;
+        while (zoneEnd < end && ' ' != str.charAt(zoneEnd)) {
+            zoneEnd++;
+        }
+        long offset = zoneOffset(str, i, zoneEnd);
+        if (INVALID == offset || zoneEnd + 5 != end) {
+            return INVALID;
+        }
+        int year = digits(str, zoneEnd + 1, 4, end);
+        return toMillis(year, month, day, timeOfDay, offset);
+    }
+
+    /**
+     * Parses "EEE, d MMM yyyy HH:mm:ss z", e.g. "Tue, 29 Mar 2011 08:44:41 +0000".
+     *
+     * @param str   source
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @return milliseconds since the epoch, or {@link #INVALID}
+     */
+    static long parseSearch(CharSequence str, int start, int end) {
+        int i = skipWord(str, start, end);
+        int dayLength = isDigit(str, i + 1, end) ? 2 : 1;
+        int day = digits(str, i, dayLength, end);
+        if (!isSpace(str, i + dayLength, end)) {
+            return INVALID;
+        }
+        i += dayLength + 1;
+        int month = month(str, i, end);
+        if (-1 == month || !isSpace(str, i + 3, end)) {
+            return INVALID;
+        }
+        i += 4;
+        int year = digits(str, i, 4, end);
+        if (!isSpace(str, i + 4, end)) {
+            return INVALID;
+        }
+        i += 5;
+        long timeOfDay = timeOfDay(str, i, end);
+        if (INVALID == timeOfDay || !isSpace(str, i + 8, end)) {
+            return INVALID;
+        }
+        long offset = zoneOffset(str, i + 9, end);
+        if (INVALID == offset) {
+            return INVALID;
+        }
+        return toMillis(year, month, day, timeOfDay, offset);
+    }
+
+    private static long toMillis(int year, int month, int day, long timeOfDay, long offset) {
+        if (-1 == year || -1 == day || day < 1 || 31 < day) {
+            return INVALID;
+        }
+        return daysFromCivil(year, month + 1, day) * 86400000L + timeOfDay - offset;
+    }
+
+    /**
+     * @return days since 1970-01-01 in the proleptic Gregorian calendar
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        if (month <= 2) {
+            year--;
+        }
+        long era = (0 <= year ? year : year - 399) / 400;
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (2 < month ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * @return "HH:mm:ss" in milliseconds, or {@link #INVALID}
+     */
+    private static long timeOfDay(CharSequence str, int i, int end) {
+        int hour = digits(str, i, 2, end);
+        int minute = digits(str, i + 3, 2, end);
+        int second = digits(str, i + 6, 2, end);
+        if (-1 == hour || -1 == minute || -1 == second || 23 < hour || 59 < minute || 60 < second
+                || ':' != str.charAt(i + 2) || ':' != str.charAt(i + 5)) {
+            return INVALID;
+        }
+        return ((hour * 60L + minute) * 60L + second) * 1000L;
+    }
+
+    /**
+     * Supports numeric offsets (+0900) and GMT / UTC.
+     *
+     * @return offset from UTC in milliseconds, or {@link #INVALID}
+     */
+    private static long zoneOffset(CharSequence str, int i, int end) {
+        int length = end - i;
+        if (5 == length && ('+' == str.charAt(i) || '-' == str.charAt(i))) {
+            int hours = digits(str, i + 1, 2, end);
+            int minutes = digits(str, i + 3, 2, end);
+            if (-1 == hours || -1 == minutes) {
+                return INVALID;
+            }
+            long offset = (hours * 60L + minutes) * 60000L;
+            return '-' == str.charAt(i) ? -offset : offset;
+        }
+        if (3 == length && (regionMatches(str, i, "GMT") || regionMatches(str, i, "UTC"))) {
+            return 0;
+        }
+        return INVALID;
+    }
+
+    private static int month(CharSequence str, int i, int end) {
+        if (end < i + 3) {
+            return -1;
+        }
+        for (int month = 0; month < 12; month++) {
+            int offset = month * 3;
+            if (equalsIgnoreCase(MONTHS.charAt(offset), str.charAt(i))
+                    && equalsIgnoreCase(MONTHS.charAt(offset + 1), str.charAt(i + 1))
+                    && equalsIgnoreCase(MONTHS.charAt(offset + 2), str.charAt(i + 2))) {
+                return month;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index after the word and the following delimiters (',' and ' ')
+     */
+    private static int skipWord(CharSequence str, int i, int end) {
+        while (i < end && ' ' != str.charAt(i) && ',' != str.charAt(i)) {
+            i++;
+        }
+        while (i < end && (' ' == str.charAt(i) || ',' == str.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int digits(CharSequence str, int i, int length, int end) {
+        if (end < i + length) {
+            return -1;
+        }
+        int value = 0;
+        for (int j = i; j < i + length; j++) {
+            char c = str.charAt(j);
+            if (c < '0' || '9' < c) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(CharSequence str, int i, int end) {
+        return i < end && '0' <= str.charAt(i) && str.charAt(i) <= '9';
+    }
+
+    private static boolean isSpace(CharSequence str, int i, int end) {
+        return i < end && ' ' == str.charAt(i);
+    }
+
+    private static boolean regionMatches(CharSequence str, int i, String expected) {
+        for (int j = 0; j < expected.length(); j++) {
+            if (!equalsIgnoreCase(expected.charAt(j), str.charAt(i + j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(char expected, char c) {
+        return expected == c || Character.toLowerCase(expected) == Character.toLowerCase(c);
+    }
+}
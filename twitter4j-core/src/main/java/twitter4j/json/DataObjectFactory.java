@@ -17,14 +17,13 @@
 package twitter4j.json;
 
 import twitter4j.*;
+import twitter4j.internal.json.DataObjectFactoryUtil;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -113,32 +112,17 @@ public final class DataObjectFactory {
         }
     }
 
-    @SuppressWarnings("rawtypes")
-    private static final ThreadLocal<Map> rawJsonMap = new ThreadLocal<Map>() {
-        @Override
-        protected Map initialValue() {
-            return new HashMap();
-        }
-    };
-
     /**
      * Returns a raw JSON form of the provided object.<br>
-     * Note that raw JSON forms can be retrieved only from the same thread invoked the last method call and will become inaccessible once another method call
+     * Note that raw JSON forms can be retrieved only from the same thread invoked the last method call and will become inaccessible once another method call,
+     * unless jsonCaptureEnabled is set in which case objects returned by the API keep their raw JSON forms and they can be retrieved from any thread.
      *
      * @param obj
      * @return raw JSON
      * @since Twitter4J 2.1.7
      */
     public static String getRawJSON(Object obj) {
-        Object json = rawJsonMap.get().get(obj);
-        if (json instanceof String) {
-            return (String) json;
-        } else if (json != null) {
-            // object must be instance of JSONObject
-            return json.toString();
-        } else {
-            return null;
-        }
+        return DataObjectFactoryUtil.getRawJSON(obj);
     }
 
     /**
@@ -558,23 +542,20 @@ public final class DataObjectFactory {
     }
 
     /**
-     * clear raw JSON forms associated with the current thread.<br>
-     * Currently this method is called indirectly by twitter4j.internal.util.DataObjectFactoryUtil, and should be called directly once *JSONImpl classes are migrated to twitter4j.json.* package.
+     * clear raw JSON forms associated with the current thread.
      *
      * @since Twitter4J 2.1.7
      */
     static void clearThreadLocalMap() {
-        rawJsonMap.get().clear();
+        DataObjectFactoryUtil.clearThreadLocalMap();
     }
 
     /**
-     * associate a raw JSON form to the current thread<br>
-     * Currently this method is called indirectly by twitter4j.internal.util.DataObjectFactoryUtil, and should be called directly once *JSONImpl classes are migrated to twitter4j.json.* package.
+     * associate a raw JSON form to the current thread
      *
      * @since Twitter4J 2.1.7
      */
     static <T> T registerJSONObject(T key, Object json) {
-        rawJsonMap.get().put(key, json);
-        return key;
+        return DataObjectFactoryUtil.registerJSONObject(key, json);
     }
 }
\ No newline at end of file
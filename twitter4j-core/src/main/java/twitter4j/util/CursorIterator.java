@@ -0,0 +1,221 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import twitter4j.CursorSupport;
+import twitter4j.RateLimitStatus;
+import twitter4j.TwitterException;
+import twitter4j.TwitterResponse;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Walks the pages of a cursored resource, following getNextCursor() until the last page.<br>
+ * With a prefetch depth of 1 or more, pages are fetched by a background thread while the previous ones are consumed,
+ * staying at most prefetchDepth pages ahead of the consumer. This hides the round trip of each page when crawling
+ * large follower graphs.<br>
+ * Fetching is rate limit aware: once a page reports no remaining hits, the next page isn't fetched until the rate
+ * limit resets, and a request rejected for exceeding the rate limit is retried when it is safe to do so.
+ * <pre>
+ * CursorIterator&lt;IDs&gt; pages = new CursorIterator&lt;IDs&gt;(new CursorPager&lt;IDs&gt;() {
+ *     public IDs getPage(long cursor) throws TwitterException {
+ *         return twitter.getFollowersIDs("twit4j", cursor);
+ *     }
+ * });
+ * while (pages.hasNext()) {
+ *     IDs ids = pages.next();
+ * }
+ * </pre>
+ * Call {@link #close()} to stop prefetching when leaving the iteration early.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see IDsIterator
+ * @see PagableResponseListIterator
+ * @since Twitter4J 2.2.1
+ */
+public final class CursorIterator<T extends TwitterResponse & CursorSupport> {
+    private static final long FIRST_CURSOR = -1;
+    private static int count = 0;
+
+    private final CursorPager<T> pager;
+    private final int prefetchDepth;
+    // pages or the TwitterException or RuntimeException which ended the prefetching
+    private final BlockingQueue<Object> fetched = new LinkedBlockingQueue<Object>();
+    private final Semaphore permits;
+    private Thread prefetcher = null;
+    private volatile boolean closed = false;
+    private T last = null;
+    // rate limit status of the last page, accessed by the fetching thread only
+    private RateLimitStatus rateLimitStatus = null;
+
+    /**
+     * Creates an iterator prefetching one page ahead.
+     *
+     * @param pager fetches pages
+     */
+    public CursorIterator(CursorPager<T> pager) {
+        this(pager, 1);
+    }
+
+    /**
+     * @param pager         fetches pages
+     * @param prefetchDepth maximum number of pages fetched ahead of the consumer. 0 to fetch each page on next()
+     */
+    public CursorIterator(CursorPager<T> pager, int prefetchDepth) {
+        if (null == pager) {
+            throw new NullPointerException("pager is null");
+        }
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("prefetchDepth must not be negative: " + prefetchDepth);
+        }
+        this.pager = pager;
+        this.prefetchDepth = prefetchDepth;
+        this.permits = new Semaphore(prefetchDepth);
+    }
+
+    /**
+     * @return true unless the last page has been returned, the iterator was closed or fetching failed
+     */
+    public boolean hasNext() {
+        return !closed && (null == last || last.hasNext());
+    }
+
+    /**
+     * Returns the next page, waiting for it to be fetched if necessary.
+     *
+     * @return the next page
+     * @throws TwitterException       when Twitter service or network is unavailable. the iteration ends
+     * @throws NoSuchElementException when there is no more page
+     */
+    @SuppressWarnings("unchecked")
+    public T next() throws TwitterException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T page;
+        try {
+            if (0 == prefetchDepth) {
+                page = fetch(null == last ? FIRST_CURSOR : last.getNextCursor());
+            } else {
+                if (null == prefetcher) {
+                    startPrefetcher();
+                }
+                Object next = fetched.take();
+                permits.release();
+                if (next instanceof TwitterException) {
+                    throw (TwitterException) next;
+                } else if (next instanceof RuntimeException) {
+                    throw (RuntimeException) next;
+                }
+                page = (T) next;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new TwitterException("Interrupted while waiting for the next page.", ie);
+        } catch (TwitterException te) {
+            close();
+            throw te;
+        } catch (RuntimeException re) {
+            close();
+            throw re;
+        }
+        last = page;
+        return page;
+    }
+
+    /**
+     * Stops prefetching and ends the iteration.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (null != prefetcher) {
+            prefetcher.interrupt();
+        }
+        fetched.clear();
+    }
+
+    private synchronized void startPrefetcher() {
+        prefetcher = new Thread("Twitter4J Cursor Prefetcher-" + nextCount()) {
+            @Override
+            public void run() {
+                long cursor = FIRST_CURSOR;
+                try {
+                    while (!closed) {
+                        permits.acquire();
+                        T page;
+                        try {
+                            page = fetch(cursor);
+                        } catch (TwitterException te) {
+                            fetched.put(te);
+                            return;
+                        } catch (RuntimeException re) {
+                            // handed to the consumer, which would otherwise wait for the page forever
+                            fetched.put(re);
+                            return;
+                        }
+                        fetched.put(page);
+                        if (!page.hasNext()) {
+                            return;
+                        }
+                        cursor = page.getNextCursor();
+                    }
+                } catch (InterruptedException ignore) {
+                }
+            }
+        };
+        prefetcher.setDaemon(true);
+        prefetcher.start();
+    }
+
+    private static synchronized int nextCount() {
+        return ++count;
+    }
+
+    private T fetch(long cursor) throws TwitterException, InterruptedException {
+        if (null != rateLimitStatus && rateLimitStatus.getRemainingHits() <= 0) {
+            sleepUntilReset(rateLimitStatus);
+        }
+        while (true) {
+            try {
+                T page = pager.getPage(cursor);
+                rateLimitStatus = page.getRateLimitStatus();
+                return page;
+            } catch (TwitterException te) {
+                // a 400 carries rate limit headers whatever the cause, retry only when the hits are actually used up
+                RateLimitStatus status = te.getRateLimitStatus();
+                if (closed || null == status || 0 < status.getRemainingHits()) {
+                    throw te;
+                }
+                // wait at least a second in case the clocks disagree
+                Thread.sleep(Math.max(1, status.getSecondsUntilReset()) * 1000L);
+            }
+        }
+    }
+
+    private static void sleepUntilReset(RateLimitStatus status) throws InterruptedException {
+        long waitMillis = null != status.getResetTime()
+                ? status.getResetTime().getTime() - System.currentTimeMillis()
+                : status.getSecondsUntilReset() * 1000L;
+        if (0 < waitMillis) {
+            Thread.sleep(waitMillis);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import twitter4j.CursorSupport;
+import twitter4j.TwitterException;
+
+/**
+ * Fetches a page of a cursored resource, e.g. by calling Twitter#getFollowersIDs(long).
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see CursorIterator
+ * @since Twitter4J 2.2.1
+ */
+public interface CursorPager<T extends CursorSupport> {
+    /**
+     * @param cursor cursor of the page. -1 for the first page
+     * @return the page
+     * @throws TwitterException when Twitter service or network is unavailable
+     */
+    T getPage(long cursor) throws TwitterException;
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import twitter4j.IDs;
+import twitter4j.TwitterException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Walks the ids of all pages of a cursored IDs resource, e.g. followers/ids, with the pages prefetched by a {@link CursorIterator}.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class IDsIterator {
+    private final CursorIterator<IDs> pages;
+    private long[] ids = new long[0];
+    private int index = 0;
+
+    /**
+     * Creates an iterator prefetching one page ahead.
+     *
+     * @param pager fetches pages
+     */
+    public IDsIterator(CursorPager<IDs> pager) {
+        this(pager, 1);
+    }
+
+    /**
+     * @param pager         fetches pages
+     * @param prefetchDepth maximum number of pages fetched ahead of the consumer
+     */
+    public IDsIterator(CursorPager<IDs> pager, int prefetchDepth) {
+        this.pages = new CursorIterator<IDs>(pager, prefetchDepth);
+    }
+
+    /**
+     * @return true if there are more ids
+     * @throws TwitterException when Twitter service or network is unavailable
+     */
+    public boolean hasNext() throws TwitterException {
+        while (index == ids.length) {
+            if (!pages.hasNext()) {
+                return false;
+            }
+            ids = pages.next().getIDs();
+            index = 0;
+        }
+        return true;
+    }
+
+    /**
+     * @return the next id
+     * @throws TwitterException       when Twitter service or network is unavailable
+     * @throws NoSuchElementException when there is no more id
+     */
+    public long next() throws TwitterException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return ids[index++];
+    }
+
+    /**
+     * Stops prefetching and ends the iteration.
+     */
+    public void close() {
+        pages.close();
+    }
+}
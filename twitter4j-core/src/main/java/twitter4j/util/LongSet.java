@@ -0,0 +1,274 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import twitter4j.IDs;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of ids, backed by a sorted long array.<br>
+ * Meant for comparing follower and friend graphs, e.g. mutual followers are
+ * <code>followers.intersection(friends)</code> and new followers since the last crawl are
+ * <code>followers.difference(lastFollowers)</code>. Ids are never boxed, and set operations merge the two arrays
+ * in linear time.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class LongSet implements java.io.Serializable {
+    public static final LongSet EMPTY = new LongSet(new long[0]);
+    private static final long serialVersionUID = 4823076511384526194L;
+    // sorted, without duplicates
+    private final long[] ids;
+
+    private LongSet(long[] ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * @param ids ids, in any order and possibly containing duplicates. the array is copied
+     * @return a set of the ids
+     */
+    public static LongSet of(long... ids) {
+        if (null == ids) {
+            throw new NullPointerException("ids is null");
+        }
+        long[] copy = new long[ids.length];
+        System.arraycopy(ids, 0, copy, 0, ids.length);
+        return sortAndDistinct(copy, copy.length);
+    }
+
+    /**
+     * @param ids ids returned by the API
+     * @return a set of the ids
+     */
+    public static LongSet of(IDs ids) {
+        return of(ids.getIDs());
+    }
+
+    private static LongSet sortAndDistinct(long[] ids, int size) {
+        if (0 == size) {
+            return EMPTY;
+        }
+        Arrays.sort(ids, 0, size);
+        int distinct = 1;
+        for (int i = 1; i < size; i++) {
+            if (ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return new LongSet(trim(ids, distinct));
+    }
+
+    private static long[] trim(long[] ids, int size) {
+        if (size == ids.length) {
+            return ids;
+        }
+        long[] trimmed = new long[size];
+        System.arraycopy(ids, 0, trimmed, 0, size);
+        return trimmed;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return 0 == ids.length;
+    }
+
+    /**
+     * @param id id
+     * @return true if the set contains the id
+     */
+    public boolean contains(long id) {
+        return 0 <= Arrays.binarySearch(ids, id);
+    }
+
+    /**
+     * @return ids in ascending order. the array is a copy
+     */
+    public long[] toArray() {
+        long[] copy = new long[ids.length];
+        System.arraycopy(ids, 0, copy, 0, ids.length);
+        return copy;
+    }
+
+    /**
+     * @param other set
+     * @return ids contained in either of this set and the other
+     */
+    public LongSet union(LongSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        long[] a = ids;
+        long[] b = other.ids;
+        long[] result = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[size++] = a[i++];
+            } else if (b[j] < a[i]) {
+                result[size++] = b[j++];
+            } else {
+                result[size++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, size, a.length - i);
+        size += a.length - i;
+        System.arraycopy(b, j, result, size, b.length - j);
+        size += b.length - j;
+        return new LongSet(trim(result, size));
+    }
+
+    /**
+     * @param other set
+     * @return ids contained in both of this set and the other
+     */
+    public LongSet intersection(LongSet other) {
+        long[] a = ids;
+        long[] b = other.ids;
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (b[j] < a[i]) {
+                j++;
+            } else {
+                result[size++] = a[i++];
+                j++;
+            }
+        }
+        return 0 == size ? EMPTY : new LongSet(trim(result, size));
+    }
+
+    /**
+     * @param other set
+     * @return ids contained in this set but not in the other
+     */
+    public LongSet difference(LongSet other) {
+        if (isEmpty() || other.isEmpty()) {
+            return this;
+        }
+        long[] a = ids;
+        long[] b = other.ids;
+        long[] result = new long[a.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[size++] = a[i++];
+            } else if (b[j] < a[i]) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, size, a.length - i);
+        size += a.length - i;
+        return 0 == size ? EMPTY : new LongSet(trim(result, size));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongSet)) return false;
+
+        return Arrays.equals(ids, ((LongSet) o).ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "LongSet{" +
+                "ids=" + Arrays.toString(ids) +
+                '}';
+    }
+
+    /**
+     * Accumulates ids, e.g. of all pages of followers/ids, and builds a set of them with a single sort.
+     */
+    public static final class Builder {
+        private long[] ids;
+        private int size = 0;
+
+        public Builder() {
+            this(5000);
+        }
+
+        /**
+         * @param expectedSize expected number of ids
+         */
+        public Builder(int expectedSize) {
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+            }
+            ids = new long[expectedSize];
+        }
+
+        public Builder add(long id) {
+            ensureCapacity(size + 1);
+            ids[size++] = id;
+            return this;
+        }
+
+        public Builder addAll(long[] ids) {
+            ensureCapacity(size + ids.length);
+            System.arraycopy(ids, 0, this.ids, size, ids.length);
+            size += ids.length;
+            return this;
+        }
+
+        public Builder addAll(IDs ids) {
+            return addAll(ids.getIDs());
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (ids.length < capacity) {
+                long[] grown = new long[Math.max(capacity, ids.length * 2)];
+                System.arraycopy(ids, 0, grown, 0, size);
+                ids = grown;
+            }
+        }
+
+        /**
+         * @return a set of the ids added so far. the builder can be reused afterwards
+         */
+        public LongSet build() {
+            long[] copy = new long[size];
+            System.arraycopy(ids, 0, copy, 0, size);
+            return sortAndDistinct(copy, size);
+        }
+    }
+}
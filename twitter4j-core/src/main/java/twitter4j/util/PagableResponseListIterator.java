@@ -0,0 +1,86 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import twitter4j.PagableResponseList;
+import twitter4j.TwitterException;
+import twitter4j.TwitterResponse;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks the elements of all pages of a cursored list resource, e.g. statuses/followers, with the pages prefetched by a {@link CursorIterator}.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class PagableResponseListIterator<T extends TwitterResponse> {
+    private final CursorIterator<PagableResponseList<T>> pages;
+    private Iterator<T> elements = Collections.<T>emptyList().iterator();
+
+    /**
+     * Creates an iterator prefetching one page ahead.
+     *
+     * @param pager fetches pages
+     */
+    public PagableResponseListIterator(CursorPager<PagableResponseList<T>> pager) {
+        this(pager, 1);
+    }
+
+    /**
+     * @param pager         fetches pages
+     * @param prefetchDepth maximum number of pages fetched ahead of the consumer
+     */
+    public PagableResponseListIterator(CursorPager<PagableResponseList<T>> pager, int prefetchDepth) {
+        this.pages = new CursorIterator<PagableResponseList<T>>(pager, prefetchDepth);
+    }
+
+    /**
+     * @return true if there are more elements
+     * @throws TwitterException when Twitter service or network is unavailable
+     */
+    public boolean hasNext() throws TwitterException {
+        while (!elements.hasNext()) {
+            if (!pages.hasNext()) {
+                return false;
+            }
+            elements = pages.next().iterator();
+        }
+        return true;
+    }
+
+    /**
+     * @return the next element
+     * @throws TwitterException       when Twitter service or network is unavailable
+     * @throws NoSuchElementException when there is no more element
+     */
+    public T next() throws TwitterException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return elements.next();
+    }
+
+    /**
+     * Stops prefetching and ends the iteration.
+     */
+    public void close() {
+        pages.close();
+    }
+}
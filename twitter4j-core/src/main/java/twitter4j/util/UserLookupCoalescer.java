@@ -0,0 +1,217 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import twitter4j.TwitterException;
+import twitter4j.User;
+import twitter4j.api.UserMethods;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static twitter4j.internal.http.HttpResponseCode.NOT_FOUND;
+
+/**
+ * Coalesces concurrent user look ups into users/lookup calls of up to 100 ids.<br>
+ * Ids requested from any thread within a short window are collected into a batch. The thread that opened the batch
+ * calls users/lookup once the window elapses or 100 ids have accumulated, and every waiting thread gets its users
+ * from the result. This cuts the number of requests, and the rate limit consumed, by up to 100 times compared to
+ * calling Twitter#showUser(long) for each id.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public final class UserLookupCoalescer {
+    private static final int MAX_IDS_PER_LOOKUP = 100;
+    private final UserMethods users;
+    private final long windowMillis;
+    // batch accepting ids, guarded by this
+    private Batch current = null;
+
+    /**
+     * Creates a coalescer collecting ids for 50 milliseconds.
+     *
+     * @param users Twitter instance calling users/lookup
+     */
+    public UserLookupCoalescer(UserMethods users) {
+        this(users, 50);
+    }
+
+    /**
+     * @param users        Twitter instance calling users/lookup
+     * @param windowMillis how long ids are collected before calling users/lookup
+     */
+    public UserLookupCoalescer(UserMethods users, long windowMillis) {
+        if (null == users) {
+            throw new NullPointerException("users is null");
+        }
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("windowMillis must not be negative: " + windowMillis);
+        }
+        this.users = users;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Returns extended information of a given user, as Twitter#showUser(long) does.
+     *
+     * @param userId the ID of the user for whom to request the detail
+     * @return users
+     * @throws TwitterException when Twitter service or network is unavailable, or the user is not found
+     */
+    public User showUser(long userId) throws TwitterException {
+        List<User> found = lookupUsers(new long[]{userId});
+        if (found.isEmpty()) {
+            throw new TwitterException("User not found: " + userId, null, NOT_FOUND);
+        }
+        return found.get(0);
+    }
+
+    /**
+     * Returns extended information of the given users, as Twitter#lookupUsers(long[]) does.<br>
+     * Any number of ids can be passed. Users not found are omitted from the result.
+     *
+     * @param ids Specifies the user IDs
+     * @return users in the order of the ids
+     * @throws TwitterException when Twitter service or network is unavailable
+     */
+    public List<User> lookupUsers(long[] ids) throws TwitterException {
+        Batch[] batchOf = new Batch[ids.length];
+        List<Batch> opened = new ArrayList<Batch>(1);
+        synchronized (this) {
+            for (int i = 0; i < ids.length; i++) {
+                if (null == current) {
+                    current = new Batch(System.currentTimeMillis() + windowMillis);
+                    opened.add(current);
+                }
+                current.ids.add(ids[i]);
+                batchOf[i] = current;
+                if (MAX_IDS_PER_LOOKUP == current.ids.size()) {
+                    current.close();
+                    current = null;
+                }
+            }
+        }
+        // run the batches opened by this thread first, so that no thread waits for a batch nobody runs
+        for (Batch batch : opened) {
+            batch.awaitWindow();
+            synchronized (this) {
+                if (current == batch) {
+                    current = null;
+                }
+            }
+            batch.run(users);
+        }
+        List<User> found = new ArrayList<User>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            User user = batchOf[i].get(ids[i]);
+            if (null != user) {
+                found.add(user);
+            }
+        }
+        return found;
+    }
+
+    private static final class Batch {
+        private final long deadline;
+        // modified only while the batch is current, guarded by the coalescer
+        private final Set<Long> ids = new LinkedHashSet<Long>();
+        private boolean closed = false;
+        private boolean done = false;
+        private Map<Long, User> result;
+        private TwitterException exception;
+
+        Batch(long deadline) {
+            this.deadline = deadline;
+        }
+
+        synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        synchronized void awaitWindow() {
+            boolean interrupted = false;
+            long wait;
+            while (!closed && 0 < (wait = deadline - System.currentTimeMillis())) {
+                try {
+                    wait(wait);
+                } catch (InterruptedException ie) {
+                    // other threads are waiting for this batch. run it anyway
+                    interrupted = true;
+                    break;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void run(UserMethods users) {
+            long[] lookup = new long[ids.size()];
+            int i = 0;
+            for (Long id : ids) {
+                lookup[i++] = id;
+            }
+            Map<Long, User> result = null;
+            TwitterException exception = null;
+            try {
+                List<User> found = users.lookupUsers(lookup);
+                result = new HashMap<Long, User>(found.size() * 2);
+                for (User user : found) {
+                    result.put(user.getId(), user);
+                }
+            } catch (TwitterException te) {
+                exception = te;
+            } catch (RuntimeException re) {
+                exception = new TwitterException(re);
+            } finally {
+                synchronized (this) {
+                    if (null == result && null == exception) {
+                        exception = new TwitterException("users/lookup failed");
+                    }
+                    this.result = result;
+                    this.exception = exception;
+                    done = true;
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized User get(long id) throws TwitterException {
+            boolean interrupted = false;
+            while (!done) {
+                try {
+                    wait();
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (null != exception) {
+                throw exception;
+            }
+            return result.get(id);
+        }
+    }
+}
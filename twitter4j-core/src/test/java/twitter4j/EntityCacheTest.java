@@ -0,0 +1,172 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.conf.ConfigurationContext;
+import twitter4j.internal.http.HttpResponse;
+import twitter4j.internal.org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class EntityCacheTest extends TestCase {
+    public EntityCacheTest(String name) {
+        super(name);
+    }
+
+    private static User user(long id, String screenName) throws Exception {
+        return new UserJSONImpl(new JSONObject("{\"id\":" + id + ",\"screen_name\":\"" + screenName + "\"}"));
+    }
+
+    private static Status status(long id) throws Exception {
+        return new StatusJSONImpl(new JSONObject("{\"id\":" + id + ",\"text\":\"hello\""
+                + ",\"created_at\":\"Sat Nov 06 02:08:01 +0000 2010\"}"));
+    }
+
+    public void testLookUp() throws Exception {
+        EntityCache cache = new EntityCache(10, 60000);
+        cache.put(user(1, "twit4j"));
+        cache.put(status(100));
+
+        assertEquals(1, cache.getUser(1).getId());
+        assertEquals(1, cache.getUser("TWIT4J").getId());
+        assertEquals(100, cache.getStatus(100).getId());
+        assertNull(cache.getUser(2));
+        assertNull(cache.getUser("twit4j2"));
+        assertNull(cache.getStatus(101));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    public void testScreenNameChange() throws Exception {
+        EntityCache cache = new EntityCache(10, 60000);
+        cache.put(user(1, "twit4j"));
+        cache.put(user(1, "twit4j_renamed"));
+        assertNull(cache.getUser("twit4j"));
+        assertEquals(1, cache.getUser("twit4j_renamed").getId());
+        assertEquals(1, cache.getUserCount());
+    }
+
+    public void testExpiration() throws Exception {
+        EntityCache cache = new EntityCache(10, 50);
+        cache.put(user(1, "twit4j"));
+        cache.put(status(100));
+        Thread.sleep(100);
+        assertNull(cache.getUser(1));
+        assertNull(cache.getUser("twit4j"));
+        assertNull(cache.getStatus(100));
+        assertEquals(0, cache.getUserCount());
+        assertEquals(0, cache.getStatusCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        EntityCache cache = new EntityCache(3, 60000);
+        List<User> users = new ArrayList<User>();
+        for (int i = 1; i <= 3; i++) {
+            users.add(user(i, "user" + i));
+        }
+        cache.putUsers(users);
+        // 1 becomes the most recently used
+        assertNotNull(cache.getUser(1));
+        cache.put(user(4, "user4"));
+        assertEquals(3, cache.getUserCount());
+        assertNull(cache.getUser(2));
+        assertNull(cache.getUser("user2"));
+        assertNotNull(cache.getUser(1));
+        assertNotNull(cache.getUser("user4"));
+    }
+
+    public void testInvalidate() throws Exception {
+        EntityCache cache = new EntityCache(10, 60000);
+        cache.put(user(1, "twit4j"));
+        cache.put(status(100));
+        cache.invalidateUser(1);
+        cache.invalidateStatus(100);
+        assertNull(cache.getUser(1));
+        assertNull(cache.getUser("twit4j"));
+        assertNull(cache.getStatus(100));
+
+        cache.put(user(1, "twit4j"));
+        cache.put(status(100));
+        cache.clear();
+        assertEquals(0, cache.getUserCount());
+        assertEquals(0, cache.getStatusCount());
+    }
+
+    public void testRateLimitStatusIsNotCached() throws Exception {
+        HttpResponse res = new HttpResponse(ConfigurationContext.getInstance()) {
+            {
+                statusCode = 200;
+                is = new ByteArrayInputStream("{\"id\":1,\"screen_name\":\"twit4j\"}".getBytes("UTF-8"));
+            }
+
+            @Override
+            public String getResponseHeader(String name) {
+                if ("X-RateLimit-Limit".equals(name)) {
+                    return "350";
+                } else if ("X-RateLimit-Remaining".equals(name)) {
+                    return "349";
+                } else if ("X-RateLimit-Reset".equals(name)) {
+                    return "1288998000";
+                }
+                return null;
+            }
+
+            @Override
+            public Map<String, List<String>> getResponseHeaderFields() {
+                return new HashMap<String, List<String>>();
+            }
+
+            @Override
+            public void disconnect() {
+            }
+        };
+        User user = new UserJSONImpl(res, ConfigurationContext.getInstance());
+        assertEquals(349, user.getRateLimitStatus().getRemainingHits());
+
+        EntityCache cache = new EntityCache(10, 60000);
+        cache.put(user);
+        User cached = cache.getUser(1);
+        assertEquals(1, cached.getId());
+        assertEquals("twit4j", cached.getScreenName());
+        assertNull(cached.getRateLimitStatus());
+        assertEquals(349, user.getRateLimitStatus().getRemainingHits());
+    }
+
+    public void testConfiguration() throws Exception {
+        Twitter twitter = new TwitterFactory(new ConfigurationBuilder().build()).getInstance();
+        assertNull(twitter.getEntityCache());
+        twitter = new TwitterFactory(new ConfigurationBuilder().setEntityCacheEnabled(true)
+                .setEntityCacheMaxSize(2).setEntityCacheTTLSecs(1).build()).getInstance();
+        EntityCache cache = twitter.getEntityCache();
+        assertNotNull(cache);
+        for (int i = 1; i <= 3; i++) {
+            cache.put(user(i, "user" + i));
+        }
+        assertEquals(2, cache.getUserCount());
+    }
+}
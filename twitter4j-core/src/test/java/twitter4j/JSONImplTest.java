@@ -0,0 +1,155 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class JSONImplTest extends TestCase {
+    public JSONImplTest(String name) {
+        super(name);
+    }
+
+    static final String STATUS_JSON = "{\"text\":\"@twit4j &lt;3 #twitter4j http://t.co/abc\","
+            + "\"retweet_count\":\"100+\",\"truncated\":false,\"created_at\":\"Tue Mar 29 08:44:41 +0000 2011\","
+            + "\"in_reply_to_status_id\":null,\"geo\":{\"type\":\"Point\",\"coordinates\":[35.6,139.7]},"
+            + "\"place\":{\"id\":\"ab\",\"name\":\"Tokyo\",\"full_name\":\"Tokyo, Japan\",\"country_code\":\"JP\","
+            + "\"country\":\"Japan\",\"place_type\":\"city\",\"url\":\"http://api.twitter.com/1/geo/id/ab.json\","
+            + "\"bounding_box\":{\"type\":\"Polygon\",\"coordinates\":[[[139.5,35.5],[139.9,35.5],[139.9,35.8],[139.5,35.8]]]},"
+            + "\"attributes\":{}},\"contributors\":[\"1\",\"2\"],"
+            + "\"entities\":{\"user_mentions\":[{\"indices\":[0,7],\"screen_name\":\"twit4j\",\"name\":\"t4j\",\"id\":6358482}],"
+            + "\"urls\":[{\"indices\":[29,47],\"url\":\"http://t.co/abc\",\"expanded_url\":null,\"display_url\":null}],"
+            + "\"hashtags\":[{\"indices\":[14,24],\"text\":\"twitter4j\"}]},"
+            + "\"id\":52627000829063168,\"favorited\":false,\"source\":\"&lt;a href=&quot;http://twitter4j.org/&quot;&gt;t4j&lt;/a&gt;\","
+            + "\"in_reply_to_screen_name\":\"twit4j\",\"in_reply_to_user_id\":6358482,\"retweeted\":false,"
+            + "\"user\":{\"id\":6358482,\"screen_name\":\"twit4j\",\"name\":\"t4j\",\"followers_count\":100,"
+            + "\"created_at\":\"Sat May 26 14:22:56 +0000 2007\",\"utc_offset\":null,\"protected\":false,"
+            + "\"profile_background_tile\":true,\"status\":null}}";
+
+    public void testStatusFromJSONReader() throws Exception {
+        Status expected = new StatusJSONImpl(new JSONObject(STATUS_JSON));
+        Status actual = new StatusJSONImpl(new JSONReader(STATUS_JSON));
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getText(), actual.getText());
+        assertEquals(expected.getSource(), actual.getSource());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getRetweetCount(), actual.getRetweetCount());
+        assertEquals(101, actual.getRetweetCount());
+        assertEquals(expected.getInReplyToStatusId(), actual.getInReplyToStatusId());
+        assertEquals(expected.getInReplyToUserId(), actual.getInReplyToUserId());
+        assertEquals(expected.getInReplyToScreenName(), actual.getInReplyToScreenName());
+        assertEquals(expected.getGeoLocation(), actual.getGeoLocation());
+        assertEquals(expected.getPlace(), actual.getPlace());
+        assertTrue(Arrays.equals(expected.getContributors(), actual.getContributors()));
+        assertTrue(Arrays.equals(expected.getUserMentionEntities(), actual.getUserMentionEntities()));
+        assertTrue(Arrays.equals(expected.getURLEntities(), actual.getURLEntities()));
+        assertTrue(Arrays.equals(expected.getHashtagEntities(), actual.getHashtagEntities()));
+        assertEquals(expected.getUser().getId(), actual.getUser().getId());
+        assertEquals(expected.getUser().getFollowersCount(), actual.getUser().getFollowersCount());
+        assertEquals(expected.getUser().getUtcOffset(), actual.getUser().getUtcOffset());
+        assertEquals(expected.getUser().getCreatedAt(), actual.getUser().getCreatedAt());
+        assertEquals(expected.getUser().getFriendsCount(), actual.getUser().getFriendsCount());
+        assertTrue(actual.getUser().isProfileBackgroundTiled());
+        assertNull(actual.getUser().getStatus());
+        assertEquals(expected, actual);
+    }
+
+    public void testMalformedElementsFromJSONReader() throws Exception {
+        String json = "{\"id\":1,\"place\":\"Tokyo\",\"contributors\":{\"id\":[1]},"
+                + "\"entities\":{\"user_mentions\":[{\"indices\":[0,7],\"screen_name\":\"twit4j\",\"id\":1}],"
+                + "\"urls\":{\"url\":[\"http://t.co/abc\"]},\"hashtags\":[]},"
+                + "\"retweeted_status\":{\"id\":2,\"geo\":1,\"text\":\"rt\"},\"text\":\"hello\"}";
+        Status status = new StatusJSONImpl(new JSONReader(json));
+        assertEquals(1, status.getId());
+        assertEquals("hello", status.getText());
+        assertNull(status.getPlace());
+        assertNull(status.getContributors());
+        assertEquals(1, status.getUserMentionEntities().length);
+        assertNull(status.getURLEntities());
+        assertNull(status.getRetweetedStatus());
+
+        try {
+            new StatusJSONImpl(new JSONReader("{\"id\":1,\"entities\":{\"urls\":[}"));
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+    }
+
+    public void testLazyParsing() throws Exception {
+        Status expected = new StatusJSONImpl(new JSONObject(STATUS_JSON));
+        Status lazy = new StatusJSONImpl(new JSONObject(STATUS_JSON), true);
+        assertEquals(expected.getId(), lazy.getId());
+        assertEquals(expected.getText(), lazy.getText());
+        assertEquals(expected.getUser().getId(), lazy.getUser().getId());
+        assertEquals(expected.getUser().getCreatedAt(), lazy.getUser().getCreatedAt());
+        assertEquals(expected.getCreatedAt(), lazy.getCreatedAt());
+        assertEquals(expected.getPlace(), lazy.getPlace());
+        assertTrue(Arrays.equals(expected.getURLEntities(), lazy.getURLEntities()));
+
+        // lazy fields are decoded before serialization
+        lazy = new StatusJSONImpl(new JSONObject(STATUS_JSON), true);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(lazy);
+        oos.close();
+        Status deserialized = (Status) new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+        assertEquals(expected.getText(), deserialized.getText());
+        assertEquals(expected.getSource(), deserialized.getSource());
+        assertEquals(expected.getUser().getScreenName(), deserialized.getUser().getScreenName());
+        assertTrue(Arrays.equals(expected.getHashtagEntities(), deserialized.getHashtagEntities()));
+        assertTrue(Arrays.equals(expected.getContributors(), deserialized.getContributors()));
+    }
+
+    public void testIDs() throws Exception {
+        StringBuilder json = new StringBuilder("{\"previous_cursor\":-12,\"ids\":[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(0 == i ? "" : ",").append(1234567890123L + i);
+        }
+        json.append("],\"next_cursor_str\":\"34\",\"next_cursor\":34}");
+        IDs ids = new IDsJSONImpl(json.toString());
+        assertEquals(1000, ids.getIDs().length);
+        assertEquals(1234567890123L, ids.getIDs()[0]);
+        assertEquals(1234567890123L + 999, ids.getIDs()[999]);
+        assertEquals(-12, ids.getPreviousCursor());
+        assertEquals(34, ids.getNextCursor());
+
+        ids = new IDsJSONImpl("[1, \"2\", 3]");
+        assertTrue(Arrays.equals(new long[]{1, 2, 3}, ids.getIDs()));
+        assertEquals(0, new IDsJSONImpl("{\"ids\":[],\"next_cursor\":0}").getIDs().length);
+        try {
+            new IDsJSONImpl("{\"ids\":[1,\"abc\"]}");
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+        try {
+            new IDsJSONImpl("{\"next_cursor\":0}");
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.Configuration;
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.internal.org.json.JSONArray;
+import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONTokener;
+import twitter4j.json.DataObjectFactory;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class RawJSONCaptureTest extends TestCase {
+    public RawJSONCaptureTest(String name) {
+        super(name);
+    }
+
+    private static final String LOCATIONS = "[{\"woeid\":1,\"name\":\"Worldwide\",\"placeType\":{\"code\":19}}"
+            + ",{\"woeid\":1118370,\"name\":\"東京\",\"country\":\"Japan\",\"countryCode\":\"JP\",\"placeType\":{\"code\":7}}]";
+
+    private static String getRawJSONFromAnotherThread(final Object obj) throws InterruptedException {
+        final String[] rawJSON = new String[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                rawJSON[0] = DataObjectFactory.getRawJSON(obj);
+            }
+        };
+        thread.start();
+        thread.join();
+        return rawJSON[0];
+    }
+
+    public void testCapturedJSONIsAvailableFromAnyThread() throws Exception {
+        Configuration conf = new ConfigurationBuilder().setJSONStoreEnabled(true).setJSONCaptureEnabled(true).build();
+        ResponseList<Location> locations = LocationJSONImpl.createLocationList(new JSONArray(LOCATIONS), conf);
+        assertEquals(2, locations.size());
+
+        String rawJSON = getRawJSONFromAnotherThread(locations.get(1));
+        assertNotNull(rawJSON);
+        JSONObject json = new JSONObject(rawJSON);
+        assertEquals(1118370, json.getInt("woeid"));
+        assertEquals("東京", json.getString("name"));
+        assertEquals(rawJSON, DataObjectFactory.getRawJSON(locations.get(1)));
+        assertEquals(2, new JSONArray(getRawJSONFromAnotherThread(locations)).length());
+    }
+
+    public void testCapturedJSONIsTheOriginalText() throws Exception {
+        Configuration conf = new ConfigurationBuilder().setJSONStoreEnabled(true).setJSONCaptureEnabled(true).build();
+        String location = "{ \"woeid\" : 1118370, \"name\" : \"\\u6771\\u4eac\", \"placeType\" : {\"code\":7} }";
+        ResponseList<Location> locations = LocationJSONImpl.createLocationList(new JSONArray(new JSONTokener("[" + location + "]", true)), conf);
+        assertEquals("東京", locations.get(0).getName());
+        assertEquals(location, DataObjectFactory.getRawJSON(locations.get(0)));
+
+        // the list is put together from its elements instead of being kept twice
+        assertNull(((ResponseListImpl<Location>) locations).getRawJSONBytes());
+        assertEquals("[" + location + "]", DataObjectFactory.getRawJSON(locations));
+    }
+
+    public void testSourceIsKeptOnlyWhenAsked() throws Exception {
+        assertNull(new JSONArray(LOCATIONS).getJSONObject(0).getSource());
+        JSONArray array = new JSONArray(new JSONTokener(LOCATIONS, true));
+        assertEquals(LOCATIONS, array.getSource());
+        assertEquals("{\"code\":19}", array.getJSONObject(0).getJSONObject("placeType").getSource());
+    }
+
+    public void testStoredJSONIsBoundToTheThread() throws Exception {
+        Configuration conf = new ConfigurationBuilder().setJSONStoreEnabled(true).build();
+        ResponseList<Location> locations = LocationJSONImpl.createLocationList(new JSONArray(LOCATIONS), conf);
+
+        assertEquals(1, new JSONObject(DataObjectFactory.getRawJSON(locations.get(0))).getInt("woeid"));
+        assertNull(getRawJSONFromAnotherThread(locations.get(0)));
+        assertNull(((LocationJSONImpl) locations.get(0)).getRawJSONBytes());
+    }
+
+    public void testNothingIsKeptWhenDisabled() throws Exception {
+        Configuration conf = new ConfigurationBuilder().setJSONCaptureEnabled(true).build();
+        ResponseList<Location> locations = LocationJSONImpl.createLocationList(new JSONArray(LOCATIONS), conf);
+        assertNull(getRawJSONFromAnotherThread(locations.get(0)));
+        assertNull(getRawJSONFromAnotherThread(locations));
+    }
+}
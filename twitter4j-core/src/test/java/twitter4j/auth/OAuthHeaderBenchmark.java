@@ -0,0 +1,70 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.auth;
+
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.internal.http.HttpParameter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures OAuthAuthorization.generateAuthorizationHeader() signing requests for many access tokens from several threads.<br>
+ * Run with: java twitter4j.auth.OAuthHeaderBenchmark [iterations per thread] [threads] [tokens]
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class OAuthHeaderBenchmark {
+    public static void main(String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int tokenCount = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+        final OAuthAuthorization oauth = new OAuthAuthorization(new ConfigurationBuilder().build());
+        oauth.setOAuthConsumer("dpf43f3p2l4k3l03", "kd94hf93k423kf44");
+        final RequestToken[] tokens = new RequestToken[tokenCount];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = new RequestToken(i + "-nnch734d00sl2jdk", "pfkkdhi9sl3r4s00" + i);
+        }
+        final HttpParameter[] params = new HttpParameter[]{new HttpParameter("status", "Hello Twitter4J! #t4j")
+                , new HttpParameter("in_reply_to_status_id", 12345678901L)};
+        for (int round = 0; round < 3; round++) {
+            final CountDownLatch latch = new CountDownLatch(threads);
+            final AtomicLong sum = new AtomicLong();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                new Thread() {
+                    @Override
+                    public void run() {
+                        long length = 0;
+                        for (int i = 0; i < iterations; i++) {
+                            length += oauth.generateAuthorizationHeader("POST"
+                                    , "http://api.twitter.com/1/statuses/update.json?include_entities=true", params
+                                    , String.valueOf(i), "1191242096", tokens[i % tokens.length]).length();
+                        }
+                        sum.addAndGet(length);
+                        latch.countDown();
+                    }
+                }.start();
+            }
+            latch.await();
+            long nanos = System.nanoTime() - start;
+            System.out.println("generateAuthorizationHeader: " + nanos / ((long) iterations * threads) + "ns/op"
+                    + " (" + threads + " threads, " + tokenCount + " tokens, " + sum.get() + ")");
+        }
+    }
+}
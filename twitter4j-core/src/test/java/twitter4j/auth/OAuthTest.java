@@ -320,6 +320,20 @@ public class OAuthTest extends TwitterTestBase {
 
     }
 
+    public void testHeaderWithQueryAndRealm() throws Exception {
+        HttpParameter[] params = new HttpParameter[2];
+        params[0] = new HttpParameter("status", "hello world!");
+        params[1] = new HttpParameter("oauth_zz", "z");
+        OAuthAuthorization oauth = new OAuthAuthorization(ConfigurationContext.getInstance());
+        oauth.setOAuthConsumer("dpf43f3p2l4k3l03", "kd94hf93k423kf44");
+        oauth.setOAuthRealm("http://api.twitter.com/");
+        String expected = "OAuth oauth_consumer_key=\"dpf43f3p2l4k3l03\",oauth_signature_method=\"HMAC-SHA1\",oauth_timestamp=\"1191242096\",oauth_nonce=\"kllo9940pd9333jh\",oauth_version=\"1.0\",oauth_token=\"nnch734d00sl2jdk\",oauth_signature=\"GSlP65PC86D%2FzjFzUoIUssGpLiM%3D\",realm=\"http%3A%2F%2Fapi.twitter.com%2F\"";
+        // signed twice to make sure the cached Mac has been reset
+        for (int i = 0; i < 2; i++) {
+            assertEquals(expected, oauth.generateAuthorizationHeader("POST", "http://api.twitter.com/1/statuses/update.json?include_entities=true", params, "kllo9940pd9333jh", "1191242096", new RequestToken("nnch734d00sl2jdk", "pfkkdhi9sl3r4s00")));
+        }
+    }
+
     public void testEncodeParameter() throws Exception {
         //http://wiki.oauth.net/TestCases
         assertEquals("abcABC123", HttpParameter.encode("abcABC123"));
@@ -70,4 +70,16 @@ public class HTMLEntityTest extends TestCase {
 
 
     }
+
+    public void testUnescapeSinglePass() {
+        String original = "no entity here";
+        assertSame(original, HTMLEntity.unescape(original));
+        original = "unknown &foo; & &";
+        assertSame(original, HTMLEntity.unescape(original));
+        assertNull(HTMLEntity.unescape((String) null));
+        // replaced text is never unescaped again
+        assertEquals("&lt;", HTMLEntity.unescape("&amp;lt;"));
+        assertEquals("\u00A9 \u20AC&", HTMLEntity.unescape("&#169; &euro;&amp;"));
+        assertEquals("&lt", HTMLEntity.unescape("&lt"));
+    }
 }
@@ -17,9 +17,13 @@
 package twitter4j.internal.async;
 
 import junit.framework.TestCase;
+import twitter4j.conf.ConfigurationBuilder;
 import twitter4j.conf.ConfigurationContext;
 
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -68,6 +72,106 @@ public class DispatcherTest extends TestCase {
         }
     }
 
+    public void testRingBufferInvokeLater() throws Exception {
+        String name = "Twitter4J Async Dispatcher";
+        int threadcount = countThread(name);
+        dispatcher = new DispatcherFactory(new ConfigurationBuilder()
+                .setDispatcherImpl("twitter4j.internal.async.RingBufferDispatcherImpl")
+                .setAsyncNumThreads(4).setAsyncQueueSize(16).build()).getInstance();
+        final AtomicInteger executed = new AtomicInteger(0);
+        final CountDownLatch latch = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            dispatcher.invokeLater(new Runnable() {
+                public void run() {
+                    executed.incrementAndGet();
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1000, executed.get());
+        assertEquals(threadcount + 4, countThread(name));
+        dispatcher.shutdown();
+        Thread.sleep(1000);
+        assertEquals(threadcount, countThread(name));
+    }
+
+    public void testRingBufferQueueFullPolicy() throws Exception {
+        RingBufferDispatcherImpl rejecting = (RingBufferDispatcherImpl) new DispatcherFactory(new ConfigurationBuilder()
+                .setDispatcherImpl("twitter4j.internal.async.RingBufferDispatcherImpl")
+                .setAsyncNumThreads(1).setAsyncQueueSize(2)
+                .setAsyncQueueFullPolicy("reject").build()).getInstance();
+        CountDownLatch blocker = block(rejecting);
+        for (int i = 0; i < 5; i++) {
+            rejecting.invokeLater(new IncrementTask());
+        }
+        assertEquals(2, rejecting.getQueueSize());
+        assertEquals(3, rejecting.getRejectedCount());
+        assertEquals(0, rejecting.getDroppedCount());
+        blocker.countDown();
+        rejecting.shutdown();
+
+        RingBufferDispatcherImpl dropping = (RingBufferDispatcherImpl) new DispatcherFactory(new ConfigurationBuilder()
+                .setDispatcherImpl("twitter4j.internal.async.RingBufferDispatcherImpl")
+                .setAsyncNumThreads(1).setAsyncQueueSize(2)
+                .setAsyncQueueFullPolicy("drop_oldest").build()).getInstance();
+        blocker = block(dropping);
+        for (int i = 0; i < 5; i++) {
+            dropping.invokeLater(new IncrementTask());
+        }
+        assertEquals(2, dropping.getQueueSize());
+        assertEquals(0, dropping.getRejectedCount());
+        assertEquals(3, dropping.getDroppedCount());
+        blocker.countDown();
+        dropping.shutdown();
+    }
+
+    public void testPartitionedDispatcherKeepsOrderPerKey() throws Exception {
+        PartitionedDispatcher partitioned = (PartitionedDispatcher) new DispatcherFactory(new ConfigurationBuilder()
+                .setDispatcherImpl("twitter4j.internal.async.PartitionedDispatcherImpl")
+                .setAsyncNumThreads(4).build()).getInstance();
+        final int keys = 16;
+        final int tasksPerKey = 500;
+        final int[] lastSeen = new int[keys];
+        final AtomicInteger outOfOrder = new AtomicInteger(0);
+        final CountDownLatch latch = new CountDownLatch(keys * tasksPerKey);
+        for (int i = 1; i <= tasksPerKey; i++) {
+            for (int key = 0; key < keys; key++) {
+                final int k = key;
+                final int sequence = i;
+                partitioned.invokeLater(k, new Runnable() {
+                    public void run() {
+                        // each key is pinned to one thread, so no synchronization is required here
+                        if (lastSeen[k] + 1 != sequence) {
+                            outOfOrder.incrementAndGet();
+                        }
+                        lastSeen[k] = sequence;
+                        latch.countDown();
+                    }
+                });
+            }
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, outOfOrder.get());
+        partitioned.shutdown();
+    }
+
+    private CountDownLatch block(Dispatcher dispatcher) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        dispatcher.invokeLater(new Runnable() {
+            public void run() {
+                started.countDown();
+                try {
+                    blocker.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return blocker;
+    }
+
     private int countThread(String name) {
         int count = 0;
         Map<Thread, StackTraceElement[]> allThreads = Thread.getAllStackTraces();
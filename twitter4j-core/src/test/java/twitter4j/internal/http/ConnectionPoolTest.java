@@ -0,0 +1,112 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.IOException;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class ConnectionPoolTest extends TestCase {
+    public ConnectionPoolTest(String name) {
+        super(name);
+    }
+
+    private LocalHttpServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new LocalHttpServer();
+        server.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.close();
+        super.tearDown();
+    }
+
+    public void testPooledClientReusesConnection() throws Exception {
+        HttpClientImpl client = new HttpClientImpl(new ConfigurationBuilder()
+                .setHttpConnectionPoolEnabled(true).build());
+        ConnectionPool pool = client.getConnectionPool();
+        assertNotNull(pool);
+        for (int i = 0; i < 5; i++) {
+            HttpResponse res = client.get(server.getURL("/1/test.json"));
+            assertEquals(200, res.getStatusCode());
+            assertEquals("ok", res.asJSONObject().getString("status"));
+            assertEquals(0, pool.getLeasedCount());
+        }
+        assertEquals(1, server.getAcceptedCount());
+        assertEquals(5, pool.getLeaseCount());
+        assertEquals(5, pool.getKeepAliveCount());
+        assertEquals(0, pool.getDiscardCount());
+    }
+
+    public void testUnreadResponseIsDrained() throws Exception {
+        HttpClientImpl client = new HttpClientImpl(new ConfigurationBuilder()
+                .setHttpConnectionPoolEnabled(true).build());
+        for (int i = 0; i < 3; i++) {
+            // disconnect without reading the body
+            client.get(server.getURL("/1/test.json")).disconnect();
+        }
+        assertEquals(1, server.getAcceptedCount());
+        assertEquals(3, client.getConnectionPool().getKeepAliveCount());
+        assertNull(new HttpClientImpl(new ConfigurationBuilder().build()).getConnectionPool());
+    }
+
+    public void testLeaseLimit() throws Exception {
+        ConnectionPool pool = new ConnectionPool(1, 2);
+        pool.lease("a:80", 100);
+        try {
+            pool.lease("a:80", 100);
+            fail("expecting IOException");
+        } catch (IOException expected) {
+        }
+        assertEquals(1, pool.getWaitCount());
+        pool.lease("b:80", 100);
+        try {
+            pool.lease("c:80", 100);
+            fail("expecting IOException");
+        } catch (IOException expected) {
+        }
+        pool.release("a:80", true);
+        pool.lease("c:80", 100);
+        assertEquals(2, pool.getLeasedCount());
+    }
+
+    public void testUnconsumedResponseIsReclaimedOnceCollected() throws Exception {
+        HttpClientImpl client = new HttpClientImpl(new ConfigurationBuilder()
+                .setHttpConnectionPoolEnabled(true).setHttpDefaultMaxPerRoute(1).build());
+        ConnectionPool pool = client.getConnectionPool();
+        // neither read nor disconnected
+        client.get(server.getURL("/1/test.json"));
+        assertEquals(1, pool.getLeasedCount());
+        for (int i = 0; i < 50 && 0 != pool.getLeasedCount(); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getLeasedCount());
+        assertEquals(1, pool.getDiscardCount());
+        assertEquals("ok", client.get(server.getURL("/1/test.json")).asJSONObject().getString("status"));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.TwitterException;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class ExponentialBackoffRetryPolicyTest extends TestCase {
+    public ExponentialBackoffRetryPolicyTest(String name) {
+        super(name);
+    }
+
+    private static final String URL = "http://api.twitter.com/1/statuses/home_timeline.json";
+
+    private static HttpRequest newRequest(String url) {
+        return new HttpRequest(RequestMethod.GET, url, null, null, null);
+    }
+
+    public void testJitteredExponentialBackoff() throws Exception {
+        // the circuit never opens
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy(5, 1000, 6000, 1.0, 10000, 1.1, 10
+                , 30000);
+        long[] max = new long[5];
+        for (int i = 0; i < 200; i++) {
+            HttpRequest req = newRequest(URL + "?page=" + i);
+            for (int retriedCount = 0; retriedCount < 5; retriedCount++) {
+                long delay = policy.onFailure(req, retriedCount, 503);
+                assertTrue(0 <= delay);
+                assertTrue(delay <= Math.min(6000, 1000 << retriedCount));
+                max[retriedCount] = Math.max(max[retriedCount], delay);
+            }
+            assertEquals(-1, policy.onFailure(req, 5, 503));
+        }
+        // delays are spread over the whole range
+        assertTrue(max[0] > 500);
+        assertTrue(max[1] > 1000);
+        assertTrue(max[2] > 3000);
+    }
+
+    public void testRetryBudget() throws Exception {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy(2, 0, 0, 0.2, 2, 1.1, 10, 30000);
+        for (int i = 0; i < 5; i++) {
+            policy.onResponse(newRequest(URL), 0);
+        }
+        // retries of the requests above. 2 are allowed regardless of the number of requests
+        assertEquals(0, policy.onFailure(newRequest(URL), 1, 500));
+        assertEquals(0, policy.onFailure(newRequest(URL), 1, 500));
+        assertEquals(-1, policy.onFailure(newRequest(URL), 1, 500));
+        // the budget is per endpoint
+        assertEquals(0, policy.onFailure(newRequest("http://api.twitter.com/1/users/show.json"), 0, 500));
+
+        for (int i = 0; i < 20; i++) {
+            policy.onResponse(newRequest(URL), 0);
+        }
+        // 20% of 25 requests
+        assertEquals(0, policy.onFailure(newRequest(URL), 1, 500));
+        assertEquals(0, policy.onFailure(newRequest(URL), 1, 500));
+        assertEquals(0, policy.onFailure(newRequest(URL), 1, 500));
+        assertEquals(-1, policy.onFailure(newRequest(URL), 1, 500));
+    }
+
+    public void testCircuitBreaker() throws Exception {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy(3, 0, 0, 1.0, 1000, 0.5, 4, 200);
+        HttpRequest req = newRequest(URL);
+        policy.onResponse(req, 0);
+        policy.onResponse(req, 0);
+        assertEquals(0, policy.onFailure(req, 0, 503));
+        assertFalse(policy.isOpen(URL));
+        // 2 failures out of 4 attempts
+        assertEquals(-1, policy.onFailure(req, 1, 503));
+        assertTrue(policy.isOpen(URL + "?count=10"));
+        try {
+            policy.beforeRequest(req);
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+        // other endpoints are not affected
+        policy.beforeRequest(newRequest("http://api.twitter.com/1/users/show.json"));
+
+        Thread.sleep(300);
+        // a single probe goes through
+        policy.beforeRequest(req);
+        try {
+            policy.beforeRequest(req);
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+        // the probe failed
+        assertEquals(-1, policy.onFailure(req, 0, 503));
+        try {
+            policy.beforeRequest(req);
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+
+        Thread.sleep(300);
+        policy.beforeRequest(req);
+        policy.onResponse(req, 0);
+        assertFalse(policy.isOpen(URL));
+        policy.beforeRequest(req);
+        assertEquals(0, policy.onFailure(req, 0, 503));
+    }
+
+    public void testEndpointsAreKeyedOnTemplate() throws Exception {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy(3, 0, 0, 1.0, 1000, 0.5, 2, 30000);
+        policy.onFailure(newRequest("http://api.twitter.com/1/statuses/show/1.json"), 0, 503);
+        policy.onFailure(newRequest("http://api.twitter.com/1/statuses/show/2.json?include_entities=true"), 0, 503);
+        // failures for different ids open the same circuit
+        assertTrue(policy.isOpen("http://api.twitter.com/1/statuses/show/3.json"));
+        try {
+            policy.beforeRequest(newRequest("http://api.twitter.com/1/statuses/show/4.json"));
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+        assertFalse(policy.isOpen("http://api.twitter.com/1/statuses/user_timeline/1.json"));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.auth.BasicAuthorization;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class HttpCacheTest extends TestCase {
+    public HttpCacheTest(String name) {
+        super(name);
+    }
+
+    private CachingServer server;
+    private HttpClientWrapper http;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new CachingServer();
+        server.start();
+        http = new HttpClientWrapper(new ConfigurationBuilder().setHttpCacheEnabled(true).build());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.close();
+        super.tearDown();
+    }
+
+    public void testNotModifiedResponseIsReplayed() throws Exception {
+        server.cacheHeaders = "ETag: \"v1\"\r\nCache-Control: no-cache, no-store, must-revalidate\r\n";
+        HttpResponse first = http.get(server.getURL("/1/statuses/home_timeline.json"));
+        assertEquals("ok", first.asJSONObject().getString("status"));
+        HttpResponse second = http.get(server.getURL("/1/statuses/home_timeline.json"));
+        assertEquals(200, second.getStatusCode());
+        assertEquals("\"v1\"", second.getResponseHeader("etag"));
+        // the body is not downloaded again, and the parsed JSONObject is shared
+        assertSame(first.asJSONObject(), second.asJSONObject());
+
+        assertEquals(2, server.getRequestLines().size());
+        assertNull(server.getRequestHeaders(0).get("if-none-match"));
+        assertEquals("\"v1\"", server.getRequestHeaders(1).get("if-none-match"));
+        assertEquals(1, server.notModifiedCount);
+    }
+
+    public void testNotModifiedResponseIsReportedAsSuccess() throws Exception {
+        final List<HttpResponseEvent> events = new ArrayList<HttpResponseEvent>();
+        http.setHttpResponseListener(new HttpResponseListener() {
+            public void httpResponseReceived(HttpResponseEvent event) {
+                events.add(event);
+            }
+        });
+        final List<HttpRequestMetrics> metrics = new ArrayList<HttpRequestMetrics>();
+        http.addHttpMetricsListener(new HttpMetricsListener() {
+            public void requestCompleted(HttpRequestMetrics requestMetrics) {
+                metrics.add(requestMetrics);
+            }
+        });
+        server.cacheHeaders = "ETag: \"v1\"\r\nX-RateLimit-Remaining: 349\r\n";
+        http.get(server.getURL("/1/statuses/home_timeline.json")).asJSONObject();
+        server.cacheHeaders = "ETag: \"v1\"\r\nX-RateLimit-Remaining: 348\r\n";
+        HttpResponse replayed = http.get(server.getURL("/1/statuses/home_timeline.json"));
+        assertEquals("ok", replayed.asJSONObject().getString("status"));
+        // the headers of the 304 response are replayed
+        assertEquals("348", replayed.getResponseHeader("X-RateLimit-Remaining"));
+
+        assertEquals(1, server.notModifiedCount);
+        assertEquals(2, events.size());
+        assertNull(events.get(1).getTwitterException());
+        assertSame(replayed, events.get(1).getResponse());
+        assertEquals(2, metrics.size());
+        assertEquals(200, metrics.get(0).getStatusCode());
+        assertEquals(304, metrics.get(1).getStatusCode());
+    }
+
+    public void testModifiedResponseReplacesCachedOne() throws Exception {
+        server.cacheHeaders = "Last-Modified: Sat, 06 Nov 2010 02:08:01 GMT\r\n";
+        http.get(server.getURL("/1/trends.json")).asJSONObject();
+        server.cacheHeaders = "Last-Modified: Sat, 06 Nov 2010 02:09:01 GMT\r\n";
+        server.modified = true;
+        http.get(server.getURL("/1/trends.json")).asJSONObject();
+        http.get(server.getURL("/1/trends.json")).asJSONObject();
+
+        assertEquals("Sat, 06 Nov 2010 02:08:01 GMT", server.getRequestHeaders(1).get("if-modified-since"));
+        assertEquals("Sat, 06 Nov 2010 02:09:01 GMT", server.getRequestHeaders(2).get("if-modified-since"));
+        assertEquals(0, server.notModifiedCount);
+    }
+
+    public void testFreshResponseIsReusedWithoutRequest() throws Exception {
+        server.cacheHeaders = "Cache-Control: private, max-age=60\r\n";
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", http.get(server.getURL("/1/trends/available.json")).asJSONObject().getString("status"));
+        }
+        assertEquals(1, server.getRequestLines().size());
+    }
+
+    public void testUncacheableResponses() throws Exception {
+        // no validators
+        server.cacheHeaders = "Cache-Control: no-cache\r\n";
+        http.get(server.getURL("/1/saved_searches.json")).asJSONObject();
+        http.get(server.getURL("/1/saved_searches.json")).asJSONObject();
+        assertNull(server.getRequestHeaders(1).get("if-none-match"));
+
+        // POST
+        server.cacheHeaders = "ETag: \"v1\"\r\n";
+        http.post(server.getURL("/1/statuses/update.json")).asJSONObject();
+        http.post(server.getURL("/1/statuses/update.json")).asJSONObject();
+        assertNull(server.getRequestHeaders(3).get("if-none-match"));
+    }
+
+    public void testCacheIsPerAuthorization() throws Exception {
+        server.cacheHeaders = "ETag: \"v1\"\r\n";
+        http.get(server.getURL("/1/direct_messages.json"), new BasicAuthorization("alice", "password")).asJSONObject();
+        http.get(server.getURL("/1/direct_messages.json"), new BasicAuthorization("bob", "password")).asJSONObject();
+        http.get(server.getURL("/1/direct_messages.json"), new BasicAuthorization("alice", "password")).asJSONObject();
+        assertNull(server.getRequestHeaders(1).get("if-none-match"));
+        assertEquals("\"v1\"", server.getRequestHeaders(2).get("if-none-match"));
+    }
+
+    public void testQueryParametersArePartOfTheKey() throws Exception {
+        server.cacheHeaders = "Cache-Control: max-age=60\r\n";
+        http.get(server.getURL("/1/statuses/user_timeline.json")
+                , new HttpParameter[]{new HttpParameter("page", 1)}).asJSONObject();
+        http.get(server.getURL("/1/statuses/user_timeline.json")
+                , new HttpParameter[]{new HttpParameter("page", 2)}).asJSONObject();
+        http.get(server.getURL("/1/statuses/user_timeline.json")
+                , new HttpParameter[]{new HttpParameter("page", 1)}).asJSONObject();
+        assertEquals(2, server.getRequestLines().size());
+    }
+
+    public void testMaxAge() throws Exception {
+        assertEquals(0, HttpCache.getMaxAge(null));
+        assertEquals(0, HttpCache.getMaxAge("no-cache, no-store, must-revalidate, pre-check=0, post-check=0"));
+        assertEquals(60000, HttpCache.getMaxAge("private, max-age=60"));
+        assertEquals(0, HttpCache.getMaxAge("max-age=60, no-cache"));
+        assertEquals(0, HttpCache.getMaxAge("max-age=abc"));
+    }
+
+    private static class CachingServer extends LocalHttpServer {
+        volatile String cacheHeaders = "";
+        volatile boolean modified = false;
+        volatile int notModifiedCount = 0;
+
+        CachingServer() throws IOException {
+        }
+
+        @Override
+        protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                throws IOException {
+            if (!modified && (headers.containsKey("if-none-match") || headers.containsKey("if-modified-since"))) {
+                notModifiedCount++;
+                os.write(("HTTP/1.1 304 Not Modified\r\n" + cacheHeaders + "\r\n").getBytes("ISO-8859-1"));
+                return true;
+            }
+            byte[] bytes = BODY.getBytes("UTF-8");
+            os.write(("HTTP/1.1 200 OK\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + cacheHeaders
+                    + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes("ISO-8859-1"));
+            os.write(bytes);
+            return true;
+        }
+    }
+}
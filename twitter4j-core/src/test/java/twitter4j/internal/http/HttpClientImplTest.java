@@ -0,0 +1,167 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.TwitterException;
+import twitter4j.UploadProgressListener;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class HttpClientImplTest extends TestCase {
+    public HttpClientImplTest(String name) {
+        super(name);
+    }
+
+    private LocalHttpServer server;
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new LocalHttpServer();
+        server.start();
+        file = File.createTempFile("t4j", ".png");
+        FileOutputStream fos = new FileOutputStream(file);
+        byte[] block = new byte[1000];
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < block.length; j++) {
+                block[j] = (byte) (i + j);
+            }
+            fos.write(block);
+        }
+        fos.close();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.close();
+        file.delete();
+        super.tearDown();
+    }
+
+    public void testMultipartUploadWithFile() throws Exception {
+        assertUploaded(new HttpParameter("media", file), file.length());
+    }
+
+    public void testMultipartUploadWithFileInputStream() throws Exception {
+        FileInputStream fis = new FileInputStream(file);
+        // the remaining part of the stream is uploaded
+        assertEquals(1000, fis.skip(1000));
+        assertUploaded(new HttpParameter("media", "t4j.png", fis), file.length() - 1000);
+    }
+
+    public void testMultipartUploadWithInputStream() throws Exception {
+        assertUploaded(new HttpParameter("media", "t4j.png", new ByteArrayInputStream(new byte[]{1, 2, 3})), 3);
+    }
+
+    public void testNIOMultipartUpload() throws Exception {
+        // built by the same MultipartEntity and streamed from the selector loop
+        HttpClient client = new NIOHttpClientImpl(new ConfigurationBuilder().build());
+        FileInputStream fis = new FileInputStream(file);
+        assertEquals(1000, fis.skip(1000));
+        assertUploaded(client, new HttpParameter("media", "t4j.png", fis), file.length() - 1000);
+        client.shutdown();
+    }
+
+    public void testServerErrorIsRetried() throws Exception {
+        LocalHttpServer failing = new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                if (getRequestLines().size() <= 2) {
+                    byte[] bytes = "{\"error\":\"Bad gateway\"}".getBytes("UTF-8");
+                    os.write(("HTTP/1.1 502 Bad Gateway\r\n"
+                            + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes("ISO-8859-1"));
+                    os.write(bytes);
+                    return true;
+                }
+                return super.respond(requestLine, headers, body, os);
+            }
+        };
+        failing.start();
+        try {
+            HttpClient client = new HttpClientImpl(new ConfigurationBuilder()
+                    .setHttpRetryCount(1).setHttpRetryIntervalSeconds(0).build());
+            try {
+                client.request(new HttpRequest(RequestMethod.GET, failing.getURL("/1/test.json"), null, null, null));
+                fail("expecting TwitterException");
+            } catch (TwitterException te) {
+                assertEquals(502, te.getStatusCode());
+            }
+            assertEquals(2, failing.getRequestLines().size());
+            assertEquals("ok", client.request(new HttpRequest(RequestMethod.GET, failing.getURL("/1/test.json")
+                    , null, null, null)).asJSONObject().getString("status"));
+            assertEquals(3, failing.getRequestLines().size());
+        } finally {
+            failing.close();
+        }
+    }
+
+    private void assertUploaded(HttpParameter media, long mediaLength) throws Exception {
+        assertUploaded(new HttpClientImpl(new ConfigurationBuilder().build()), media, mediaLength);
+    }
+
+    private void assertUploaded(HttpClient client, HttpParameter media, long mediaLength) throws Exception {
+        final List<long[]> progress = new ArrayList<long[]>();
+        HttpResponse res = client.request(new HttpRequest(RequestMethod.POST, server.getURL("/upload.json")
+                , new HttpParameter[]{new HttpParameter("message", "hello"), media}, null, null
+                , new UploadProgressListener() {
+            public void onProgress(long sentBytes, long totalBytes) {
+                progress.add(new long[]{sentBytes, totalBytes});
+            }
+        }));
+        assertEquals("ok", res.asJSONObject().getString("status"));
+
+        Map<String, String> headers = server.getRequestHeaders(0);
+        assertNull(headers.get("transfer-encoding"));
+        assertTrue(headers.get("content-type").startsWith("multipart/form-data; boundary="));
+        byte[] body = server.getRequestBody(0);
+        assertEquals(Integer.parseInt(headers.get("content-length")), body.length);
+        String bodyStr = new String(body, "ISO-8859-1");
+        assertTrue(bodyStr.contains("Content-Disposition: form-data; name=\"message\"\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n\r\nhello\r\n"));
+        assertTrue(bodyStr.contains("Content-Disposition: form-data; name=\"media\"; filename=\""));
+        String mediaHead = "Content-Type: image/png\r\n\r\n";
+        int mediaStart = bodyStr.indexOf(mediaHead) + mediaHead.length();
+        assertEquals("\r\n--", bodyStr.substring(mediaStart + (int) mediaLength, mediaStart + (int) mediaLength + 4));
+        if (mediaLength == file.length() - 1000) {
+            // begins with the 2nd block
+            assertEquals((byte) 1, body[mediaStart]);
+        }
+
+        long[] last = progress.get(progress.size() - 1);
+        assertEquals(body.length, last[0]);
+        assertEquals(body.length, last[1]);
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i - 1)[0] < progress.get(i)[0]);
+        }
+    }
+}
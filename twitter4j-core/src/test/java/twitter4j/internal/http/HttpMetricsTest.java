@@ -0,0 +1,258 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.TwitterException;
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.internal.org.json.JSONReader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class HttpMetricsTest extends TestCase {
+    public HttpMetricsTest(String name) {
+        super(name);
+    }
+
+    private LocalHttpServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                if (requestLine.contains("/missing")) {
+                    byte[] bytes = "{\"error\":\"Not found\"}".getBytes("UTF-8");
+                    os.write(("HTTP/1.1 404 Not Found\r\n"
+                            + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes("ISO-8859-1"));
+                    os.write(bytes);
+                    return true;
+                }
+                return super.respond(requestLine, headers, body, os);
+            }
+        };
+        server.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.close();
+        super.tearDown();
+    }
+
+    public void testEndpointTemplate() throws Exception {
+        assertEquals("statuses/user_timeline"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/statuses/user_timeline.json?count=200"));
+        assertEquals("statuses/show/:id"
+                , HttpRequestMetrics.getEndpoint("https://api.twitter.com/1/statuses/show/12345.json"));
+        assertEquals("search", HttpRequestMetrics.getEndpoint("http://search.twitter.com/search.json?q=twitter4j"));
+        assertEquals("oauth/request_token"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/oauth/request_token"));
+        assertEquals("statuses/update_with_media"
+                , HttpRequestMetrics.getEndpoint("https://upload.twitter.com/1.1/statuses/update_with_media.json"));
+        assertEquals(":user/lists", HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/twit4j/lists.json?cursor=-1"));
+        assertEquals(":user/lists/:list/statuses"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/twit4j/lists/friends/statuses.json"));
+        assertEquals(":user/lists/:list/statuses"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/6358482/lists/1234/statuses.json"));
+        assertEquals(":user/lists/memberships"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/twit4j/lists/memberships.json"));
+        assertEquals(":user/:list/members/:id"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/twit4j/friends/members/6358482.json"));
+        assertEquals("users/profile_image/:screen_name"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/users/profile_image/twit4j.json?size=bigger"));
+        assertEquals("users/suggestions/:slug/members"
+                , HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/users/suggestions/twitter/members.json"));
+        assertEquals("favorites/:id", HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/favorites/twit4j.json"));
+        assertEquals("geo/id/:id", HttpRequestMetrics.getEndpoint("http://api.twitter.com/1/geo/id/df51dec6f4ee2b2c.json"));
+    }
+
+    public void testEndpointsAreBounded() throws Exception {
+        HttpMetrics metrics = new HttpMetrics();
+        for (int i = 0; i < HttpMetrics.MAX_ENDPOINTS + 10; i++) {
+            metrics.requestCompleted(new HttpRequestMetrics(new HttpRequest(RequestMethod.GET
+                    , "http://example.com/resource" + i, null, null, null)));
+        }
+        assertEquals(HttpMetrics.MAX_ENDPOINTS + 1, metrics.getEndpointMetrics().size());
+        assertEquals(10, metrics.getEndpointMetrics(HttpMetrics.OTHER_ENDPOINTS).getRequestCount());
+    }
+
+    public void testHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 1000; i++) {
+            // 1ms to 1s
+            histogram.record(i * 1000000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500500, histogram.getMean(), 1);
+        assertWithin(500000, histogram.getPercentile(50));
+        assertWithin(990000, histogram.getPercentile(99));
+        assertEquals(1000000, histogram.getPercentile(100));
+        assertWithin(1000, histogram.getPercentile(0));
+        for (int i = 0; i < 600; i++) {
+            assertTrue(LatencyHistogram.indexOf(LatencyHistogram.highestValueOf(i)) == i);
+            assertTrue(LatencyHistogram.indexOf(LatencyHistogram.highestValueOf(i) + 1) == i + 1);
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(expected + " expected, but was " + actual
+                , expected <= actual && actual <= expected + expected / 16 + 1);
+    }
+
+    public void testMetricsArePerEndpoint() throws Exception {
+        HttpClientWrapper http = new HttpClientWrapper(new ConfigurationBuilder().setHttpMetricsEnabled(true).build());
+        final List<HttpRequestMetrics> completed = new ArrayList<HttpRequestMetrics>();
+        http.addHttpMetricsListener(new HttpMetricsListener() {
+            public void requestCompleted(HttpRequestMetrics metrics) {
+                completed.add(metrics);
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            HttpResponse res = http.get(server.getURL("/1/statuses/show/" + (i + 1) + ".json"));
+            // reported once the body is consumed
+            assertEquals(i, completed.size());
+            assertEquals("ok", res.asJSONObject().getString("status"));
+            assertEquals(i + 1, completed.size());
+        }
+        http.get(server.getURL("/1/statuses/home_timeline.json")).asString();
+        try {
+            http.get(server.getURL("/1/missing.json"));
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertEquals(404, te.getStatusCode());
+        }
+        assertEquals(5, completed.size());
+        HttpRequestMetrics first = completed.get(0);
+        assertEquals("statuses/show/:id", first.getEndpoint());
+        assertEquals(200, first.getStatusCode());
+        assertEquals(LocalHttpServer.BODY.length(), first.getReceivedBytes());
+        assertEquals(LocalHttpServer.BODY.length(), first.getDecodedBytes());
+        assertTrue(0 < first.getTimeToFirstByte());
+        assertTrue(first.getTimeToFirstByte() + first.getBodyReadTime() + first.getParseTime() <= first.getTotalTime());
+
+        HttpMetrics metrics = http.getHttpMetrics();
+        assertEquals(3, metrics.getEndpointMetrics().size());
+        EndpointMetrics show = metrics.getEndpointMetrics("statuses/show/:id");
+        assertEquals(3, show.getRequestCount());
+        assertEquals(3, show.getTotalTime().getCount());
+        assertEquals(3 * LocalHttpServer.BODY.length(), show.getReceivedBytes());
+        assertEquals(Long.valueOf(3), show.getStatusCodeCounts().get(200));
+        assertEquals(Long.valueOf(1), metrics.getEndpointMetrics("missing").getStatusCodeCounts().get(404));
+        assertEquals(1, metrics.getEndpointMetrics("statuses/home_timeline").getRequestCount());
+    }
+
+    public void testParseTimeCoversMapping() throws Exception {
+        HttpClientWrapper http = new HttpClientWrapper(new ConfigurationBuilder().build());
+        assertNull(http.getHttpMetrics());
+        final List<HttpRequestMetrics> completed = new ArrayList<HttpRequestMetrics>();
+        http.addHttpMetricsListener(new HttpMetricsListener() {
+            public void requestCompleted(HttpRequestMetrics metrics) {
+                completed.add(metrics);
+            }
+        });
+        HttpResponse res = http.get(server.getURL("/1/users/show.json"));
+        assertEquals(LocalHttpServer.BODY, res.asStringToParse());
+        Thread.sleep(50);
+        assertEquals(0, completed.size());
+        res.parsed();
+        assertEquals(1, completed.size());
+        assertTrue(50 * 1000000L <= completed.get(0).getParseTime());
+    }
+
+    public void testBodyIsParsedFromReader() throws Exception {
+        HttpClientWrapper http = new HttpClientWrapper(new ConfigurationBuilder().build());
+        final List<HttpRequestMetrics> completed = new ArrayList<HttpRequestMetrics>();
+        http.addHttpMetricsListener(new HttpMetricsListener() {
+            public void requestCompleted(HttpRequestMetrics metrics) {
+                completed.add(metrics);
+            }
+        });
+        HttpResponse res = http.get(server.getURL("/1/users/show.json"));
+        JSONReader reader = new JSONReader(res.asReaderToParse());
+        reader.beginObject();
+        assertEquals("status", reader.nextName());
+        assertEquals("ok", reader.nextString());
+        reader.endObject();
+        Thread.sleep(50);
+        assertEquals(0, completed.size());
+        res.parsed();
+        assertEquals(1, completed.size());
+        assertEquals(LocalHttpServer.BODY.length(), completed.get(0).getDecodedBytes());
+        assertTrue(50 * 1000000L <= completed.get(0).getParseTime());
+    }
+
+    public void testUnconsumedResponseIsReportedOnDisconnect() throws Exception {
+        HttpClientWrapper http = new HttpClientWrapper(new ConfigurationBuilder().build());
+        final List<HttpRequestMetrics> completed = new ArrayList<HttpRequestMetrics>();
+        http.addHttpMetricsListener(new HttpMetricsListener() {
+            public void requestCompleted(HttpRequestMetrics metrics) {
+                completed.add(metrics);
+            }
+        });
+        HttpResponse res = http.get(server.getURL("/1/account/verify_credentials.json"));
+        assertEquals(0, completed.size());
+        res.disconnect();
+        assertEquals(1, completed.size());
+        assertEquals(200, completed.get(0).getStatusCode());
+        res.disconnect();
+        assertEquals(1, completed.size());
+    }
+
+    public void testRetriesAreCountedPerCall() throws Exception {
+        server.close();
+        server = new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                if (1 == getRequestLines().size() % 2) {
+                    os.write("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\n\r\n".getBytes("ISO-8859-1"));
+                    return true;
+                }
+                return super.respond(requestLine, headers, body, os);
+            }
+        };
+        server.start();
+        HttpClientWrapper http = new HttpClientWrapper(new ConfigurationBuilder()
+                .setHttpRetryCount(1).setHttpRetryIntervalSeconds(0).build());
+        final List<HttpRequestMetrics> completed = new ArrayList<HttpRequestMetrics>();
+        http.addHttpMetricsListener(new HttpMetricsListener() {
+            public void requestCompleted(HttpRequestMetrics metrics) {
+                completed.add(metrics);
+            }
+        });
+        for (int i = 0; i < 2; i++) {
+            http.get(server.getURL("/1/statuses/home_timeline.json")).asJSONObject();
+        }
+        assertEquals(2, completed.size());
+        assertEquals(1, completed.get(0).getRetryCount());
+        assertEquals(1, completed.get(1).getRetryCount());
+        assertTrue(0 < completed.get(1).getTimeToFirstByte());
+    }
+}
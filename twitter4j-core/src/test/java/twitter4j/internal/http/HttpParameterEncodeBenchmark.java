@@ -0,0 +1,60 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+/**
+ * Compares HttpParameter.encode() with the former URLEncoder based implementation on typical payloads.<br>
+ * Run with: java twitter4j.internal.http.HttpParameterEncodeBenchmark [iterations]
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class HttpParameterEncodeBenchmark {
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            if (0 != i) {
+                ids.append(',');
+            }
+            ids.append(100000000L + i * 7919L);
+        }
+        String[][] payloads = {
+                {"status update", "Just setting up my twttr! Check http://twitter4j.org/ #t4j @yusuke こんにちは"},
+                {"users/lookup", ids.toString()},
+                {"unreserved", "1234567890"},
+        };
+        for (int round = 0; round < 3; round++) {
+            for (String[] payload : payloads) {
+                String value = payload[1];
+                long sum = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    sum += HttpParameterTest.encodeWithURLEncoder(value).length();
+                }
+                long formerNanos = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    sum -= HttpParameter.encode(value).length();
+                }
+                long encodeNanos = System.nanoTime() - start;
+                System.out.println(payload[0] + " - URLEncoder: " + formerNanos / iterations + "ns/op"
+                        + ", HttpParameter.encode: " + encodeNanos / iterations + "ns/op" + " (" + sum + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URLEncoder;
+import java.util.Random;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class HttpParameterTest extends TestCase {
+    public HttpParameterTest(String name) {
+        super(name);
+    }
+
+    public void testEncode() throws Exception {
+        assertEquals("abcABC123", HttpParameter.encode("abcABC123"));
+        assertEquals("-._~", HttpParameter.encode("-._~"));
+        assertEquals("%25", HttpParameter.encode("%"));
+        assertEquals("%2B", HttpParameter.encode("+"));
+        assertEquals("%26%3D%2A", HttpParameter.encode("&=*"));
+        assertEquals("%0A", HttpParameter.encode("\n"));
+        assertEquals("%20", HttpParameter.encode(" "));
+        assertEquals("%7F", HttpParameter.encode("\u007F"));
+        assertEquals("%C2%80", HttpParameter.encode("\u0080"));
+        assertEquals("%E3%80%81", HttpParameter.encode("、"));
+        assertEquals("%F0%9F%98%80", HttpParameter.encode("😀"));
+        assertEquals("a%3Fb", HttpParameter.encode("a\uD83Db"));
+        String unreserved = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-._~";
+        // no copy when there's nothing to encode
+        assertSame(unreserved, HttpParameter.encode(unreserved));
+    }
+
+    public void testEncodeIntoBuffer() throws Exception {
+        StringBuilder buf = new StringBuilder("status=");
+        assertSame(buf, HttpParameter.encode("hello world!", buf));
+        assertEquals("status=hello%20world%21", buf.toString());
+
+        buf.setLength(0);
+        assertEquals("hello%2520w%25C3%25A9rld", HttpParameter.encode("hello w\u00e9rld", buf, true).toString());
+    }
+
+    public void testEncodeIntoStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HttpParameter.encode("hello w\u00e9rld~", out);
+        assertEquals("hello%20w%C3%A9rld~", out.toString("US-ASCII"));
+
+        out.reset();
+        HttpParameter[] params = {new HttpParameter("status", "hello \u3042")
+                , new HttpParameter("in_reply_to_status_id", 123L)};
+        HttpParameter.encodeParameters(params, out);
+        assertEquals(HttpParameter.encodeParameters(params), out.toString("US-ASCII"));
+    }
+
+    public void testEncodeMatchesURLEncoder() throws Exception {
+        Random random = new Random(1);
+        char[] samples = {'a', 'Z', '0', ' ', '*', '+', '~', '%', '&', '=', '\n', 'é', 'あ', '\uD83D', '\uDE00'};
+        for (int i = 0; i < 10000; i++) {
+            char[] chars = new char[random.nextInt(12)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = samples[random.nextInt(samples.length)];
+            }
+            String value = new String(chars);
+            assertEquals(value, encodeWithURLEncoder(value), HttpParameter.encode(value));
+        }
+    }
+
+    public void testEncodeParameters() throws Exception {
+        assertEquals("status=hello%20world&in_reply_to_status_id=123", HttpParameter.encodeParameters(
+                new HttpParameter[]{new HttpParameter("status", "hello world")
+                        , new HttpParameter("in_reply_to_status_id", 123L)}));
+        assertEquals("", HttpParameter.encodeParameters(new HttpParameter[0]));
+    }
+
+    /**
+     * the former implementation
+     */
+    static String encodeWithURLEncoder(String value) throws Exception {
+        String encoded = URLEncoder.encode(value, "UTF-8");
+        StringBuilder buf = new StringBuilder(encoded.length());
+        for (int i = 0; i < encoded.length(); i++) {
+            char focus = encoded.charAt(i);
+            if (focus == '*') {
+                buf.append("%2A");
+            } else if (focus == '+') {
+                buf.append("%20");
+            } else if (focus == '%' && (i + 1) < encoded.length()
+                    && encoded.charAt(i + 1) == '7' && encoded.charAt(i + 2) == 'E') {
+                buf.append('~');
+                i += 2;
+            } else {
+                buf.append(focus);
+            }
+        }
+        return buf.toString();
+    }
+}
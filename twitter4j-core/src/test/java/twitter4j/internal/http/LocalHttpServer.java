@@ -0,0 +1,172 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal HTTP/1.1 server standing in for the API in tests.<br>
+ * Connections are kept alive and every request is answered by {@link #respond(String, Map, byte[], OutputStream)},
+ * which returns {"status":"ok"} unless overridden.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+class LocalHttpServer extends Thread {
+    static final String BODY = "{\"status\":\"ok\"}";
+
+    private final ServerSocket serverSocket;
+    private int acceptedCount = 0;
+    private final List<String> requestLines = new ArrayList<String>();
+    private final List<Map<String, String>> requestHeaders = new ArrayList<Map<String, String>>();
+    private final List<byte[]> requestBodies = new ArrayList<byte[]>();
+
+    LocalHttpServer() throws IOException {
+        serverSocket = new ServerSocket(0);
+        setDaemon(true);
+    }
+
+    String getURL(String path) {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort() + path;
+    }
+
+    synchronized int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    synchronized List<String> getRequestLines() {
+        return new ArrayList<String>(requestLines);
+    }
+
+    synchronized Map<String, String> getRequestHeaders(int index) {
+        return requestHeaders.get(index);
+    }
+
+    synchronized byte[] getRequestBody(int index) {
+        return requestBodies.get(index);
+    }
+
+    /**
+     * Writes the response.
+     *
+     * @param requestLine request line
+     * @param headers     request headers. names are lower-cased
+     * @param body        request body
+     * @param os          connection
+     * @return false to close the connection
+     * @throws IOException when the connection fails
+     */
+    protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+            throws IOException {
+        byte[] bytes = BODY.getBytes("UTF-8");
+        os.write(("HTTP/1.1 200 OK\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes("ISO-8859-1"));
+        os.write(bytes);
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                final Socket socket = serverSocket.accept();
+                synchronized (this) {
+                    acceptedCount++;
+                }
+                Thread handler = new Thread() {
+                    @Override
+                    public void run() {
+                        serve(socket);
+                    }
+                };
+                handler.setDaemon(true);
+                handler.start();
+            }
+        } catch (IOException closed) {
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            InputStream is = new BufferedInputStream(socket.getInputStream());
+            OutputStream os = socket.getOutputStream();
+            String requestLine;
+            while (null != (requestLine = readLine(is))) {
+                Map<String, String> headers = new HashMap<String, String>();
+                String line;
+                while (null != (line = readLine(is)) && 0 != line.length()) {
+                    int colon = line.indexOf(':');
+                    headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+                }
+                byte[] body = new byte[headers.containsKey("content-length")
+                        ? Integer.parseInt(headers.get("content-length")) : 0];
+                for (int read = 0; read < body.length; ) {
+                    int count = is.read(body, read, body.length - read);
+                    if (-1 == count) {
+                        return;
+                    }
+                    read += count;
+                }
+                synchronized (this) {
+                    requestLines.add(requestLine);
+                    requestHeaders.add(headers);
+                    requestBodies.add(body);
+                }
+                boolean keepAlive = respond(requestLine, headers, body, os);
+                os.flush();
+                if (!keepAlive) {
+                    break;
+                }
+            }
+        } catch (IOException ignore) {
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static String readLine(InputStream is) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while (-1 != (b = is.read()) && '\n' != b) {
+            if ('\r' != b) {
+                line.write(b);
+            }
+        }
+        if (-1 == b && 0 == line.size()) {
+            return null;
+        }
+        return line.toString("ISO-8859-1");
+    }
+
+    void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.TwitterException;
+import twitter4j.auth.BasicAuthorization;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class NIOHttpClientTest extends TestCase {
+    public NIOHttpClientTest(String name) {
+        super(name);
+    }
+
+    private LocalHttpServer server;
+    private final List<HttpClient> clients = new ArrayList<HttpClient>();
+
+    @Override
+    protected void tearDown() throws Exception {
+        // clients are shared per configuration
+        for (HttpClient client : clients) {
+            client.shutdown();
+        }
+        if (null != server) {
+            server.close();
+        }
+        super.tearDown();
+    }
+
+    private void start(LocalHttpServer server) {
+        this.server = server;
+        server.start();
+    }
+
+    private HttpClient newClient(ConfigurationBuilder cb) {
+        HttpClient client = HttpClientFactory.getInstance(cb.setHttpNIOEnabled(true).build());
+        clients.add(client);
+        return client;
+    }
+
+    public void testInstanceIsSharedPerConfiguration() throws Exception {
+        assertSame(newClient(new ConfigurationBuilder()), newClient(new ConfigurationBuilder()));
+        assertNotSame(newClient(new ConfigurationBuilder()), newClient(new ConfigurationBuilder().setHttpReadTimeout(500)));
+    }
+
+    public void testGetOverKeepAliveConnection() throws Exception {
+        start(new LocalHttpServer());
+        HttpClient client = newClient(new ConfigurationBuilder().setHttpConnectionPoolEnabled(true));
+        assertTrue(client instanceof NIOHttpClientImpl);
+        for (int i = 0; i < 3; i++) {
+            HttpResponse res = client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json")
+                    , new HttpParameter[]{new HttpParameter("count", i)}, null, null));
+            assertEquals(200, res.getStatusCode());
+            assertEquals("application/json", res.getResponseHeader("content-type"));
+            assertEquals("ok", res.asJSONObject().getString("status"));
+        }
+        assertEquals(1, server.getAcceptedCount());
+        assertEquals("GET /1/test.json?count=2 HTTP/1.1", server.getRequestLines().get(2));
+        assertTrue(server.getRequestHeaders(0).get("host").startsWith("127.0.0.1:"));
+        assertEquals(1, ((NIOHttpClientImpl) client).getIdleConnectionCount());
+    }
+
+    public void testConnectionCloseWithoutKeepAlive() throws Exception {
+        start(new LocalHttpServer());
+        HttpClient client = newClient(new ConfigurationBuilder());
+        for (int i = 0; i < 2; i++) {
+            assertEquals("ok", client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json")
+                    , null, null, null)).asJSONObject().getString("status"));
+        }
+        assertEquals("close", server.getRequestHeaders(0).get("connection"));
+        assertEquals(0, ((NIOHttpClientImpl) client).getIdleConnectionCount());
+    }
+
+    public void testPost() throws Exception {
+        start(new LocalHttpServer());
+        HttpClient client = newClient(new ConfigurationBuilder());
+        HttpResponse res = client.request(new HttpRequest(RequestMethod.POST, server.getURL("/1/statuses/update.json")
+                , new HttpParameter[]{new HttpParameter("status", "hello world")}, null, null));
+        assertEquals("ok", res.asJSONObject().getString("status"));
+        assertEquals("POST /1/statuses/update.json HTTP/1.1", server.getRequestLines().get(0));
+        assertEquals("application/x-www-form-urlencoded", server.getRequestHeaders(0).get("content-type"));
+        assertEquals("status=hello%20world", new String(server.getRequestBody(0), "UTF-8"));
+    }
+
+    public void testChunkedGzipResponse() throws Exception {
+        start(new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+                GZIPOutputStream gzip = new GZIPOutputStream(gzipped);
+                gzip.write(BODY.getBytes("UTF-8"));
+                gzip.close();
+                byte[] bytes = gzipped.toByteArray();
+                os.write(("HTTP/1.1 200 OK\r\n"
+                        + "Content-Encoding: gzip\r\n"
+                        + "Transfer-Encoding: chunked\r\n\r\n").getBytes("ISO-8859-1"));
+                // split into two chunks
+                int half = bytes.length / 2;
+                os.write((Integer.toHexString(half) + "\r\n").getBytes("ISO-8859-1"));
+                os.write(bytes, 0, half);
+                os.write(("\r\n" + Integer.toHexString(bytes.length - half) + ";ext=1\r\n").getBytes("ISO-8859-1"));
+                os.write(bytes, half, bytes.length - half);
+                os.write("\r\n0\r\n\r\n".getBytes("ISO-8859-1"));
+                return true;
+            }
+        });
+        NIOHttpClientImpl client = (NIOHttpClientImpl) newClient(new ConfigurationBuilder()
+                .setHttpConnectionPoolEnabled(true));
+        for (int i = 0; i < 2; i++) {
+            HttpResponse res = client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json")
+                    , null, null, null));
+            assertEquals("ok", res.asJSONObject().getString("status"));
+            // the parser stops before the last chunk, which the loop drains after disconnect() has returned
+            for (int wait = 0; wait < 100 && 0 == client.getIdleConnectionCount(); wait++) {
+                Thread.sleep(20);
+            }
+        }
+        assertEquals(1, server.getAcceptedCount());
+    }
+
+    public void testErrorStatus() throws Exception {
+        start(new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                byte[] bytes = "{\"error\":\"Not found\"}".getBytes("UTF-8");
+                os.write(("HTTP/1.1 404 Not Found\r\n"
+                        + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes("ISO-8859-1"));
+                os.write(bytes);
+                return true;
+            }
+        });
+        HttpClient client = newClient(new ConfigurationBuilder());
+        try {
+            client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json"), null, null, null));
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertEquals(404, te.getStatusCode());
+        }
+    }
+
+    public void testSlowConsumerReadsWholeStream() throws Exception {
+        final int lines = 20000;
+        start(new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                // delimited by closing the connection, as streams are
+                os.write("HTTP/1.1 200 OK\r\n\r\n".getBytes("ISO-8859-1"));
+                for (int i = 0; i < lines; i++) {
+                    os.write(("{\"id\":" + i + ",\"text\":\"0123456789012345678901234567890123456789\"}\r\n")
+                            .getBytes("UTF-8"));
+                }
+                return false;
+            }
+        });
+        HttpClient client = newClient(new ConfigurationBuilder());
+        HttpResponse res = client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/statuses/sample.json")
+                , null, null, null));
+        InputStream is = res.asStream();
+        byte[] buf = new byte[1024];
+        int count;
+        int newLines = 0;
+        int read = 0;
+        while (-1 != (count = is.read(buf))) {
+            for (int i = 0; i < count; i++) {
+                if ('\n' == buf[i]) {
+                    newLines++;
+                }
+            }
+            read += count;
+            if (0 == read % 64) {
+                // let the buffer fill up
+                Thread.sleep(1);
+            }
+        }
+        res.disconnect();
+        assertEquals(lines, newLines);
+    }
+
+    public void testAsyncRequests() throws Exception {
+        start(new LocalHttpServer());
+        NIOHttpClientImpl client = (NIOHttpClientImpl) newClient(new ConfigurationBuilder()
+                .setHttpConnectionPoolEnabled(true));
+        int requests = 50;
+        final CountDownLatch latch = new CountDownLatch(requests);
+        final AtomicInteger succeeded = new AtomicInteger();
+        for (int i = 0; i < requests; i++) {
+            client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json"), null, null, null)
+                    , new HttpResponseListener() {
+                public void httpResponseReceived(HttpResponseEvent event) {
+                    try {
+                        if (null == event.getTwitterException()
+                                && "ok".equals(event.getResponse().asJSONObject().getString("status"))) {
+                            succeeded.incrementAndGet();
+                        }
+                    } catch (Exception ignore) {
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(requests, succeeded.get());
+    }
+
+    public void testAsyncRequestIsRetried() throws Exception {
+        start(new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                if (getRequestLines().size() <= 2) {
+                    os.write("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\n\r\n".getBytes("ISO-8859-1"));
+                    return true;
+                }
+                return super.respond(requestLine, headers, body, os);
+            }
+        });
+        NIOHttpClientImpl client = (NIOHttpClientImpl) newClient(new ConfigurationBuilder()
+                .setHttpRetryCount(3).setHttpRetryIntervalSeconds(0)
+                .setHttpRetryPolicyImpl(ExponentialBackoffRetryPolicy.class.getName()));
+        assertTrue(client.getRetryPolicy() instanceof ExponentialBackoffRetryPolicy);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final HttpResponseEvent[] received = new HttpResponseEvent[1];
+        HttpRequest req = new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json"), null, null, null);
+        HttpRequestMetrics metrics = new HttpRequestMetrics(req);
+        client.request(new HttpRequest(req, metrics)
+                , new HttpResponseListener() {
+            public void httpResponseReceived(HttpResponseEvent event) {
+                received[0] = event;
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertNull(received[0].getTwitterException());
+        assertEquals("ok", received[0].getResponse().asJSONObject().getString("status"));
+        assertEquals(3, server.getRequestLines().size());
+        // timings of the last attempt are recorded into the metrics of the call
+        assertEquals(2, metrics.getRetryCount());
+        assertTrue(0 < metrics.getTimeToFirstByte());
+    }
+
+    public void testReadTimeout() throws Exception {
+        start(new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ignore) {
+                }
+                return false;
+            }
+        });
+        HttpClient client = newClient(new ConfigurationBuilder().setHttpReadTimeout(500));
+        long start = System.currentTimeMillis();
+        try {
+            client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json"), null, null, null));
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertTrue(te.getCause() instanceof java.net.SocketTimeoutException);
+        }
+        assertTrue(System.currentTimeMillis() - start < 3000);
+    }
+
+    public void testStaleKeepAliveConnectionIsRetried() throws Exception {
+        start(new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                super.respond(requestLine, headers, body, os);
+                // close without telling the client
+                return false;
+            }
+        });
+        HttpClient client = newClient(new ConfigurationBuilder().setHttpConnectionPoolEnabled(true));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/test.json")
+                    , null, null, null)).asJSONObject().getString("status"));
+        }
+        assertEquals(3, server.getAcceptedCount());
+    }
+
+    private LocalHttpServer newRedirectingServer() throws IOException {
+        return new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                if (requestLine.contains(" /1/redirect ")) {
+                    os.write(("HTTP/1.1 302 Found\r\nLocation: /1/test.json\r\nContent-Length: 5\r\n\r\nmoved")
+                            .getBytes("ISO-8859-1"));
+                    return true;
+                }
+                return super.respond(requestLine, headers, body, os);
+            }
+        };
+    }
+
+    public void testRedirectIsFollowed() throws Exception {
+        start(newRedirectingServer());
+        HttpClient client = newClient(new ConfigurationBuilder().setHttpConnectionPoolEnabled(true));
+        HttpResponse res = client.request(new HttpRequest(RequestMethod.GET, server.getURL("/1/redirect"), null
+                , new BasicAuthorization("user", "pass"), null));
+        assertEquals(200, res.getStatusCode());
+        assertEquals("ok", res.asJSONObject().getString("status"));
+        assertEquals(server.getURL("/1/test.json"), res.getURL());
+        assertEquals("GET /1/test.json HTTP/1.1", server.getRequestLines().get(1));
+        // same host
+        assertNotNull(server.getRequestHeaders(1).get("authorization"));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final HttpResponseEvent[] received = new HttpResponseEvent[1];
+        final HttpRequest req = new HttpRequest(RequestMethod.GET, server.getURL("/1/redirect"), null, null, null);
+        client.request(req, new HttpResponseListener() {
+            public void httpResponseReceived(HttpResponseEvent event) {
+                received[0] = event;
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertSame(req, received[0].getRequest());
+        assertEquals("ok", received[0].getResponse().asJSONObject().getString("status"));
+        assertEquals(4, server.getRequestLines().size());
+    }
+
+    public void testPostIsNotRedirected() throws Exception {
+        start(newRedirectingServer());
+        HttpClient client = newClient(new ConfigurationBuilder());
+        HttpResponse res = client.request(new HttpRequest(RequestMethod.POST, server.getURL("/1/redirect"), null
+                , null, null));
+        assertEquals(302, res.getStatusCode());
+        assertEquals(1, server.getRequestLines().size());
+    }
+
+    public void testResponseIsHandedToTheExecutor() throws Exception {
+        start(new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException ignore) {
+                }
+                return super.respond(requestLine, headers, body, os);
+            }
+        });
+        final HttpClientWrapper http = new HttpClientWrapper(new ConfigurationBuilder().setHttpNIOEnabled(true).build());
+        final Thread[] executor = new Thread[1];
+        final Thread[] notifiedOn = new Thread[2];
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] status = new String[1];
+        http.setHttpResponseListener(new HttpResponseListener() {
+            public void httpResponseReceived(HttpResponseEvent event) {
+                notifiedOn[0] = Thread.currentThread();
+            }
+        });
+        http.request(RequestMethod.GET, server.getURL("/1/test.json"), null, null, new Executor() {
+            public void execute(Runnable task) {
+                executor[0] = new Thread(task);
+                executor[0].start();
+            }
+        }, new HttpResponseListener() {
+            public void httpResponseReceived(HttpResponseEvent event) {
+                notifiedOn[1] = Thread.currentThread();
+                try {
+                    status[0] = event.getResponse().asJSONObject().getString("status");
+                } catch (Exception e) {
+                    status[0] = e.toString();
+                }
+                latch.countDown();
+            }
+        });
+        // returned without waiting for the response
+        assertEquals(1, latch.getCount());
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals("ok", status[0]);
+        // notified by the task handed to the executor, not by the I/O thread
+        assertSame(executor[0], notifiedOn[0]);
+        assertSame(executor[0], notifiedOn[1]);
+        assertEquals(1, server.getRequestLines().size());
+        http.shutdown();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class PooledGZIPInputStreamTest extends TestCase {
+    public PooledGZIPInputStreamTest(String name) {
+        super(name);
+    }
+
+    public void testReadsGZIPOutputStream() throws Exception {
+        for (int length : new int[]{0, 1, 100, 100000}) {
+            byte[] data = newData(length);
+            assertEquals(length, readFully(new PooledGZIPInputStream(new ByteArrayInputStream(gzip(data)))).length);
+            assertTrue(Arrays.equals(data
+                    , readFully(new PooledGZIPInputStream(new ByteArrayInputStream(gzip(data))))));
+        }
+    }
+
+    public void testOptionalHeaderFields() throws Exception {
+        byte[] data = newData(5000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // FHCRC | FEXTRA | FNAME | FCOMMENT
+        out.write(new byte[]{0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, (byte) 0xff});
+        out.write(new byte[]{3, 0, 'a', 'b', 'c'});
+        out.write("timeline.json\0".getBytes("ISO-8859-1"));
+        out.write("comment\0".getBytes("ISO-8859-1"));
+        out.write(new byte[]{0, 0});
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buf = new byte[1024];
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeInt(out, crc.getValue());
+        writeInt(out, data.length);
+        assertTrue(Arrays.equals(data
+                , readFully(new PooledGZIPInputStream(new ByteArrayInputStream(out.toByteArray())))));
+    }
+
+    public void testCorruptTrailer() throws Exception {
+        byte[] gzipped = gzip(newData(1000));
+        // flip a bit of the CRC32
+        gzipped[gzipped.length - 8] ^= 1;
+        try {
+            readFully(new PooledGZIPInputStream(new ByteArrayInputStream(gzipped)));
+            fail("expecting ZipException");
+        } catch (ZipException expected) {
+        }
+    }
+
+    public void testNotGZIPped() throws Exception {
+        try {
+            new PooledGZIPInputStream(new ByteArrayInputStream("{\"status\":\"ok\"}".getBytes("UTF-8")));
+            fail("expecting ZipException");
+        } catch (ZipException expected) {
+        }
+    }
+
+    public void testInflaterIsReused() throws Exception {
+        byte[] gzipped = gzip(newData(1000));
+        readFully(new PooledGZIPInputStream(new ByteArrayInputStream(gzipped)));
+        int pooled = PooledGZIPInputStream.getPoolSize();
+        assertTrue(0 < pooled);
+        for (int i = 0; i < 10; i++) {
+            readFully(new PooledGZIPInputStream(new ByteArrayInputStream(gzipped)));
+        }
+        assertEquals(pooled, PooledGZIPInputStream.getPoolSize());
+    }
+
+    public void testBodyLengths() throws Exception {
+        final byte[] data = newData(50000);
+        LocalHttpServer server = new LocalHttpServer() {
+            @Override
+            protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                    throws IOException {
+                byte[] bytes = requestLine.contains("gzip") ? gzip(data) : data;
+                os.write(("HTTP/1.1 200 OK\r\n"
+                        + (requestLine.contains("gzip") ? "Content-Encoding: gzip\r\n" : "")
+                        + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes("ISO-8859-1"));
+                os.write(bytes);
+                return true;
+            }
+        };
+        server.start();
+        try {
+            for (boolean nio : new boolean[]{false, true}) {
+                HttpClient client = HttpClientFactory.getInstance(new ConfigurationBuilder()
+                        .setHttpNIOEnabled(nio).build());
+                HttpResponse res = client.request(new HttpRequest(RequestMethod.GET
+                        , server.getURL("/gzip.json"), null, null, null));
+                assertEquals(new String(data, "UTF-8"), res.asString());
+                assertEquals(gzip(data).length, res.getReceivedBodyLength());
+                assertEquals(data.length, res.getDecodedBodyLength());
+
+                res = client.request(new HttpRequest(RequestMethod.GET
+                        , server.getURL("/plain.json"), null, null, null));
+                assertEquals(new String(data, "UTF-8"), res.asString());
+                assertEquals(data.length, res.getReceivedBodyLength());
+                assertEquals(data.length, res.getDecodedBodyLength());
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    private static byte[] newData(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + (i * 31 + i / 7) % 26);
+        }
+        return data;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(gzipped);
+        gzip.write(data);
+        gzip.close();
+        return gzipped.toByteArray();
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[777];
+        int count;
+        try {
+            while (-1 != (count = is.read(buf))) {
+                out.write(buf, 0, count);
+            }
+        } finally {
+            is.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeInt(OutputStream out, long value) throws IOException {
+        for (int i = 0; i < 4; i++) {
+            out.write((int) (value >> (i * 8)) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.http;
+
+import junit.framework.TestCase;
+import twitter4j.TwitterException;
+import twitter4j.auth.AccessToken;
+import twitter4j.auth.OAuthAuthorization;
+import twitter4j.conf.ConfigurationBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class RateLimitSchedulerTest extends TestCase {
+    public RateLimitSchedulerTest(String name) {
+        super(name);
+    }
+
+    private RateLimitedServer server;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new RateLimitedServer();
+        server.start();
+        // shared by all instances
+        RateLimitScheduler.getInstance().clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.close();
+        super.tearDown();
+    }
+
+    private static HttpClientWrapper newWrapper() {
+        return new HttpClientWrapper(new ConfigurationBuilder().setHttpRateLimitPacingEnabled(true).build());
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        assertNull(new HttpClientWrapper(new ConfigurationBuilder().build()).getRateLimitScheduler());
+    }
+
+    public void testRemainingBudgetIsSpreadUntilReset() throws Exception {
+        HttpClientWrapper http = newWrapper();
+        // 2 hits left for the next 4 seconds: one request every 2 seconds
+        server.setRateLimit(2, 4);
+        http.get(server.getURL("/1/test.json"));
+        // one of them can be used right away
+        assertEquals(0, http.getRateLimitScheduler().getProjectedWait(null));
+
+        long start = System.currentTimeMillis();
+        http.get(server.getURL("/1/test.json"));
+        http.get(server.getURL("/1/test.json"));
+        assertTrue(System.currentTimeMillis() - start > 1000);
+        assertEquals(3, server.getRequestLines().size());
+    }
+
+    public void testExhaustedBudgetWaitsForReset() throws Exception {
+        HttpClientWrapper http = newWrapper();
+        server.setRateLimit(0, 3);
+        http.get(server.getURL("/1/test.json"));
+        long wait = http.getRateLimitScheduler().getProjectedWait(null);
+        assertTrue(wait > 1000);
+        assertTrue(wait <= 3000);
+    }
+
+    public void testQueueLength() throws Exception {
+        final HttpClientWrapper http = newWrapper();
+        final RateLimitScheduler scheduler = http.getRateLimitScheduler();
+        server.setRateLimit(0, 3);
+        http.get(server.getURL("/1/test.json"));
+        assertEquals(0, scheduler.getQueueLength());
+
+        Thread waiting = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    http.get(server.getURL("/1/test.json"));
+                } catch (TwitterException ignore) {
+                }
+            }
+        };
+        waiting.start();
+        for (int i = 0; i < 100 && 0 == scheduler.getQueueLength(); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, scheduler.getQueueLength());
+        assertEquals(1, server.getRequestLines().size());
+        waiting.interrupt();
+        waiting.join(5000);
+        assertEquals(0, scheduler.getQueueLength());
+        assertEquals(1, server.getRequestLines().size());
+    }
+
+    public void testFeatureSpecificLimitIsPerEndpoint() throws Exception {
+        HttpClientWrapper http = newWrapper();
+        server.setFeatureRateLimit(0, 3);
+        http.get(server.getURL("/1/users/search.json?q=twitter4j"));
+        long start = System.currentTimeMillis();
+        // other endpoints are not held back by the feature specific limit
+        http.get(server.getURL("/1/test.json"));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(0, http.getRateLimitScheduler().getProjectedWait(null));
+    }
+
+    public void testBudgetIsKeyedOnTheAccount() throws Exception {
+        OAuthAuthorization oauth = new OAuthAuthorization(new ConfigurationBuilder()
+                .setOAuthConsumerKey("key").setOAuthConsumerSecret("secret").build());
+        oauth.setOAuthAccessToken(new AccessToken("1-token", "token-secret"));
+        HttpClientWrapper http = newWrapper();
+        // a different instance for the same account
+        HttpClientWrapper another = newWrapper();
+        assertSame(http.getRateLimitScheduler(), another.getRateLimitScheduler());
+        server.setRateLimit(0, 3);
+        http.get(server.getURL("/1/test.json"), oauth);
+        assertTrue(another.getRateLimitScheduler().getProjectedWait(oauth) > 1000);
+
+        OAuthAuthorization sameAccount = new OAuthAuthorization(new ConfigurationBuilder()
+                .setOAuthConsumerKey("key").setOAuthConsumerSecret("secret").build());
+        sameAccount.setOAuthAccessToken(new AccessToken("1-token", "token-secret"));
+        assertTrue(another.getRateLimitScheduler().getProjectedWait(sameAccount) > 1000);
+
+        // the bucket of the former account is kept, and the new one starts unpaced
+        oauth.setOAuthAccessToken(new AccessToken("2-token", "token-secret"));
+        assertEquals(0, http.getRateLimitScheduler().getProjectedWait(oauth));
+        assertTrue(another.getRateLimitScheduler().getProjectedWait(sameAccount) > 1000);
+    }
+
+    public void testFeatureSpecificLimitIsPerEndpointTemplate() throws Exception {
+        HttpClientWrapper http = newWrapper();
+        server.setFeatureRateLimit(2, 4);
+        http.get(server.getURL("/1/statuses/show/1.json"));
+        http.get(server.getURL("/1/statuses/show/2.json"));
+        long start = System.currentTimeMillis();
+        // the same endpoint with another id
+        http.get(server.getURL("/1/statuses/show/3.json"));
+        assertTrue(System.currentTimeMillis() - start > 1000);
+    }
+
+    private static class RateLimitedServer extends LocalHttpServer {
+        private String rateLimitHeaders = "";
+
+        RateLimitedServer() throws IOException {
+        }
+
+        synchronized void setRateLimit(int remaining, int secondsUntilReset) {
+            rateLimitHeaders = toHeaders("X-RateLimit-", remaining, secondsUntilReset);
+        }
+
+        synchronized void setFeatureRateLimit(int remaining, int secondsUntilReset) {
+            rateLimitHeaders = toHeaders("X-FeatureRateLimit-", remaining, secondsUntilReset);
+        }
+
+        private static String toHeaders(String prefix, int remaining, int secondsUntilReset) {
+            return prefix + "Limit: 150\r\n"
+                    + prefix + "Remaining: " + remaining + "\r\n"
+                    + prefix + "Reset: " + (System.currentTimeMillis() / 1000 + secondsUntilReset) + "\r\n";
+        }
+
+        @Override
+        protected boolean respond(String requestLine, Map<String, String> headers, byte[] body, OutputStream os)
+                throws IOException {
+            String rateLimitHeaders;
+            synchronized (this) {
+                rateLimitHeaders = this.rateLimitHeaders;
+            }
+            byte[] bytes = BODY.getBytes("UTF-8");
+            os.write(("HTTP/1.1 200 OK\r\n"
+                    + "Content-Type: application/json\r\n"
+                    + rateLimitHeaders
+                    + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes("ISO-8859-1"));
+            os.write(bytes);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.org.json;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class JSONReaderTest extends TestCase {
+    public JSONReaderTest(String name) {
+        super(name);
+    }
+
+    private static final String OBJECT = " {\"id\" : 6832063504, \"text\":\"a\\\"b\\u3042\\n\", \"truncated\":false,"
+            + "\"geo\":null, \"count\":-12, \"ratio\":1.5e2, \"coordinates\":[[1,2],[3,4]], \"user\":{\"id\":\"12\"}} ";
+
+    public void testReadObject() throws Exception {
+        assertObject(new JSONReader(OBJECT));
+        // the buffer is refilled within every token
+        assertObject(new JSONReader(new OneCharReader(OBJECT)));
+    }
+
+    private void assertObject(JSONReader reader) throws Exception {
+        reader.beginObject();
+        assertEquals("id", reader.nextName());
+        assertEquals(JSONReader.Token.NUMBER, reader.peek());
+        assertEquals(6832063504L, reader.nextLong());
+        assertEquals("text", reader.nextName());
+        assertEquals("a\"bあ\n", reader.nextString());
+        assertEquals("truncated", reader.nextName());
+        assertFalse(reader.nextBoolean());
+        assertEquals("geo", reader.nextName());
+        assertEquals(JSONReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        assertEquals("count", reader.nextName());
+        assertEquals(-12, reader.nextInt());
+        assertEquals("ratio", reader.nextName());
+        assertEquals(150d, reader.nextDouble());
+        assertEquals("coordinates", reader.nextName());
+        reader.skipValue();
+        assertEquals("user", reader.nextName());
+        reader.beginObject();
+        assertEquals("id", reader.nextName());
+        // quoted numbers are accepted
+        assertEquals(12, reader.nextLong());
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertEquals(JSONReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    private static final String ARRAY = "[{\"name\":\"Tokyo\",\"ids\":[1,2]},[],true,\"x\"]";
+
+    public void testNextJSONObject() throws Exception {
+        assertArray(new JSONReader(ARRAY));
+        assertArray(new JSONReader(new OneCharReader(ARRAY)));
+    }
+
+    private void assertArray(JSONReader reader) throws Exception {
+        reader.beginArray();
+        JSONObject json = reader.nextJSONObject();
+        assertEquals("Tokyo", json.getString("name"));
+        assertEquals(2, json.getJSONArray("ids").length());
+        assertEquals(0, reader.nextJSONArray().length());
+        assertEquals("true", reader.nextString());
+        assertEquals("x", reader.nextString());
+        reader.endArray();
+    }
+
+    public void testValuesLargerThanTheBuffer() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append((char) ('a' + i % 26));
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 3; i++) {
+            json.append("{\"text\":\"").append(text).append("\",\"id\":").append(i).append("},");
+        }
+        json.append("\"").append(text).append("\"]");
+
+        JSONReader reader = new JSONReader(new StringReader(json.toString()));
+        reader.beginArray();
+        reader.beginObject();
+        assertEquals("text", reader.nextName());
+        assertEquals(text.toString(), reader.nextString());
+        assertEquals("id", reader.nextName());
+        assertEquals(0, reader.nextLong());
+        reader.endObject();
+        JSONObject object = reader.nextJSONObject();
+        assertEquals(text.toString(), object.getString("text"));
+        assertEquals(1, object.getLong("id"));
+        reader.skipValue();
+        assertEquals(text.toString(), reader.nextString());
+        reader.endArray();
+        assertEquals(JSONReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    public void testMalformed() throws Exception {
+        JSONReader reader = new JSONReader("{\"id\":1 \"text\":\"a\"}");
+        reader.beginObject();
+        reader.nextName();
+        reader.nextLong();
+        try {
+            reader.nextName();
+            fail("expecting JSONException");
+        } catch (JSONException expected) {
+        }
+        reader = new JSONReader("{\"text\":\"a");
+        reader.beginObject();
+        reader.nextName();
+        try {
+            reader.nextString();
+            fail("expecting JSONException");
+        } catch (JSONException expected) {
+        }
+    }
+
+    public void testMalformedReader() throws Exception {
+        JSONReader reader = new JSONReader(new OneCharReader("{\"text\":\"a\\"));
+        reader.beginObject();
+        reader.nextName();
+        try {
+            reader.nextString();
+            fail("expecting JSONException");
+        } catch (JSONException expected) {
+        }
+    }
+
+    private static final class OneCharReader extends Reader {
+        private final String source;
+        private int pos = 0;
+
+        OneCharReader(String source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (pos == source.length()) {
+                return -1;
+            }
+            cbuf[off] = source.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
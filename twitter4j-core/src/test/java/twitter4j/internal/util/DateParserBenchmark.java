@@ -0,0 +1,69 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.internal.util;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Compares ParseUtil.getDate() with the former SimpleDateFormat based implementation.<br>
+ * Run with: java twitter4j.internal.util.DateParserBenchmark [iterations]
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class DateParserBenchmark {
+    private static final String FORMAT = "EEE MMM d HH:mm:ss z yyyy";
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        // a stream delivers several statuses per second. emulate 4 statuses sharing the same second
+        String[] dates = new String[1024];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = "Tue Mar 29 08:" + pad((i / 240) % 60) + ":" + pad((i / 4) % 60) + " +0000 2011";
+        }
+        SimpleDateFormat sdf = new SimpleDateFormat(FORMAT, Locale.ENGLISH);
+        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+        for (int round = 0; round < 3; round++) {
+            long sum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sum += sdf.parse(dates[i & 1023]).getTime();
+            }
+            long sdfNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sum -= ParseUtil.getDate(dates[i & 1023], FORMAT).getTime();
+            }
+            long parserNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sum += TwitterDateParser.parseREST(dates[i & 1023], 0, dates[i & 1023].length());
+            }
+            long uncachedNanos = System.nanoTime() - start;
+            System.out.println("SimpleDateFormat: " + sdfNanos / iterations + "ns/op"
+                    + ", ParseUtil.getDate: " + parserNanos / iterations + "ns/op"
+                    + ", TwitterDateParser.parseREST (no cache): " + uncachedNanos / iterations + "ns/op"
+                    + " (" + sum + ")");
+        }
+    }
+
+    private static String pad(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+}
@@ -18,6 +18,10 @@ package twitter4j.internal.util;
 
 import junit.framework.TestCase;
 
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
  * @since Twitter4J 2.1.5
@@ -42,4 +46,43 @@ public class ParseUtilTest extends TestCase {
     public void testParseIntOverflow() {
         assertEquals(-1, ParseUtil.getInt("4294967295"));
     }
+
+    public void testParseRESTDate() throws Exception {
+        String[] dates = {"Tue Mar 29 08:44:41 +0000 2011", "Sat May 26 14:22:56 +0000 2007",
+                "Thu Feb 29 23:59:59 -0800 2012", "Wed Jan 1 00:00:00 +0900 2020", "Fri Dec 31 23:59:59 GMT 1999",
+                "Thu Jan 01 00:00:00 +0000 1970", "Wed Dec 31 23:59:59 +0000 1969"};
+        for (String date : dates) {
+            assertEquals(date, parse(date, "EEE MMM d HH:mm:ss z yyyy"),
+                    ParseUtil.getDate(date, "EEE MMM d HH:mm:ss z yyyy").getTime());
+            // cached
+            assertEquals(date, parse(date, "EEE MMM dd HH:mm:ss z yyyy"),
+                    ParseUtil.getDate(date, "EEE MMM dd HH:mm:ss z yyyy").getTime());
+        }
+    }
+
+    public void testParseSearchDate() throws Exception {
+        String[] dates = {"Tue, 29 Mar 2011 08:44:41 +0000", "Sun, 6 Feb 2011 05:09:03 -0530", "Fri, 31 Dec 1999 23:59:59 UTC"};
+        for (String date : dates) {
+            assertEquals(date, parse(date, "EEE, dd MMM yyyy HH:mm:ss z"),
+                    ParseUtil.getDate(date, "EEE, dd MMM yyyy HH:mm:ss z").getTime());
+        }
+    }
+
+    public void testParseDateFallback() throws Exception {
+        // not supported by TwitterDateParser, parsed by SimpleDateFormat
+        String date = "Tue Mar 29 08:44:41 PST 2011";
+        assertEquals(parse(date, "EEE MMM d HH:mm:ss z yyyy"),
+                ParseUtil.getDate(date, "EEE MMM d HH:mm:ss z yyyy").getTime());
+        try {
+            ParseUtil.getDate("Tue Mar 29 08:44", "EEE MMM d HH:mm:ss z yyyy");
+            fail("expecting TwitterException");
+        } catch (twitter4j.TwitterException expected) {
+        }
+    }
+
+    private static long parse(String date, String format) throws Exception {
+        SimpleDateFormat sdf = new SimpleDateFormat(format, Locale.ENGLISH);
+        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return sdf.parse(date).getTime();
+    }
 }
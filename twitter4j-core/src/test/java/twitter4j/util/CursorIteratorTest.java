@@ -0,0 +1,235 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import junit.framework.TestCase;
+import twitter4j.IDs;
+import twitter4j.RateLimitStatus;
+import twitter4j.TwitterException;
+import twitter4j.conf.ConfigurationContext;
+import twitter4j.internal.http.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class CursorIteratorTest extends TestCase {
+    public CursorIteratorTest(String name) {
+        super(name);
+    }
+
+    private final List<Long> requestedCursors = Collections.synchronizedList(new ArrayList<Long>());
+
+    private static IDs page(final long[] ids, final long previousCursor, final long nextCursor
+            , final RateLimitStatus rateLimitStatus) {
+        return new IDs() {
+            public long[] getIDs() {
+                return ids;
+            }
+
+            public boolean hasPrevious() {
+                return 0 != previousCursor;
+            }
+
+            public long getPreviousCursor() {
+                return previousCursor;
+            }
+
+            public boolean hasNext() {
+                return 0 != nextCursor;
+            }
+
+            public long getNextCursor() {
+                return nextCursor;
+            }
+
+            public RateLimitStatus getRateLimitStatus() {
+                return rateLimitStatus;
+            }
+        };
+    }
+
+    private static RateLimitStatus rateLimitStatus(final int remainingHits, final long resetAfterMillis) {
+        final Date resetTime = new Date(System.currentTimeMillis() + resetAfterMillis);
+        return new RateLimitStatus() {
+            public int getRemainingHits() {
+                return remainingHits;
+            }
+
+            public int getHourlyLimit() {
+                return 350;
+            }
+
+            public int getResetTimeInSeconds() {
+                return (int) (resetTime.getTime() / 1000);
+            }
+
+            public int getSecondsUntilReset() {
+                return (int) (resetAfterMillis / 1000);
+            }
+
+            public Date getResetTime() {
+                return resetTime;
+            }
+        };
+    }
+
+    // three pages of ids: 0-2, 3-5 and 6-8, chained by cursors 100 and 200
+    private CursorPager<IDs> pager(final RateLimitStatus rateLimitStatus, final long failAt) {
+        return new CursorPager<IDs>() {
+            public IDs getPage(long cursor) throws TwitterException {
+                requestedCursors.add(cursor);
+                if (failAt == cursor) {
+                    throw new TwitterException("failed");
+                }
+                int index = -1 == cursor ? 0 : (int) cursor / 100;
+                long[] ids = new long[]{index * 3, index * 3 + 1, index * 3 + 2};
+                return page(ids, -1 == cursor ? 0 : cursor - 100, 2 == index ? 0 : (index + 1) * 100, rateLimitStatus);
+            }
+        };
+    }
+
+    public void testIDsIterator() throws Exception {
+        for (int depth = 0; depth < 3; depth++) {
+            requestedCursors.clear();
+            IDsIterator ids = new IDsIterator(pager(null, 0), depth);
+            for (long i = 0; i < 9; i++) {
+                assertTrue(ids.hasNext());
+                assertEquals(i, ids.next());
+            }
+            assertFalse(ids.hasNext());
+            assertEquals("[-1, 100, 200]", requestedCursors.toString());
+        }
+    }
+
+    public void testPrefetchIsBounded() throws Exception {
+        CursorIterator<IDs> pages = new CursorIterator<IDs>(pager(null, 0), 1);
+        assertEquals(0, pages.next().getIDs()[0]);
+        Thread.sleep(200);
+        // the second page is prefetched while the first one is consumed, but not the third
+        assertEquals("[-1, 100]", requestedCursors.toString());
+        assertEquals(3, pages.next().getIDs()[0]);
+        pages.close();
+        assertFalse(pages.hasNext());
+    }
+
+    public void testWaitsForRateLimitReset() throws Exception {
+        CursorIterator<IDs> pages = new CursorIterator<IDs>(pager(rateLimitStatus(0, 300), 0), 0);
+        long start = System.currentTimeMillis();
+        pages.next();
+        assertTrue(System.currentTimeMillis() - start < 250);
+        pages.next();
+        assertTrue(System.currentTimeMillis() - start >= 250);
+    }
+
+    public void testFailureEndsIteration() throws Exception {
+        CursorIterator<IDs> pages = new CursorIterator<IDs>(pager(null, 100), 2);
+        pages.next();
+        try {
+            pages.next();
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+            assertEquals("failed", expected.getMessage());
+        }
+        assertFalse(pages.hasNext());
+    }
+
+    public void testRuntimeExceptionEndsIteration() throws Exception {
+        CursorIterator<IDs> pages = new CursorIterator<IDs>(new CursorPager<IDs>() {
+            public IDs getPage(long cursor) throws TwitterException {
+                if (-1 != cursor) {
+                    throw new IllegalStateException("broken");
+                }
+                return page(new long[]{0}, 0, 100, null);
+            }
+        }, 2);
+        pages.next();
+        try {
+            pages.next();
+            fail("expecting IllegalStateException");
+        } catch (IllegalStateException expected) {
+            assertEquals("broken", expected.getMessage());
+        }
+        assertFalse(pages.hasNext());
+    }
+
+    // a 400 response carrying rate limit headers
+    private static TwitterException badRequest(final int remainingHits) {
+        return new TwitterException("bad request", new HttpResponse(ConfigurationContext.getInstance()) {
+            {
+                statusCode = 400;
+            }
+
+            @Override
+            public String getResponseHeader(String name) {
+                if ("X-RateLimit-Limit".equals(name)) {
+                    return "350";
+                } else if ("X-RateLimit-Remaining".equals(name)) {
+                    return String.valueOf(remainingHits);
+                } else if ("X-RateLimit-Reset".equals(name)) {
+                    return String.valueOf(System.currentTimeMillis() / 1000);
+                }
+                return null;
+            }
+
+            @Override
+            public Map<String, List<String>> getResponseHeaderFields() {
+                return new HashMap<String, List<String>>();
+            }
+
+            @Override
+            public void disconnect() {
+            }
+        });
+    }
+
+    private CursorPager<IDs> failingOnce(final TwitterException te) {
+        return new CursorPager<IDs>() {
+            public IDs getPage(long cursor) throws TwitterException {
+                requestedCursors.add(cursor);
+                if (1 == requestedCursors.size()) {
+                    throw te;
+                }
+                return page(new long[]{0}, 0, 0, null);
+            }
+        };
+    }
+
+    public void testBadRequestIsNotRetried() throws Exception {
+        CursorIterator<IDs> pages = new CursorIterator<IDs>(failingOnce(badRequest(349)), 0);
+        try {
+            pages.next();
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+            assertEquals(400, expected.getStatusCode());
+        }
+        assertEquals("[-1]", requestedCursors.toString());
+    }
+
+    public void testRetriesWhenHitsAreUsedUp() throws Exception {
+        CursorIterator<IDs> pages = new CursorIterator<IDs>(failingOnce(badRequest(0)), 0);
+        assertEquals(0, pages.next().getIDs()[0]);
+        assertEquals("[-1, -1]", requestedCursors.toString());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class LongSetTest extends TestCase {
+    public LongSetTest(String name) {
+        super(name);
+    }
+
+    public void testOf() throws Exception {
+        long[] source = {5, 3, 5, -1, 3, Long.MAX_VALUE};
+        LongSet set = LongSet.of(source);
+        assertEquals(4, set.size());
+        assertTrue(Arrays.equals(new long[]{-1, 3, 5, Long.MAX_VALUE}, set.toArray()));
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertFalse(set.contains(4));
+        // the source is copied
+        assertEquals(5, source[0]);
+        assertTrue(LongSet.of().isEmpty());
+        assertEquals(LongSet.of(3, 1), LongSet.of(1, 3, 3));
+    }
+
+    public void testSetOperations() throws Exception {
+        LongSet followers = LongSet.of(1, 2, 3, 4, 5);
+        LongSet friends = LongSet.of(4, 5, 6, 7);
+        assertEquals(LongSet.of(1, 2, 3, 4, 5, 6, 7), followers.union(friends));
+        assertEquals(LongSet.of(4, 5), followers.intersection(friends));
+        assertEquals(LongSet.of(1, 2, 3), followers.difference(friends));
+        assertEquals(LongSet.of(6, 7), friends.difference(followers));
+
+        assertEquals(followers, followers.union(LongSet.EMPTY));
+        assertEquals(followers, LongSet.EMPTY.union(followers));
+        assertTrue(followers.intersection(LongSet.of(10, 11)).isEmpty());
+        assertTrue(followers.difference(followers).isEmpty());
+        assertEquals(followers, followers.difference(LongSet.EMPTY));
+    }
+
+    public void testBuilder() throws Exception {
+        LongSet.Builder builder = new LongSet.Builder(2);
+        for (int i = 0; i < 10000; i++) {
+            builder.add(10000 - i);
+        }
+        builder.addAll(new long[]{1, 2, 20000});
+        LongSet set = builder.build();
+        assertEquals(10001, set.size());
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(20000));
+        assertFalse(set.contains(0));
+        long[] ids = set.toArray();
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i - 1] < ids[i]);
+        }
+        // the builder is still usable
+        assertEquals(10002, builder.add(0).build().size());
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j.util;
+
+import junit.framework.TestCase;
+import twitter4j.RateLimitStatus;
+import twitter4j.ResponseList;
+import twitter4j.TwitterException;
+import twitter4j.User;
+import twitter4j.api.UserMethods;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class UserLookupCoalescerTest extends TestCase {
+    public UserLookupCoalescerTest(String name) {
+        super(name);
+    }
+
+    private final List<long[]> lookups = Collections.synchronizedList(new ArrayList<long[]>());
+    private volatile TwitterException failure = null;
+
+    // finds every id except those divisible by 7
+    private final UserMethods users = (UserMethods) Proxy.newProxyInstance(getClass().getClassLoader()
+            , new Class[]{UserMethods.class}, new InvocationHandler() {
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!"lookupUsers".equals(method.getName()) || !(args[0] instanceof long[])) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            long[] ids = (long[]) args[0];
+            lookups.add(ids);
+            if (null != failure) {
+                throw failure;
+            }
+            assertTrue(ids.length <= 100);
+            UserList found = new UserList();
+            // users/lookup doesn't retain the order of the ids
+            for (int i = ids.length - 1; 0 <= i; i--) {
+                if (0 != ids[i] % 7) {
+                    found.add(newUser(ids[i]));
+                }
+            }
+            return found;
+        }
+    });
+
+    public void testShowUsersFromManyThreadsAreCoalesced() throws Exception {
+        final UserLookupCoalescer coalescer = new UserLookupCoalescer(users, 500);
+        int threads = 30;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        final AtomicInteger succeeded = new AtomicInteger();
+        for (int i = 1; i <= threads; i++) {
+            final long id = i * 7 + 1;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        if (id == coalescer.showUser(id).getId()) {
+                            succeeded.incrementAndGet();
+                        }
+                    } catch (TwitterException ignore) {
+                    }
+                    latch.countDown();
+                }
+            }.start();
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(threads, succeeded.get());
+        // threads starting after the window elapsed end up in another batch
+        assertTrue(lookups.size() < threads / 2);
+    }
+
+    public void testLookupUsersIsSplitIntoHundreds() throws Exception {
+        UserLookupCoalescer coalescer = new UserLookupCoalescer(users, 0);
+        long[] ids = new long[250];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        List<User> found = coalescer.lookupUsers(ids);
+        assertEquals(3, lookups.size());
+        assertEquals(100, lookups.get(0).length);
+        assertEquals(100, lookups.get(1).length);
+        assertEquals(50, lookups.get(2).length);
+        assertEquals(250 - 250 / 7, found.size());
+        // in the order requested, without the missing ones
+        assertEquals(1, found.get(0).getId());
+        assertEquals(8, found.get(6).getId());
+        assertEquals(250, found.get(found.size() - 1).getId());
+    }
+
+    public void testDuplicatedIdsAreLookedUpOnce() throws Exception {
+        UserLookupCoalescer coalescer = new UserLookupCoalescer(users, 0);
+        List<User> found = coalescer.lookupUsers(new long[]{3, 3, 5});
+        assertEquals(1, lookups.size());
+        assertEquals(2, lookups.get(0).length);
+        assertEquals(3, found.size());
+    }
+
+    public void testUserNotFound() throws Exception {
+        UserLookupCoalescer coalescer = new UserLookupCoalescer(users, 0);
+        try {
+            coalescer.showUser(14);
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertEquals(404, te.getStatusCode());
+        }
+    }
+
+    public void testFailureIsPropagatedToEveryWaiter() throws Exception {
+        failure = new TwitterException("over capacity", null, 503);
+        final UserLookupCoalescer coalescer = new UserLookupCoalescer(users, 300);
+        final AtomicInteger failed = new AtomicInteger();
+        Thread other = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    coalescer.showUser(2);
+                } catch (TwitterException te) {
+                    failed.addAndGet(te.getStatusCode());
+                }
+            }
+        };
+        other.start();
+        try {
+            coalescer.showUser(1);
+            fail("expecting TwitterException");
+        } catch (TwitterException te) {
+            assertEquals(503, te.getStatusCode());
+        }
+        other.join(5000);
+        assertEquals(503, failed.get());
+        assertEquals(1, lookups.size());
+    }
+
+    private static User newUser(final long id) {
+        return (User) Proxy.newProxyInstance(User.class.getClassLoader(), new Class[]{User.class}
+                , new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getId".equals(method.getName())) {
+                    return id;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static class UserList extends ArrayList<User> implements ResponseList<User> {
+        private static final long serialVersionUID = 3519962197957449562L;
+
+        public RateLimitStatus getRateLimitStatus() {
+            return null;
+        }
+
+        public RateLimitStatus getFeatureSpecificRateLimitStatus() {
+            return null;
+        }
+    }
+}
@@ -26,7 +26,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.GZIPInputStream;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -40,9 +39,8 @@ final class ApacheHttpClientHttpResponseImpl extends twitter4j.internal.http.Htt
         this.res = res;
         is = res.getEntity().getContent();
         statusCode = res.getStatusLine().getStatusCode();
-        if (null != is && "gzip".equals(getResponseHeader("Content-Encoding"))) {
-            // the response is gzipped
-            is = new GZIPInputStream(is);
+        if (null != is) {
+            is = decode(is, getResponseHeader("Content-Encoding"));
         }
     }
 
@@ -80,6 +78,7 @@ final class ApacheHttpClientHttpResponseImpl extends twitter4j.internal.http.Htt
      * {@inheritDoc}
      */
     public void disconnect() throws IOException {
+        released();
         if (null != res) {
             res.getEntity().consumeContent();
         }
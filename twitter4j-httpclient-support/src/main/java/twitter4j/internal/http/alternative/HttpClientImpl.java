@@ -47,6 +47,8 @@ import twitter4j.TwitterException;
 import twitter4j.internal.http.HttpClientConfiguration;
 import twitter4j.internal.http.HttpParameter;
 import twitter4j.internal.http.HttpRequest;
+import twitter4j.internal.http.HttpResponseEvent;
+import twitter4j.internal.http.HttpResponseListener;
 import twitter4j.internal.http.RequestMethod;
 import twitter4j.internal.logging.Logger;
 import twitter4j.internal.util.T4JInternalStringUtil;
@@ -162,7 +164,12 @@ public class HttpClientImpl implements twitter4j.internal.http.HttpClient {
                 commonsRequest.addHeader("Authorization", authorizationHeader);
             }
 
+            long startedAt = System.nanoTime();
             ApacheHttpClientHttpResponseImpl res = new ApacheHttpClientHttpResponseImpl(client.execute(commonsRequest), conf);
+            if (null != req.getMetrics()) {
+                // the connect time isn't told apart, and is included in the time to first byte
+                req.getMetrics().setTimings(0, System.nanoTime() - startedAt);
+            }
             if (200 != res.getStatusCode()) {
                 throw new TwitterException(res.asString(), res);
             }
@@ -172,6 +179,24 @@ public class HttpClientImpl implements twitter4j.internal.http.HttpClient {
         }
     }
 
+    /**
+     * Sends the request on the calling thread, and notifies the listener before returning.
+     *
+     * @param req      request
+     * @param listener listener
+     * @since Twitter4J 2.2.1
+     */
+    public void request(HttpRequest req, HttpResponseListener listener) {
+        twitter4j.internal.http.HttpResponse res = null;
+        TwitterException te = null;
+        try {
+            res = request(req);
+        } catch (TwitterException e) {
+            te = e;
+        }
+        listener.httpResponseReceived(new HttpResponseEvent(req, res, te));
+    }
+
     private String composeURL(HttpRequest req) {
         List<NameValuePair> params = asNameValuePairList(req);
         if (null != params) {
@@ -17,6 +17,7 @@
 package twitter4j.media;
 
 import twitter4j.TwitterException;
+import twitter4j.UploadProgressListener;
 import twitter4j.auth.OAuthAuthorization;
 import twitter4j.conf.Configuration;
 import twitter4j.internal.http.HttpClientWrapper;
@@ -53,6 +54,7 @@ abstract class AbstractImageUploadImpl implements ImageUpload {
     protected HttpParameter message = null;
     protected Map<String, String> headers = new HashMap<String, String>();
     protected HttpResponse httpResponse = null;
+    protected UploadProgressListener uploadProgressListener = null;
     protected static final Logger logger = Logger.getLogger(AbstractImageUploadImpl.class);
 
     AbstractImageUploadImpl(Configuration conf, OAuthAuthorization oauth) {
@@ -88,6 +90,10 @@ abstract class AbstractImageUploadImpl implements ImageUpload {
         return upload();
     }
 
+    public void setUploadProgressListener(UploadProgressListener listener) {
+        this.uploadProgressListener = listener;
+    }
+
     public String upload() throws TwitterException {
         if (conf.getMediaProviderParameters() != null) {
             Set<?> set = conf.getMediaProviderParameters().keySet();
@@ -111,7 +117,7 @@ abstract class AbstractImageUploadImpl implements ImageUpload {
             this.postParameter = appendHttpParameters(this.postParameter, this.appendParameter);
         }
 
-        httpResponse = client.post(uploadUrl, postParameter, headers);
+        httpResponse = client.post(uploadUrl, postParameter, headers, uploadProgressListener);
 
         String mediaUrl = postUpload();
         logger.debug("uploaded url [" + mediaUrl + "]");
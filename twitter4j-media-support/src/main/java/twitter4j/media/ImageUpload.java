@@ -17,6 +17,7 @@
 package twitter4j.media;
 
 import twitter4j.TwitterException;
+import twitter4j.UploadProgressListener;
 
 import java.io.File;
 import java.io.InputStream;
@@ -35,4 +36,12 @@ public interface ImageUpload {
     public String upload(String imageFileName, InputStream imageBody) throws TwitterException;
 
     public String upload(String imageFileName, InputStream imageBody, String message) throws TwitterException;
+
+    /**
+     * Sets a listener notified of the upload progress.
+     *
+     * @param listener listener, or null
+     * @since Twitter4J 2.2.1
+     */
+    public void setUploadProgressListener(UploadProgressListener listener);
 }
@@ -18,18 +18,24 @@ package twitter4j;
 
 import twitter4j.conf.Configuration;
 import twitter4j.internal.async.Dispatcher;
+import twitter4j.internal.async.PartitionedDispatcher;
 import twitter4j.internal.http.HttpResponse;
 import twitter4j.internal.json.DataObjectFactoryUtil;
 import twitter4j.internal.logging.Logger;
 import twitter4j.internal.org.json.JSONArray;
 import twitter4j.internal.org.json.JSONException;
 import twitter4j.internal.org.json.JSONObject;
+import twitter4j.internal.org.json.JSONReader;
+import twitter4j.internal.org.json.JSONTokener;
 import twitter4j.json.JSONObjectType;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 
 /**
  * @author Yusuke Yamamoto - yusuke at mac.com
@@ -39,17 +45,20 @@ abstract class AbstractStreamImplementation {
     protected static final Logger logger = Logger.getLogger(StatusStreamImpl.class);
 
     private boolean streamAlive = true;
-    private BufferedReader br;
+    private StreamLineReader reader;
     private InputStream is;
     private HttpResponse response;
     protected final Dispatcher dispatcher;
     private final Configuration CONF;
+    // used by the thread reading the stream only
+    private final CharsetDecoder decoder = Charset.forName("UTF-8").newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
 
     /*package*/
 
     AbstractStreamImplementation(Dispatcher dispatcher, InputStream stream, Configuration conf) throws IOException {
         this.is = stream;
-        this.br = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        this.reader = new StreamLineReader(stream);
         this.dispatcher = dispatcher;
         this.CONF = conf;
     }
@@ -64,35 +73,85 @@ abstract class AbstractStreamImplementation {
         return line;
     }
 
+    /**
+     * Returns the key used to route the line when the dispatcher is a PartitionedDispatcher.
+     * Lines sharing the same key are delivered to listeners in the order they were received.
+     *
+     * @param line raw line
+     * @return routing key, or -1 if the line can be dispatched in any order
+     */
+    protected long getRoutingKey(CharSequence line) {
+        return StreamRoutingKey.extract(line);
+    }
+
     abstract class StreamEvent implements Runnable {
-        String line;
+        // the decoded message
+        final char[] message;
+        final int length;
 
-        StreamEvent(String line) {
-            this.line = line;
+        StreamEvent(char[] message, int length) {
+            this.message = message;
+            this.length = length;
         }
     }
 
     abstract void next(StreamListener[] listeners) throws TwitterException;
 
     protected void handleNextElement() throws TwitterException {
+        handleNextElement(NO_RAW_LISTENERS, true);
+    }
+
+    static final RawStreamListener[] NO_RAW_LISTENERS = new RawStreamListener[0];
+
+    /**
+     * Reads the next message, passes its bytes to the raw listeners and then parses and dispatches it.
+     *
+     * @param rawListeners listeners receiving the message undecoded
+     * @param dispatch     false not to decode nor parse the message, when there is no other listener
+     * @throws TwitterException when the end of the stream has been reached
+     */
+    protected void handleNextElement(RawStreamListener[] rawListeners, boolean dispatch) throws TwitterException {
         if (!streamAlive) {
             throw new IllegalStateException("Stream already closed.");
         }
         try {
-            String line = br.readLine();
-            if (null == line) {
+            if (!reader.next()) {
                 //invalidate this status stream
                 throw new IOException("the end of the stream has been reached");
             }
-            dispatcher.invokeLater(new StreamEvent(line) {
+            if (0 < reader.getLength()) {
+                for (RawStreamListener listener : rawListeners) {
+                    try {
+                        listener.onMessage(reader.getBuffer(), reader.getOffset(), reader.getLength());
+                    } catch (Exception e) {
+                        listener.onException(e);
+                    }
+                }
+            }
+            if (!dispatch) {
+                return;
+            }
+            final CharBuffer decoded = decode(reader.getBuffer(), reader.getOffset(), reader.getLength());
+            StreamEvent event = new StreamEvent(decoded.array(), decoded.position()) {
                 public void run() {
-                    line = parseLine(line);
+                    if (0 < length && parsesStatusesDirectly() && isStatus(message, length)) {
+                        // statuses are the bulk of the stream. they are read from the message without building a JSONObject
+                        try {
+                            onStatus(new StatusJSONImpl(new JSONReader(message, length)));
+                        } catch (Exception ex) {
+                            onException(ex);
+                        }
+                        return;
+                    }
+                    String line = parseLine(new String(message, 0, length));
                     if (line.length() > 0) {
                         try {
                             if (CONF.isJSONStoreEnabled()) {
                                 DataObjectFactoryUtil.clearThreadLocalMap();
                             }
-                            JSONObject json = new JSONObject(line);
+                            // the source is kept only to capture the message as it was received
+                            JSONObject json = new JSONObject(new JSONTokener(line
+                                    , CONF.isJSONStoreEnabled() && CONF.isJSONCaptureEnabled()));
                             JSONObjectType jsonObjectType = JSONObjectType.determine(json);
                             if (logger.isDebugEnabled()) {
                                 logger.debug("Received:", CONF.isPrettyDebugEnabled() ? json.toString(1) : json.toString());
@@ -150,8 +209,16 @@ abstract class AbstractStreamImplementation {
                         }
                     }
                 }
-            });
-
+            };
+            if (dispatcher instanceof PartitionedDispatcher) {
+                decoded.flip();
+                long key = getRoutingKey(decoded);
+                if (-1 != key) {
+                    ((PartitionedDispatcher) dispatcher).invokeLater(key, event);
+                    return;
+                }
+            }
+            dispatcher.invokeLater(event);
         } catch (IOException ioe) {
             try {
                 is.close();
@@ -165,6 +232,60 @@ abstract class AbstractStreamImplementation {
         }
     }
 
+    /**
+     * Decodes the message into a new array, so that it survives the next message being read into the buffer.
+     * Malformed input is replaced, as new String(byte[], "UTF-8") does. UTF-8 never decodes into more chars than
+     * bytes, so the array can't overflow.
+     *
+     * @return decoded message, from the start of the array up to the position
+     */
+    private CharBuffer decode(byte[] buf, int offset, int length) {
+        CharBuffer decoded = CharBuffer.allocate(length);
+        decoder.reset();
+        decoder.decode(ByteBuffer.wrap(buf, offset, length), decoded, true);
+        decoder.flush(decoded);
+        return decoded;
+    }
+
+    /**
+     * @return true unless the messages are kept as JSON, parsed lazily or logged, which needs a JSONObject
+     */
+    private boolean parsesStatusesDirectly() {
+        return !CONF.isJSONStoreEnabled() && !CONF.isLazyParsingEnabled() && !logger.isDebugEnabled();
+    }
+
+    /**
+     * Tells whether the message is a status, as {@link JSONObjectType#determine(JSONObject)} would, by reading the
+     * names of its members only.
+     *
+     * @return false if the message is not a status, or is malformed
+     */
+    private static boolean isStatus(char[] message, int length) {
+        JSONReader reader = new JSONReader(message, length);
+        boolean text = false;
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                boolean isNull = JSONReader.Token.NULL == reader.peek();
+                if ("sender".equals(name) && !isNull) {
+                    return false;
+                } else if ("text".equals(name) && !isNull) {
+                    text = true;
+                }
+                reader.skipValue();
+            }
+            return text;
+        } catch (JSONException malformed) {
+            // reported when the message is parsed into a JSONObject
+            return false;
+        }
+    }
+
+    protected void onStatus(Status status) throws TwitterException {
+        logger.warn("Unhandled event: onStatus");
+    }
+
     protected void onSender(JSONObject json) throws TwitterException {
         logger.warn("Unhandled event: onSender");
     }
@@ -260,16 +381,15 @@ abstract class AbstractStreamImplementation {
     public void close() throws IOException {
         streamAlive = false;
         is.close();
-        br.close();
         if (null != response) {
             response.disconnect();
         }
     }
 
     protected Status asStatus(JSONObject json) throws TwitterException {
-        Status status = new StatusJSONImpl(json);
+        Status status = new StatusJSONImpl(json, CONF);
         if (CONF.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(status, json);
+            DataObjectFactoryUtil.registerJSONObject(status, json, CONF);
         }
         return status;
     }
@@ -282,7 +402,7 @@ abstract class AbstractStreamImplementation {
             throw new TwitterException(e);
         }
         if (CONF.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(directMessage, json);
+            DataObjectFactoryUtil.registerJSONObject(directMessage, json, CONF);
         }
         return directMessage;
     }
@@ -302,9 +422,9 @@ abstract class AbstractStreamImplementation {
     }
 
     protected User asUser(JSONObject json) throws TwitterException {
-        User user = new UserJSONImpl(json);
+        User user = new UserJSONImpl(json, CONF);
         if (CONF.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(user, json);
+            DataObjectFactoryUtil.registerJSONObject(user, json, CONF);
         }
         return user;
     }
@@ -312,7 +432,7 @@ abstract class AbstractStreamImplementation {
     protected UserList asUserList(JSONObject json) throws TwitterException {
         UserList userList = new UserListJSONImpl(json);
         if (CONF.isJSONStoreEnabled()) {
-            DataObjectFactoryUtil.registerJSONObject(userList, json);
+            DataObjectFactoryUtil.registerJSONObject(userList, json, CONF);
         }
         return userList;
     }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * Keeps an {@link EntityCache} up to date with a user stream.<br>
+ * Users updating their profile are stored in the cache, and deleted statuses are removed from it.<br>
+ * e.g. twitterStream.addListener(new EntityCacheInvalidator(twitter.getEntityCache()));
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class EntityCacheInvalidator extends UserStreamAdapter {
+    private final EntityCache cache;
+
+    /**
+     * @param cache cache to be invalidated
+     */
+    public EntityCacheInvalidator(EntityCache cache) {
+        if (null == cache) {
+            throw new NullPointerException("cache is null. set entityCacheEnabled to true");
+        }
+        this.cache = cache;
+    }
+
+    @Override
+    public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+        cache.invalidateStatus(statusDeletionNotice.getStatusId());
+    }
+
+    @Override
+    public void onUserProfileUpdate(User updatedUser) {
+        cache.put(updatedUser);
+    }
+}
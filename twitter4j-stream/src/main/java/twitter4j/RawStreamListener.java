@@ -0,0 +1,40 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * Receives stream messages as they are read off the connection, before they are decoded or parsed.<br>
+ * When only RawStreamListeners are registered, no Status or other data object is constructed at all.
+ * Raw listeners can be combined with StatusListeners on sample, filter, firehose, links and retweet streams.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see TwitterStream#addListener(RawStreamListener)
+ * @see SegmentFileAppender
+ * @since Twitter4J 2.2.1
+ */
+public interface RawStreamListener extends StreamListener {
+    /**
+     * Called on the stream consumer thread with each message, keep-alive newlines excluded.<br>
+     * The buffer is reused for subsequent messages, so the bytes have to be copied or written out before returning.
+     * Exceptions thrown from this method are passed to {@link #onException(Exception)}.
+     *
+     * @param message buffer holding the message encoded in UTF-8, without the line terminator
+     * @param offset  offset of the message in the buffer
+     * @param length  length of the message in bytes
+     */
+    void onMessage(byte[] message, int offset, int length);
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.internal.logging.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A RawStreamListener archiving stream messages to rotated segment files.<br>
+ * Each message is written as a record consisting of its length (4 bytes), the time it was received in milliseconds (8 bytes), both big-endian,
+ * followed by the message itself in UTF-8. Segment files are named [prefix]-[sequence].seg and a new segment is started
+ * when the current one would exceed the maximum segment size. Sequence numbers continue from the segments already in the directory.<br>
+ * Records are buffered and written through a FileChannel which is forced to the disk every syncInterval messages or
+ * syncIntervalMillis milliseconds, whichever comes first, as well as on rotation and on close. A crash loses at most the
+ * messages received since the last sync and may leave a truncated record at the end of the last segment.<br>
+ * Failures writing a segment are passed to {@link #onException(Exception)} and the next message is written to a new segment.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see TwitterStream#addListener(RawStreamListener)
+ * @since Twitter4J 2.2.1
+ */
+public class SegmentFileAppender implements RawStreamListener {
+    private static final Logger logger = Logger.getLogger(SegmentFileAppender.class);
+    static final String SUFFIX = ".seg";
+    static final int RECORD_HEADER_SIZE = 12;
+    private static final long DEFAULT_MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_SYNC_INTERVAL = 1000;
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File directory;
+    private final String prefix;
+    private final long maxSegmentSize;
+    private final int syncInterval;
+    private final long syncIntervalMillis;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private long sequence;
+    private File segment = null;
+    private FileChannel channel = null;
+    private long segmentSize;
+    private int unsyncedCount = 0;
+    private long lastSync;
+    private boolean closed = false;
+
+    /**
+     * Creates an appender with 64MB segments, synced every 1000 messages or every second.
+     *
+     * @param directory directory to write the segments to. created if it doesn't exist
+     * @param prefix    prefix of the segment file names
+     * @throws IOException when the directory can't be created
+     */
+    public SegmentFileAppender(File directory, String prefix) throws IOException {
+        this(directory, prefix, DEFAULT_MAX_SEGMENT_SIZE, DEFAULT_SYNC_INTERVAL, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param directory          directory to write the segments to. created if it doesn't exist
+     * @param prefix             prefix of the segment file names
+     * @param maxSegmentSize     maximum size of a segment in bytes. a message larger than this gets a segment of its own
+     * @param syncInterval       number of messages written between syncs
+     * @param syncIntervalMillis maximum interval between syncs in milliseconds, checked as messages arrive
+     * @throws IOException when the directory can't be created
+     */
+    public SegmentFileAppender(File directory, String prefix, long maxSegmentSize, int syncInterval
+            , long syncIntervalMillis) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create directory: " + directory);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.maxSegmentSize = maxSegmentSize;
+        this.syncInterval = syncInterval;
+        this.syncIntervalMillis = syncIntervalMillis;
+        File[] segments = listSegments(directory, prefix);
+        this.sequence = 0 == segments.length ? 1 : getSequence(segments[segments.length - 1], prefix) + 1;
+        this.lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized void onMessage(byte[] message, int offset, int length) {
+        if (closed) {
+            throw new IllegalStateException("Appender already closed.");
+        }
+        try {
+            append(message, offset, length, System.currentTimeMillis());
+        } catch (IOException ioe) {
+            logger.warn("Failed to write to " + segment + ": ", ioe.getMessage());
+            // start over with a new segment, leaving the truncated record at the end of this one
+            buffer.clear();
+            closeSegmentQuietly();
+            onException(ioe);
+        }
+    }
+
+    private void append(byte[] message, int offset, int length, long receivedAt) throws IOException {
+        int recordSize = RECORD_HEADER_SIZE + length;
+        if (null == channel || (0 < segmentSize && maxSegmentSize < segmentSize + recordSize)) {
+            rotate();
+        }
+        if (buffer.remaining() < RECORD_HEADER_SIZE) {
+            flushBuffer();
+        }
+        buffer.putInt(length);
+        buffer.putLong(receivedAt);
+        if (length <= buffer.remaining()) {
+            buffer.put(message, offset, length);
+        } else {
+            flushBuffer();
+            if (length <= buffer.remaining()) {
+                buffer.put(message, offset, length);
+            } else {
+                write(ByteBuffer.wrap(message, offset, length));
+            }
+        }
+        segmentSize += recordSize;
+        if (syncInterval <= ++unsyncedCount || syncIntervalMillis <= receivedAt - lastSync) {
+            sync();
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (null != channel) {
+            sync();
+            channel.close();
+            channel = null;
+        }
+        segment = new File(directory, prefix + "-" + format(sequence++) + SUFFIX);
+        channel = new FileOutputStream(segment).getChannel();
+        segmentSize = 0;
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    private void sync() throws IOException {
+        flushBuffer();
+        channel.force(false);
+        unsyncedCount = 0;
+        lastSync = System.currentTimeMillis();
+    }
+
+    private void closeSegmentQuietly() {
+        if (null != channel) {
+            try {
+                channel.close();
+            } catch (IOException ignore) {
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Writes buffered messages out and forces them to the disk.
+     *
+     * @throws IOException when the segment can't be written
+     */
+    public synchronized void flush() throws IOException {
+        if (null != channel) {
+            sync();
+        }
+    }
+
+    /**
+     * Flushes and closes the current segment. Messages received afterwards are rejected.
+     *
+     * @throws IOException when the segment can't be written
+     */
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (null != channel) {
+            try {
+                sync();
+            } finally {
+                closeSegmentQuietly();
+            }
+        }
+    }
+
+    /**
+     * @return the segment being written, or null if no message has been written yet
+     */
+    public synchronized File getCurrentSegment() {
+        return segment;
+    }
+
+    /**
+     * Called with errors occurred on the stream and with failures writing the segments. Does nothing by default.
+     *
+     * @param ex exception
+     */
+    public void onException(Exception ex) {
+    }
+
+    /**
+     * @return segments in the directory with the prefix, in the order they were written
+     */
+    static File[] listSegments(File directory, final String prefix) {
+        File[] segments = directory.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return -1 != getSequence(name, prefix);
+            }
+        });
+        if (null == segments) {
+            return new File[0];
+        }
+        Arrays.sort(segments, new Comparator<File>() {
+            public int compare(File f1, File f2) {
+                long s1 = getSequence(f1, prefix);
+                long s2 = getSequence(f2, prefix);
+                return s1 < s2 ? -1 : (s1 == s2 ? 0 : 1);
+            }
+        });
+        return segments;
+    }
+
+    private static long getSequence(File segment, String prefix) {
+        return getSequence(segment.getName(), prefix);
+    }
+
+    private static long getSequence(String name, String prefix) {
+        if (!name.startsWith(prefix + "-") || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length() + 1, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException nfe) {
+            return -1;
+        }
+    }
+
+    private static String format(long sequence) {
+        StringBuilder buf = new StringBuilder(String.valueOf(sequence));
+        while (buf.length() < 10) {
+            buf.insert(0, '0');
+        }
+        return buf.toString();
+    }
+}
@@ -63,6 +63,20 @@ class SiteStreamsImpl extends AbstractStreamImplementation implements StreamImpl
         }
     }
 
+    @Override
+    protected long getRoutingKey(CharSequence line) {
+        if (line.length() <= 13) {
+            return -1;
+        }
+        // same layout as parseLine(): {"for_user":123,... or {"for_user":"123",...
+        int index = line.charAt(12) == '"' ? 13 : 12;
+        long forUserId = 0;
+        for (char c; index < line.length() && '0' <= (c = line.charAt(index)) && c <= '9'; index++) {
+            forUserId = forUserId * 10 + (c - '0');
+        }
+        return forUserId;
+    }
+
     private static ThreadLocal<Integer> forUser =
             new ThreadLocal<Integer>() {
                 @Override
@@ -25,6 +25,8 @@ import twitter4j.internal.util.ParseUtil;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * StatusStream implementation. This class is NOT intended to be extended but left non-final for the ease of mock testing.
@@ -48,6 +50,10 @@ class StatusStreamImpl extends AbstractStreamImplementation implements StatusStr
 
     protected StreamListener[] listeners;
 
+    // listeners passed to the last next(StreamListener[]) call, split into raw and the other listeners
+    private StreamListener[] allListeners;
+    private RawStreamListener[] rawListeners = NO_RAW_LISTENERS;
+
     /**
      * Reads next status from this stream.
      *
@@ -59,12 +65,28 @@ class StatusStreamImpl extends AbstractStreamImplementation implements StatusStr
         StreamListener[] list = new StreamListener[1];
         list[0] = listener;
         this.listeners = list;
+        this.allListeners = null;
+        this.rawListeners = NO_RAW_LISTENERS;
         handleNextElement();
     }
 
     public void next(StreamListener[] listeners) throws TwitterException {
-        this.listeners = listeners;
-        handleNextElement();
+        if (listeners != allListeners) {
+            // TwitterStreamImpl replaces the array when a listener is added, so this is done only once per change
+            List<RawStreamListener> raw = new ArrayList<RawStreamListener>();
+            List<StreamListener> others = new ArrayList<StreamListener>();
+            for (StreamListener listener : listeners) {
+                if (listener instanceof RawStreamListener) {
+                    raw.add((RawStreamListener) listener);
+                } else {
+                    others.add(listener);
+                }
+            }
+            this.rawListeners = raw.toArray(new RawStreamListener[raw.size()]);
+            this.listeners = others.toArray(new StreamListener[others.size()]);
+            this.allListeners = listeners;
+        }
+        handleNextElement(rawListeners, 0 != this.listeners.length);
     }
 
     protected String parseLine(String line) {
@@ -79,6 +101,13 @@ class StatusStreamImpl extends AbstractStreamImplementation implements StatusStr
         }
     }
 
+    @Override
+    protected void onStatus(Status status) throws TwitterException {
+        for (StreamListener listener : listeners) {
+            ((StatusListener) listener).onStatus(status);
+        }
+    }
+
     @Override
     protected void onDelete(JSONObject json) throws TwitterException, JSONException {
         for (StreamListener listener : listeners) {
@@ -115,5 +144,8 @@ class StatusStreamImpl extends AbstractStreamImplementation implements StatusStr
         for (StreamListener listener : listeners) {
             listener.onException(e);
         }
+        for (RawStreamListener listener : rawListeners) {
+            listener.onException(e);
+        }
     }
 }
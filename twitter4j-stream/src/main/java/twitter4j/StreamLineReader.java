@@ -0,0 +1,197 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Frames stream messages directly in a reusable byte buffer.<br>
+ * Both newline delimited messages and length delimited messages (delimited=length) are supported:
+ * a line consisting of digits only is taken as the byte length of the message which follows it.<br>
+ * Unlike BufferedReader.readLine(), bytes are decoded only once, straight from the buffer into the resulting String.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class StreamLineReader {
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final InputStream is;
+    private byte[] buf;
+    private int position = 0;
+    private int limit = 0;
+    // the last message framed by next()
+    private int messageOffset;
+    private int messageLength;
+
+    StreamLineReader(InputStream is) {
+        this(is, INITIAL_BUFFER_SIZE);
+    }
+
+    StreamLineReader(InputStream is, int initialBufferSize) {
+        this.is = is;
+        this.buf = new byte[initialBufferSize];
+    }
+
+    /**
+     * Reads the next message.
+     *
+     * @return the next message without line terminator, or null if the end of the stream has been reached
+     * @throws IOException when the underlying stream fails
+     */
+    String readLine() throws IOException {
+        if (!next()) {
+            return null;
+        }
+        return new String(buf, messageOffset, messageLength, "UTF-8");
+    }
+
+    /**
+     * Frames the next message. The message stays available via {@link #getBuffer()}, {@link #getOffset()} and
+     * {@link #getLength()} until next() is called again.
+     *
+     * @return false if the end of the stream has been reached
+     * @throws IOException when the underlying stream fails
+     */
+    boolean next() throws IOException {
+        if (!nextLine()) {
+            return false;
+        }
+        int length = parseLength();
+        if (-1 != length) {
+            // length delimited: the message is exactly the next "length" bytes
+            if (!fill(length)) {
+                return false;
+            }
+            messageOffset = position;
+            messageLength = length;
+            position += length;
+            trimLineTerminator();
+        }
+        return true;
+    }
+
+    byte[] getBuffer() {
+        return buf;
+    }
+
+    int getOffset() {
+        return messageOffset;
+    }
+
+    int getLength() {
+        return messageLength;
+    }
+
+    private boolean nextLine() throws IOException {
+        int scanned = position;
+        for (; ;) {
+            for (int i = scanned; i < limit; i++) {
+                if ('\n' == buf[i]) {
+                    messageOffset = position;
+                    messageLength = i - position;
+                    position = i + 1;
+                    trimLineTerminator();
+                    return true;
+                }
+            }
+            scanned = limit - position;
+            if (!readMore()) {
+                if (position == limit) {
+                    return false;
+                }
+                // the last line isn't terminated
+                messageOffset = position;
+                messageLength = limit - position;
+                position = limit;
+                return true;
+            }
+            scanned += position;
+        }
+    }
+
+    private void trimLineTerminator() {
+        while (0 < messageLength && ('\r' == buf[messageOffset + messageLength - 1]
+                || '\n' == buf[messageOffset + messageLength - 1])) {
+            messageLength--;
+        }
+    }
+
+    private int parseLength() {
+        if (0 == messageLength || 9 < messageLength) {
+            return -1;
+        }
+        int length = 0;
+        for (int i = messageOffset; i < messageOffset + messageLength; i++) {
+            byte b = buf[i];
+            if (b < '0' || '9' < b) {
+                return -1;
+            }
+            length = length * 10 + (b - '0');
+        }
+        return length;
+    }
+
+    /**
+     * Makes sure that at least "length" unread bytes are in the buffer.
+     */
+    private boolean fill(int length) throws IOException {
+        while (limit - position < length) {
+            if (!readMore(length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readMore() throws IOException {
+        return readMore(0);
+    }
+
+    /**
+     * Reads more bytes from the stream, moving unread bytes to the head of the buffer and growing it as needed.
+     * Note that offsets into the buffer are invalidated.
+     */
+    private boolean readMore(int required) throws IOException {
+        int unread = limit - position;
+        if (limit == buf.length) {
+            if (0 < position) {
+                System.arraycopy(buf, position, buf, 0, unread);
+            } else {
+                byte[] newBuf = new byte[Math.max(buf.length * 2, required)];
+                System.arraycopy(buf, 0, newBuf, 0, unread);
+                buf = newBuf;
+            }
+            position = 0;
+            limit = unread;
+        }
+        if (buf.length < required) {
+            byte[] newBuf = new byte[required];
+            System.arraycopy(buf, position, newBuf, 0, unread);
+            buf = newBuf;
+            position = 0;
+            limit = unread;
+        }
+        int count = is.read(buf, limit, buf.length - limit);
+        if (-1 == count) {
+            return false;
+        }
+        limit += count;
+        return true;
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import twitter4j.conf.Configuration;
+import twitter4j.conf.ConfigurationContext;
+import twitter4j.internal.async.Dispatcher;
+import twitter4j.internal.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Replays archived streams through the same code path as live streams, for testing and backfilling listeners.<br>
+ * Accepts segment files written by {@link SegmentFileAppender} (*.seg) and newline delimited files holding one message per line.
+ * Files are read through memory-mapped I/O and listeners are called on the thread invoking replay(), one message after another.<br>
+ * By default messages are replayed as fast as the listener consumes them. With {@link #setOriginalPacing(boolean)}
+ * messages from segment files are delivered at the intervals they were received at. Newline delimited files carry no
+ * timestamps and are always replayed at full speed.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @see SegmentFileAppender
+ * @since Twitter4J 2.2.1
+ */
+public class StreamReplay {
+    private static final Logger logger = Logger.getLogger(StreamReplay.class);
+    private static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private final Configuration conf;
+    private final File[] files;
+    private final int windowSize;
+    private boolean originalPacing = false;
+    private long messageCount = 0;
+    private long elapsedNanos = 0;
+
+    /**
+     * @param files segment files and / or newline delimited files to be replayed in order
+     */
+    public StreamReplay(File... files) {
+        this(ConfigurationContext.getInstance(), files);
+    }
+
+    /**
+     * @param conf  configuration used to parse messages, e.g. whether raw JSON forms are stored
+     * @param files segment files and / or newline delimited files to be replayed in order
+     */
+    public StreamReplay(Configuration conf, File... files) {
+        this(conf, files, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Replays the segments {@link SegmentFileAppender} wrote to the directory with the prefix.
+     *
+     * @param directory directory holding the segments
+     * @param prefix    prefix of the segment file names
+     */
+    public StreamReplay(File directory, String prefix) {
+        this(ConfigurationContext.getInstance(), SegmentFileAppender.listSegments(directory, prefix));
+    }
+
+    /*package*/ StreamReplay(Configuration conf, File[] files, int windowSize) {
+        this.conf = conf;
+        this.files = files.clone();
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * @param originalPacing true to deliver messages from segment files at the intervals they were received at
+     */
+    public void setOriginalPacing(boolean originalPacing) {
+        this.originalPacing = originalPacing;
+    }
+
+    /**
+     * Replays statuses, deletion notices, limitation notices and scrub_geo messages.
+     *
+     * @param listener listener to be called
+     * @return number of messages replayed
+     * @throws IOException when the files can't be read
+     */
+    public long replay(StatusListener listener) throws IOException {
+        ReplayInputStream is = new ReplayInputStream();
+        return replay(new StatusStreamImpl(SYNCHRONOUS_DISPATCHER, is, conf), is, listener);
+    }
+
+    /**
+     * Replays user stream messages, including events like favorites and follows.
+     *
+     * @param listener listener to be called
+     * @return number of messages replayed
+     * @throws IOException when the files can't be read
+     */
+    public long replay(UserStreamListener listener) throws IOException {
+        ReplayInputStream is = new ReplayInputStream();
+        return replay(new UserStreamImpl(SYNCHRONOUS_DISPATCHER, is, conf), is, listener);
+    }
+
+    /**
+     * Replays site stream messages.
+     *
+     * @param listener listener to be called
+     * @return number of messages replayed
+     * @throws IOException when the files can't be read
+     */
+    public long replay(SiteStreamsListener listener) throws IOException {
+        ReplayInputStream is = new ReplayInputStream();
+        return replay(new SiteStreamsImpl(SYNCHRONOUS_DISPATCHER, is, conf), is, listener);
+    }
+
+    private long replay(StreamImplementation stream, ReplayInputStream is, StreamListener listener) throws IOException {
+        StreamListener[] listeners = new StreamListener[]{listener};
+        long count = 0;
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                stream.next(listeners);
+                count++;
+            }
+        } catch (TwitterException endOfStream) {
+            // thrown once the input is exhausted or fails
+        } finally {
+            stream.close();
+        }
+        messageCount = count;
+        elapsedNanos = System.nanoTime() - start;
+        if (null != is.failure) {
+            throw is.failure;
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Replayed " + count + " messages in " + (elapsedNanos / 1000000) + "ms: "
+                    , (long) getMessagesPerSecond() + " messages/sec");
+        }
+        return count;
+    }
+
+    /**
+     * @return number of messages delivered by the last replay. blank lines in newline delimited files are counted as well
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * @return time the last replay took in milliseconds
+     */
+    public long getElapsedTime() {
+        return elapsedNanos / 1000000;
+    }
+
+    /**
+     * @return throughput of the last replay
+     */
+    public double getMessagesPerSecond() {
+        return 0 == elapsedNanos ? 0 : messageCount * 1000000000d / elapsedNanos;
+    }
+
+    // runs the listeners on the replaying thread so that throughput reflects the listener and messages stay in order
+    private static final Dispatcher SYNCHRONOUS_DISPATCHER = new Dispatcher() {
+        public void invokeLater(Runnable task) {
+            task.run();
+        }
+
+        public void shutdown() {
+        }
+    };
+
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final byte[] NEWLINE = new byte[]{'\n'};
+
+    /**
+     * Concatenates the files into a single stream.<br>
+     * Records from segment files are framed as length delimited messages, which StreamLineReader takes as they are,
+     * and newline delimited files are passed through.
+     */
+    private class ReplayInputStream extends InputStream {
+        private int fileIndex = 0;
+        private MappedFile current = null;
+        private boolean segment;
+        // framing to be sent before the rest of the record
+        private byte[] pending = NO_BYTES;
+        private int pendingPosition = 0;
+        private long recordRemaining = 0;
+        private long firstReceivedAt = -1;
+        private long startNanos;
+        IOException failure = null;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return -1 == read(b, 0, 1) ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                while (true) {
+                    if (pendingPosition < pending.length) {
+                        int count = Math.min(len, pending.length - pendingPosition);
+                        System.arraycopy(pending, pendingPosition, b, off, count);
+                        pendingPosition += count;
+                        return count;
+                    }
+                    if (0 < recordRemaining) {
+                        int count = current.read(b, off, (int) Math.min(len, recordRemaining));
+                        recordRemaining -= count;
+                        return count;
+                    }
+                    if (!nextRecord()) {
+                        return -1;
+                    }
+                }
+            } catch (IOException ioe) {
+                failure = ioe;
+                throw ioe;
+            }
+        }
+
+        private boolean nextRecord() throws IOException {
+            while (true) {
+                if (null == current) {
+                    if (fileIndex == files.length) {
+                        return false;
+                    }
+                    File file = files[fileIndex++];
+                    current = new MappedFile(file, windowSize);
+                    segment = file.getName().endsWith(SegmentFileAppender.SUFFIX);
+                    if (!segment) {
+                        // the whole file goes through as is
+                        setRecord(NO_BYTES, current.remaining());
+                        return true;
+                    }
+                }
+                if (!segment) {
+                    // make sure the last line of the file is terminated
+                    close(current);
+                    setRecord(NEWLINE, 0);
+                    return true;
+                }
+                long remaining = current.remaining();
+                if (0 == remaining) {
+                    close(current);
+                    continue;
+                }
+                if (remaining < SegmentFileAppender.RECORD_HEADER_SIZE) {
+                    logger.warn("Skipping truncated record at the end of ", current.file.toString());
+                    close(current);
+                    continue;
+                }
+                int length = (int) current.readNumber(4);
+                long receivedAt = current.readNumber(8);
+                if (length < 0 || current.remaining() < length) {
+                    logger.warn("Skipping truncated record at the end of ", current.file.toString());
+                    close(current);
+                    continue;
+                }
+                if (originalPacing) {
+                    pace(receivedAt);
+                }
+                setRecord((length + "\n").getBytes("ISO-8859-1"), length);
+                return true;
+            }
+        }
+
+        private void setRecord(byte[] framing, long length) {
+            pending = framing;
+            pendingPosition = 0;
+            recordRemaining = length;
+        }
+
+        private void pace(long receivedAt) throws IOException {
+            if (-1 == firstReceivedAt) {
+                firstReceivedAt = receivedAt;
+                startNanos = System.nanoTime();
+                return;
+            }
+            long waitNanos = (receivedAt - firstReceivedAt) * 1000000 - (System.nanoTime() - startNanos);
+            if (0 < waitNanos) {
+                try {
+                    Thread.sleep(waitNanos / 1000000, (int) (waitNanos % 1000000));
+                } catch (InterruptedException ie) {
+                    throw new IOException("Interrupted while pacing the replay.");
+                }
+            }
+        }
+
+        private void close(MappedFile file) throws IOException {
+            current = null;
+            file.close();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (null != current) {
+                close(current);
+            }
+            fileIndex = files.length;
+        }
+    }
+
+    /**
+     * Reads a file through a window mapped into memory, which is moved as the file is read.
+     */
+    private static final class MappedFile {
+        final File file;
+        private final RandomAccessFile raf;
+        private final FileChannel channel;
+        private final long size;
+        private final int windowSize;
+        private long windowStart = 0;
+        private MappedByteBuffer window = null;
+
+        MappedFile(File file, int windowSize) throws IOException {
+            this.file = file;
+            this.raf = new RandomAccessFile(file, "r");
+            this.channel = raf.getChannel();
+            this.size = channel.size();
+            this.windowSize = windowSize;
+        }
+
+        long remaining() {
+            return size - windowStart - (null == window ? 0 : window.position());
+        }
+
+        private void ensureMapped() throws IOException {
+            if (null == window || !window.hasRemaining()) {
+                if (null != window) {
+                    windowStart += window.limit();
+                }
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, size - windowStart));
+            }
+        }
+
+        int read(byte[] b, int off, int len) throws IOException {
+            ensureMapped();
+            int count = Math.min(len, window.remaining());
+            window.get(b, off, count);
+            return count;
+        }
+
+        /**
+         * Reads a big-endian number byte by byte, as it may span two windows.
+         */
+        long readNumber(int bytes) throws IOException {
+            long value = 0;
+            for (int i = 0; i < bytes; i++) {
+                ensureMapped();
+                value = (value << 8) | (window.get() & 0xff);
+            }
+            return 4 == bytes ? (int) value : value;
+        }
+
+        void close() throws IOException {
+            window = null;
+            raf.close();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+/**
+ * Extracts the id of the user an event belongs to from a raw stream line, without parsing it into a JSONObject.<br>
+ * Only object members are followed (arrays are skipped), so nested users such as retweeted_status.user or
+ * target_object.user are never picked up.
+ *
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+final class StreamRoutingKey {
+    private StreamRoutingKey() {
+        throw new AssertionError();
+    }
+
+    private static final int MAX_DEPTH = 3;
+
+    // member paths carrying the user id. the first one appearing in the line wins
+    private static final String[][] PATHS = {
+            {"user", "id"}, // status
+            {"source", "id"}, // user stream events
+            {"delete", "status", "user_id"},
+            {"direct_message", "sender_id"},
+            {"scrub_geo", "user_id"},
+    };
+
+    /**
+     * @param line raw JSON line
+     * @return routing key, or -1 if the line doesn't carry any known user id
+     */
+    static long extract(CharSequence line) {
+        int[] keyStart = new int[MAX_DEPTH + 1];
+        int[] keyEnd = new int[MAX_DEPTH + 1];
+        int depth = 0;
+        int arrays = 0;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            switch (c) {
+                case '{':
+                    depth++;
+                    break;
+                case '}':
+                    depth--;
+                    break;
+                case '[':
+                    arrays++;
+                    break;
+                case ']':
+                    arrays--;
+                    break;
+                case '"':
+                    int start = i + 1;
+                    i = skipString(line, start);
+                    if (0 != arrays || depth < 1 || depth > MAX_DEPTH) {
+                        break;
+                    }
+                    int colon = skipWhitespace(line, i + 1);
+                    if (colon < length && line.charAt(colon) == ':') {
+                        // this is a member name
+                        keyStart[depth] = start;
+                        keyEnd[depth] = i;
+                        int value = skipWhitespace(line, colon + 1);
+                        if (value < length && isDigit(line.charAt(value))) {
+                            long id = matchAndParse(line, depth, keyStart, keyEnd, value);
+                            if (-1 != id) {
+                                return id;
+                            }
+                        }
+                        i = colon;
+                    }
+                    break;
+                default:
+            }
+        }
+        return -1;
+    }
+
+    private static long matchAndParse(CharSequence line, int depth, int[] keyStart, int[] keyEnd, int value) {
+        for (String[] path : PATHS) {
+            if (path.length != depth) {
+                continue;
+            }
+            boolean matched = true;
+            for (int level = 1; level <= depth && matched; level++) {
+                String name = path[level - 1];
+                matched = name.length() == keyEnd[level] - keyStart[level]
+                        && regionMatches(line, keyStart[level], name);
+            }
+            if (matched) {
+                long id = 0;
+                for (int i = value; i < line.length() && isDigit(line.charAt(i)); i++) {
+                    id = id * 10 + (line.charAt(i) - '0');
+                }
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence line, int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (line.charAt(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipString(CharSequence line, int index) {
+        for (int i = index; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        return line.length();
+    }
+
+    private static int skipWhitespace(CharSequence line, int index) {
+        while (index < line.length() && line.charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDigit(char c) {
+        return '0' <= c && c <= '9';
+    }
+}
@@ -42,6 +42,15 @@ public interface TwitterStream extends OAuthSupport, TwitterBase {
      */
     void addListener(StatusListener listener);
 
+    /**
+     * Adds a listener receiving the undecoded messages of sample, filter, firehose, links and retweet streams.
+     *
+     * @param listener listener to add
+     * @see SegmentFileAppender
+     * @since Twitter4J 2.2.1
+     */
+    void addListener(RawStreamListener listener);
+
     /**
      * @param listener listener to add
      * @since Twitter4J 2.1.8
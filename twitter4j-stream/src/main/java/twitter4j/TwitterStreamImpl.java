@@ -316,8 +316,8 @@ class TwitterStreamImpl extends TwitterBaseImpl implements TwitterStream {
 
     private void ensureStatusStreamListenerIsSet() {
         for (StreamListener listener : streamListeners) {
-            if (!(listener instanceof StatusListener)) {
-                throw new IllegalStateException("Only StatusListener is supported. found: " + listener.getClass());
+            if (!(listener instanceof StatusListener || listener instanceof RawStreamListener)) {
+                throw new IllegalStateException("Only StatusListener and RawStreamListener are supported. found: " + listener.getClass());
             }
         }
     }
@@ -381,6 +381,13 @@ class TwitterStreamImpl extends TwitterBaseImpl implements TwitterStream {
         addListener((StreamListener) listener);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void addListener(RawStreamListener listener) {
+        addListener((StreamListener) listener);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -646,6 +653,10 @@ class StreamingReadTimeoutConfiguration implements HttpClientWrapperConfiguratio
         return nestedConf.getHttpRetryIntervalSeconds();
     }
 
+    public String getHttpRetryPolicyImpl() {
+        return nestedConf.getHttpRetryPolicyImpl();
+    }
+
     public int getHttpMaxTotalConnections() {
         return nestedConf.getHttpMaxTotalConnections();
     }
@@ -654,10 +665,50 @@ class StreamingReadTimeoutConfiguration implements HttpClientWrapperConfiguratio
         return nestedConf.getHttpDefaultMaxPerRoute();
     }
 
+    public boolean isHttpConnectionPoolEnabled() {
+        // streaming connections are long-lived and never returned to the pool
+        return false;
+    }
+
+    public int getHttpConnectionPoolIdleTimeout() {
+        return nestedConf.getHttpConnectionPoolIdleTimeout();
+    }
+
+    public boolean isHttpNIOEnabled() {
+        return nestedConf.isHttpNIOEnabled();
+    }
+
+    public int getHttpNIOThreadCount() {
+        return nestedConf.getHttpNIOThreadCount();
+    }
+
     public Map<String, String> getRequestHeaders() {
         return nestedConf.getRequestHeaders();
     }
 
+    public boolean isHttpRateLimitPacingEnabled() {
+        // streaming endpoints are not subject to the REST API rate limits
+        return false;
+    }
+
+    public boolean isHttpCacheEnabled() {
+        // streams are never cached
+        return false;
+    }
+
+    public int getHttpCacheMaxEntries() {
+        return nestedConf.getHttpCacheMaxEntries();
+    }
+
+    public String getHttpCacheStorageImpl() {
+        return nestedConf.getHttpCacheStorageImpl();
+    }
+
+    public boolean isHttpMetricsEnabled() {
+        // streams never complete
+        return false;
+    }
+
     public boolean isPrettyDebugEnabled() {
         return nestedConf.isPrettyDebugEnabled();
     }
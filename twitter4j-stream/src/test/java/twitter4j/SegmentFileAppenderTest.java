@@ -0,0 +1,177 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.internal.async.DispatcherFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class SegmentFileAppenderTest extends TestCase {
+    public SegmentFileAppenderTest(String name) {
+        super(name);
+    }
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = File.createTempFile("twitter4j", "segments");
+        directory.delete();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    private static List<String> readRecords(File segment) throws IOException {
+        List<String> records = new ArrayList<String>();
+        DataInputStream dis = new DataInputStream(new FileInputStream(segment));
+        try {
+            while (true) {
+                int length;
+                try {
+                    length = dis.readInt();
+                } catch (EOFException eof) {
+                    return records;
+                }
+                assertTrue(0 < dis.readLong());
+                byte[] message = new byte[length];
+                dis.readFully(message);
+                records.add(new String(message, "UTF-8"));
+            }
+        } finally {
+            dis.close();
+        }
+    }
+
+    private static void append(SegmentFileAppender appender, String message) throws IOException {
+        // surround with garbage to make sure the offset is honored
+        byte[] bytes = ("xx" + message + "yy").getBytes("UTF-8");
+        appender.onMessage(bytes, 2, bytes.length - 4);
+    }
+
+    public void testSegmentsAreRotated() throws Exception {
+        SegmentFileAppender appender = new SegmentFileAppender(directory, "sample", 100, 2, 60000);
+        assertNull(appender.getCurrentSegment());
+        List<String> messages = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            // 12 bytes header + 28 bytes message, 2 records per segment
+            messages.add("{\"id\":" + i + ",\"text\":\"あいうえ\"}");
+            append(appender, messages.get(i));
+        }
+        assertEquals("sample-0000000003.seg", appender.getCurrentSegment().getName());
+        appender.close();
+
+        File[] segments = SegmentFileAppender.listSegments(directory, "sample");
+        assertEquals(3, segments.length);
+        List<String> records = new ArrayList<String>();
+        for (File segment : segments) {
+            assertTrue(segment.length() <= 100);
+            records.addAll(readRecords(segment));
+        }
+        assertEquals(messages, records);
+
+        // a message larger than the segment size gets a segment of its own
+        appender = new SegmentFileAppender(directory, "sample", 100, 2, 60000);
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            large.append('a');
+        }
+        append(appender, large.toString());
+        append(appender, "{}");
+        appender.close();
+        segments = SegmentFileAppender.listSegments(directory, "sample");
+        assertEquals(5, segments.length);
+        assertEquals("sample-0000000004.seg", segments[3].getName());
+        assertEquals(large.toString(), readRecords(segments[3]).get(0));
+        assertEquals("{}", readRecords(segments[4]).get(0));
+        try {
+            append(appender, "{}");
+            fail("expecting IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testFlush() throws Exception {
+        SegmentFileAppender appender = new SegmentFileAppender(directory, "filter", 1024 * 1024, 1000, 60000);
+        append(appender, "{\"delete\":{}}");
+        assertEquals(0, appender.getCurrentSegment().length());
+        appender.flush();
+        assertEquals(1, readRecords(appender.getCurrentSegment()).size());
+        appender.close();
+    }
+
+    public void testArchivesRawStream() throws Exception {
+        String status = "{\"text\":\"hello あ\",\"id\":1,\"created_at\":\"Sat Nov 06 02:08:01 +0000 2010\"}";
+        String delete = "{\"delete\":{\"status\":{\"id\":1,\"user_id\":2}}}";
+        byte[] stream = (status + "\r\n\r\n" + delete + "\r\n").getBytes("UTF-8");
+        StatusStreamImpl statusStream = new StatusStreamImpl(new DispatcherFactory().getInstance()
+                , new ByteArrayInputStream(stream), new ConfigurationBuilder().build());
+        SegmentFileAppender appender = new SegmentFileAppender(directory, "sample");
+        final CountDownLatch latch = new CountDownLatch(2);
+        StatusListener listener = new StatusAdapter() {
+            @Override
+            public void onStatus(Status status) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+                latch.countDown();
+            }
+        };
+        StreamListener[] listeners = new StreamListener[]{appender, listener};
+        for (int i = 0; i < 3; i++) {
+            statusStream.next(listeners);
+        }
+        try {
+            statusStream.next(listeners);
+            fail("expecting TwitterException");
+        } catch (TwitterException expected) {
+        }
+        appender.close();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        List<String> records = readRecords(SegmentFileAppender.listSegments(directory, "sample")[0]);
+        assertEquals(2, records.size());
+        assertEquals(status, records.get(0));
+        assertEquals(delete, records.get(1));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.Configuration;
+import twitter4j.conf.ConfigurationBuilder;
+import twitter4j.internal.async.DispatcherFactory;
+import twitter4j.json.DataObjectFactory;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class StatusStreamImplTest extends TestCase {
+    public StatusStreamImplTest(String name) {
+        super(name);
+    }
+
+    private static final String STATUS = "{\"text\":\"hello \\u3042\",\"id\":1,\"created_at\":\"Sat Nov 06 02:08:01 +0000 2010\""
+            + ",\"user\":{\"id\":2,\"screen_name\":\"twit4j\"},\"retweet_count\":3}";
+
+    private final List<Status> statuses = Collections.synchronizedList(new ArrayList<Status>());
+    private final List<Exception> exceptions = Collections.synchronizedList(new ArrayList<Exception>());
+
+    private void stream(String messages, int count, Configuration conf) throws Exception {
+        StatusStreamImpl statusStream = new StatusStreamImpl(new DispatcherFactory().getInstance()
+                , new ByteArrayInputStream(messages.getBytes("UTF-8")), conf);
+        final CountDownLatch latch = new CountDownLatch(count);
+        StatusListener listener = new StatusAdapter() {
+            @Override
+            public void onStatus(Status status) {
+                statuses.add(status);
+                latch.countDown();
+            }
+
+            @Override
+            public void onException(Exception ex) {
+                exceptions.add(ex);
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < count; i++) {
+            statusStream.next(new StreamListener[]{listener});
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testStatusIsReadFromTheMessage() throws Exception {
+        stream(STATUS + "\r\n", 1, new ConfigurationBuilder().build());
+        assertEquals(1, statuses.size());
+        Status status = statuses.get(0);
+        assertEquals(1, status.getId());
+        assertEquals("hello \u3042", status.getText());
+        assertEquals(3, status.getRetweetCount());
+        assertEquals("twit4j", status.getUser().getScreenName());
+    }
+
+    public void testMalformedMessageIsReported() throws Exception {
+        stream("{\"text\":\"hello\",\"id\":}\r\n" + STATUS + "\r\n", 2, new ConfigurationBuilder().build());
+        assertEquals(1, exceptions.size());
+        assertEquals(1, statuses.size());
+    }
+
+    public void testStoredStatusKeepsItsJSON() throws Exception {
+        stream(STATUS + "\r\n", 1, new ConfigurationBuilder().setJSONStoreEnabled(true).setJSONCaptureEnabled(true).build());
+        assertEquals(1, statuses.size());
+        assertEquals(STATUS, DataObjectFactory.getRawJSON(statuses.get(0)));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class StreamLineReaderTest extends TestCase {
+    public StreamLineReaderTest(String name) {
+        super(name);
+    }
+
+    public void testNewlineDelimited() throws Exception {
+        StreamLineReader reader = new StreamLineReader(chunked("{\"text\":\"あいう\"}\r\n\r\n{\"delete\":{}}\n{\"limit\":{}}", 3), 4);
+        assertEquals("{\"text\":\"あいう\"}", reader.readLine());
+        // keep-alive
+        assertEquals("", reader.readLine());
+        assertEquals("{\"delete\":{}}", reader.readLine());
+        assertEquals("{\"limit\":{}}", reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    public void testLengthDelimited() throws Exception {
+        String first = "{\"text\":\"line\\nbreak あ\"}\r\n";
+        String second = "{\"delete\":{}}\r\n";
+        StreamLineReader reader = new StreamLineReader(chunked(first.getBytes("UTF-8").length + "\r\n" + first
+                + "\r\n" + second.getBytes("UTF-8").length + "\r\n" + second, 5), 4);
+        assertEquals("{\"text\":\"line\\nbreak あ\"}", reader.readLine());
+        assertEquals("", reader.readLine());
+        assertTrue(reader.next());
+        assertEquals("{\"delete\":{}}", new String(reader.getBuffer(), reader.getOffset(), reader.getLength(), "UTF-8"));
+        assertFalse(reader.next());
+    }
+
+    private static InputStream chunked(String str, final int chunkSize) throws IOException {
+        return new ByteArrayInputStream(str.getBytes("UTF-8")) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, chunkSize));
+            }
+        };
+    }
+}
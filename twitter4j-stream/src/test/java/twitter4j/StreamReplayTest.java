@@ -0,0 +1,165 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+import twitter4j.conf.ConfigurationContext;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class StreamReplayTest extends TestCase {
+    public StreamReplayTest(String name) {
+        super(name);
+    }
+
+    private File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = File.createTempFile("twitter4j", "replay");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    private static String status(long id, String text) {
+        return "{\"id\":" + id + ",\"text\":\"" + text + "\",\"created_at\":\"Sat Nov 06 02:08:01 +0000 2010\""
+                + ",\"user\":{\"id\":1,\"screen_name\":\"twit4j\"}}";
+    }
+
+    private static final String DELETE = "{\"delete\":{\"status\":{\"id\":1,\"user_id\":2}}}";
+
+    private static class RecordingListener extends StatusAdapter {
+        final List<String> received = new ArrayList<String>();
+
+        @Override
+        public void onStatus(Status status) {
+            received.add(status.getText());
+        }
+
+        @Override
+        public void onDeletionNotice(StatusDeletionNotice statusDeletionNotice) {
+            received.add("delete:" + statusDeletionNotice.getStatusId());
+        }
+    }
+
+    public void testReplaySegments() throws Exception {
+        SegmentFileAppender appender = new SegmentFileAppender(directory, "sample", 200, 1000, 60000);
+        String[] messages = new String[]{status(1, "first あ"), DELETE, status(2, "second"), status(3, "third")};
+        for (String message : messages) {
+            byte[] bytes = message.getBytes("UTF-8");
+            appender.onMessage(bytes, 0, bytes.length);
+        }
+        appender.close();
+        assertEquals(3, SegmentFileAppender.listSegments(directory, "sample").length);
+
+        // a small window makes records span windows
+        StreamReplay replay = new StreamReplay(ConfigurationContext.getInstance()
+                , SegmentFileAppender.listSegments(directory, "sample"), 16);
+        RecordingListener listener = new RecordingListener();
+        assertEquals(4, replay.replay(listener));
+        assertEquals("[first あ, delete:1, second, third]", listener.received.toString());
+        assertEquals(4, replay.getMessageCount());
+        assertTrue(0 < replay.getMessagesPerSecond());
+
+        listener = new RecordingListener();
+        assertEquals(4, new StreamReplay(directory, "sample").replay(listener));
+        assertEquals(4, listener.received.size());
+    }
+
+    public void testOriginalPacingAndTruncatedRecord() throws Exception {
+        File segment = new File(directory, "filter-0000000001.seg");
+        DataOutputStream dos = new DataOutputStream(new FileOutputStream(segment));
+        long receivedAt = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            byte[] bytes = status(i, "status" + i).getBytes("UTF-8");
+            dos.writeInt(bytes.length);
+            dos.writeLong(receivedAt + i * 150);
+            dos.write(bytes);
+        }
+        // crashed while writing the next record
+        dos.writeInt(100);
+        dos.writeLong(receivedAt + 450);
+        dos.write("{\"id\"".getBytes("UTF-8"));
+        dos.close();
+
+        StreamReplay replay = new StreamReplay(segment);
+        RecordingListener listener = new RecordingListener();
+        assertEquals(3, replay.replay(listener));
+        assertEquals("[status0, status1, status2]", listener.received.toString());
+
+        replay.setOriginalPacing(true);
+        listener = new RecordingListener();
+        assertEquals(3, replay.replay(listener));
+        assertEquals(3, listener.received.size());
+        assertTrue(replay.getElapsedTime() >= 280);
+    }
+
+    public void testReplayLineFileToUserStreamListener() throws Exception {
+        File lines = new File(directory, "user.json");
+        FileOutputStream fos = new FileOutputStream(lines);
+        fos.write(("{\"event\":\"favorite\",\"source\":{\"id\":1,\"screen_name\":\"source\"}"
+                + ",\"target\":{\"id\":2,\"screen_name\":\"target\"},\"target_object\":" + status(3, "faved") + "}\r\n"
+                + "\r\n"
+                // no line terminator at the end of the file
+                + status(4, "tweeted")).getBytes("UTF-8"));
+        fos.close();
+        final List<String> received = new ArrayList<String>();
+        StreamReplay replay = new StreamReplay(lines, lines);
+        replay.replay(new UserStreamAdapter() {
+            @Override
+            public void onFavorite(User source, User target, Status favoritedStatus) {
+                received.add(source.getScreenName() + " faved " + favoritedStatus.getText());
+            }
+
+            @Override
+            public void onStatus(Status status) {
+                received.add(status.getText());
+            }
+        });
+        assertEquals("[source faved faved, tweeted, source faved faved, tweeted]", received.toString());
+    }
+
+    public void testMissingFile() throws Exception {
+        try {
+            new StreamReplay(new File(directory, "missing.seg")).replay(new RecordingListener());
+            fail("expecting IOException");
+        } catch (IOException expected) {
+        }
+    }
+}
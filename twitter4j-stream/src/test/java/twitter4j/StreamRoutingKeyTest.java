@@ -0,0 +1,47 @@
+/*
+ * Copyright 2007 Yusuke Yamamoto
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package twitter4j;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Yusuke Yamamoto - yusuke at mac.com
+ * @since Twitter4J 2.2.1
+ */
+public class StreamRoutingKeyTest extends TestCase {
+    public StreamRoutingKeyTest(String name) {
+        super(name);
+    }
+
+    public void testStatus() throws Exception {
+        assertEquals(87018638, StreamRoutingKey.extract("{\"text\":\"aaa\",\"source\":\"web\",\"geo\":null,"
+                + "\"user\":{\"screen_name\":\"_Sabrinaa_\",\"id\":87018638,\"utc_offset\":-10800},\"id\":6832063504}"));
+        // retweeted_status.user and entities must not be taken for the author
+        assertEquals(14481043, StreamRoutingKey.extract("{\"retweeted_status\":{\"user\":{\"id\":1}},"
+                + "\"entities\":{\"user_mentions\":[{\"id\":2}]},\"contributors\":[{\"id\":3}],"
+                + "\"text\":\"\\\"user\\\":{\\\"id\\\":4}\",\"user\" : { \"id\" : 14481043 }}"));
+    }
+
+    public void testEvents() throws Exception {
+        assertEquals(18378841, StreamRoutingKey.extract("{\"delete\":{\"status\":{\"id\":6832057002,\"user_id\":18378841}}}"));
+        assertEquals(14090452, StreamRoutingKey.extract("{\"scrub_geo\":{\"user_id\":14090452,\"up_to_status_id\":23260136625}}"));
+        assertEquals(6358482, StreamRoutingKey.extract("{\"target\":{\"id\":1},\"target_object\":{\"user\":{\"id\":2}},"
+                + "\"event\":\"favorite\",\"source\":{\"id\":6358482}}"));
+        assertEquals(-1, StreamRoutingKey.extract("{\"limit\":{\"track\":1234}}"));
+        assertEquals(-1, StreamRoutingKey.extract("{\"friends\":[6377362,4933401]}"));
+    }
+}